@@ -0,0 +1,82 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.simulator.EmployeeDatasets;
+import com.example.rqchallenge.stream.EmployeeListStreamReader;
+import com.example.rqchallenge.stream.MaxSalaryVisitor;
+import com.example.rqchallenge.stream.TopEarnersVisitor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Cost of reading the upstream employee list payload, using the upstream field names,
+ * either bound to objects or streamed through a visitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class EmployeeDeserializationBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] employeeListPayload;
+    private byte[] employeePayload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Map<String, Object>> data = EmployeeDatasets.generate(size).stream()
+                .map(EmployeeDeserializationBenchmark::toUpstreamJson)
+                .collect(Collectors.toList());
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", "success");
+        body.put("data", data);
+        body.put("message", "Successfully! All records has been fetched.");
+        employeeListPayload = objectMapper.writeValueAsBytes(body);
+        employeePayload = objectMapper.writeValueAsBytes(data.get(0));
+    }
+
+    @Benchmark
+    public EmployeesResponseData readEmployeeList() throws IOException {
+        return objectMapper.readValue(employeeListPayload, EmployeesResponseData.class);
+    }
+
+    @Benchmark
+    public Integer streamHighestSalary() throws IOException {
+        return EmployeeListStreamReader.read(new ByteArrayInputStream(employeeListPayload), new MaxSalaryVisitor());
+    }
+
+    @Benchmark
+    public List<String> streamTopTenNames() throws IOException {
+        return EmployeeListStreamReader.read(new ByteArrayInputStream(employeeListPayload), new TopEarnersVisitor(10));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Employee readEmployee() throws IOException {
+        return objectMapper.readValue(employeePayload, Employee.class);
+    }
+
+    private static Map<String, Object> toUpstreamJson(Employee employee) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", employee.getId());
+        json.put("employee_name", employee.getName());
+        json.put("employee_salary", employee.getSalary());
+        json.put("employee_age", employee.getAge());
+        json.put("profile_image", employee.getProfileImage());
+        return json;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.simulator.EmployeeDatasets;
+import com.example.rqchallenge.store.EmployeeStoreFootprint;
+
+/**
+ * Prints the estimated heap footprint of the benchmark datasets held as {@code List<Employee>} and as a column store.
+ * Run with {@code ./gradlew footprintReport}.
+ */
+public class EmployeeFootprintReport {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{1_000, 100_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        for (int size : sizes) {
+            System.out.println(EmployeeStoreFootprint.of(EmployeeDatasets.generate(size)));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.EmployeeSnapshotFile;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.SalaryStats;
+import com.example.rqchallenge.service.EmployeeServiceImpl;
+import com.example.rqchallenge.service.ValidatorService;
+import com.example.rqchallenge.simulator.EmployeeDatasets;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read paths of {@link EmployeeServiceImpl} served from a warm snapshot of a stubbed upstream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx16g"})
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    /**
+     * Two characters falls back to a scan, longer strings go through the trigram index.
+     */
+    @Param({"er", "Winters"})
+    public String searchString;
+
+    /**
+     * Snapshot held as Employee objects with indexes, or in the column store.
+     */
+    @Param({"objects", "columnar"})
+    public String storage;
+
+    private EmployeeServiceImpl employeeService;
+    private EmployeeSnapshotCache employeeSnapshotCache;
+    private ForkJoinPool salaryAggregationPool;
+    private String misspeltSearchString;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        StubExternalEmployeeApiClient client = new StubExternalEmployeeApiClient(EmployeeDatasets.generate(size));
+        employeeSnapshotCache = new EmployeeSnapshotCache(client, new EmployeeSnapshotFile(false, ""), Long.MAX_VALUE, 0, storage, 300000, 64);
+        salaryAggregationPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        employeeService = new EmployeeServiceImpl(client, employeeSnapshotCache, new ValidatorService(), "snapshot", 8, 5000,
+                salaryAggregationPool, 1000);
+        employeeSnapshotCache.getSnapshot();
+        char[] swapped = searchString.toCharArray();
+        int swapAt = swapped.length - 3;
+        if (swapAt >= 0) {
+            char swappedChar = swapped[swapAt];
+            swapped[swapAt] = swapped[swapAt + 1];
+            swapped[swapAt + 1] = swappedChar;
+        }
+        misspeltSearchString = new String(swapped);
+        employeeService.getEmployeesByFuzzyNameSearch(misspeltSearchString, 10);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        employeeSnapshotCache.shutdown();
+        salaryAggregationPool.shutdown();
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByNameSearch() {
+        return employeeService.getEmployeesByNameSearch(searchString);
+    }
+
+    /**
+     * searchString with two letters swapped, so the fuzzy search has to widen past exact and prefix matches;
+     * the fuzzy index is built in setUp
+     */
+    @Benchmark
+    public List<Employee> getEmployeesByFuzzyNameSearch() {
+        return employeeService.getEmployeesByFuzzyNameSearch(misspeltSearchString, 10);
+    }
+
+    @Benchmark
+    public Integer getHighestSalaryOfEmployees() {
+        return employeeService.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public List<String> getTopTenHighestEarningEmployeeNames() {
+        return employeeService.getTopTenHighestEarningEmployeeNames();
+    }
+
+    @Benchmark
+    public SalaryStats getSalaryStats() {
+        return employeeService.getSalaryStats(10);
+    }
+
+    @Benchmark
+    public List<Employee> getTopEarningEmployees() {
+        return employeeService.getTopEarningEmployees(100);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeResponseData;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.service.IExternalEmployeeAPIClient;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory employee API so benchmarks measure the service and not the network.
+ */
+class StubExternalEmployeeApiClient implements IExternalEmployeeAPIClient {
+    private final List<Employee> employees;
+    private final Map<Long, Employee> employeesById = new ConcurrentHashMap<>();
+    private final AtomicLong nextId;
+
+    /**
+     * @param employees initial employees; creates and deletes copy the list, so benchmarks reading it stay cheap
+     */
+    StubExternalEmployeeApiClient(List<Employee> employees) {
+        this.employees = new CopyOnWriteArrayList<>(employees);
+        employees.forEach(employee -> employeesById.put(employee.getId(), employee));
+        this.nextId = new AtomicLong(employees.stream().mapToLong(Employee::getId).max().orElse(0) + 1);
+    }
+
+    @Override
+    public ResponseEntity<EmployeesResponseData> getAllEmployees() {
+        EmployeesResponseData body = new EmployeesResponseData();
+        body.setStatus("success");
+        body.setData(employees);
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<EmployeesResponseData> getAllEmployees(HttpHeaders conditionalHeaders) {
+        return getAllEmployees();
+    }
+
+    @Override
+    public <R> R streamAllEmployees(IEmployeeVisitor<R> visitor) {
+        employees.forEach(visitor::visit);
+        return visitor.getResult();
+    }
+
+    @Override
+    public ResponseEntity<EmployeeResponseData> getEmployeeById(String id) {
+        EmployeeResponseData body = new EmployeeResponseData();
+        body.setStatus("success");
+        body.setData(parseId(id).map(employeesById::get).orElse(null));
+        body.setMessage("Successfully! Record has been fetched.");
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> getEmployeeByIdAsync(String id) {
+        return CompletableFuture.completedFuture(getEmployeeById(id));
+    }
+
+    @Override
+    public ResponseEntity<EmployeeResponseData> createEmployee(Map<String, Object> employeeInput) {
+        Employee employee = new Employee(nextId.getAndIncrement(), String.valueOf(employeeInput.get("name")),
+                toInteger(employeeInput.get("salary")), toInteger(employeeInput.get("age")), "");
+        employeesById.put(employee.getId(), employee);
+        employees.add(employee);
+        EmployeeResponseData body = new EmployeeResponseData();
+        body.setStatus("success");
+        body.setData(employee);
+        body.setMessage("Successfully! Record has been added.");
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @Override
+    public ResponseEntity<BaseResponse> deleteEmployeeById(String id) {
+        parseId(id).map(employeesById::remove).ifPresent(employees::remove);
+        BaseResponse body = new BaseResponse();
+        body.setStatus("success");
+        body.setMessage("Successfully! Record has been deleted");
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> createEmployeeAsync(Map<String, Object> employeeInput) {
+        return CompletableFuture.completedFuture(createEmployee(employeeInput));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<BaseResponse>> deleteEmployeeByIdAsync(String id) {
+        return CompletableFuture.completedFuture(deleteEmployeeById(id));
+    }
+
+    private static Optional<Long> parseId(String id) {
+        try {
+            return Optional.of(Long.valueOf(id));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static Integer toInteger(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+}
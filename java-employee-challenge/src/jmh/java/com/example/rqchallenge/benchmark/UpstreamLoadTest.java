@@ -0,0 +1,189 @@
+package com.example.rqchallenge.benchmark;
+
+import com.example.rqchallenge.RqChallengeApplication;
+import com.example.rqchallenge.commonutils.UpstreamTransportCounters;
+import com.example.rqchallenge.simulator.UpstreamSimulator;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.core.env.PropertySourcesPropertyResolver;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application against an {@link UpstreamSimulator} and drives its endpoints with a closed loop of
+ * concurrent clients, then prints throughput, latency percentiles and response statuses, and how many connections and
+ * bytes on the wire the upstream calls took, as counted by the simulator and by the application's transports.
+ * Run with {@code ./gradlew loadTest --args='--simulator.throttle-rate=0.05 --load.duration-seconds=30'}.
+ * {@code simulator.*} arguments configure the upstream, {@code load.*} arguments the load:
+ * concurrency (default 16), warmup-seconds (5), duration-seconds (20) and paths, a comma separated list of
+ * path:weight where {id} is replaced by a random employee id (default /{id}:6,/:1,/highestSalary:2,/topTenHighestEarningEmployeeNames:1).
+ * Every other argument is passed on to the application, e.g. {@code --employee.controller.mode=async} or
+ * {@code --upstream.compression.enabled=false}.
+ */
+public class UpstreamLoadTest {
+    private static final String DEFAULT_PATHS = "/{id}:6,/:1,/highestSalary:2,/topTenHighestEarningEmployeeNames:1";
+
+    public static void main(String[] args) throws Exception {
+        MutablePropertySources propertySources = new MutablePropertySources();
+        propertySources.addFirst(new SimpleCommandLinePropertySource(args));
+        PropertyResolver options = new PropertySourcesPropertyResolver(propertySources);
+        UpstreamSimulator.Settings settings = UpstreamSimulator.Settings.from(options);
+        int concurrency = options.getProperty("load.concurrency", Integer.class, 16);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(options.getProperty("load.warmup-seconds", Long.class, 5L));
+        long durationNanos = TimeUnit.SECONDS.toNanos(options.getProperty("load.duration-seconds", Long.class, 20L));
+        List<String> paths = weightedPaths(options.getProperty("load.paths", DEFAULT_PATHS));
+
+        try (UpstreamSimulator simulator = new UpstreamSimulator(settings)) {
+            List<String> applicationArgs = new ArrayList<>();
+            Arrays.stream(args).filter(arg -> !arg.startsWith("--simulator.") && !arg.startsWith("--load.")).forEach(applicationArgs::add);
+            applicationArgs.add("--upstream.base-url=" + simulator.getBaseUrl());
+            applicationArgs.add("--server.port=0");
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(RqChallengeApplication.class)
+                    .run(applicationArgs.toArray(new String[0]));
+            try {
+                String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+                System.out.printf("Upstream: %s%n", settings);
+                System.out.printf("Load: %d clients, %d s warmup, %d s measured%n", concurrency,
+                        TimeUnit.NANOSECONDS.toSeconds(warmupNanos), TimeUnit.NANOSECONDS.toSeconds(durationNanos));
+                report(run(baseUrl, paths, settings.getDatasetSize(), concurrency, warmupNanos, durationNanos), durationNanos, simulator);
+                reportTransport(simulator, context);
+            } finally {
+                SpringApplication.exit(context);
+            }
+        }
+    }
+
+    private static List<ClientResult> run(String baseUrl, List<String> paths, int datasetSize, int concurrency,
+                                          long warmupNanos, long durationNanos) throws Exception {
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long measureFrom = System.nanoTime() + warmupNanos;
+        long measureUntil = measureFrom + durationNanos;
+        try {
+            List<Future<ClientResult>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    ClientResult result = new ClientResult();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        String path = paths.get(random.nextInt(paths.size()))
+                                .replace("{id}", String.valueOf(1 + random.nextInt(Math.max(1, datasetSize))));
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .timeout(Duration.ofSeconds(60)).GET().build();
+                        String status;
+                        try {
+                            status = String.valueOf(httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+                        } catch (IOException ex) {
+                            status = ex.getClass().getSimpleName();
+                        }
+                        long end = System.nanoTime();
+                        if (now >= measureFrom && end <= measureUntil) {
+                            result.record(end - now, status);
+                        }
+                    }
+                    return result;
+                }));
+            }
+            List<ClientResult> results = new ArrayList<>(concurrency);
+            for (Future<ClientResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private static void report(List<ClientResult> results, long durationNanos, UpstreamSimulator simulator) {
+        long[] latencies = results.stream().flatMapToLong(result -> Arrays.stream(result.latencies, 0, result.size)).sorted().toArray();
+        Map<String, Long> statuses = new TreeMap<>();
+        results.forEach(result -> result.statuses.forEach((status, count) -> statuses.merge(status, count, Long::sum)));
+        System.out.printf("Requests: %d, throughput %.1f req/s%n", latencies.length,
+                latencies.length / (durationNanos / (double) TimeUnit.SECONDS.toNanos(1)));
+        if (latencies.length > 0) {
+            System.out.printf("Latency ms: p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    millis(percentile(latencies, 500)), millis(percentile(latencies, 900)),
+                    millis(percentile(latencies, 990)), millis(percentile(latencies, 999)), millis(latencies[latencies.length - 1]));
+        }
+        System.out.printf("Statuses: %s%n", statuses);
+        System.out.printf("Upstream: %d requests, %d throttled, %d failed, %d not modified%n", simulator.getRequestCount(),
+                simulator.getThrottledCount(), simulator.getFailedCount(), simulator.getNotModifiedCount());
+    }
+
+    /**
+     * Prints connection reuse and compression of the upstream calls over the whole run, warmup included
+     */
+    private static void reportTransport(UpstreamSimulator simulator, ConfigurableApplicationContext context) {
+        long requests = simulator.getRequestCount();
+        System.out.printf("Upstream connections: %d for %d requests, %.1f%% of requests on reused connections%n",
+                simulator.getConnectionCount(), requests,
+                requests == 0 ? 0 : 100.0 * (requests - Math.min(requests, simulator.getConnectionCount())) / requests);
+        System.out.printf("Upstream bytes on the wire: %d for %d body bytes (%.1f%%)%n", simulator.getWireBytes(),
+                simulator.getBodyBytes(), simulator.getBodyBytes() == 0 ? 100 : 100.0 * simulator.getWireBytes() / simulator.getBodyBytes());
+        UpstreamTransportCounters blocking = context.getBean("upstreamBlockingTransportCounters", UpstreamTransportCounters.class);
+        System.out.printf("Blocking transport: %d exchanges, %d on reused connections, %d bytes received for %d decoded%n",
+                blocking.getExchangeCount(), blocking.getReusedConnectionCount(), blocking.getWireBytes(), blocking.getDecodedBytes());
+        UpstreamTransportCounters async = context.getBean("upstreamAsyncTransportCounters", UpstreamTransportCounters.class);
+        System.out.printf("Async transport: %d bytes received for %d decoded%n", async.getWireBytes(), async.getDecodedBytes());
+    }
+
+    /**
+     * @return latency at the nearest rank of perMille in sorted
+     */
+    private static long percentile(long[] sorted, int perMille) {
+        int rank = (int) (((long) perMille * sorted.length + 999) / 1000);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static List<String> weightedPaths(String spec) {
+        List<String> paths = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            String path = separator < 0 ? entry.trim() : entry.substring(0, separator).trim();
+            int weight = separator < 0 ? 1 : Integer.parseInt(entry.substring(separator + 1).trim());
+            for (int i = 0; i < weight; i++) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    private static class ClientResult {
+        private long[] latencies = new long[1024];
+        private int size;
+        private final Map<String, Long> statuses = new TreeMap<>();
+
+        void record(long latencyNanos, String status) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            statuses.merge(status, 1L, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.rqchallenge.aspects;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a JSON endpoint whose body only changes with the data version of the employee snapshot, so
+ * {@link CachedResponseAdvice} answers it from bytes serialized once per data version, with an ETag and 304s
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CachedResponse {
+    /**
+     * @return key the serialized body is cached under, unique per endpoint
+     */
+    String value();
+}
@@ -0,0 +1,83 @@
+package com.example.rqchallenge.aspects;
+
+import com.example.rqchallenge.cache.SerializedResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Writes the bodies of {@link CachedResponse} endpoints from {@link SerializedResponseCache} instead of running
+ * Jackson, answering requests that hold the current ETag with 304.
+ * As an interceptor it records the data version of the snapshot before the endpoint computes its body, so a body is
+ * never cached under a data version newer than the one it was computed from. Requests arriving before the first
+ * snapshot is loaded, and all requests when the cache is disabled, are serialized as usual.
+ * It runs after every other response body advice, since it writes the response itself.
+ */
+@ControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CachedResponseAdvice implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+    private static final String DATA_VERSION_ATTRIBUTE = CachedResponseAdvice.class.getName() + ".dataVersion";
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // the async dispatch of a request keeps the data version recorded by its initial dispatch
+        if (handler instanceof HandlerMethod && ((HandlerMethod) handler).hasMethodAnnotation(CachedResponse.class)
+                && Objects.isNull(request.getAttribute(DATA_VERSION_ATTRIBUTE))) {
+            serializedResponseCache.getDataVersion()
+                    .ifPresent(dataVersion -> request.setAttribute(DATA_VERSION_ATTRIBUTE, dataVersion));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(CachedResponse.class)
+                && AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (Objects.isNull(body) || !(request instanceof ServletServerHttpRequest)) {
+            return body;
+        }
+        Object dataVersion = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(DATA_VERSION_ATTRIBUTE);
+        if (Objects.isNull(dataVersion)) {
+            return body;
+        }
+        String key = Objects.requireNonNull(returnType.getMethodAnnotation(CachedResponse.class)).value();
+        ResponseEntity<byte[]> serialized = serializedResponseCache.respond(key, (Long) dataVersion, request.getHeaders(), body);
+        response.setStatusCode(serialized.getStatusCode());
+        response.getHeaders().putAll(serialized.getHeaders());
+        if (serialized.hasBody()) {
+            try {
+                response.getBody().write(serialized.getBody());
+            } catch (IOException ex) {
+                throw new HttpMessageNotWritableException("Failed to write cached response " + key, ex);
+            }
+        }
+        return null;
+    }
+}
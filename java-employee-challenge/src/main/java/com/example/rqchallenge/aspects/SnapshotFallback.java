@@ -0,0 +1,21 @@
+package com.example.rqchallenge.aspects;
+
+import com.example.rqchallenge.commonutils.UpstreamOperation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an endpoint answered from the employee snapshot while calls of an upstream operation are rejected,
+ * so {@link SnapshotFallbackHeaderAdvice} flags its responses as stale when they were
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnapshotFallback {
+    /**
+     * @return upstream operation whose rejected calls make the endpoint fall back to the snapshot
+     */
+    UpstreamOperation value();
+}
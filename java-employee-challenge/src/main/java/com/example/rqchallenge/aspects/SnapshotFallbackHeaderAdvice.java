@@ -0,0 +1,49 @@
+package com.example.rqchallenge.aspects;
+
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+
+/**
+ * Adds Age and Warning: 110 headers to responses of {@link SnapshotFallback} endpoints that were answered from the
+ * snapshot because the upstream call was rejected, as marked by {@link SnapshotFallbackMarker}, telling the caller
+ * how old the snapshot data it received is.
+ * It runs before {@link CachedResponseAdvice}, which writes the response itself.
+ */
+@ControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SnapshotFallbackHeaderAdvice implements ResponseBodyAdvice<Object> {
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final EmployeeSnapshotCache employeeSnapshotCache;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(SnapshotFallback.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (SnapshotFallbackMarker.isMarked(request)) {
+            employeeSnapshotCache.getSnapshotAge().ifPresent(age -> {
+                response.getHeaders().set(HttpHeaders.AGE, String.valueOf(Math.max(0, age.getSeconds())));
+                response.getHeaders().add(HttpHeaders.WARNING, STALE_WARNING);
+            });
+        }
+        return body;
+    }
+}
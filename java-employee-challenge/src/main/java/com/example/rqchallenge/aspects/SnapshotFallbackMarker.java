@@ -0,0 +1,51 @@
+package com.example.rqchallenge.aspects;
+
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Objects;
+
+/**
+ * Marks the request being served as answered from the employee snapshot because its upstream call was rejected,
+ * so {@link SnapshotFallbackHeaderAdvice} flags the response as stale.
+ * The request is captured when the marker is created, on a thread the request is bound to; the mark itself may be
+ * set later from any thread, as long as the response has not been written.
+ */
+public class SnapshotFallbackMarker {
+    static final String ATTRIBUTE = SnapshotFallbackMarker.class.getName() + ".ANSWERED_FROM_SNAPSHOT";
+
+    private final HttpServletRequest request;
+
+    private SnapshotFallbackMarker(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    /**
+     * @return marker of the request bound to the calling thread; one that marks nothing outside of a request
+     */
+    public static SnapshotFallbackMarker forCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return new SnapshotFallbackMarker(attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getRequest()
+                : null);
+    }
+
+    public void mark() {
+        if (Objects.nonNull(request)) {
+            request.setAttribute(ATTRIBUTE, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @param request
+     * @return true if the response to request was answered from the snapshot
+     */
+    static boolean isMarked(ServerHttpRequest request) {
+        return request instanceof ServletServerHttpRequest
+                && Objects.nonNull(((ServletServerHttpRequest) request).getServletRequest().getAttribute(ATTRIBUTE));
+    }
+}
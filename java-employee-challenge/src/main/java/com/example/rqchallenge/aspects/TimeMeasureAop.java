@@ -1,19 +1,113 @@
 package com.example.rqchallenge.aspects;
 
-import lombok.extern.slf4j.Slf4j;
+import com.example.rqchallenge.commonutils.Futures;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the latency of every {@link Timed} method in a Micrometer timer tagged with class, method and exception.
+ * Methods returning a {@link CompletionStage} are timed until the stage completes, tagged with the exception it
+ * completed with.
+ * Methods that hand their request over to Spring MVC's async request processing are timed until the response is
+ * complete, tagged with the exception the async dispatch handled.
+ * Percentiles and histograms are configured per timer name through management.metrics.distribution properties.
+ */
 @Component
 @Aspect
-@Slf4j
+@RequiredArgsConstructor
 public class TimeMeasureAop {
-    @Around("@annotation(com.example.rqchallenge.aspects.Timed)")
-    public Object measureExecutionTime(ProceedingJoinPoint joinPoint) throws Throwable {
-        long startTime = System.currentTimeMillis();
-        Object proceed = joinPoint.proceed();
-        log.info("{} executed in {} ms.", joinPoint.getSignature(), (System.currentTimeMillis()-startTime));
+    private static final String NO_EXCEPTION = "none";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around(value = "@annotation(timed)", argNames = "joinPoint,timed")
+    public Object measureExecutionTime(ProceedingJoinPoint joinPoint, Timed timed) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timer.Sample sample = Timer.start(Clock.SYSTEM);
+        Object proceed;
+        try {
+            proceed = joinPoint.proceed();
+        } catch (Throwable ex) {
+            stop(sample, method, timed, joinPoint, ex);
+            throw ex;
+        }
+        HttpServletRequest asyncRequest = asyncStartedRequest();
+        if (proceed instanceof CompletionStage) {
+            ((CompletionStage<?>) proceed).whenComplete((result, ex) -> stop(sample, method, timed, joinPoint, ex));
+        } else if (Objects.nonNull(asyncRequest)) {
+            asyncRequest.getAsyncContext().addListener(new AsyncListener() {
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    stop(sample, method, timed, joinPoint, (Throwable) asyncRequest.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE));
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+            });
+        } else {
+            stop(sample, method, timed, joinPoint, null);
+        }
         return proceed;
     }
-}
\ No newline at end of file
+
+    /**
+     * @return current request if the timed method has started async processing of it, otherwise null
+     */
+    private static HttpServletRequest asyncStartedRequest() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes) {
+            HttpServletRequest request = ((ServletRequestAttributes) requestAttributes).getRequest();
+            return request.isAsyncStarted() ? request : null;
+        }
+        return null;
+    }
+
+    private void stop(Timer.Sample sample, Method method, Timed timed, ProceedingJoinPoint joinPoint, Throwable ex) {
+        if (Objects.isNull(ex)) {
+            sample.stop(successTimers.computeIfAbsent(method, m -> timer(timed, joinPoint, NO_EXCEPTION)));
+        } else {
+            Throwable cause = Futures.unwrap(ex);
+            sample.stop(timer(timed, joinPoint, cause.getClass().getSimpleName()));
+        }
+    }
+
+    private Timer timer(Timed timed, ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(timed.value())
+                .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                .tag("method", joinPoint.getSignature().getName())
+                .tag("exception", exception)
+                .register(meterRegistry.getObject());
+    }
+}
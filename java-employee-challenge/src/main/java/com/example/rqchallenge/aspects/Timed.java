@@ -11,4 +11,8 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Timed {
-}
\ No newline at end of file
+    /**
+     * @return name of the timer recording the annotated method, tagged with its class and method name
+     */
+    String value() default "method.timed";
+}
@@ -0,0 +1,130 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Difference between the snapshot being served and a newly fetched employee list, matched by employee id.
+ * Employees are compared field by field, so an employee is changed when any of its fields differs.
+ */
+@Getter
+class EmployeeDelta {
+    private final List<Employee> added;
+    private final List<Employee> changed;
+    private final List<Long> removedIds;
+
+    private EmployeeDelta(List<Employee> added, List<Employee> changed, List<Long> removedIds) {
+        this.added = added;
+        this.changed = changed;
+        this.removedIds = removedIds;
+    }
+
+    /**
+     * @param previous snapshot being served
+     * @param fetched  employee list fetched from upstream
+     * @return changes turning previous into fetched, or empty if employees cannot be matched by id
+     * because an id is missing or not unique on either side
+     */
+    static Optional<EmployeeDelta> between(EmployeeSnapshot previous, List<Employee> fetched) {
+        LongSet previousIds = new LongSet(previous.getEmployees().size());
+        for (Employee employee : previous.getEmployees()) {
+            if (Objects.isNull(employee.getId()) || !previousIds.add(employee.getId())) {
+                return Optional.empty();
+            }
+        }
+        LongSet fetchedIds = new LongSet(fetched.size());
+        List<Employee> added = new ArrayList<>();
+        List<Employee> changed = new ArrayList<>();
+        for (Employee employee : fetched) {
+            if (Objects.isNull(employee.getId()) || !fetchedIds.add(employee.getId())) {
+                return Optional.empty();
+            }
+            if (!previousIds.contains(employee.getId())) {
+                added.add(employee);
+            } else if (!previous.findById(employee.getId()).map(employee::equals).orElse(false)) {
+                changed.add(employee);
+            }
+        }
+        List<Long> removedIds = new ArrayList<>();
+        for (Employee employee : previous.getEmployees()) {
+            if (!fetchedIds.contains(employee.getId())) {
+                removedIds.add(employee.getId());
+            }
+        }
+        return Optional.of(new EmployeeDelta(added, changed, removedIds));
+    }
+
+    /**
+     * @return number of employees added, changed or removed
+     */
+    int size() {
+        return added.size() + changed.size() + removedIds.size();
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Open-addressing set of primitive ids, so matching a list of a million employees does not box every id.
+     */
+    private static class LongSet {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final long[] slots;
+        private boolean containsEmpty;
+
+        LongSet(int expectedSize) {
+            int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+            slots = new long[capacity];
+            Arrays.fill(slots, EMPTY);
+        }
+
+        /**
+         * @return false if value was already present
+         */
+        boolean add(long value) {
+            if (value == EMPTY) {
+                boolean added = !containsEmpty;
+                containsEmpty = true;
+                return added;
+            }
+            int mask = slots.length - 1;
+            for (int slot = hash(value) & mask; ; slot = (slot + 1) & mask) {
+                if (slots[slot] == EMPTY) {
+                    slots[slot] = value;
+                    return true;
+                }
+                if (slots[slot] == value) {
+                    return false;
+                }
+            }
+        }
+
+        boolean contains(long value) {
+            if (value == EMPTY) {
+                return containsEmpty;
+            }
+            int mask = slots.length - 1;
+            for (int slot = hash(value) & mask; ; slot = (slot + 1) & mask) {
+                if (slots[slot] == EMPTY) {
+                    return false;
+                }
+                if (slots[slot] == value) {
+                    return true;
+                }
+            }
+        }
+
+        private static int hash(long value) {
+            long mixed = value * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32));
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.index.EmployeeIdIndex;
+import com.example.rqchallenge.index.EmployeeNameIndex;
+import com.example.rqchallenge.index.FuzzyNameIndex;
+import com.example.rqchallenge.index.SalaryIndex;
+import com.example.rqchallenge.store.EmployeeColumnStore;
+import com.example.rqchallenge.store.EmployeeStoreFootprint;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of the employee list as it was fetched from the upstream API at a point in time,
+ * together with the lookup structures derived from it.
+ * The list is held either as Employee objects with salary and id indexes, or in an {@link EmployeeColumnStore}
+ * that answers the same lookups from primitive columns and materializes employees as they are read.
+ */
+public class EmployeeSnapshot {
+    private static final long NOT_ESTIMATED = -1;
+
+    @Getter
+    private final long version;
+    /**
+     * version of the snapshot that last changed the employees; kept by snapshots that only mark a new fetch time
+     */
+    @Getter
+    private final long dataVersion;
+    @Getter
+    private final Instant fetchedAt;
+    @Getter
+    private final List<Employee> employees;
+    @Getter
+    private final EmployeeNameIndex nameIndex;
+    private final SalaryIndex salaryIndex;
+    private final EmployeeIdIndex idIndex;
+    private final EmployeeColumnStore columnStore;
+    /**
+     * built in the background by {@link EmployeeSnapshotCache}; snapshots patched by writes or deltas get their own,
+     * snapshots that only mark a new fetch time share it
+     */
+    private volatile FuzzyNameIndex fuzzyNameIndex;
+    private volatile long footprintBytes = NOT_ESTIMATED;
+
+    public EmployeeSnapshot(long version, Instant fetchedAt, List<Employee> employees) {
+        this.version = version;
+        this.dataVersion = version;
+        this.fetchedAt = fetchedAt;
+        this.employees = Collections.unmodifiableList(employees);
+        this.nameIndex = new EmployeeNameIndex(this.employees);
+        this.salaryIndex = new SalaryIndex(this.employees);
+        this.idIndex = new EmployeeIdIndex(this.employees);
+        this.columnStore = null;
+    }
+
+    private EmployeeSnapshot(long version, long dataVersion, Instant fetchedAt, List<Employee> employees,
+                             EmployeeNameIndex nameIndex, SalaryIndex salaryIndex, EmployeeIdIndex idIndex) {
+        this.version = version;
+        this.dataVersion = dataVersion;
+        this.fetchedAt = fetchedAt;
+        this.employees = employees;
+        this.nameIndex = nameIndex;
+        this.salaryIndex = salaryIndex;
+        this.idIndex = idIndex;
+        this.columnStore = null;
+    }
+
+    private EmployeeSnapshot(long version, long dataVersion, Instant fetchedAt, EmployeeColumnStore columnStore, EmployeeNameIndex nameIndex) {
+        this.version = version;
+        this.dataVersion = dataVersion;
+        this.fetchedAt = fetchedAt;
+        this.employees = columnStore.asList();
+        this.nameIndex = Objects.isNull(nameIndex) ? new EmployeeNameIndex(this.employees) : nameIndex;
+        this.salaryIndex = null;
+        this.idIndex = null;
+        this.columnStore = columnStore;
+    }
+
+    /**
+     * @param version
+     * @param fetchedAt
+     * @param employees
+     * @return snapshot holding employees in a column store; the passed list is not retained
+     */
+    public static EmployeeSnapshot columnar(long version, Instant fetchedAt, List<Employee> employees) {
+        return new EmployeeSnapshot(version, version, fetchedAt, new EmployeeColumnStore(employees), null);
+    }
+
+    /**
+     * @return fuzzy name index over the employees, empty until it is built
+     */
+    public Optional<FuzzyNameIndex> getFuzzyNameIndex() {
+        return Optional.ofNullable(fuzzyNameIndex);
+    }
+
+    /**
+     * @return fuzzy name index over the employees, built by the calling thread unless it already is
+     */
+    synchronized FuzzyNameIndex buildFuzzyNameIndex() {
+        if (Objects.isNull(fuzzyNameIndex)) {
+            fuzzyNameIndex = new FuzzyNameIndex(employees);
+        }
+        return fuzzyNameIndex;
+    }
+
+    /**
+     * @return time elapsed since this snapshot was fetched from upstream
+     */
+    public Duration getAge() {
+        return Duration.between(fetchedAt, Instant.now());
+    }
+
+    /**
+     * @return true if employees are held in a column store
+     */
+    public boolean isColumnar() {
+        return Objects.nonNull(columnStore);
+    }
+
+    /**
+     * @return highest salary, 0 when no employee has a salary
+     */
+    public int getHighestSalary() {
+        return isColumnar() ? columnStore.getHighestSalary() : salaryIndex.getHighestSalary();
+    }
+
+    /**
+     * @param count
+     * @return names of up to count employees with the highest salaries, highest first
+     */
+    public List<String> getTopEarningEmployeeNames(int count) {
+        return isColumnar() ? columnStore.getTopEarningEmployeeNames(count) : salaryIndex.getTopEarningEmployeeNames(count);
+    }
+
+    /**
+     * @param id
+     * @return employee with id, if any
+     */
+    public Optional<Employee> findById(long id) {
+        return isColumnar() ? columnStore.find(id) : idIndex.find(id);
+    }
+
+    /**
+     * @param afterId exclusive lower bound, null to start from the lowest id
+     * @param count
+     * @return up to count employees with an id greater than afterId, lowest id first
+     */
+    public List<Employee> pageById(Long afterId, int count) {
+        return isColumnar() ? columnStore.page(afterId, count) : idIndex.page(afterId, count);
+    }
+
+    /**
+     * @return estimated heap bytes of the employees and the indexes this snapshot retains, fuzzy name index left out;
+     * estimated on the first call only, since it walks every employee
+     */
+    public long getFootprintBytes() {
+        long bytes = footprintBytes;
+        if (bytes == NOT_ESTIMATED) {
+            bytes = isColumnar()
+                    ? columnStore.getFootprintBytes() + nameIndex.getFootprintBytes()
+                    : EmployeeStoreFootprint.estimateObjectBytes(employees)
+                    + EmployeeStoreFootprint.estimateObjectIndexBytes(nameIndex, salaryIndex, idIndex);
+            footprintBytes = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * @param newVersion
+     * @param employee
+     * @return copy of this snapshot with employee appended, every derived structure patched rather than rebuilt
+     */
+    EmployeeSnapshot withEmployeeAdded(long newVersion, Employee employee) {
+        if (isColumnar()) {
+            EmployeeColumnStore patched = columnStore.withAdded(employee);
+            return new EmployeeSnapshot(newVersion, newVersion, fetchedAt, patched, nameIndex.withAdded(patched.asList()));
+        }
+        List<Employee> patched = new ArrayList<>(employees.size() + 1);
+        patched.addAll(employees);
+        patched.add(employee);
+        List<Employee> patchedView = Collections.unmodifiableList(patched);
+        return new EmployeeSnapshot(newVersion, newVersion, fetchedAt, patchedView, nameIndex.withAdded(patchedView),
+                salaryIndex.withAdded(employee), idIndex.withAdded(employee));
+    }
+
+    /**
+     * @param newVersion
+     * @param employee employee whose id is held by this snapshot
+     * @return copy of this snapshot with the first employee with the same id replaced in place,
+     * or this snapshot if there is no such employee
+     */
+    EmployeeSnapshot withEmployeeReplaced(long newVersion, Employee employee) {
+        long id = employee.getId();
+        if (isColumnar()) {
+            int row = columnStore.findRow(id);
+            if (row < 0) {
+                return this;
+            }
+            EmployeeColumnStore patched = columnStore.withReplaced(row, employee);
+            return new EmployeeSnapshot(newVersion, newVersion, fetchedAt, patched, nameIndex.withReplaced(patched.asList(), row));
+        }
+        for (int row = 0; row < employees.size(); row++) {
+            Employee replaced = employees.get(row);
+            if (Objects.equals(id, replaced.getId())) {
+                List<Employee> patched = new ArrayList<>(employees);
+                patched.set(row, employee);
+                List<Employee> patchedView = Collections.unmodifiableList(patched);
+                return new EmployeeSnapshot(newVersion, newVersion, fetchedAt, patchedView, nameIndex.withReplaced(patchedView, row),
+                        salaryIndex.withRemoved(replaced).withAdded(employee), idIndex.withRemoved(replaced).withAdded(employee));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param newVersion
+     * @param delta    changes between this snapshot and a newly fetched list
+     * @param newFetchedAt when the list was fetched
+     * @return copy of this snapshot with the delta applied in one pass over the list and one patch of each
+     * derived structure: removals dropped, changes replaced in place, additions appended
+     */
+    EmployeeSnapshot withDelta(long newVersion, EmployeeDelta delta, Instant newFetchedAt) {
+        if (delta.isEmpty()) {
+            return withFetchedAt(newVersion, newFetchedAt);
+        }
+        if (isColumnar()) {
+            int[] removedRows = delta.getRemovedIds().stream()
+                    .mapToInt(columnStore::findRow)
+                    .filter(row -> row >= 0)
+                    .sorted()
+                    .toArray();
+            SortedMap<Integer, Employee> replacedRows = new TreeMap<>();
+            for (Employee employee : delta.getChanged()) {
+                int row = columnStore.findRow(employee.getId());
+                if (row >= 0) {
+                    replacedRows.put(row, employee);
+                }
+            }
+            EmployeeColumnStore patched = columnStore.withChanges(removedRows, replacedRows, delta.getAdded());
+            return new EmployeeSnapshot(newVersion, newVersion, newFetchedAt, patched,
+                    nameIndex.withChanges(patched.asList(), removedRows, toRows(replacedRows.keySet())));
+        }
+
+        Set<Long> removedIds = new HashSet<>(delta.getRemovedIds());
+        Map<Long, Employee> changedById = new HashMap<>();
+        delta.getChanged().forEach(employee -> changedById.put(employee.getId(), employee));
+        List<Employee> patched = new ArrayList<>(employees.size() - removedIds.size() + delta.getAdded().size());
+        List<Employee> dropped = new ArrayList<>(removedIds.size() + changedById.size());
+        List<Employee> inserted = new ArrayList<>(changedById.size() + delta.getAdded().size());
+        int[] removedRows = new int[removedIds.size()];
+        int[] replacedRows = new int[changedById.size()];
+        int removedCount = 0;
+        int replacedCount = 0;
+        for (int row = 0; row < employees.size(); row++) {
+            Employee employee = employees.get(row);
+            if (removedIds.remove(employee.getId())) {
+                removedRows[removedCount++] = row;
+                dropped.add(employee);
+                continue;
+            }
+            Employee replacement = changedById.remove(employee.getId());
+            if (Objects.isNull(replacement)) {
+                patched.add(employee);
+                continue;
+            }
+            replacedRows[replacedCount++] = row;
+            dropped.add(employee);
+            inserted.add(replacement);
+            patched.add(replacement);
+        }
+        patched.addAll(delta.getAdded());
+        inserted.addAll(delta.getAdded());
+        List<Employee> patchedView = Collections.unmodifiableList(patched);
+        return new EmployeeSnapshot(newVersion, newVersion, newFetchedAt, patchedView,
+                nameIndex.withChanges(patchedView, Arrays.copyOf(removedRows, removedCount), Arrays.copyOf(replacedRows, replacedCount)),
+                salaryIndex.withChanges(dropped, inserted), idIndex.withChanges(dropped, inserted));
+    }
+
+    /**
+     * @param newVersion
+     * @param newFetchedAt
+     * @return this snapshot marked as fetched at newFetchedAt, sharing all structures and the data version
+     */
+    EmployeeSnapshot withFetchedAt(long newVersion, Instant newFetchedAt) {
+        EmployeeSnapshot marked = isColumnar()
+                ? new EmployeeSnapshot(newVersion, dataVersion, newFetchedAt, columnStore, nameIndex)
+                : new EmployeeSnapshot(newVersion, dataVersion, newFetchedAt, employees, nameIndex, salaryIndex, idIndex);
+        marked.fuzzyNameIndex = fuzzyNameIndex;
+        return marked;
+    }
+
+    private static int[] toRows(Collection<Integer> rows) {
+        return rows.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * @param newVersion
+     * @param id
+     * @return copy of this snapshot without the first employee with id, or this snapshot if there is no such employee
+     */
+    EmployeeSnapshot withEmployeeRemoved(long newVersion, long id) {
+        if (isColumnar()) {
+            int row = columnStore.findRow(id);
+            if (row < 0) {
+                return this;
+            }
+            EmployeeColumnStore patched = columnStore.withRemoved(id);
+            return new EmployeeSnapshot(newVersion, newVersion, fetchedAt, patched, nameIndex.withRemoved(patched.asList(), row));
+        }
+        for (int row = 0; row < employees.size(); row++) {
+            Employee employee = employees.get(row);
+            if (Objects.equals(id, employee.getId())) {
+                List<Employee> patched = new ArrayList<>(employees);
+                patched.remove(row);
+                List<Employee> patchedView = Collections.unmodifiableList(patched);
+                return new EmployeeSnapshot(newVersion, newVersion, fetchedAt, patchedView, nameIndex.withRemoved(patchedView, row),
+                        salaryIndex.withRemoved(employee), idIndex.withRemoved(employee));
+            }
+        }
+        return this;
+    }
+}
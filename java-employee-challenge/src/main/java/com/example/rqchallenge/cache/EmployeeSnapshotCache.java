@@ -0,0 +1,474 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import com.example.rqchallenge.index.FuzzyNameIndex;
+import com.example.rqchallenge.service.IExternalEmployeeAPIClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Stale-while-revalidate cache of the upstream employee list.
+ * The last good snapshot is always served immediately; once it is older than the configured TTL
+ * a single background refresh is triggered and the stale copy keeps being served until it completes.
+ * A failed refresh keeps the stale copy and is retried after the configured failure backoff.
+ * Every list fetched from upstream is persisted to the {@link EmployeeSnapshotFile}, and the persisted list is
+ * served at startup until the first refresh replaces it.
+ * Creates and deletes acknowledged by the upstream are applied to the snapshot being served before the write call
+ * returns, so a caller reads its own writes, and are re-applied to fetched lists that do not reflect them yet
+ * until the upstream confirms them or the write retention period ends (see {@link LocalWriteJournal}).
+ * Refreshes are incremental: the list is requested with the validators of the last response so an unchanged list
+ * costs a 304, and a changed list is matched against the served snapshot by id (see {@link EmployeeDelta}) and only
+ * the added, changed and removed employees are patched in, up to employee.snapshot.delta.max-changes; larger
+ * changes rebuild the snapshot.
+ * With employee.snapshot.storage=columnar snapshots hold the list in an EmployeeColumnStore instead of Employee objects.
+ * The fuzzy name index is never built on a request thread: a snapshot without one triggers a single background
+ * build, and searches keep using the index of the last snapshot that has one until it completes.
+ */
+@Service
+@Slf4j
+public class EmployeeSnapshotCache {
+    private static final String COLUMNAR_STORAGE = "columnar";
+
+    private final IExternalEmployeeAPIClient iExternalEmployeeAPIClient;
+    private final EmployeeSnapshotFile employeeSnapshotFile;
+    private final Duration ttl;
+    private final Duration failureBackoff;
+    private final ExecutorService refreshExecutor;
+    private final ExecutorService indexExecutor;
+    private final boolean columnarStorage;
+    private final int maxDeltaChanges;
+
+    private final AtomicReference<EmployeeSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicBoolean refreshInFlight = new AtomicBoolean();
+    private final AtomicBoolean fuzzyIndexBuildInFlight = new AtomicBoolean();
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final AtomicLong freshReads = new AtomicLong();
+    private final AtomicLong staleReads = new AtomicLong();
+    private final AtomicLong missedReads = new AtomicLong();
+    private final AtomicLong fullRefreshes = new AtomicLong();
+    private final AtomicLong deltaRefreshes = new AtomicLong();
+    private final AtomicLong unchangedRefreshes = new AtomicLong();
+    private final Object initialLoadLock = new Object();
+    private final Object writeLock = new Object();
+    private final LocalWriteJournal localWrites;
+    private volatile Instant lastFailedRefreshAt = Instant.MIN;
+    private volatile String lastETag;
+    private volatile long lastModified = -1;
+    /**
+     * latest snapshot whose fuzzy name index is built
+     */
+    private volatile EmployeeSnapshot fuzzyIndexedSnapshot;
+
+    @Autowired
+    public EmployeeSnapshotCache(IExternalEmployeeAPIClient iExternalEmployeeAPIClient,
+                                 EmployeeSnapshotFile employeeSnapshotFile,
+                                 @Value("${employee.snapshot.ttl-ms:30000}") long ttlMillis,
+                                 @Value("${employee.snapshot.failure-backoff-ms:5000}") long failureBackoffMillis,
+                                 @Value("${employee.snapshot.storage:objects}") String storage,
+                                 @Value("${employee.snapshot.write-retention-ms:300000}") long writeRetentionMillis,
+                                 @Value("${employee.snapshot.delta.max-changes:64}") int maxDeltaChanges) {
+        this.iExternalEmployeeAPIClient = iExternalEmployeeAPIClient;
+        this.employeeSnapshotFile = employeeSnapshotFile;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        this.failureBackoff = Duration.ofMillis(failureBackoffMillis);
+        this.columnarStorage = COLUMNAR_STORAGE.equalsIgnoreCase(storage);
+        this.localWrites = new LocalWriteJournal(Duration.ofMillis(writeRetentionMillis));
+        this.maxDeltaChanges = maxDeltaChanges;
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.indexExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-fuzzy-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        employeeSnapshotFile.load().ifPresent(persisted ->
+                snapshot.set(newSnapshot(persisted.getFetchedAt(), persisted.getEmployees())));
+    }
+
+    /**
+     * @return employees of the current snapshot, loading it synchronously if nothing has been fetched yet
+     */
+    public List<Employee> getEmployees() {
+        return getSnapshot().getEmployees();
+    }
+
+    /**
+     * @return current snapshot; triggers a background refresh when it is older than the TTL
+     */
+    public EmployeeSnapshot getSnapshot() {
+        EmployeeSnapshot current = snapshot.get();
+        if (Objects.isNull(current)) {
+            missedReads.incrementAndGet();
+            return loadInitialSnapshot();
+        }
+        if (current.getAge().compareTo(ttl) > 0) {
+            staleReads.incrementAndGet();
+            triggerRefresh();
+        } else {
+            freshReads.incrementAndGet();
+        }
+        return current;
+    }
+
+    /**
+     * @return snapshot being served, without loading or refreshing it; empty if nothing has been fetched yet
+     */
+    public Optional<EmployeeSnapshot> getLoadedSnapshot() {
+        return Optional.ofNullable(snapshot.get());
+    }
+
+    /**
+     * @param served snapshot a search is answered from
+     * @return fuzzy name index of served, or of an earlier snapshot while the index of served is built in the
+     * background; empty until a first index is built
+     */
+    public Optional<FuzzyNameIndex> getFuzzyNameIndex(EmployeeSnapshot served) {
+        Optional<FuzzyNameIndex> own = served.getFuzzyNameIndex();
+        if (own.isPresent()) {
+            return own;
+        }
+        EmployeeSnapshot indexed = fuzzyIndexedSnapshot;
+        if (Objects.isNull(indexed) || indexed.getDataVersion() != served.getDataVersion()) {
+            triggerFuzzyIndexBuild();
+        }
+        return Optional.ofNullable(indexed).flatMap(EmployeeSnapshot::getFuzzyNameIndex);
+    }
+
+    /**
+     * @return true while a background build of the fuzzy name index is running
+     */
+    public boolean isFuzzyIndexBuildInFlight() {
+        return fuzzyIndexBuildInFlight.get();
+    }
+
+    /**
+     * @return age of the snapshot being served, empty if nothing has been fetched yet
+     */
+    public Optional<Duration> getSnapshotAge() {
+        return Optional.ofNullable(snapshot.get()).map(EmployeeSnapshot::getAge);
+    }
+
+    /**
+     * @return reads served from a snapshot within its TTL
+     */
+    public long getFreshReadCount() {
+        return freshReads.get();
+    }
+
+    /**
+     * @return reads served from a snapshot past its TTL
+     */
+    public long getStaleReadCount() {
+        return staleReads.get();
+    }
+
+    /**
+     * @return reads that found no snapshot and had to wait for the upstream
+     */
+    public long getMissedReadCount() {
+        return missedReads.get();
+    }
+
+    /**
+     * @return share of reads answered without waiting for the upstream
+     */
+    public double getHitRatio() {
+        long hits = freshReads.get() + staleReads.get();
+        long total = hits + missedReads.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return refreshes that rebuilt the snapshot from the fetched list
+     */
+    public long getFullRefreshCount() {
+        return fullRefreshes.get();
+    }
+
+    /**
+     * @return refreshes that patched only the changed employees into the served snapshot
+     */
+    public long getDeltaRefreshCount() {
+        return deltaRefreshes.get();
+    }
+
+    /**
+     * @return refreshes that found the list unchanged, either by a 304 or by an empty delta
+     */
+    public long getUnchangedRefreshCount() {
+        return unchangedRefreshes.get();
+    }
+
+    /**
+     * @return true while a background refresh is running
+     */
+    public boolean isRefreshInFlight() {
+        return refreshInFlight.get();
+    }
+
+    /**
+     * @return local writes waiting to be confirmed by a fetched list
+     */
+    public int getPendingWriteCount() {
+        synchronized (writeLock) {
+            return localWrites.size();
+        }
+    }
+
+    /**
+     * Applies an employee created upstream to the snapshot being served, if any, and to later fetched lists
+     * until they include it
+     * @param employee
+     */
+    public void applyCreated(Employee employee) {
+        synchronized (writeLock) {
+            localWrites.recordCreated(employee);
+            snapshot.updateAndGet(current -> Objects.isNull(current)
+                    ? null
+                    : current.withEmployeeAdded(versionSequence.incrementAndGet(), employee));
+        }
+    }
+
+    /**
+     * Applies an employee deleted upstream to the snapshot being served, if any, and to later fetched lists
+     * until they no longer include it
+     * @param id
+     */
+    public void applyDeleted(Long id) {
+        synchronized (writeLock) {
+            localWrites.recordDeleted(id);
+            snapshot.updateAndGet(current -> Objects.isNull(current)
+                    ? null
+                    : current.withEmployeeRemoved(versionSequence.incrementAndGet(), id));
+        }
+    }
+
+    private EmployeeSnapshot loadInitialSnapshot() {
+        synchronized (initialLoadLock) {
+            EmployeeSnapshot current = snapshot.get();
+            if (Objects.nonNull(current)) {
+                return current;
+            }
+            Instant fetchStartedAt = Instant.now();
+            ResponseEntity<EmployeesResponseData> responseEntity = fetch(false);
+            List<Employee> employees = readEmployees(responseEntity);
+            Instant fetchedAt = Instant.now();
+            try {
+                refreshExecutor.execute(() -> persist(fetchedAt, employees));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to schedule persisting employee snapshot : ", ex);
+            }
+            fullRefreshes.incrementAndGet();
+            EmployeeSnapshot installed = install(newSnapshot(fetchedAt, employees), fetchStartedAt);
+            rememberValidators(responseEntity);
+            return installed;
+        }
+    }
+
+    private void triggerRefresh() {
+        if (Instant.now().isBefore(lastFailedRefreshAt.plus(failureBackoff))) {
+            return;
+        }
+        if (!refreshInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(this::refresh);
+        } catch (RuntimeException ex) {
+            refreshInFlight.set(false);
+            log.warn("Failed to schedule employee snapshot refresh : ", ex);
+        }
+    }
+
+    private void refresh() {
+        try {
+            Instant fetchStartedAt = Instant.now();
+            EmployeeSnapshot base = snapshot.get();
+            ResponseEntity<EmployeesResponseData> responseEntity = fetch(Objects.nonNull(base));
+            if (HttpStatus.NOT_MODIFIED.equals(responseEntity.getStatusCode()) && Objects.nonNull(base)) {
+                unchangedRefreshes.incrementAndGet();
+                EmployeeSnapshot touched = touch(Instant.now());
+                log.debug("Employee list not modified, data version {} kept", touched.getDataVersion());
+                return;
+            }
+            List<Employee> employees = readEmployees(responseEntity);
+            Instant fetchedAt = Instant.now();
+            EmployeeSnapshot refreshed = installFetched(base, fetchedAt, employees, fetchStartedAt);
+            rememberValidators(responseEntity);
+            log.debug("Employee snapshot refreshed to version {} with {} employees",
+                    refreshed.getVersion(), refreshed.getEmployees().size());
+            persist(fetchedAt, employees);
+        } catch (Exception ex) {
+            lastFailedRefreshAt = Instant.now();
+            log.warn("Failed to refresh employee snapshot, serving stale copy aged {} : ",
+                    getSnapshotAge().orElse(Duration.ZERO), ex);
+        } finally {
+            refreshInFlight.set(false);
+        }
+    }
+
+    /**
+     * @return snapshot built from employees, patched into base when few employees changed, reconciled with the
+     * local writes and now served
+     */
+    private EmployeeSnapshot installFetched(EmployeeSnapshot base, Instant fetchedAt, List<Employee> employees, Instant fetchStartedAt) {
+        Optional<EmployeeDelta> delta = deltaFrom(base, employees);
+        if (delta.isEmpty()) {
+            fullRefreshes.incrementAndGet();
+            return install(newSnapshot(fetchedAt, employees), fetchStartedAt);
+        }
+        synchronized (writeLock) {
+            EmployeeSnapshot current = snapshot.get();
+            if (current != base) {
+                delta = deltaFrom(current, employees);
+            }
+            EmployeeSnapshot fetched;
+            if (delta.isPresent()) {
+                (delta.get().isEmpty() ? unchangedRefreshes : deltaRefreshes).incrementAndGet();
+                log.debug("Patching {} added, {} changed and {} removed employees into snapshot version {}",
+                        delta.get().getAdded().size(), delta.get().getChanged().size(),
+                        delta.get().getRemovedIds().size(), current.getVersion());
+                fetched = current.withDelta(versionSequence.incrementAndGet(), delta.get(), fetchedAt);
+            } else {
+                fullRefreshes.incrementAndGet();
+                fetched = newSnapshot(fetchedAt, employees);
+            }
+            return install(fetched, fetchStartedAt);
+        }
+    }
+
+    /**
+     * @return delta from base to employees, empty when there is no base, the employees cannot be matched by id
+     * or too many of them changed
+     */
+    private Optional<EmployeeDelta> deltaFrom(EmployeeSnapshot base, List<Employee> employees) {
+        if (Objects.isNull(base) || maxDeltaChanges <= 0) {
+            return Optional.empty();
+        }
+        return EmployeeDelta.between(base, employees).filter(delta -> delta.size() <= maxDeltaChanges);
+    }
+
+    /**
+     * @return snapshot being served, marked as fetched at fetchedAt
+     */
+    private EmployeeSnapshot touch(Instant fetchedAt) {
+        synchronized (writeLock) {
+            return snapshot.updateAndGet(current -> current.withFetchedAt(versionSequence.incrementAndGet(), fetchedAt));
+        }
+    }
+
+    /**
+     * @return fetched reconciled with the local writes, now served
+     */
+    private EmployeeSnapshot install(EmployeeSnapshot fetched, Instant fetchStartedAt) {
+        synchronized (writeLock) {
+            EmployeeSnapshot reconciled = localWrites.reconcile(fetched, fetchStartedAt, versionSequence::incrementAndGet);
+            snapshot.set(reconciled);
+            return reconciled;
+        }
+    }
+
+    private void triggerFuzzyIndexBuild() {
+        if (!fuzzyIndexBuildInFlight.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            indexExecutor.execute(this::buildFuzzyNameIndex);
+        } catch (RuntimeException ex) {
+            fuzzyIndexBuildInFlight.set(false);
+            log.warn("Failed to schedule fuzzy name index build : ", ex);
+        }
+    }
+
+    private void buildFuzzyNameIndex() {
+        try {
+            EmployeeSnapshot target = snapshot.get();
+            target.buildFuzzyNameIndex();
+            fuzzyIndexedSnapshot = target;
+            log.debug("Fuzzy name index built for data version {}", target.getDataVersion());
+        } catch (RuntimeException ex) {
+            log.warn("Failed to build fuzzy name index : ", ex);
+        } finally {
+            fuzzyIndexBuildInFlight.set(false);
+        }
+    }
+
+    private void persist(Instant fetchedAt, List<Employee> employees) {
+        try {
+            employeeSnapshotFile.save(fetchedAt, employees);
+        } catch (Exception ex) {
+            log.warn("Failed to persist employee list fetched at {} : ", fetchedAt, ex);
+        }
+    }
+
+    /**
+     * @param conditional whether to send the validators of the last installed response
+     * @return response of the upstream, a 304 only if conditional
+     */
+    private ResponseEntity<EmployeesResponseData> fetch(boolean conditional) {
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        if (conditional && Objects.nonNull(lastETag)) {
+            conditionalHeaders.setIfNoneMatch(lastETag);
+        }
+        if (conditional && lastModified >= 0) {
+            conditionalHeaders.setIfModifiedSince(lastModified);
+        }
+        return conditionalHeaders.isEmpty()
+                ? iExternalEmployeeAPIClient.getAllEmployees()
+                : iExternalEmployeeAPIClient.getAllEmployees(conditionalHeaders);
+    }
+
+    /**
+     * Keeps the validators of a response only once its list is served, so a 304 answering them never marks
+     * an older list as fresh
+     * @param responseEntity response whose employee list was installed
+     */
+    private void rememberValidators(ResponseEntity<EmployeesResponseData> responseEntity) {
+        lastETag = responseEntity.getHeaders().getETag();
+        lastModified = responseEntity.getHeaders().getLastModified();
+    }
+
+    private List<Employee> readEmployees(ResponseEntity<EmployeesResponseData> responseEntity) {
+        if (!HttpStatus.OK.equals(responseEntity.getStatusCode())
+                || Objects.isNull(responseEntity.getBody())
+                || Objects.isNull(responseEntity.getBody().getData())) {
+            throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+        }
+        return responseEntity.getBody().getData();
+    }
+
+    private EmployeeSnapshot newSnapshot(Instant fetchedAt, List<Employee> employees) {
+        return columnarStorage
+                ? EmployeeSnapshot.columnar(versionSequence.incrementAndGet(), fetchedAt, employees)
+                : new EmployeeSnapshot(versionSequence.incrementAndGet(), fetchedAt, employees);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        indexExecutor.shutdownNow();
+    }
+}
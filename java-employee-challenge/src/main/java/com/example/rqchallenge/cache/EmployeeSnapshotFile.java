@@ -0,0 +1,230 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * Last good employee list persisted on local disk, so a restarted service can serve reads before the upstream answers.
+ * The file holds a fixed header (magic, format version, fetch time, employee count, payload length, CRC32 of the payload)
+ * followed by the employees in a compact binary encoding. It is read through a memory-mapped FileChannel and replaced
+ * atomically on write; a file with an unknown version or a checksum mismatch is ignored.
+ */
+@Service
+@Slf4j
+public class EmployeeSnapshotFile {
+    static final int MAGIC = 0x454D5053;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private static final int NULL_ID = 1;
+    private static final int NULL_SALARY = 1 << 1;
+    private static final int NULL_AGE = 1 << 2;
+
+    private final boolean enabled;
+    private final Path path;
+
+    @Autowired
+    public EmployeeSnapshotFile(@Value("${employee.snapshot.file.enabled:false}") boolean enabled,
+                                @Value("${employee.snapshot.file.path:data/employee-snapshot.bin}") String path) {
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+    }
+
+    /**
+     * @return employees and fetch time of the persisted snapshot, empty if disabled, missing or unreadable
+     */
+    public Optional<PersistedSnapshot> load() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        long startNanos = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Optional<PersistedSnapshot> persisted = decode(buffer);
+            persisted.ifPresent(snapshot -> log.info("Loaded {} employees fetched at {} from {} in {} ms",
+                    snapshot.getEmployees().size(), snapshot.getFetchedAt(), path, (System.nanoTime() - startNanos) / 1_000_000));
+            return persisted;
+        } catch (NoSuchFileException ex) {
+            log.info("No persisted employee snapshot at {}", path);
+            return Optional.empty();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Ignoring unreadable employee snapshot file {} : ", path, ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Replaces the persisted snapshot; a no-op when disabled
+     * @param snapshot
+     * @throws IOException if the file cannot be written, the previous file is then left in place
+     */
+    public void save(EmployeeSnapshot snapshot) throws IOException {
+        save(snapshot.getFetchedAt(), snapshot.getEmployees());
+    }
+
+    /**
+     * Replaces the persisted snapshot; a no-op when disabled
+     * @param fetchedAt when the employees were fetched from upstream
+     * @param employees
+     * @throws IOException if the file cannot be written, the previous file is then left in place
+     */
+    public void save(Instant fetchedAt, List<Employee> employees) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        ByteBuffer encoded = encode(fetchedAt, employees);
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (encoded.hasRemaining()) {
+                    channel.write(encoded);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        log.debug("Persisted {} employees fetched at {} to {}", employees.size(), fetchedAt, path);
+    }
+
+    static ByteBuffer encode(Instant fetchedAt, List<Employee> employees) {
+        List<byte[]> names = new ArrayList<>(employees.size());
+        List<byte[]> profileImages = new ArrayList<>(employees.size());
+        int payloadBytes = 0;
+        for (Employee employee : employees) {
+            byte[] name = toBytes(employee.getName());
+            byte[] profileImage = toBytes(employee.getProfileImage());
+            names.add(name);
+            profileImages.add(profileImage);
+            payloadBytes += 1 + Long.BYTES + 2 * Integer.BYTES
+                    + Integer.BYTES + (Objects.isNull(name) ? 0 : name.length)
+                    + Integer.BYTES + (Objects.isNull(profileImage) ? 0 : profileImage.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payloadBytes);
+        buffer.position(HEADER_BYTES);
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            int nulls = (Objects.isNull(employee.getId()) ? NULL_ID : 0)
+                    | (Objects.isNull(employee.getSalary()) ? NULL_SALARY : 0)
+                    | (Objects.isNull(employee.getAge()) ? NULL_AGE : 0);
+            buffer.put((byte) nulls);
+            buffer.putLong(Objects.isNull(employee.getId()) ? 0 : employee.getId());
+            buffer.putInt(Objects.isNull(employee.getSalary()) ? 0 : employee.getSalary());
+            buffer.putInt(Objects.isNull(employee.getAge()) ? 0 : employee.getAge());
+            putBytes(buffer, names.get(i));
+            putBytes(buffer, profileImages.get(i));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_BYTES, payloadBytes);
+        buffer.putInt(0, MAGIC)
+                .putInt(4, FORMAT_VERSION)
+                .putLong(8, fetchedAt.toEpochMilli())
+                .putInt(16, employees.size())
+                .putInt(20, payloadBytes)
+                .putLong(24, crc.getValue());
+        buffer.rewind();
+        return buffer;
+    }
+
+    static Optional<PersistedSnapshot> decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            log.warn("Employee snapshot file has no valid header");
+            return Optional.empty();
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            log.warn("Employee snapshot file has unsupported format version {}", buffer.getInt(4));
+            return Optional.empty();
+        }
+        int count = buffer.getInt(16);
+        int payloadBytes = buffer.getInt(20);
+        if (count < 0 || payloadBytes < 0 || buffer.remaining() - HEADER_BYTES != payloadBytes) {
+            log.warn("Employee snapshot file is truncated");
+            return Optional.empty();
+        }
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if (crc.getValue() != buffer.getLong(24)) {
+            log.warn("Employee snapshot file checksum mismatch");
+            return Optional.empty();
+        }
+        payload.position(HEADER_BYTES);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int nulls = payload.get();
+            long id = payload.getLong();
+            int salary = payload.getInt();
+            int age = payload.getInt();
+            employees.add(new Employee((nulls & NULL_ID) != 0 ? null : id,
+                    getString(payload),
+                    (nulls & NULL_SALARY) != 0 ? null : salary,
+                    (nulls & NULL_AGE) != 0 ? null : age,
+                    getString(payload)));
+        }
+        return Optional.of(new PersistedSnapshot(Instant.ofEpochMilli(buffer.getLong(8)), employees));
+    }
+
+    private static byte[] toBytes(String value) {
+        return Objects.isNull(value) ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (Objects.isNull(bytes)) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Employee list read back from the snapshot file
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PersistedSnapshot {
+        private final Instant fetchedAt;
+        private final List<Employee> employees;
+    }
+}
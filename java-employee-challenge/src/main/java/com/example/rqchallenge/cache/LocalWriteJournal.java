@@ -0,0 +1,100 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Creates and deletes acknowledged by the upstream that may not yet show up in the employee list it returns.
+ * Each fetched list is reconciled against the journal: a write the list does not reflect is applied again,
+ * a write the list reflects is dropped once the list was requested after the write, and every write is dropped
+ * after the retention period, from when on the upstream is authoritative. Not thread safe; guarded by the cache.
+ */
+@Slf4j
+class LocalWriteJournal {
+    private final Duration retention;
+    private final Deque<LocalWrite> writes = new ArrayDeque<>();
+
+    LocalWriteJournal(Duration retention) {
+        this.retention = retention;
+    }
+
+    /**
+     * @param employee employee created upstream; employees without an id cannot be matched and are not journaled
+     */
+    void recordCreated(Employee employee) {
+        if (Objects.nonNull(employee.getId())) {
+            writes.addLast(new LocalWrite(employee.getId(), employee, Instant.now()));
+        }
+    }
+
+    /**
+     * @param id id of the employee deleted upstream; supersedes journaled creates of the same id
+     */
+    void recordDeleted(long id) {
+        writes.removeIf(write -> write.id == id && write.isCreate());
+        writes.addLast(new LocalWrite(id, null, Instant.now()));
+    }
+
+    /**
+     * @param fetched        snapshot built from a list fetched from upstream
+     * @param fetchStartedAt when the list was requested
+     * @param versions       source of versions for patched snapshots
+     * @return fetched with the journaled writes it does not reflect applied in journal order
+     */
+    EmployeeSnapshot reconcile(EmployeeSnapshot fetched, Instant fetchStartedAt, LongSupplier versions) {
+        Instant expiredBefore = Instant.now().minus(retention);
+        EmployeeSnapshot reconciled = fetched;
+        int reapplied = 0;
+        for (Iterator<LocalWrite> iterator = writes.iterator(); iterator.hasNext(); ) {
+            LocalWrite write = iterator.next();
+            if (write.writtenAt.isBefore(expiredBefore)) {
+                iterator.remove();
+                continue;
+            }
+            boolean present = reconciled.findById(write.id).isPresent();
+            if (write.isCreate() != present) {
+                reconciled = write.isCreate()
+                        ? reconciled.withEmployeeAdded(versions.getAsLong(), write.employee)
+                        : reconciled.withEmployeeRemoved(versions.getAsLong(), write.id);
+                reapplied++;
+            } else if (write.writtenAt.isBefore(fetchStartedAt)) {
+                iterator.remove();
+            }
+        }
+        if (reapplied > 0) {
+            log.debug("Re-applied {} local writes not yet reflected by the upstream list", reapplied);
+        }
+        return reconciled;
+    }
+
+    /**
+     * @return writes not yet confirmed by the upstream list or expired
+     */
+    int size() {
+        return writes.size();
+    }
+
+    private static class LocalWrite {
+        private final long id;
+        private final Employee employee;
+        private final Instant writtenAt;
+
+        LocalWrite(long id, Employee employee, Instant writtenAt) {
+            this.id = id;
+            this.employee = employee;
+            this.writtenAt = writtenAt;
+        }
+
+        boolean isCreate() {
+            return Objects.nonNull(employee);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.rqchallenge.cache;
+
+import lombok.Getter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON response body serialized for one data version, held as UTF-8 bytes and, when it is large enough to gain from
+ * compression, as gzip bytes. Each representation has a strong ETag derived from the content, so tags stay valid
+ * across restarts and instances serving the same data.
+ */
+public class SerializedResponse {
+    private static final String GZIP = "gzip";
+    private static final int ETAG_HASH_BYTES = 16;
+
+    @Getter
+    private final long dataVersion;
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String eTag;
+    private final String gzipETag;
+
+    private SerializedResponse(long dataVersion, byte[] body, byte[] gzipBody, String contentHash) {
+        this.dataVersion = dataVersion;
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.eTag = "\"" + contentHash + "\"";
+        this.gzipETag = "\"" + contentHash + "-" + GZIP + "\"";
+    }
+
+    /**
+     * @param dataVersion  data version the body was serialized from
+     * @param body         UTF-8 JSON
+     * @param gzipMinBytes bodies at least this long are also kept gzip-compressed
+     * @return serialized response
+     */
+    public static SerializedResponse of(long dataVersion, byte[] body, int gzipMinBytes) {
+        return new SerializedResponse(dataVersion, body, body.length >= gzipMinBytes ? gzip(body) : null, hash(body));
+    }
+
+    /**
+     * @param requestHeaders headers of the request, read for If-None-Match and Accept-Encoding
+     * @return 304 if the request already holds either representation, otherwise 200 with the gzip body if the
+     * client accepts it and the identity body if not
+     */
+    public ResponseEntity<byte[]> toResponseEntity(HttpHeaders requestHeaders) {
+        boolean gzipped = Objects.nonNull(gzipBody) && acceptsGzip(requestHeaders.getValuesAsList(HttpHeaders.ACCEPT_ENCODING));
+        boolean notModified = isNotModified(requestHeaders);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(gzipped ? gzipETag : eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return builder.build();
+        }
+        if (gzipped) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(gzipped ? gzipBody : body);
+    }
+
+    /**
+     * @param requestHeaders
+     * @return true if If-None-Match holds the ETag of either representation or *
+     */
+    public boolean isNotModified(HttpHeaders requestHeaders) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        for (String tag : ifNoneMatch) {
+            String opaqueTag = tag.startsWith("W/") ? tag.substring(2) : tag;
+            if ("*".equals(opaqueTag) || eTag.equals(opaqueTag) || gzipETag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return heap bytes held by both representations
+     */
+    public long getSizeBytes() {
+        return body.length + (Objects.isNull(gzipBody) ? 0 : gzipBody.length);
+    }
+
+    static boolean acceptsGzip(List<String> acceptEncodings) {
+        for (String acceptEncoding : acceptEncodings) {
+            String[] parts = acceptEncoding.split(";");
+            String coding = parts[0].trim();
+            if (GZIP.equalsIgnoreCase(coding) || "*".equals(coding)) {
+                return Arrays.stream(parts).skip(1).map(String::trim)
+                        .filter(parameter -> parameter.startsWith("q="))
+                        .noneMatch(parameter -> parseQuality(parameter.substring(2)) <= 0);
+            }
+        }
+        return false;
+    }
+
+    private static double parseQuality(String quality) {
+        try {
+            return Double.parseDouble(quality.trim());
+        } catch (NumberFormatException ex) {
+            return 1;
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, ETAG_HASH_BYTES));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
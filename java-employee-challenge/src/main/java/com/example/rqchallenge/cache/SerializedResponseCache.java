@@ -0,0 +1,134 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serialized bodies of hot read endpoints, keyed by endpoint and rebuilt only when the data version of the employee
+ * snapshot moves on, so repeated reads copy ready-made bytes instead of running Jackson.
+ * Responses carry a strong ETag and requests holding it get a 304. In streaming read mode there is no snapshot to
+ * version the data by, and the cache is disabled.
+ */
+@Service
+@Slf4j
+public class SerializedResponseCache {
+    private static final String STREAMING_READ_MODE = "streaming";
+
+    private final EmployeeSnapshotCache employeeSnapshotCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final int gzipMinBytes;
+    private final ConcurrentMap<String, SerializedResponse> responses = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    /**
+     * @param readMode     responses are cached in snapshot read mode only
+     * @param enabled
+     * @param gzipMinBytes bodies at least this long are also cached gzip-compressed
+     */
+    @Autowired
+    public SerializedResponseCache(EmployeeSnapshotCache employeeSnapshotCache,
+                                   ObjectMapper objectMapper,
+                                   @Value("${employee.read-mode:snapshot}") String readMode,
+                                   @Value("${employee.response-cache.enabled:true}") boolean enabled,
+                                   @Value("${employee.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.employeeSnapshotCache = employeeSnapshotCache;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled && !STREAMING_READ_MODE.equalsIgnoreCase(readMode);
+        this.gzipMinBytes = gzipMinBytes;
+    }
+
+    /**
+     * @return data version of the loaded snapshot that responses are cached for; empty if the cache is disabled or no
+     * snapshot has been loaded yet
+     */
+    public OptionalLong getDataVersion() {
+        if (!enabled) {
+            return OptionalLong.empty();
+        }
+        return employeeSnapshotCache.getLoadedSnapshot()
+                .map(snapshot -> OptionalLong.of(snapshot.getDataVersion()))
+                .orElseGet(OptionalLong::empty);
+    }
+
+    /**
+     * @param key            identity of the endpoint
+     * @param dataVersion    data version read before body was computed
+     * @param requestHeaders headers of the request, read for If-None-Match and Accept-Encoding
+     * @param body           response body; serialized only when the cached bytes are missing or older than dataVersion
+     * @return 200 with the serialized body, or 304 if the request already holds it
+     */
+    public ResponseEntity<byte[]> respond(String key, long dataVersion, HttpHeaders requestHeaders, Object body) {
+        SerializedResponse serialized = responses.get(key);
+        if (Objects.isNull(serialized) || serialized.getDataVersion() < dataVersion) {
+            serialized = responses.compute(key, (k, current) -> {
+                if (Objects.nonNull(current) && current.getDataVersion() >= dataVersion) {
+                    return current;
+                }
+                rebuilds.incrementAndGet();
+                SerializedResponse rebuilt = SerializedResponse.of(dataVersion, serialize(body), gzipMinBytes);
+                log.debug("Serialized {} for data version {} into {} bytes", key, dataVersion, rebuilt.getSizeBytes());
+                return rebuilt;
+            });
+        } else {
+            hits.incrementAndGet();
+        }
+        if (serialized.isNotModified(requestHeaders)) {
+            notModified.incrementAndGet();
+        }
+        return serialized.toResponseEntity(requestHeaders);
+    }
+
+    /**
+     * @return responses served from cached bytes
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return responses serialized because the cached bytes were missing or outdated
+     */
+    public long getRebuildCount() {
+        return rebuilds.get();
+    }
+
+    /**
+     * @return 304 responses
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * @return heap bytes held by the cached responses
+     */
+    public long getSizeBytes() {
+        return responses.values().stream().mapToLong(SerializedResponse::getSizeBytes).sum();
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            log.error("Failed to serialize response body : ", ex);
+            throw new OperationFailedException(MessageConstants.GLOBAL_ERROR_MESSAGE);
+        }
+    }
+}
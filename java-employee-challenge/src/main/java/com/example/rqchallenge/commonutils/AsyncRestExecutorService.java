@@ -0,0 +1,305 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Non-blocking counterpart of {@link RestExecutorService} built on the JDK HttpClient.
+ * Calls pass the same {@link UpstreamGuard} and {@link UpstreamRateGovernor} as the blocking path.
+ * Error statuses complete the returned future with the same {@link HttpClientErrorException} and
+ * {@link HttpServerErrorException} types RestTemplate throws, so both paths are handled alike.
+ * Like the blocking path, responses are requested gzip or deflate encoded and decompressed here, since the JDK
+ * HttpClient leaves content encodings to the caller.
+ */
+@Service
+@Slf4j
+public class AsyncRestExecutorService {
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+    private static final String GZIP = "gzip";
+    private static final String DEFLATE = "deflate";
+
+    private final HttpClient httpClient;
+    private final UpstreamGuard upstreamGuard;
+    private final RequestHedger requestHedger;
+    private final UpstreamMetrics upstreamMetrics;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService bodyReadExecutor;
+    private final Duration requestTimeout;
+    private final UpstreamTransportCounters transportCounters;
+    private final boolean compression;
+
+    @Autowired
+    public AsyncRestExecutorService(@Qualifier("upstreamAsyncHttpClient") HttpClient httpClient,
+                                    UpstreamGuard upstreamGuard,
+                                    RequestHedger requestHedger,
+                                    UpstreamMetrics upstreamMetrics,
+                                    ObjectMapper objectMapper,
+                                    @Qualifier("upstreamBlockingExecutor") ExecutorService bodyReadExecutor,
+                                    @Value("${upstream.async.request-timeout-ms:30000}") long requestTimeoutMillis,
+                                    @Qualifier("upstreamAsyncTransportCounters") UpstreamTransportCounters transportCounters,
+                                    @Value("${upstream.compression.enabled:true}") boolean compression) {
+        this.httpClient = httpClient;
+        this.upstreamGuard = upstreamGuard;
+        this.requestHedger = requestHedger;
+        this.upstreamMetrics = upstreamMetrics;
+        this.objectMapper = objectMapper;
+        this.bodyReadExecutor = bodyReadExecutor;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.transportCounters = transportCounters;
+        this.compression = compression;
+    }
+
+    /**
+     * @param url           url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param responseClass
+     * @param uriVariables
+     * @return future of the ResponseEntity of REST API call
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> executeAsync(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return executeAsync(UpstreamAttemptListener.NONE, url, httpEntity, httpMethod, responseClass, uriVariables);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> executeAsync(UpstreamAttemptListener attemptListener, String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        log.trace("Calling {} {} with {} method asynchronously", url, uriVariables, httpMethod.name());
+        HttpRequest request;
+        try {
+            request = buildRequest(UriComponentsBuilder.fromUriString(url).buildAndExpand(uriVariables).encode().toUri(),
+                    httpEntity, httpMethod);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        CompletableFuture<ResponseEntity<T>> responseFuture = upstreamGuard.submit(UpstreamOperation.of(url), () -> {
+                    long startNanos = System.nanoTime();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                            .handle((response, ex) -> {
+                                if (Objects.nonNull(ex)) {
+                                    RuntimeException translated = translateException(request.uri().toString(), httpMethod, ex);
+                                    upstreamMetrics.recordRequest(UpstreamMetrics.ASYNC_CLIENT, httpMethod, url,
+                                            UpstreamMetrics.statusOf(translated), System.nanoTime() - startNanos);
+                                    throw translated;
+                                }
+                                upstreamMetrics.recordRequest(UpstreamMetrics.ASYNC_CLIENT, httpMethod, url,
+                                        String.valueOf(response.statusCode()), System.nanoTime() - startNanos);
+                                return toResponseEntity(response, responseClass);
+                            });
+                }, attemptListener);
+        responseFuture.whenComplete((response, ex) -> {
+            if (Objects.nonNull(ex) && !(ex instanceof HttpClientErrorException.TooManyRequests)
+                    && !(ex instanceof UpstreamRejectedException) && !(ex instanceof CancellationException)) {
+                log.error("Exception occurred while for url {} {} with {} method :: ", url, uriVariables, httpMethod.name(), ex);
+            }
+        });
+        return responseFuture;
+    }
+
+    /**
+     * Same as {@link #executeAsync}, hedged by the {@link RequestHedger}; only for idempotent reads
+     *
+     * @param url           url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param responseClass
+     * @param uriVariables
+     * @return future of the first successful ResponseEntity of the REST API calls
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> executeHedgedAsync(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return requestHedger.execute(attemptListener -> executeAsync(attemptListener, url, httpEntity, httpMethod, responseClass, uriVariables));
+    }
+
+    /**
+     * @param url          url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param bodyReader   reads the response body while it streams in; called only for successful responses
+     * @param uriVariables
+     * @return future of the value read from the response body; reading blocks, so it runs on the upstream I/O pool
+     */
+    public <T> CompletableFuture<T> streamAsync(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, IResponseBodyReader<T> bodyReader, Object... uriVariables) {
+        log.trace("Streaming {} {} with {} method asynchronously", url, uriVariables, httpMethod.name());
+        HttpRequest request;
+        try {
+            request = buildRequest(UriComponentsBuilder.fromUriString(url).buildAndExpand(uriVariables).encode().toUri(),
+                    httpEntity, httpMethod);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        return upstreamGuard.submit(UpstreamOperation.of(url), () -> {
+                    long startNanos = System.nanoTime();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                            .handleAsync((response, ex) -> {
+                                String status = Objects.isNull(ex) ? String.valueOf(response.statusCode()) : null;
+                                try {
+                                    if (Objects.nonNull(ex)) {
+                                        throw translateException(request.uri().toString(), httpMethod, ex);
+                                    }
+                                    HttpHeaders headers = toHttpHeaders(response);
+                                    try (InputStream body = decode(response.body(), headers)) {
+                                        checkStatus(response.statusCode(), headers, body);
+                                        return bodyReader.read(body);
+                                    } catch (IOException ioException) {
+                                        throw translateException(request.uri().toString(), httpMethod, ioException);
+                                    }
+                                } catch (RuntimeException failure) {
+                                    status = UpstreamMetrics.statusOf(failure);
+                                    throw failure;
+                                } finally {
+                                    upstreamMetrics.recordRequest(UpstreamMetrics.ASYNC_CLIENT, httpMethod, url,
+                                            status, System.nanoTime() - startNanos);
+                                }
+                            }, bodyReadExecutor);
+                })
+                .whenComplete((result, ex) -> {
+                    if (Objects.nonNull(ex) && !(ex instanceof HttpClientErrorException.TooManyRequests) && !(ex instanceof UpstreamRejectedException)) {
+                        log.error("Exception occurred while for url {} {} with {} method :: ", url, uriVariables, httpMethod.name(), ex);
+                    }
+                });
+    }
+
+    private RuntimeException translateException(String url, HttpMethod httpMethod, Throwable ex) {
+        Throwable cause = Futures.unwrap(ex);
+        if (cause instanceof IOException) {
+            return new ResourceAccessException(String.format("I/O error on %s request for \"%s\": %s",
+                    httpMethod.name(), url, cause.getMessage()), (IOException) cause);
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new RestClientException(cause.getMessage(), cause);
+    }
+
+    private HttpRequest buildRequest(URI uri, HttpEntity<?> httpEntity, HttpMethod httpMethod) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(requestTimeout);
+        httpEntity.getHeaders().forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        if (compression && !httpEntity.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, GZIP + ", " + DEFLATE);
+        }
+        HttpRequest.BodyPublisher body = httpEntity.hasBody()
+                ? HttpRequest.BodyPublishers.ofByteArray(writeBody(httpEntity.getBody()))
+                : HttpRequest.BodyPublishers.noBody();
+        return builder.method(httpMethod.name(), body).build();
+    }
+
+    private byte[] writeBody(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new RestClientException("Failed to serialize request body", ex);
+        }
+    }
+
+    private <T> ResponseEntity<T> toResponseEntity(HttpResponse<byte[]> response, Class<T> responseClass) {
+        HttpHeaders headers = toHttpHeaders(response);
+        byte[] content = response.body();
+        if (Objects.nonNull(content) && content.length > 0) {
+            try (InputStream decoded = decode(new ByteArrayInputStream(content), headers)) {
+                content = decoded.readAllBytes();
+            } catch (IOException ex) {
+                throw new RestClientException("Failed to decode response body", ex);
+            }
+        }
+        HttpStatus status = checkStatus(response.statusCode(), headers, content);
+        T body = null;
+        if (Objects.nonNull(content) && content.length > 0) {
+            try {
+                body = objectMapper.readValue(content, responseClass);
+            } catch (IOException ex) {
+                throw new RestClientException("Failed to read response body", ex);
+            }
+        }
+        return new ResponseEntity<>(body, headers, status);
+    }
+
+    /**
+     * @param body    response body as received
+     * @param headers response headers; Content-Encoding and Content-Length are removed once the body is decoded
+     * @return body decoded according to its Content-Encoding, counted before and after decoding
+     */
+    private InputStream decode(InputStream body, HttpHeaders headers) throws IOException {
+        InputStream wireBody = transportCounters.countWireBytes(body);
+        String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+        InputStream decodedBody;
+        if (GZIP.equalsIgnoreCase(contentEncoding)) {
+            decodedBody = new GZIPInputStream(wireBody);
+        } else if (DEFLATE.equalsIgnoreCase(contentEncoding)) {
+            decodedBody = new InflaterInputStream(wireBody);
+        } else {
+            return transportCounters.countDecodedBytes(wireBody);
+        }
+        headers.remove(HttpHeaders.CONTENT_ENCODING);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return transportCounters.countDecodedBytes(decodedBody);
+    }
+
+    private static HttpHeaders toHttpHeaders(HttpResponse<?> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        return headers;
+    }
+
+    private static HttpStatus checkStatus(int statusCode, HttpHeaders headers, InputStream body) throws IOException {
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        if (Objects.isNull(status) || status.isError()) {
+            return checkStatus(statusCode, headers, body.readAllBytes());
+        }
+        return status;
+    }
+
+    /**
+     * @return resolved status of a successful response
+     * @throws RestClientResponseException of the type RestTemplate would throw for an error status
+     */
+    private static HttpStatus checkStatus(int statusCode, HttpHeaders headers, byte[] body) {
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        if (Objects.isNull(status)) {
+            throw new UnknownHttpStatusCodeException(statusCode, "", headers, body, StandardCharsets.UTF_8);
+        }
+        if (status.is4xxClientError()) {
+            throw HttpClientErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8);
+        }
+        if (status.is5xxServerError()) {
+            throw HttpServerErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.rqchallenge.commonutils;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last windowSize calls.
+ * Once at least minimumCalls are recorded and the share of failed or of slow calls reaches its threshold the circuit
+ * opens and calls are refused for the open duration. It then lets halfOpenCalls trial calls through: the circuit
+ * closes with a fresh window when all of them succeed in time, and opens again on the first failed or slow one.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoClock;
+
+    private final byte[] window;
+    private final AtomicLong rejections = new AtomicLong();
+    private final AtomicLong openings = new AtomicLong();
+    private int recorded;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    /**
+     * @param windowSize            number of most recent calls the rates are computed over
+     * @param minimumCalls          calls recorded before the rates are evaluated
+     * @param failureRateThreshold  percentage of failed calls opening the circuit
+     * @param slowCallDuration      calls taking at least this long are slow
+     * @param slowCallRateThreshold percentage of slow calls opening the circuit
+     * @param openDuration          how long calls are refused before trial calls are let through
+     * @param halfOpenCalls         trial calls deciding whether the circuit closes
+     * @param nanoClock
+     */
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold, Duration slowCallDuration,
+                          double slowCallRateThreshold, Duration openDuration, int halfOpenCalls, LongSupplier nanoClock) {
+        this.window = new byte[Math.max(1, windowSize)];
+        this.minimumCalls = Math.max(1, Math.min(minimumCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return true if a call may be made; every permitted call must be followed by exactly one
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openedAtNanos < openNanos) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits >= halfOpenCalls) {
+                rejections.incrementAndGet();
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    /**
+     * @param durationNanos time the upstream took to answer
+     */
+    public synchronized void onSuccess(long durationNanos) {
+        onResult(false, durationNanos >= slowCallNanos);
+    }
+
+    /**
+     * @param durationNanos time until the call failed
+     */
+    public synchronized void onFailure(long durationNanos) {
+        onResult(true, durationNanos >= slowCallNanos);
+    }
+
+    /**
+     * Releases the permission of a call whose outcome says nothing about the upstream's health
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return calls refused while the circuit was open or its trial calls were taken
+     */
+    public long getRejectionCount() {
+        return rejections.get();
+    }
+
+    /**
+     * @return times the circuit opened
+     */
+    public long getOpenCount() {
+        return openings.get();
+    }
+
+    private void onResult(boolean failed, boolean slow) {
+        if (state == State.HALF_OPEN) {
+            if (failed || slow) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+        record((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+        if (recorded >= minimumCalls
+                && (failures * 100.0 / recorded >= failureRateThreshold || slowCalls * 100.0 / recorded >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void record(byte outcome) {
+        if (recorded == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            recorded++;
+        }
+        window[next] = outcome;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+        openings.incrementAndGet();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
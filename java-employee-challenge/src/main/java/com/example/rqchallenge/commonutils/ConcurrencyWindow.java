@@ -0,0 +1,101 @@
+package com.example.rqchallenge.commonutils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs an asynchronous call for every item of a list with at most a fixed number of calls in flight.
+ * A new call is started as soon as one completes, so a slow item does not hold back the rest of the window.
+ */
+public final class ConcurrencyWindow {
+
+    private ConcurrencyWindow() {
+    }
+
+    /**
+     * @param items  items to process
+     * @param window max number of calls in flight
+     * @param call   starts the call for one item; a call completing exceptionally fails the returned future
+     * @return future of the call results, in item order
+     */
+    public static <T, R> CompletableFuture<List<R>> map(List<T> items, int window, Function<T, CompletableFuture<R>> call) {
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        Run<T, R> run = new Run<>(items, call);
+        for (int i = 0; i < Math.min(Math.max(1, window), items.size()); i++) {
+            run.pump();
+        }
+        return run.result;
+    }
+
+    private static class Run<T, R> {
+        private final List<T> items;
+        private final Function<T, CompletableFuture<R>> call;
+        private final Object[] results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+        Run(List<T> items, Function<T, CompletableFuture<R>> call) {
+            this.items = items;
+            this.call = call;
+            this.results = new Object[items.size()];
+            this.remaining = new AtomicInteger(items.size());
+        }
+
+        /**
+         * Starts calls one after another in this slot; calls completing immediately are looped over
+         * rather than recursed into, so long runs of them cannot overflow the stack.
+         */
+        void pump() {
+            while (!result.isDone()) {
+                int index = next.getAndIncrement();
+                if (index >= items.size()) {
+                    return;
+                }
+                CompletableFuture<R> future;
+                try {
+                    future = call.apply(items.get(index));
+                } catch (RuntimeException ex) {
+                    future = CompletableFuture.failedFuture(ex);
+                }
+                if (!future.isDone()) {
+                    future.whenComplete((value, ex) -> {
+                        if (complete(index, value, ex)) {
+                            pump();
+                        }
+                    });
+                    return;
+                }
+                future.whenComplete((value, ex) -> complete(index, value, ex));
+            }
+        }
+
+        /**
+         * @return true if more items may still be started
+         */
+        @SuppressWarnings("unchecked")
+        private boolean complete(int index, R value, Throwable ex) {
+            if (Objects.nonNull(ex)) {
+                result.completeExceptionally(ex);
+                return false;
+            }
+            results[index] = value;
+            if (remaining.decrementAndGet() == 0) {
+                List<R> values = new ArrayList<>(results.length);
+                for (Object r : results) {
+                    values.add((R) r);
+                }
+                result.complete(values);
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.exceptions.InvalidRequestException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Subset of employee fields requested with a comma separated fields parameter, e.g. id,name,salary.
+ */
+public class EmployeeFieldProjection {
+    private static final Map<String, Function<Employee, Object>> FIELDS = createFields();
+    private static final EmployeeFieldProjection ALL_FIELDS = new EmployeeFieldProjection(FIELDS);
+
+    private final Map<String, Function<Employee, Object>> fields;
+
+    private EmployeeFieldProjection(Map<String, Function<Employee, Object>> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * @param fields comma separated field names; blank for all fields
+     * @return projection of the named fields, in the order of the field names
+     * @throws InvalidRequestException for an unknown field name
+     */
+    public static EmployeeFieldProjection of(String fields) {
+        if (StringUtils.isBlank(fields)) {
+            return ALL_FIELDS;
+        }
+        Map<String, Function<Employee, Object>> selected = new LinkedHashMap<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            Function<Employee, Object> getter = FIELDS.get(name);
+            if (Objects.isNull(getter)) {
+                throw new InvalidRequestException(String.format(MessageConstants.INVALID_FIELDS_PARAMETER_VALIDATION_MESSAGE, name));
+            }
+            selected.put(name, getter);
+        }
+        return new EmployeeFieldProjection(selected);
+    }
+
+    /**
+     * @param employee
+     * @return requested fields of employee by field name
+     */
+    public Map<String, Object> apply(Employee employee) {
+        Map<String, Object> projected = new LinkedHashMap<>(fields.size() * 4 / 3 + 1);
+        fields.forEach((name, getter) -> projected.put(name, getter.apply(employee)));
+        return projected;
+    }
+
+    private static Map<String, Function<Employee, Object>> createFields() {
+        Map<String, Function<Employee, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", Employee::getId);
+        fields.put("name", Employee::getName);
+        fields.put("salary", Employee::getSalary);
+        fields.put("age", Employee::getAge);
+        fields.put("profileImage", Employee::getProfileImage);
+        return Collections.unmodifiableMap(fields);
+    }
+}
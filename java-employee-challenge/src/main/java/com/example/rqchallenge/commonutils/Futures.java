@@ -0,0 +1,58 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waiting for and unwrapping the futures of upstream calls
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * @param future    future to wait for
+     * @param timeout   max time to wait
+     * @param onTimeout run when the wait times out, before the timeout is reported
+     * @return result of future
+     * @throws OperationFailedException if the wait times out or is interrupted, or the future failed with a checked
+     *                                  exception; runtime exceptions and errors the future failed with are rethrown
+     */
+    public static <T> T await(CompletableFuture<T> future, Duration timeout, Runnable onTimeout) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            onTimeout.run();
+            throw new OperationFailedException(MessageConstants.UPSTREAM_CALL_TIMED_OUT_ERROR_MESSAGE);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new OperationFailedException(MessageConstants.UPSTREAM_CALL_TIMED_OUT_ERROR_MESSAGE);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new OperationFailedException(MessageConstants.GLOBAL_ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * @param ex failure a dependent stage completed with, may be null
+     * @return cause of ex if it is a {@link CompletionException} wrapping one, otherwise ex
+     */
+    public static Throwable unwrap(Throwable ex) {
+        return ex instanceof CompletionException && Objects.nonNull(ex.getCause()) ? ex.getCause() : ex;
+    }
+}
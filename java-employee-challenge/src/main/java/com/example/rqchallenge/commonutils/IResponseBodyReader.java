@@ -0,0 +1,13 @@
+package com.example.rqchallenge.commonutils;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consumes a response body as it arrives instead of buffering it.
+ * @param <T> value read from the body
+ */
+@FunctionalInterface
+public interface IResponseBodyReader<T> {
+    T read(InputStream body) throws IOException;
+}
@@ -0,0 +1,59 @@
+package com.example.rqchallenge.commonutils;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Request entities of the employee API clients, sending and accepting JSON
+ */
+public final class JsonHttpEntities {
+
+    private JsonHttpEntities() {
+    }
+
+    /**
+     * @return HttpEntity with only headers
+     */
+    public static HttpEntity<?> getHttpEntity() {
+        return new HttpEntity<>(jsonHeaders());
+    }
+
+    /**
+     * @param input
+     * @return HttpEntity with header and input payload body
+     */
+    public static HttpEntity<?> getHttpEntity(Map<String, Object> input) {
+        return new HttpEntity<>(input, jsonHeaders());
+    }
+
+    /**
+     * @param conditionalHeaders If-None-Match and If-Modified-Since of a revalidation
+     * @return HttpEntity with only headers, including the conditional ones
+     */
+    public static HttpEntity<?> getConditionalHttpEntity(HttpHeaders conditionalHeaders) {
+        HttpHeaders headers = jsonHeaders();
+        headers.addAll(conditionalHeaders);
+        return new HttpEntity<>(headers);
+    }
+
+    /**
+     * @param url                url of the revalidated resource
+     * @param conditionalHeaders If-None-Match and If-Modified-Since of the revalidation
+     * @return single-flight key shared only by calls revalidating the same representation
+     */
+    public static String conditionalCallKey(String url, HttpHeaders conditionalHeaders) {
+        return url + " " + conditionalHeaders.getFirst(HttpHeaders.IF_NONE_MATCH)
+                + " " + conditionalHeaders.getFirst(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        return headers;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.rqchallenge.commonutils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hedges single employee lookups against slow upstream responses.
+ * When a call has not answered within the delay-percentile of the latencies of recent calls, a second identical call
+ * is started; the first successful answer wins and the other call is cancelled. Each call earns budget-percent / 100
+ * of a hedge, so hedges add at most that share of extra upstream traffic on top of a small burst allowance.
+ * Latencies and the hedge delay run from the dispatch of an attempt by the {@link UpstreamRateGovernor}, not from
+ * when it was queued; every attempt is recorded, a cancelled one with the time it had been running. No hedges are sent
+ * while the governor is paused by a throttled response. Hedging only starts once minimum-samples latencies are known.
+ */
+@Service
+@Slf4j
+public class RequestHedger {
+    private static final double MAX_BUDGET_TOKENS = 10;
+    private static final int DELAY_UPDATE_INTERVAL = 16;
+
+    private final boolean enabled;
+    private final int delayPercentile;
+    private final long minDelayNanos;
+    private final int minimumSamples;
+    private final double budgetPerCall;
+    private final UpstreamRateGovernor upstreamRateGovernor;
+    private final ScheduledExecutorService scheduler;
+
+    private final long[] latencies;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+    private final AtomicLong budgetExhausted = new AtomicLong();
+    private final AtomicLong pausedSkips = new AtomicLong();
+    private int recorded;
+    private int next;
+    private int recordedSinceUpdate;
+    private long hedgeDelayNanos;
+    private double budgetTokens;
+
+    @Autowired
+    public RequestHedger(UpstreamRateGovernor upstreamRateGovernor,
+                         @Value("${upstream.hedging.enabled:false}") boolean enabled,
+                         @Value("${upstream.hedging.delay-percentile:95}") int delayPercentile,
+                         @Value("${upstream.hedging.min-delay-ms:20}") long minDelayMillis,
+                         @Value("${upstream.hedging.window-size:256}") int windowSize,
+                         @Value("${upstream.hedging.minimum-samples:20}") int minimumSamples,
+                         @Value("${upstream.hedging.budget-percent:10}") double budgetPercent) {
+        this.upstreamRateGovernor = upstreamRateGovernor;
+        this.enabled = enabled;
+        this.delayPercentile = Math.min(Math.max(delayPercentile, 1), 100);
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.latencies = new long[Math.max(1, windowSize)];
+        this.minimumSamples = Math.max(1, Math.min(minimumSamples, latencies.length));
+        this.budgetPerCall = Math.max(0, budgetPercent) / 100;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-hedging");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param call starts one upstream call, reporting its attempts to the given listener, e.g. through
+     *             {@link UpstreamGuard#submit(UpstreamOperation, Supplier, UpstreamAttemptListener)}; must not block
+     *             and must be safe to run twice
+     * @return future completed with the first successful answer, or with the failure of the last call to fail
+     */
+    public <T> CompletableFuture<T> execute(Function<UpstreamAttemptListener, CompletableFuture<T>> call) {
+        if (!enabled) {
+            return call.apply(UpstreamAttemptListener.NONE);
+        }
+        calls.incrementAndGet();
+        earnBudget();
+        HedgedCall<T> hedgedCall = new HedgedCall<>(call);
+        hedgedCall.start(false);
+        hedgedCall.result.whenComplete((result, ex) -> {
+            if (hedgedCall.result.isCancelled()) {
+                hedgedCall.cancelAttempts();
+            }
+        });
+        return hedgedCall.result;
+    }
+
+    /**
+     * @return delay after which a call is hedged, empty until enough latencies are recorded
+     */
+    public synchronized Optional<Long> getHedgeDelayNanos() {
+        return recorded >= minimumSamples ? Optional.of(hedgeDelayNanos) : Optional.empty();
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    /**
+     * @return hedged calls sent
+     */
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    /**
+     * @return hedged calls that answered before the call they hedged
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    /**
+     * @return calls not hedged although they were slow, because the budget was spent
+     */
+    public long getBudgetExhaustedCount() {
+        return budgetExhausted.get();
+    }
+
+    /**
+     * @return calls not hedged although they were slow, because the governor was paused by a throttled response
+     */
+    public long getPausedSkipCount() {
+        return pausedSkips.get();
+    }
+
+    private synchronized void earnBudget() {
+        budgetTokens = Math.min(MAX_BUDGET_TOKENS, budgetTokens + budgetPerCall);
+    }
+
+    private synchronized boolean trySpendBudget() {
+        if (budgetTokens < 1) {
+            budgetExhausted.incrementAndGet();
+            return false;
+        }
+        budgetTokens -= 1;
+        return true;
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % latencies.length;
+        recorded = Math.min(recorded + 1, latencies.length);
+        if (++recordedSinceUpdate >= DELAY_UPDATE_INTERVAL || recorded <= minimumSamples) {
+            recordedSinceUpdate = 0;
+            long[] sorted = Arrays.copyOf(latencies, recorded);
+            Arrays.sort(sorted);
+            int rank = (int) (((long) delayPercentile * sorted.length + 99) / 100);
+            hedgeDelayNanos = Math.max(minDelayNanos, sorted[Math.max(0, rank - 1)]);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private class HedgedCall<T> {
+        private final Function<UpstreamAttemptListener, CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>(2);
+        private final AtomicBoolean hedgeScheduled = new AtomicBoolean();
+        private int outstanding;
+
+        HedgedCall(Function<UpstreamAttemptListener, CompletableFuture<T>> call) {
+            this.call = call;
+        }
+
+        synchronized void start(boolean hedge) {
+            if (result.isDone()) {
+                return;
+            }
+            if (hedge) {
+                hedges.incrementAndGet();
+            }
+            CompletableFuture<T> attempt;
+            try {
+                attempt = call.apply(new UpstreamAttemptListener() {
+                    @Override
+                    public void onDispatched() {
+                        if (!hedge) {
+                            scheduleHedge();
+                        }
+                    }
+
+                    @Override
+                    public void onAttemptCompleted(long durationNanos) {
+                        recordLatency(durationNanos);
+                    }
+                });
+            } catch (RuntimeException ex) {
+                attempt = CompletableFuture.failedFuture(ex);
+            }
+            attempts.add(attempt);
+            outstanding++;
+            CompletableFuture<T> started = attempt;
+            attempt.whenComplete((value, ex) -> onComplete(started, hedge, value, ex));
+        }
+
+        private void scheduleHedge() {
+            Optional<Long> delayNanos = getHedgeDelayNanos();
+            if (delayNanos.isEmpty() || result.isDone() || !hedgeScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                if (upstreamRateGovernor.isPaused()) {
+                    pausedSkips.incrementAndGet();
+                    log.debug("No upstream answer after {} ms, not hedging while the upstream throttles", TimeUnit.NANOSECONDS.toMillis(delayNanos.get()));
+                } else if (trySpendBudget()) {
+                    log.debug("No upstream answer after {} ms, sending hedged call", TimeUnit.NANOSECONDS.toMillis(delayNanos.get()));
+                    start(true);
+                }
+            }, delayNanos.get(), TimeUnit.NANOSECONDS);
+            result.whenComplete((value, ex) -> hedge.cancel(false));
+        }
+
+        void cancelAttempts() {
+            List<CompletableFuture<T>> started;
+            synchronized (this) {
+                started = new ArrayList<>(attempts);
+            }
+            started.forEach(attempt -> attempt.cancel(true));
+        }
+
+        private void onComplete(CompletableFuture<T> attempt, boolean hedge, T value, Throwable ex) {
+            List<CompletableFuture<T>> losers = new ArrayList<>(1);
+            synchronized (this) {
+                outstanding--;
+                if (result.isDone() || (Objects.nonNull(ex) && outstanding > 0)) {
+                    return;
+                }
+                attempts.stream().filter(other -> other != attempt).forEach(losers::add);
+            }
+            if (Objects.nonNull(ex)) {
+                result.completeExceptionally(Futures.unwrap(ex));
+                return;
+            }
+            if (hedge) {
+                hedgeWins.incrementAndGet();
+            }
+            result.complete(value);
+            losers.forEach(loser -> loser.cancel(true));
+        }
+    }
+}
@@ -1,47 +1,170 @@
 package com.example.rqchallenge.commonutils;
 
 import com.example.rqchallenge.aspects.Timed;
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Executes blocking RestTemplate calls to the employee API through the {@link UpstreamGuard} and {@link UpstreamRateGovernor}.
+ * The exchange itself runs on a dedicated upstream I/O pool, so throttled calls wait for their retry
+ * in the governor's queue rather than sleeping on a request thread, and calls to a failing upstream fail fast.
+ */
 @Service
 @Slf4j
-@AllArgsConstructor(onConstructor = @__(@Autowired))
 public class RestExecutorService {
     private final RestTemplate restTemplate;
+    private final UpstreamGuard upstreamGuard;
+    private final RequestHedger requestHedger;
+    private final UpstreamMetrics upstreamMetrics;
+    private final ExecutorService upstreamBlockingExecutor;
+    private final Duration callTimeout;
 
+    @Autowired
+    public RestExecutorService(RestTemplate restTemplate,
+                               UpstreamGuard upstreamGuard,
+                               RequestHedger requestHedger,
+                               UpstreamMetrics upstreamMetrics,
+                               @Qualifier("upstreamBlockingExecutor") ExecutorService upstreamBlockingExecutor,
+                               @Value("${upstream.blocking.call-timeout-ms:60000}") long callTimeoutMillis) {
+        this.restTemplate = restTemplate;
+        this.upstreamGuard = upstreamGuard;
+        this.requestHedger = requestHedger;
+        this.upstreamMetrics = upstreamMetrics;
+        this.upstreamBlockingExecutor = upstreamBlockingExecutor;
+        this.callTimeout = Duration.ofMillis(callTimeoutMillis);
+    }
 
     /**
-     * @param url
+     * @param url           url template, expanded with uriVariables
      * @param httpEntity
      * @param httpMethod
      * @param responseClass
+     * @param uriVariables
      * @return ResponseEntity of REST API call
      */
-    @Retryable(
-            value = {HttpClientErrorException.TooManyRequests.class},
-            maxAttempts = 10,
-            backoff = @Backoff(delay = 2000L, multiplier = 1.5D, maxDelay = 20000L))
     @Timed
-    public <T> ResponseEntity<T> execute(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass) {
+    public <T> ResponseEntity<T> execute(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return await(executeAsync(url, httpEntity, httpMethod, responseClass, uriVariables), url, httpMethod);
+    }
+
+    /**
+     * Same as {@link #execute}, hedged by the {@link RequestHedger}; only for idempotent reads
+     *
+     * @param url           url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param responseClass
+     * @param uriVariables
+     * @return first successful ResponseEntity of the REST API calls
+     */
+    @Timed
+    public <T> ResponseEntity<T> executeHedged(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return await(executeHedgedAsync(url, httpEntity, httpMethod, responseClass, uriVariables), url, httpMethod);
+    }
+
+    /**
+     * @param url          url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param bodyReader   reads the response body while it streams in; called only for successful responses
+     * @param uriVariables
+     * @return value read from the response body
+     */
+    @Timed
+    public <T> T stream(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, IResponseBodyReader<T> bodyReader, Object... uriVariables) {
+        CompletableFuture<T> future = upstreamGuard.submit(UpstreamOperation.of(url), () -> CompletableFuture.supplyAsync(
+                () -> extract(url, httpEntity, httpMethod, bodyReader, uriVariables), upstreamBlockingExecutor));
+        return await(future, url, httpMethod);
+    }
+
+    /**
+     * @param url           url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param responseClass
+     * @param uriVariables
+     * @return future of the ResponseEntity of REST API call, completed on the upstream I/O pool
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> executeAsync(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return executeAsync(UpstreamAttemptListener.NONE, url, httpEntity, httpMethod, responseClass, uriVariables);
+    }
+
+    /**
+     * Same as {@link #executeAsync}, hedged by the {@link RequestHedger}; only for idempotent reads
+     *
+     * @param url           url template, expanded with uriVariables
+     * @param httpEntity
+     * @param httpMethod
+     * @param responseClass
+     * @param uriVariables
+     * @return future of the first successful ResponseEntity of the REST API calls
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> executeHedgedAsync(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return requestHedger.execute(attemptListener -> executeAsync(attemptListener, url, httpEntity, httpMethod, responseClass, uriVariables));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> executeAsync(UpstreamAttemptListener attemptListener, String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return upstreamGuard.submit(UpstreamOperation.of(url), () -> CompletableFuture.supplyAsync(
+                () -> exchange(url, httpEntity, httpMethod, responseClass, uriVariables), upstreamBlockingExecutor), attemptListener);
+    }
+
+    private <T> ResponseEntity<T> exchange(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, Class<T> responseClass, Object... uriVariables) {
+        return call(url, httpMethod, uriVariables, status -> {
+            ResponseEntity<T> responseEntity = restTemplate.exchange(url, httpMethod, httpEntity, responseClass, uriVariables);
+            status.accept(responseEntity.getStatusCodeValue());
+            return responseEntity;
+        });
+    }
+
+    private <T> T extract(String url, HttpEntity<?> httpEntity, HttpMethod httpMethod, IResponseBodyReader<T> bodyReader, Object... uriVariables) {
+        return call(url, httpMethod, uriVariables, status -> restTemplate.execute(url, httpMethod,
+                restTemplate.httpEntityCallback(httpEntity), response -> {
+                    status.accept(response.getRawStatusCode());
+                    return bodyReader.read(response.getBody());
+                }, uriVariables));
+    }
+
+    private <T> T call(String url, HttpMethod httpMethod, Object[] uriVariables, Function<IntConsumer, T> call) {
+        long startNanos = System.nanoTime();
         try {
-            log.trace("Calling {} with {} method", url, httpMethod.name());
-            return restTemplate.exchange(url, httpMethod, httpEntity, responseClass);
+            log.trace("Calling {} {} with {} method", url, uriVariables, httpMethod.name());
+            AtomicInteger status = new AtomicInteger();
+            T result = call.apply(status::set);
+            upstreamMetrics.recordRequest(UpstreamMetrics.BLOCKING_CLIENT, httpMethod, url,
+                    String.valueOf(status.get()), System.nanoTime() - startNanos);
+            return result;
         } catch (HttpClientErrorException.TooManyRequests ex) {
+            upstreamMetrics.recordRequest(UpstreamMetrics.BLOCKING_CLIENT, httpMethod, url,
+                    UpstreamMetrics.statusOf(ex), System.nanoTime() - startNanos);
             throw ex;
         } catch (Exception ex) {
-            log.error("Exception occurred while for url {} with {} method :: ", url, httpMethod.name(), ex);
+            upstreamMetrics.recordRequest(UpstreamMetrics.BLOCKING_CLIENT, httpMethod, url,
+                    UpstreamMetrics.statusOf(ex), System.nanoTime() - startNanos);
+            log.error("Exception occurred while for url {} {} with {} method :: ", url, uriVariables, httpMethod.name(), ex);
             throw ex;
         }
     }
 
+    private <T> T await(CompletableFuture<T> future, String url, HttpMethod httpMethod) {
+        return Futures.await(future, callTimeout, () -> {
+            future.cancel(false);
+            log.error("Timed out after {} ms calling {} with {} method", callTimeout.toMillis(), url, httpMethod.name());
+        });
+    }
+
 }
@@ -0,0 +1,83 @@
+package com.example.rqchallenge.commonutils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single in-flight execution.
+ * The first caller (leader) runs the call on its own thread, callers arriving while it is in flight
+ * (followers) share the leader's outcome, success or failure, but wait no longer than their own timeout.
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param key             identity of the call, e.g. the upstream url
+     * @param call            call to execute if no call for the key is in flight
+     * @param followerTimeout max time to wait for an in-flight call started by another caller
+     * @return result of the call
+     */
+    public V execute(K key, Supplier<V> call, Duration followerTimeout) {
+        CompletableFuture<V> leaderFuture = new CompletableFuture<>();
+        CompletableFuture<V> inFlightFuture = inFlight.putIfAbsent(key, leaderFuture);
+        if (Objects.nonNull(inFlightFuture)) {
+            log.trace("Joining in-flight call for {}", key);
+            return await(key, inFlightFuture, followerTimeout);
+        }
+        try {
+            V result = call.get();
+            leaderFuture.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            leaderFuture.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, leaderFuture);
+        }
+    }
+
+    /**
+     * @param key  identity of the call, e.g. the upstream url
+     * @param call asynchronous call to start if no call for the key is in flight
+     * @return future of the shared call; cancelling or timing out this future does not affect other callers
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> leaderFuture = new CompletableFuture<>();
+        CompletableFuture<V> inFlightFuture = inFlight.putIfAbsent(key, leaderFuture);
+        if (Objects.nonNull(inFlightFuture)) {
+            log.trace("Joining in-flight call for {}", key);
+            return inFlightFuture.copy();
+        }
+        try {
+            call.get().whenComplete((result, ex) -> {
+                inFlight.remove(key, leaderFuture);
+                if (Objects.nonNull(ex)) {
+                    leaderFuture.completeExceptionally(ex);
+                } else {
+                    leaderFuture.complete(result);
+                }
+            });
+        } catch (RuntimeException ex) {
+            inFlight.remove(key, leaderFuture);
+            leaderFuture.completeExceptionally(ex);
+        }
+        return leaderFuture.copy();
+    }
+
+    /**
+     * @return number of distinct calls currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> future, Duration timeout) {
+        return Futures.await(future, timeout,
+                () -> log.warn("Timed out after {} ms waiting for in-flight call for {}", timeout.toMillis(), key));
+    }
+}
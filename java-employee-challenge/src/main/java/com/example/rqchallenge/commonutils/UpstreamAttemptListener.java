@@ -0,0 +1,25 @@
+package com.example.rqchallenge.commonutils;
+
+/**
+ * Told by the {@link UpstreamGuard} when the {@link UpstreamRateGovernor} dispatches an attempt of a call, and how long
+ * the attempt took from that dispatch, so time spent queued in the governor is not counted as upstream latency
+ */
+public interface UpstreamAttemptListener {
+    UpstreamAttemptListener NONE = new UpstreamAttemptListener() {
+    };
+
+    /**
+     * Called each time an attempt of the call leaves the governor queue, including retries of throttled attempts
+     */
+    default void onDispatched() {
+    }
+
+    /**
+     * Called once when the call completes, if any attempt was dispatched; also called for a call cancelled in flight,
+     * with the time it had been running
+     *
+     * @param durationNanos time from the dispatch of the last attempt to its completion
+     */
+    default void onAttemptCompleted(long durationNanos) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.exceptions.ServiceUnavailableException;
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Guards every call to the employee API with a {@link CircuitBreaker} and a bulkhead per {@link UpstreamOperation}
+ * before handing it to the {@link UpstreamRateGovernor}.
+ * While an operation's circuit is open, or its bulkhead already holds the max number of queued and in-flight calls,
+ * new calls fail at once with an {@link UpstreamRejectedException} instead of waiting for the upstream.
+ * The breaker records the last attempt of each call: 5xx responses and I/O errors are failures, other 4xx responses
+ * are answers of a healthy upstream, and throttling and cancelled calls are left out.
+ */
+@Service
+@Slf4j
+public class UpstreamGuard {
+    private final UpstreamRateGovernor upstreamRateGovernor;
+    private final int maxConcurrentCalls;
+    private final Map<UpstreamOperation, CircuitBreaker> circuitBreakers = new EnumMap<>(UpstreamOperation.class);
+    private final Map<UpstreamOperation, Semaphore> bulkheads = new EnumMap<>(UpstreamOperation.class);
+    private final Map<UpstreamOperation, AtomicLong> bulkheadRejections = new EnumMap<>(UpstreamOperation.class);
+
+    @Autowired
+    public UpstreamGuard(UpstreamRateGovernor upstreamRateGovernor,
+                         @Value("${upstream.circuit-breaker.window-size:20}") int windowSize,
+                         @Value("${upstream.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                         @Value("${upstream.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+                         @Value("${upstream.circuit-breaker.slow-call-duration-ms:5000}") long slowCallMillis,
+                         @Value("${upstream.circuit-breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+                         @Value("${upstream.circuit-breaker.open-duration-ms:30000}") long openMillis,
+                         @Value("${upstream.circuit-breaker.half-open-calls:3}") int halfOpenCalls,
+                         @Value("${upstream.bulkhead.max-concurrent-calls:50}") int maxConcurrentCalls) {
+        this.upstreamRateGovernor = upstreamRateGovernor;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        for (UpstreamOperation operation : UpstreamOperation.values()) {
+            circuitBreakers.put(operation, new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+                    Duration.ofMillis(slowCallMillis), slowCallRateThreshold, Duration.ofMillis(openMillis), halfOpenCalls,
+                    System::nanoTime));
+            bulkheads.put(operation, new Semaphore(maxConcurrentCalls));
+            bulkheadRejections.put(operation, new AtomicLong());
+        }
+    }
+
+    /**
+     * @param operation operation the call belongs to
+     * @param call      starts one attempt of the upstream call; must not block
+     * @return future of the governed call, or a failed future if the call is rejected by the circuit or the bulkhead;
+     * cancelling it drops the call if it is still queued in the governor
+     */
+    public <T> CompletableFuture<T> submit(UpstreamOperation operation, Supplier<CompletableFuture<T>> call) {
+        return submit(operation, call, UpstreamAttemptListener.NONE);
+    }
+
+    /**
+     * Same as {@link #submit(UpstreamOperation, Supplier)}, reporting the dispatch and duration of the attempts
+     *
+     * @param operation       operation the call belongs to
+     * @param call            starts one attempt of the upstream call; must not block
+     * @param attemptListener told when attempts are dispatched by the governor and how long the last one took
+     * @return future of the governed call, or a failed future if the call is rejected by the circuit or the bulkhead
+     */
+    public <T> CompletableFuture<T> submit(UpstreamOperation operation, Supplier<CompletableFuture<T>> call,
+                                           UpstreamAttemptListener attemptListener) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(operation);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            log.debug("Rejecting {} call to employee API, circuit is {}", operation.getTag(), circuitBreaker.getState());
+            return CompletableFuture.failedFuture(new UpstreamRejectedException(
+                    String.format(MessageConstants.UPSTREAM_CIRCUIT_OPEN_ERROR_MESSAGE, operation.getTag())));
+        }
+        Semaphore bulkhead = bulkheads.get(operation);
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            bulkheadRejections.get(operation).incrementAndGet();
+            log.warn("Rejecting {} call to employee API, {} calls already in flight", operation.getTag(), maxConcurrentCalls);
+            return CompletableFuture.failedFuture(new UpstreamRejectedException(
+                    String.format(MessageConstants.UPSTREAM_BULKHEAD_FULL_ERROR_MESSAGE, operation.getTag())));
+        }
+        AtomicLong attemptStartedAt = new AtomicLong(System.nanoTime());
+        AtomicBoolean dispatched = new AtomicBoolean();
+        CompletableFuture<T> governed = upstreamRateGovernor.submit(() -> {
+            attemptStartedAt.set(System.nanoTime());
+            dispatched.set(true);
+            attemptListener.onDispatched();
+            return call.get();
+        });
+        // a separate future rather than a dependent stage of governed, whose action would be skipped once the
+        // stage is cancelled, leaking the bulkhead permit
+        CompletableFuture<T> guarded = new CompletableFuture<>();
+        governed.whenComplete((result, ex) -> {
+            bulkhead.release();
+            long durationNanos = System.nanoTime() - attemptStartedAt.get();
+            record(circuitBreaker, ex, durationNanos);
+            if (dispatched.get()) {
+                attemptListener.onAttemptCompleted(durationNanos);
+            }
+            if (Objects.isNull(ex)) {
+                guarded.complete(result);
+            } else {
+                guarded.completeExceptionally(ex instanceof CompletionException ? ex : new CompletionException(ex));
+            }
+        });
+        guarded.whenComplete((result, ex) -> {
+            if (guarded.isCancelled()) {
+                governed.cancel(false);
+            }
+        });
+        return guarded;
+    }
+
+    /**
+     * @param operation
+     * @return true while calls of operation are refused because the upstream is failing
+     */
+    public boolean isCircuitOpen(UpstreamOperation operation) {
+        return circuitBreakers.get(operation).getState() == CircuitBreaker.State.OPEN;
+    }
+
+    public CircuitBreaker getCircuitBreaker(UpstreamOperation operation) {
+        return circuitBreakers.get(operation);
+    }
+
+    /**
+     * @param operation
+     * @return calls of operation queued in the governor or in flight
+     */
+    public int getBulkheadInFlight(UpstreamOperation operation) {
+        return maxConcurrentCalls - bulkheads.get(operation).availablePermits();
+    }
+
+    /**
+     * @param operation
+     * @return calls of operation rejected because the bulkhead was full
+     */
+    public long getBulkheadRejectionCount(UpstreamOperation operation) {
+        return bulkheadRejections.get(operation).get();
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, Throwable ex, long durationNanos) {
+        Throwable cause = Futures.unwrap(ex);
+        if (Objects.isNull(cause)) {
+            circuitBreaker.onSuccess(durationNanos);
+        } else if (cause instanceof HttpClientErrorException.TooManyRequests || cause instanceof ServiceUnavailableException
+                || cause instanceof CancellationException) {
+            circuitBreaker.onIgnored();
+        } else if (cause instanceof HttpClientErrorException) {
+            circuitBreaker.onSuccess(durationNanos);
+        } else {
+            circuitBreaker.onFailure(durationNanos);
+        }
+    }
+}
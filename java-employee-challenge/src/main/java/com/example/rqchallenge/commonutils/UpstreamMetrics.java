@@ -0,0 +1,56 @@
+package com.example.rqchallenge.commonutils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records one upstream.requests timer sample per HTTP exchange with the employee API,
+ * tagged with the client engine, method, uri template and response status.
+ * The registry is resolved on first use because the meter binders depend on the upstream clients.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamMetrics {
+    public static final String BLOCKING_CLIENT = "blocking";
+    public static final String ASYNC_CLIENT = "async";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * @param client        engine that made the call
+     * @param httpMethod
+     * @param uriTemplate   url before expansion of path variables, keeps the tag cardinality bounded
+     * @param status        response status code or exception name
+     * @param durationNanos
+     */
+    public void recordRequest(String client, HttpMethod httpMethod, String uriTemplate, String status, long durationNanos) {
+        Timer.builder("upstream.requests")
+                .tag("client", client)
+                .tag("method", httpMethod.name())
+                .tag("uri", uriTemplate)
+                .tag("status", status)
+                .register(meterRegistry.getObject())
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param ex failure of an upstream call
+     * @return response status code if the upstream answered, otherwise the exception name
+     */
+    public static String statusOf(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && Objects.nonNull(ex.getCause()) ? ex.getCause() : ex;
+        if (cause instanceof RestClientResponseException) {
+            return String.valueOf(((RestClientResponseException) cause).getRawStatusCode());
+        }
+        return cause.getClass().getSimpleName();
+    }
+}
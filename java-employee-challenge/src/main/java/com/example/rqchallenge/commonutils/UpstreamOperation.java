@@ -0,0 +1,46 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.constants.APIConstants;
+
+/**
+ * Operations of the employee API, each guarded by its own circuit breaker and bulkhead in {@link UpstreamGuard}
+ */
+public enum UpstreamOperation {
+    LIST("list"),
+    BY_ID("by-id"),
+    CREATE("create"),
+    DELETE("delete");
+
+    private final String tag;
+
+    UpstreamOperation(String tag) {
+        this.tag = tag;
+    }
+
+    /**
+     * @return name of the operation used in metric tags and messages
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * @param uriTemplate url of the call before expansion of path variables
+     * @return operation addressed by uriTemplate
+     */
+    public static UpstreamOperation of(String uriTemplate) {
+        if (uriTemplate.endsWith(APIConstants.GET_EMPLOYEE_BY_ID_URL)) {
+            return BY_ID;
+        }
+        if (uriTemplate.endsWith(APIConstants.CREATE_EMPLOYEE_URL)) {
+            return CREATE;
+        }
+        if (uriTemplate.endsWith(APIConstants.DELETE_EMPLOYEE_URL)) {
+            return DELETE;
+        }
+        if (uriTemplate.endsWith(APIConstants.GET_ALL_EMPLOYEES_URL)) {
+            return LIST;
+        }
+        throw new IllegalArgumentException("Unknown employee API operation " + uriTemplate);
+    }
+}
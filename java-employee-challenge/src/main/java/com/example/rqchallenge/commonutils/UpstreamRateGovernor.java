@@ -0,0 +1,275 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Client-side rate governor for calls to the employee API.
+ * Calls are queued and released by a token bucket whose rate is learned from the upstream: every 429
+ * halves the permitted rate and pauses dispatching for the Retry-After period, every success raises it
+ * again step by step. Throttled calls are retried from a timer instead of sleeping on the caller's thread,
+ * and new calls are rejected once the queue is full.
+ */
+@Service
+@Slf4j
+public class UpstreamRateGovernor {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double rateIncreasePerSuccess;
+    private final int maxQueueDepth;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final double backoffMultiplier;
+    private final long maxBackoffMillis;
+    private final ScheduledExecutorService scheduler;
+
+    private final Deque<GovernedCall<?>> queue = new ArrayDeque<>();
+    private final AtomicBoolean wakeUpScheduled = new AtomicBoolean();
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+    private final AtomicLong throttledResponses = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+    private double permittedRate;
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    @Autowired
+    public UpstreamRateGovernor(@Value("${upstream.governor.initial-rate-per-second:10}") double initialRate,
+                                @Value("${upstream.governor.min-rate-per-second:0.5}") double minRate,
+                                @Value("${upstream.governor.max-rate-per-second:50}") double maxRate,
+                                @Value("${upstream.governor.rate-increase-per-success:0.1}") double rateIncreasePerSuccess,
+                                @Value("${upstream.governor.max-queue-depth:500}") int maxQueueDepth,
+                                @Value("${upstream.governor.max-attempts:10}") int maxAttempts,
+                                @Value("${upstream.governor.initial-backoff-ms:2000}") long initialBackoffMillis,
+                                @Value("${upstream.governor.backoff-multiplier:1.5}") double backoffMultiplier,
+                                @Value("${upstream.governor.max-backoff-ms:20000}") long maxBackoffMillis) {
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.rateIncreasePerSuccess = rateIncreasePerSuccess;
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.backoffMultiplier = backoffMultiplier;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.permittedRate = Math.min(Math.max(initialRate, minRate), maxRate);
+        this.tokens = Math.max(1, permittedRate);
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-rate-governor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param call starts one attempt of the upstream call; must not block
+     * @return future completed with the outcome of the first attempt that is not throttled, or of the last attempt;
+     * a call whose future is cancelled while it waits is not started
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        GovernedCall<T> governedCall = new GovernedCall<>(call);
+        synchronized (this) {
+            if (queue.size() + pendingRetries.get() >= maxQueueDepth) {
+                rejections.incrementAndGet();
+                log.warn("Rejecting upstream call, {} calls already waiting", queue.size() + pendingRetries.get());
+                return CompletableFuture.failedFuture(new UpstreamRejectedException(MessageConstants.UPSTREAM_QUEUE_FULL_ERROR_MESSAGE));
+            }
+            queue.addLast(governedCall);
+        }
+        scheduler.execute(this::drain);
+        return governedCall.result;
+    }
+
+    /**
+     * @return calls per second currently permitted towards the upstream
+     */
+    public synchronized double getPermittedRate() {
+        return permittedRate;
+    }
+
+    /**
+     * @return calls waiting for a permit, including throttled calls waiting to be retried
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size() + pendingRetries.get();
+    }
+
+    /**
+     * @return true while dispatching is paused for the Retry-After period of a throttled response
+     */
+    public synchronized boolean isPaused() {
+        return System.nanoTime() - pausedUntilNanos < 0;
+    }
+
+    public long getThrottledResponseCount() {
+        return throttledResponses.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getRejectionCount() {
+        return rejections.get();
+    }
+
+    private void drain() {
+        List<GovernedCall<?>> released = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            while (!queue.isEmpty() && tokens >= 1 && now - pausedUntilNanos >= 0) {
+                GovernedCall<?> governedCall = queue.pollFirst();
+                if (!governedCall.result.isDone()) {
+                    tokens -= 1;
+                    released.add(governedCall);
+                }
+            }
+            if (!queue.isEmpty()) {
+                long waitNanos = now - pausedUntilNanos < 0
+                        ? pausedUntilNanos - now
+                        : (long) ((1 - tokens) / permittedRate * TimeUnit.SECONDS.toNanos(1));
+                scheduleWakeUp(Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+            }
+        }
+        released.forEach(this::start);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(Math.max(1, permittedRate), tokens + (now - lastRefillNanos) * permittedRate / TimeUnit.SECONDS.toNanos(1));
+        lastRefillNanos = now;
+    }
+
+    private void scheduleWakeUp(long delayNanos) {
+        if (wakeUpScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                wakeUpScheduled.set(false);
+                drain();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> void start(GovernedCall<T> governedCall) {
+        governedCall.attempt++;
+        CompletableFuture<T> attempt;
+        try {
+            attempt = governedCall.call.get();
+        } catch (RuntimeException ex) {
+            attempt = CompletableFuture.failedFuture(ex);
+        }
+        attempt.whenComplete((result, ex) -> {
+            Throwable cause = ex instanceof CompletionException && Objects.nonNull(ex.getCause()) ? ex.getCause() : ex;
+            if (cause instanceof HttpClientErrorException.TooManyRequests) {
+                onThrottled(governedCall, (HttpClientErrorException.TooManyRequests) cause);
+            } else if (Objects.nonNull(cause)) {
+                governedCall.result.completeExceptionally(cause);
+            } else {
+                onSuccess();
+                governedCall.result.complete(result);
+            }
+        });
+    }
+
+    private synchronized void onSuccess() {
+        permittedRate = Math.min(maxRate, permittedRate + rateIncreasePerSuccess);
+    }
+
+    private <T> void onThrottled(GovernedCall<T> governedCall, HttpClientErrorException.TooManyRequests ex) {
+        throttledResponses.incrementAndGet();
+        Optional<Duration> retryAfter = parseRetryAfter(ex.getResponseHeaders());
+        synchronized (this) {
+            permittedRate = Math.max(minRate, permittedRate / 2);
+            tokens = Math.min(tokens, 0);
+            retryAfter.ifPresent(delay -> {
+                long resumeAt = System.nanoTime() + delay.toNanos();
+                if (resumeAt - pausedUntilNanos > 0) {
+                    pausedUntilNanos = resumeAt;
+                }
+            });
+        }
+        if (governedCall.attempt >= maxAttempts) {
+            log.warn("Upstream call still throttled after {} attempts", governedCall.attempt);
+            governedCall.result.completeExceptionally(ex);
+            return;
+        }
+        long delayMillis = retryAfter.map(Duration::toMillis).orElseGet(() -> backoffMillis(governedCall.attempt));
+        log.debug("Upstream call throttled, retry {} in {} ms at {} calls/s", governedCall.attempt, delayMillis, getPermittedRate());
+        retries.incrementAndGet();
+        pendingRetries.incrementAndGet();
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                pendingRetries.decrementAndGet();
+                queue.addFirst(governedCall);
+            }
+            drain();
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private long backoffMillis(int attempt) {
+        return (long) Math.min(maxBackoffMillis, initialBackoffMillis * Math.pow(backoffMultiplier, attempt - 1));
+    }
+
+    static Optional<Duration> parseRetryAfter(HttpHeaders headers) {
+        String retryAfter = Objects.isNull(headers) ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (Objects.isNull(retryAfter) || retryAfter.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim()))));
+        } catch (NumberFormatException ex) {
+            try {
+                Duration delay = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+            } catch (DateTimeParseException e) {
+                log.debug("Ignoring unparseable Retry-After header {}", retryAfter);
+                return Optional.empty();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static class GovernedCall<T> {
+        private final Supplier<CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private int attempt;
+
+        GovernedCall(Supplier<CompletableFuture<T>> call) {
+            this.call = call;
+        }
+    }
+}
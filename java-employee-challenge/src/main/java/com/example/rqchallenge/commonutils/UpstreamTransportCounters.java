@@ -0,0 +1,103 @@
+package com.example.rqchallenge.commonutils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transport level counters of one upstream HTTP client: exchanges, exchanges sent on a pooled connection,
+ * response body bytes as received on the wire and after content decoding.
+ * The ratio of wire to decoded bytes shows what compression saves, the share of reused connections what the pool saves.
+ * Clients that cannot tell whether a connection was reused, like the JDK HttpClient, record bytes only.
+ */
+public class UpstreamTransportCounters {
+    private final AtomicLong exchanges = new AtomicLong();
+    private final AtomicLong reusedConnections = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final AtomicLong decodedBytes = new AtomicLong();
+
+    /**
+     * @param reusedConnection true if the request went out on a connection that already carried one
+     */
+    public void recordExchange(boolean reusedConnection) {
+        exchanges.incrementAndGet();
+        if (reusedConnection) {
+            reusedConnections.incrementAndGet();
+        }
+    }
+
+    public void addWireBytes(long bytes) {
+        wireBytes.addAndGet(bytes);
+    }
+
+    public void addDecodedBytes(long bytes) {
+        decodedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * @param body response body as received, before content decoding
+     * @return body adding the bytes read from it to the wire bytes
+     */
+    public InputStream countWireBytes(InputStream body) {
+        return new CountingInputStream(body, wireBytes);
+    }
+
+    /**
+     * @param body response body after content decoding
+     * @return body adding the bytes read from it to the decoded bytes
+     */
+    public InputStream countDecodedBytes(InputStream body) {
+        return new CountingInputStream(body, decodedBytes);
+    }
+
+    public long getExchangeCount() {
+        return exchanges.get();
+    }
+
+    public long getReusedConnectionCount() {
+        return reusedConnections.get();
+    }
+
+    public long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.get();
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                counter.incrementAndGet();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counter.addAndGet(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counter.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rqchallenge.commonutils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to JDK 21 virtual threads from code compiled for Java 11.
+ * The API is looked up reflectively, so on older runtimes callers get an empty result and keep their platform threads.
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @param namePrefix prefix of the thread names, followed by a sequence number
+     * @return executor starting a new virtual thread per task, empty if the JVM does not support virtual threads
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor(String namePrefix) {
+        return factory(namePrefix).flatMap(factory -> {
+            try {
+                return Optional.of((ExecutorService) Executors.class
+                        .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                        .invoke(null, factory));
+            } catch (ReflectiveOperationException ex) {
+                log.debug("Virtual thread executor not available", ex);
+                return Optional.empty();
+            }
+        });
+    }
+
+    private static Optional<ThreadFactory> factory(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException ex) {
+            log.debug("Virtual threads not available on Java {}", System.getProperty("java.version"));
+            return Optional.empty();
+        }
+    }
+}
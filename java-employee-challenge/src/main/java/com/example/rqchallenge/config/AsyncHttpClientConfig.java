@@ -0,0 +1,78 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.commonutils.UpstreamTransportCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking HTTP engine used by the async employee API client.
+ * The JDK HttpClient keeps connections alive and reuses them. Its pool size and keep-alive timeout are not settings of
+ * one client but the JVM-global system properties jdk.httpclient.connectionPoolSize and jdk.httpclient.keepalive.timeout,
+ * read once when the JDK HttpClient implementation is first loaded: they apply to every JDK HttpClient in the JVM and
+ * take effect only if set before any of them is built. They are set here from the upstream.async properties unless
+ * already given with -D at launch, which is the reliable way to set them.
+ * With HTTP_2 the client negotiates HTTP/2 through ALPN on https and an upgrade on http, multiplexing calls over one
+ * connection per host, and falls back to HTTP/1.1 against servers without HTTP/2 support.
+ */
+@Configuration
+@Slf4j
+public class AsyncHttpClientConfig {
+    private static final String CONNECTION_POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    private static final String KEEP_ALIVE_TIMEOUT_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService upstreamAsyncHttpExecutor(@Value("${upstream.async.io-threads:4}") int ioThreads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(ioThreads, runnable -> {
+            Thread thread = new Thread(runnable, "upstream-async-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return response bytes of the JDK HttpClient exchanges
+     */
+    @Bean
+    public UpstreamTransportCounters upstreamAsyncTransportCounters() {
+        return new UpstreamTransportCounters();
+    }
+
+    /**
+     * @param maxIdleConnections applied JVM-wide as jdk.httpclient.connectionPoolSize unless set at launch
+     * @param keepAliveSeconds   applied JVM-wide as jdk.httpclient.keepalive.timeout unless set at launch
+     * @param httpVersion        HTTP_1_1 or HTTP_2
+     */
+    @Bean
+    public HttpClient upstreamAsyncHttpClient(@Qualifier("upstreamAsyncHttpExecutor") ExecutorService upstreamAsyncHttpExecutor,
+                                              @Value("${upstream.async.connect-timeout-ms:5000}") long connectTimeoutMillis,
+                                              @Value("${upstream.async.max-idle-connections:50}") int maxIdleConnections,
+                                              @Value("${upstream.async.keep-alive-seconds:60}") int keepAliveSeconds,
+                                              @Value("${upstream.async.http-version:HTTP_1_1}") HttpClient.Version httpVersion) {
+        applyJvmProperty(CONNECTION_POOL_SIZE_PROPERTY, String.valueOf(maxIdleConnections));
+        applyJvmProperty(KEEP_ALIVE_TIMEOUT_PROPERTY, String.valueOf(keepAliveSeconds));
+        return HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(upstreamAsyncHttpExecutor)
+                .build();
+    }
+
+    private static void applyJvmProperty(String name, String value) {
+        Object launchValue = System.getProperties().putIfAbsent(name, value);
+        if (Objects.nonNull(launchValue) && !value.equals(launchValue)) {
+            log.warn("Keeping JVM-wide {}={} set at launch instead of the configured {}", name, launchValue, value);
+        }
+    }
+}
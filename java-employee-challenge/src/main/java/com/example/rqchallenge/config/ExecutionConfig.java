@@ -0,0 +1,80 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.commonutils.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Threads serving employee requests.
+ * With employee.execution.virtual-threads=true and a JDK 21+ runtime, Tomcat requests and the async mode controller's
+ * snapshot reads run on virtual threads; on older runtimes the platform thread pools are kept.
+ */
+@Configuration
+@Slf4j
+public class ExecutionConfig {
+
+    /**
+     * @param virtualThreads
+     * @param requestThreads pool size used without virtual threads
+     * @return executor running the work of the controller in async mode that cannot be expressed as a non-blocking call
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService employeeRequestExecutor(@Value("${employee.execution.virtual-threads:false}") boolean virtualThreads,
+                                                   @Value("${employee.execution.request-threads:50}") int requestThreads) {
+        return newExecutor("employee-request-", virtualThreads, requestThreads);
+    }
+
+    /**
+     * @param parallelism worker threads, 0 for one per available processor
+     * @return pool running the fork-join salary aggregation of /stats/salary
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool salaryAggregationPool(@Value("${employee.stats.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @return customizer handing Tomcat request processing to virtual threads
+     */
+    @Bean
+    @ConditionalOnProperty(name = "employee.execution.virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> VirtualThreads.newVirtualThreadPerTaskExecutor("tomcat-handler-")
+                .ifPresent(protocolHandler::setExecutor);
+    }
+
+    /**
+     * @param namePrefix     prefix of the thread names
+     * @param virtualThreads start a virtual thread per task if the JVM supports it
+     * @param threads        size of the platform thread pool used otherwise
+     * @return executor for blocking work
+     */
+    static ExecutorService newExecutor(String namePrefix, boolean virtualThreads, int threads) {
+        if (virtualThreads) {
+            return VirtualThreads.newVirtualThreadPerTaskExecutor(namePrefix).orElseGet(() -> {
+                log.warn("Virtual threads are not supported on Java {}, {} runs on {} platform threads",
+                        System.getProperty("java.version"), namePrefix, threads);
+                return platformThreadPool(namePrefix, threads);
+            });
+        }
+        return platformThreadPool(namePrefix, threads);
+    }
+
+    private static ExecutorService platformThreadPool(String namePrefix, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
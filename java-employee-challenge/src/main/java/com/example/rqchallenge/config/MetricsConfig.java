@@ -0,0 +1,203 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.SerializedResponseCache;
+import com.example.rqchallenge.commonutils.CircuitBreaker;
+import com.example.rqchallenge.commonutils.RequestHedger;
+import com.example.rqchallenge.commonutils.UpstreamGuard;
+import com.example.rqchallenge.commonutils.UpstreamMetrics;
+import com.example.rqchallenge.commonutils.UpstreamOperation;
+import com.example.rqchallenge.commonutils.UpstreamRateGovernor;
+import com.example.rqchallenge.commonutils.UpstreamTransportCounters;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Exposes the state of the upstream connection pool and transports, rate governor, circuit breakers, request hedging,
+ * employee snapshot cache and serialized response cache through Actuator metrics
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder upstreamConnectionPoolMetrics(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, "employee-api");
+    }
+
+    @Bean
+    public MeterBinder upstreamTransportMetrics(@Qualifier("upstreamBlockingTransportCounters") UpstreamTransportCounters blockingTransportCounters,
+                                                @Qualifier("upstreamAsyncTransportCounters") UpstreamTransportCounters asyncTransportCounters) {
+        return registry -> {
+            FunctionCounter.builder("upstream.transport.exchanges", blockingTransportCounters, UpstreamTransportCounters::getExchangeCount)
+                    .tag("client", UpstreamMetrics.BLOCKING_CLIENT)
+                    .tag("connection", "any")
+                    .register(registry);
+            FunctionCounter.builder("upstream.transport.exchanges", blockingTransportCounters, UpstreamTransportCounters::getReusedConnectionCount)
+                    .description("Exchanges sent on a pooled connection that already carried a request")
+                    .tag("client", UpstreamMetrics.BLOCKING_CLIENT)
+                    .tag("connection", "reused")
+                    .register(registry);
+            Map.of(UpstreamMetrics.BLOCKING_CLIENT, blockingTransportCounters,
+                    UpstreamMetrics.ASYNC_CLIENT, asyncTransportCounters).forEach((client, transportCounters) -> {
+                FunctionCounter.builder("upstream.transport.received", transportCounters, UpstreamTransportCounters::getWireBytes)
+                        .description("Response body bytes received from the employee API, before content decoding")
+                        .baseUnit("bytes")
+                        .tag("client", client)
+                        .tag("encoding", "wire")
+                        .register(registry);
+                FunctionCounter.builder("upstream.transport.received", transportCounters, UpstreamTransportCounters::getDecodedBytes)
+                        .description("Response body bytes received from the employee API, after content decoding")
+                        .baseUnit("bytes")
+                        .tag("client", client)
+                        .tag("encoding", "decoded")
+                        .register(registry);
+            });
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamGovernorMetrics(UpstreamRateGovernor upstreamRateGovernor) {
+        return registry -> {
+            Gauge.builder("upstream.governor.permitted.rate", upstreamRateGovernor, UpstreamRateGovernor::getPermittedRate)
+                    .description("Calls per second currently permitted towards the employee API")
+                    .register(registry);
+            Gauge.builder("upstream.governor.queue.depth", upstreamRateGovernor, UpstreamRateGovernor::getQueueDepth)
+                    .description("Calls waiting for a permit or a retry")
+                    .register(registry);
+            FunctionCounter.builder("upstream.governor.throttled", upstreamRateGovernor, UpstreamRateGovernor::getThrottledResponseCount)
+                    .description("429 responses received from the employee API")
+                    .register(registry);
+            FunctionCounter.builder("upstream.governor.retries", upstreamRateGovernor, UpstreamRateGovernor::getRetryCount)
+                    .description("Throttled calls scheduled for retry")
+                    .register(registry);
+            FunctionCounter.builder("upstream.governor.rejected", upstreamRateGovernor, UpstreamRateGovernor::getRejectionCount)
+                    .description("Calls rejected because the queue was full")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamGuardMetrics(UpstreamGuard upstreamGuard) {
+        return registry -> {
+            for (UpstreamOperation operation : UpstreamOperation.values()) {
+                CircuitBreaker circuitBreaker = upstreamGuard.getCircuitBreaker(operation);
+                Gauge.builder("upstream.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                        .description("Circuit state of the operation: 0 closed, 1 open, 2 half open")
+                        .tag("operation", operation.getTag())
+                        .register(registry);
+                FunctionCounter.builder("upstream.circuit.opened", circuitBreaker, CircuitBreaker::getOpenCount)
+                        .tag("operation", operation.getTag())
+                        .register(registry);
+                FunctionCounter.builder("upstream.circuit.rejected", circuitBreaker, CircuitBreaker::getRejectionCount)
+                        .description("Calls failed fast because the circuit was open")
+                        .tag("operation", operation.getTag())
+                        .register(registry);
+                Gauge.builder("upstream.bulkhead.in.flight", upstreamGuard, guard -> guard.getBulkheadInFlight(operation))
+                        .description("Calls of the operation queued or in flight")
+                        .tag("operation", operation.getTag())
+                        .register(registry);
+                FunctionCounter.builder("upstream.bulkhead.rejected", upstreamGuard, guard -> guard.getBulkheadRejectionCount(operation))
+                        .description("Calls failed fast because the bulkhead was full")
+                        .tag("operation", operation.getTag())
+                        .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder upstreamHedgingMetrics(RequestHedger requestHedger) {
+        return registry -> {
+            FunctionCounter.builder("upstream.hedging.calls", requestHedger, RequestHedger::getCallCount)
+                    .description("Employee lookups eligible for hedging")
+                    .register(registry);
+            FunctionCounter.builder("upstream.hedging.hedges", requestHedger, RequestHedger::getHedgeCount)
+                    .description("Hedged calls sent after the first call did not answer in time")
+                    .tag("result", "fired")
+                    .register(registry);
+            FunctionCounter.builder("upstream.hedging.hedges", requestHedger, RequestHedger::getHedgeWinCount)
+                    .description("Hedged calls answering before the call they hedged")
+                    .tag("result", "won")
+                    .register(registry);
+            FunctionCounter.builder("upstream.hedging.hedges", requestHedger, RequestHedger::getBudgetExhaustedCount)
+                    .description("Slow calls not hedged because the hedge budget was spent")
+                    .tag("result", "over-budget")
+                    .register(registry);
+            FunctionCounter.builder("upstream.hedging.hedges", requestHedger, RequestHedger::getPausedSkipCount)
+                    .description("Slow calls not hedged because the upstream was throttling")
+                    .tag("result", "paused")
+                    .register(registry);
+            Gauge.builder("upstream.hedging.delay", requestHedger,
+                            hedger -> hedger.getHedgeDelayNanos().orElse(0L) / 1_000_000_000.0)
+                    .description("Delay after which a lookup is hedged, 0 until enough latencies are recorded")
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder serializedResponseCacheMetrics(SerializedResponseCache serializedResponseCache) {
+        return registry -> {
+            FunctionCounter.builder("employee.response.cache", serializedResponseCache, SerializedResponseCache::getHitCount)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("employee.response.cache", serializedResponseCache, SerializedResponseCache::getRebuildCount)
+                    .tag("result", "rebuild")
+                    .register(registry);
+            FunctionCounter.builder("employee.response.cache", serializedResponseCache, SerializedResponseCache::getNotModifiedCount)
+                    .tag("result", "not-modified")
+                    .register(registry);
+            Gauge.builder("employee.response.cache.size", serializedResponseCache, SerializedResponseCache::getSizeBytes)
+                    .description("Heap bytes of the cached serialized responses")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder employeeSnapshotCacheMetrics(EmployeeSnapshotCache employeeSnapshotCache) {
+        return registry -> {
+            FunctionCounter.builder("employee.snapshot.reads", employeeSnapshotCache, EmployeeSnapshotCache::getFreshReadCount)
+                    .tag("result", "fresh")
+                    .register(registry);
+            FunctionCounter.builder("employee.snapshot.reads", employeeSnapshotCache, EmployeeSnapshotCache::getStaleReadCount)
+                    .tag("result", "stale")
+                    .register(registry);
+            FunctionCounter.builder("employee.snapshot.reads", employeeSnapshotCache, EmployeeSnapshotCache::getMissedReadCount)
+                    .tag("result", "miss")
+                    .register(registry);
+            Gauge.builder("employee.snapshot.hit.ratio", employeeSnapshotCache, EmployeeSnapshotCache::getHitRatio)
+                    .register(registry);
+            Gauge.builder("employee.snapshot.age", employeeSnapshotCache,
+                            cache -> cache.getSnapshotAge().map(Duration::toMillis).orElse(0L) / 1000.0)
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("employee.snapshot.refreshes", employeeSnapshotCache, EmployeeSnapshotCache::getFullRefreshCount)
+                    .tag("result", "full")
+                    .register(registry);
+            FunctionCounter.builder("employee.snapshot.refreshes", employeeSnapshotCache, EmployeeSnapshotCache::getDeltaRefreshCount)
+                    .tag("result", "delta")
+                    .register(registry);
+            FunctionCounter.builder("employee.snapshot.refreshes", employeeSnapshotCache, EmployeeSnapshotCache::getUnchangedRefreshCount)
+                    .tag("result", "unchanged")
+                    .register(registry);
+            Gauge.builder("employee.snapshot.pending.writes", employeeSnapshotCache, EmployeeSnapshotCache::getPendingWriteCount)
+                    .description("Local creates and deletes not yet reflected by the upstream list")
+                    .register(registry);
+            Gauge.builder("employee.snapshot.footprint", employeeSnapshotCache,
+                            cache -> cache.getLoadedSnapshot().map(EmployeeSnapshot::getFootprintBytes).orElse(0L))
+                    .description("Estimated heap bytes of the snapshot employees and their name, salary and id indexes")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -1,22 +1,159 @@
 package com.example.rqchallenge.config;
 
+import com.example.rqchallenge.commonutils.UpstreamTransportCounters;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
-import org.springframework.beans.factory.annotation.Configurable;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Blocking HTTP engine used by the RestTemplate employee API client.
+ * Connections are pooled per route and kept alive for the server's Keep-Alive hint or keep-alive-seconds; a background
+ * evictor closes connections idle longer than idle-eviction-seconds, before the server drops them under a request.
+ * Responses are requested gzip or deflate encoded and decompressed transparently.
+ */
 @Configuration
 public class RestTemplateConfig {
+
+    /**
+     * @param maxConnections         connections across all routes
+     * @param maxConnectionsPerRoute connections to one host
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(@Value("${upstream.blocking.max-connections:100}") int maxConnections,
+                                                                        @Value("${upstream.blocking.max-connections-per-route:50}") int maxConnectionsPerRoute) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    /**
+     * @return bytes and connection reuse of the RestTemplate exchanges
+     */
     @Bean
-    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory() {
+    public UpstreamTransportCounters upstreamBlockingTransportCounters() {
+        return new UpstreamTransportCounters();
+    }
+
+    /**
+     * @param connectTimeoutMillis  max time to establish a connection
+     * @param readTimeoutMillis     max time between two packets of a response
+     * @param leaseTimeoutMillis    max time to wait for a pooled connection
+     * @param keepAliveSeconds      how long a connection is reused when the response carries no Keep-Alive hint
+     * @param idleEvictionSeconds   pooled connections idle this long are closed
+     * @param compression           request gzip or deflate encoded responses
+     */
+    @Bean
+    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory(PoolingHttpClientConnectionManager upstreamConnectionManager,
+                                                                           @Qualifier("upstreamBlockingTransportCounters") UpstreamTransportCounters transportCounters,
+                                                                           @Value("${upstream.blocking.connect-timeout-ms:5000}") int connectTimeoutMillis,
+                                                                           @Value("${upstream.blocking.read-timeout-ms:30000}") int readTimeoutMillis,
+                                                                           @Value("${upstream.blocking.lease-timeout-ms:10000}") int leaseTimeoutMillis,
+                                                                           @Value("${upstream.blocking.keep-alive-seconds:60}") long keepAliveSeconds,
+                                                                           @Value("${upstream.blocking.idle-eviction-seconds:30}") long idleEvictionSeconds,
+                                                                           @Value("${upstream.compression.enabled:true}") boolean compression) {
+        long keepAliveMillis = TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+        HttpClientBuilder httpClientBuilder = HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMillis)
+                        .setSocketTimeout(readTimeoutMillis)
+                        .setConnectionRequestTimeout(leaseTimeoutMillis)
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long hinted = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return hinted > 0 ? Math.min(hinted, keepAliveMillis) : keepAliveMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleEvictionSeconds, TimeUnit.SECONDS)
+                .setRequestExecutor(new HttpRequestExecutor() {
+                    @Override
+                    public HttpResponse execute(HttpRequest request, HttpClientConnection connection, HttpContext context) throws IOException, HttpException {
+                        transportCounters.recordExchange(connection.getMetrics().getRequestCount() > 0);
+                        return super.execute(request, connection, context);
+                    }
+                })
+                // first response interceptors run before the entity is decompressed, last ones after; the chain keeps
+                // one interceptor per class, so each counter needs its own lambda
+                .addInterceptorFirst((HttpResponseInterceptor) (response, context) -> countBytes(response, transportCounters::countWireBytes))
+                .addInterceptorLast((HttpResponseInterceptor) (response, context) -> countBytes(response, transportCounters::countDecodedBytes));
+        if (!compression) {
+            httpClientBuilder.disableContentCompression();
+        }
         HttpComponentsClientHttpRequestFactory clientHttpRequestFactory = new HttpComponentsClientHttpRequestFactory();
-        clientHttpRequestFactory.setHttpClient(HttpClients.createDefault());
+        clientHttpRequestFactory.setHttpClient(httpClientBuilder.build());
         return clientHttpRequestFactory;
     }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate(clientHttpRequestFactory());
+    public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory clientHttpRequestFactory) {
+        return new RestTemplate(clientHttpRequestFactory);
+    }
+
+    /**
+     * @param ioThreads      pool size used without virtual threads
+     * @param virtualThreads run each exchange on its own virtual thread when the JVM supports it
+     * @return pool running blocking RestTemplate exchanges released by the upstream rate governor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService upstreamBlockingExecutor(@Value("${upstream.blocking.io-threads:20}") int ioThreads,
+                                                    @Value("${employee.execution.virtual-threads:false}") boolean virtualThreads) {
+        return ExecutionConfig.newExecutor("upstream-blocking-io-", virtualThreads, ioThreads);
+    }
+
+    private static void countBytes(HttpResponse response, Function<InputStream, InputStream> counting) {
+        HttpEntity entity = response.getEntity();
+        if (Objects.nonNull(entity)) {
+            response.setEntity(new CountingEntity(entity, counting));
+        }
+    }
+
+    /**
+     * Entity counting the bytes read from its content
+     */
+    private static class CountingEntity extends HttpEntityWrapper {
+        private final Function<InputStream, InputStream> counting;
+
+        CountingEntity(HttpEntity wrappedEntity, Function<InputStream, InputStream> counting) {
+            super(wrappedEntity);
+            this.counting = counting;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return counting.apply(super.getContent());
+        }
+
+        @Override
+        public void writeTo(OutputStream outStream) throws IOException {
+            try (InputStream content = getContent()) {
+                content.transferTo(outStream);
+            }
+        }
     }
 }
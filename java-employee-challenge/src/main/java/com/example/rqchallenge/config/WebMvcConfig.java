@@ -0,0 +1,21 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.aspects.CachedResponseAdvice;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Interceptors of the employee endpoints
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final CachedResponseAdvice cachedResponseAdvice;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(cachedResponseAdvice);
+    }
+}
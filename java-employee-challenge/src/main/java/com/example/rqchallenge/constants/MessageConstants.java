@@ -15,5 +15,15 @@ public class MessageConstants {
     public static final String AGE_FIELD_MANDATORY_VALIDATION_MESSAGE = "Age field is mandatory in create employee request.";
     public static final String INVALID_AGE_FIELD_VALIDATION_MESSAGE = "Invalid age field is passed in create employee request.";
     public static final String INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE = "Invalid input parameter sent in request.";
+    public static final String INVALID_PAGE_LIMIT_VALIDATION_MESSAGE = "Page limit must be between 1 and %d.";
+    public static final String INVALID_CURSOR_VALIDATION_MESSAGE = "Invalid cursor sent in request.";
+    public static final String INVALID_FIELDS_PARAMETER_VALIDATION_MESSAGE = "Unknown field %s requested. Allowed fields are id, name, salary, age and profileImage.";
+    public static final String INVALID_BULK_REQUEST_SIZE_VALIDATION_MESSAGE = "Bulk request must contain between 1 and %d items.";
+    public static final String INVALID_HISTOGRAM_BUCKETS_VALIDATION_MESSAGE = "Histogram buckets must be between 1 and %d.";
+    public static final String INVALID_TOP_N_VALIDATION_MESSAGE = "n must be between 1 and %d.";
+    public static final String UPSTREAM_QUEUE_FULL_ERROR_MESSAGE = "Too many pending requests to employee API. Please retry after sometime.";
+    public static final String UPSTREAM_CIRCUIT_OPEN_ERROR_MESSAGE = "Employee API is failing, %s calls are suspended. Please retry after sometime.";
+    public static final String UPSTREAM_BULKHEAD_FULL_ERROR_MESSAGE = "Too many %s calls in flight to employee API. Please retry after sometime.";
+    public static final String UPSTREAM_CALL_TIMED_OUT_ERROR_MESSAGE = "Timed out waiting for response from employee API.";
 
 }
@@ -1,35 +1,124 @@
 package com.example.rqchallenge.controller;
 
+import com.example.rqchallenge.aspects.CachedResponse;
+import com.example.rqchallenge.aspects.SnapshotFallback;
 import com.example.rqchallenge.aspects.Timed;
+import com.example.rqchallenge.commonutils.Futures;
+import com.example.rqchallenge.commonutils.UpstreamOperation;
+import com.example.rqchallenge.dto.BulkOperationReport;
 import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeBatch;
+import com.example.rqchallenge.dto.EmployeePage;
+import com.example.rqchallenge.dto.SalaryStats;
 import com.example.rqchallenge.employees.IEmployeeController;
 import com.example.rqchallenge.service.IEmployeeService;
-import lombok.AllArgsConstructor;
+import com.example.rqchallenge.stream.NdjsonEmployeeWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
+/**
+ * Employee endpoints in one of two modes, chosen with employee.controller.mode.
+ * In sync mode, the default, every call does its work on the request thread and returns its response.
+ * In async mode the request is handed over to Spring MVC's async request processing and the request thread released:
+ * calls with a non-blocking upstream path are answered when the upstream future completes; snapshot reads, which may
+ * block on the initial load, run on the employee request executor, which uses virtual threads when enabled.
+ * The response is then written from the future, and the method itself returns null, which Spring MVC ignores once
+ * async processing has started.
+ */
 @RestController
-@AllArgsConstructor(onConstructor = @__(@Autowired))
 public class EmployeeControllerImpl implements IEmployeeController {
 
+    private static final String ALL_EMPLOYEES_RESPONSE = "employees";
+    private static final String HIGHEST_SALARY_RESPONSE = "highestSalary";
+    private static final String TOP_TEN_NAMES_RESPONSE = "topTenHighestEarningEmployeeNames";
+    private static final String ASYNC_MODE = "async";
+
     private final IEmployeeService iEmployeeService;
+    private final ObjectMapper objectMapper;
+    private final boolean asyncMode;
+    private final ExecutorService employeeRequestExecutor;
+
+    /**
+     * @param controllerMode          sync or async
+     * @param employeeRequestExecutor runs the snapshot reads in async mode
+     */
+    @Autowired
+    public EmployeeControllerImpl(IEmployeeService iEmployeeService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${employee.controller.mode:sync}") String controllerMode,
+                                  @Qualifier("employeeRequestExecutor") ExecutorService employeeRequestExecutor) {
+        this.iEmployeeService = iEmployeeService;
+        this.objectMapper = objectMapper;
+        this.asyncMode = ASYNC_MODE.equalsIgnoreCase(controllerMode);
+        this.employeeRequestExecutor = employeeRequestExecutor;
+    }
 
     /**
-     * @return returns list of all employee objects
+     * @return returns list of all employee objects, written from cached JSON bytes
      */
     @Override
     @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    @CachedResponse(ALL_EMPLOYEES_RESPONSE)
     public ResponseEntity<List<Employee>> getAllEmployees() {
-        return new ResponseEntity<>(iEmployeeService.getAllEmployees(), HttpStatus.OK);
+        return ok(iEmployeeService::getAllEmployees);
+    }
+
+    /**
+     * @return all employees as newline-delimited JSON, written while they are produced; selected with Accept: application/x-ndjson
+     */
+    @Override
+    @Timed
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (NdjsonEmployeeWriter writer = new NdjsonEmployeeWriter(objectMapper, outputStream)) {
+                        iEmployeeService.visitAllEmployees(writer);
+                    }
+                });
+    }
+
+    /**
+     * @return same as {@link #streamAllEmployees()}, selected with ?format=ndjson
+     */
+    @Override
+    @Timed
+    public ResponseEntity<StreamingResponseBody> streamAllEmployeesAsNdjson() {
+        return streamAllEmployees();
+    }
+
+    /**
+     * @param limit  page size, at most 1000
+     * @param cursor nextCursor of the previous page
+     * @param fields comma separated fields to return, e.g. id,name,salary
+     * @return page of employees ordered by id
+     */
+    @Override
+    @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    public ResponseEntity<EmployeePage> getEmployeesPage(int limit, String cursor, String fields) {
+        return ok(() -> iEmployeeService.getEmployeesPage(limit, cursor, fields));
     }
 
     /**
@@ -38,8 +127,35 @@ public class EmployeeControllerImpl implements IEmployeeController {
      */
     @Override
     @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
-        return new ResponseEntity<>(iEmployeeService.getEmployeesByNameSearch(searchString), HttpStatus.OK);
+        return ok(() -> iEmployeeService.getEmployeesByNameSearch(searchString));
+    }
+
+    /**
+     * @param searchString words of a name, possibly misspelt or incomplete
+     * @param limit        max employees to return, at most 1000
+     * @return employees whose name best matches searchString, best match first
+     */
+    @Override
+    @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    public ResponseEntity<List<Employee>> getEmployeesByFuzzyNameSearch(String searchString, int limit) {
+        return ok(() -> iEmployeeService.getEmployeesByFuzzyNameSearch(searchString, limit));
+    }
+
+    /**
+     * @param searchString
+     * @param limit        page size, at most 1000
+     * @param cursor       nextCursor of the previous page
+     * @param fields       comma separated fields to return, e.g. id,name,salary
+     * @return page of employees whose name contains searchString, ordered by id
+     */
+    @Override
+    @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    public ResponseEntity<EmployeePage> getEmployeesByNameSearchPage(String searchString, int limit, String cursor, String fields) {
+        return ok(() -> iEmployeeService.getEmployeesByNameSearchPage(searchString, limit, cursor, fields));
     }
 
     /**
@@ -48,26 +164,73 @@ public class EmployeeControllerImpl implements IEmployeeController {
      */
     @Override
     @Timed
+    @SnapshotFallback(UpstreamOperation.BY_ID)
     public ResponseEntity<Employee> getEmployeeById(String id) {
-        return new ResponseEntity<>(iEmployeeService.getEmployeeById(id), HttpStatus.OK);
+        return upstream(() -> iEmployeeService.getEmployeeByIdAsync(id), () -> iEmployeeService.getEmployeeById(id), HttpStatus.OK);
+    }
+
+    /**
+     * @param ids comma separated ids
+     * @return found employees plus the ids not found or not resolvable, in request order
+     */
+    @Override
+    @Timed
+    public CompletableFuture<ResponseEntity<EmployeeBatch>> getEmployeesByIds(List<String> ids) {
+        return iEmployeeService.getEmployeesByIds(ids).thenApply(batch -> new ResponseEntity<>(batch, HttpStatus.OK));
+    }
+
+    /**
+     * @param ids JSON array of ids, for id lists too long for a query string
+     * @return found employees plus the ids not found or not resolvable, in request order
+     */
+    @Override
+    @Timed
+    public CompletableFuture<ResponseEntity<EmployeeBatch>> getEmployeesByIdsFromBody(List<String> ids) {
+        return getEmployeesByIds(ids);
     }
 
     /**
-     * @return highest salary among all employees
+     * @return highest salary among all employees, written from cached JSON bytes
      */
     @Override
     @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    @CachedResponse(HIGHEST_SALARY_RESPONSE)
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
-        return new ResponseEntity<>(iEmployeeService.getHighestSalaryOfEmployees(), HttpStatus.OK);
+        return ok(iEmployeeService::getHighestSalaryOfEmployees);
     }
 
     /**
-     * @return names of employees with top 10 highest salaries
+     * @return names of employees with top 10 highest salaries, written from cached JSON bytes
      */
     @Override
     @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    @CachedResponse(TOP_TEN_NAMES_RESPONSE)
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
-        return new ResponseEntity<>(iEmployeeService.getTopTenHighestEarningEmployeeNames(), HttpStatus.OK);
+        return ok(iEmployeeService::getTopTenHighestEarningEmployeeNames);
+    }
+
+    /**
+     * @param buckets max number of histogram buckets, at most 100
+     * @return min, max, mean, p50/p90/p99 and histogram of all salaries
+     */
+    @Override
+    @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    public ResponseEntity<SalaryStats> getSalaryStats(int buckets) {
+        return ok(() -> iEmployeeService.getSalaryStats(buckets));
+    }
+
+    /**
+     * @param n number of employees, at most 1000
+     * @return employees with the n highest salaries, highest first
+     */
+    @Override
+    @Timed
+    @SnapshotFallback(UpstreamOperation.LIST)
+    public ResponseEntity<List<Employee>> getTopEarningEmployees(int n) {
+        return ok(() -> iEmployeeService.getTopEarningEmployees(n));
     }
 
     /**
@@ -77,7 +240,8 @@ public class EmployeeControllerImpl implements IEmployeeController {
     @Override
     @Timed
     public ResponseEntity<Employee> createEmployee(Map<String, Object> employeeInputData) {
-        return new ResponseEntity<>(iEmployeeService.createEmployee(employeeInputData), HttpStatus.CREATED);
+        return upstream(() -> iEmployeeService.createEmployeeAsync(employeeInputData), () -> iEmployeeService.createEmployee(employeeInputData),
+                HttpStatus.CREATED);
     }
 
     /**
@@ -87,6 +251,90 @@ public class EmployeeControllerImpl implements IEmployeeController {
     @Override
     @Timed
     public ResponseEntity<String> deleteEmployeeById(String id) {
-        return new ResponseEntity<>(iEmployeeService.deleteEmployeeById(id), HttpStatus.OK);
+        return upstream(() -> iEmployeeService.deleteEmployeeByIdAsync(id), () -> iEmployeeService.deleteEmployeeById(id), HttpStatus.OK);
+    }
+
+    /**
+     * @param employeeInputs employees to create, each with name, age and salary
+     * @return per-item report; a failed item does not abort the rest of the batch
+     */
+    @Override
+    @Timed
+    public CompletableFuture<ResponseEntity<BulkOperationReport>> createEmployees(List<Map<String, Object>> employeeInputs) {
+        return iEmployeeService.createEmployees(employeeInputs).thenApply(report -> new ResponseEntity<>(report, HttpStatus.OK));
+    }
+
+    /**
+     * @param ids ids of employees to delete
+     * @return per-item report; a failed item does not abort the rest of the batch
+     */
+    @Override
+    @Timed
+    public CompletableFuture<ResponseEntity<BulkOperationReport>> deleteEmployeesByIds(List<String> ids) {
+        return iEmployeeService.deleteEmployeesByIds(ids).thenApply(report -> new ResponseEntity<>(report, HttpStatus.OK));
+    }
+
+    private <T> ResponseEntity<T> ok(Supplier<T> body) {
+        return read(() -> new ResponseEntity<>(body.get(), HttpStatus.OK));
+    }
+
+    /**
+     * @param async    non-blocking upstream call, used in async mode
+     * @param blocking blocking upstream call, used in sync mode
+     * @param status   status of the response to the result of the call
+     * @return response to the result of the blocking call in sync mode; null in async mode, answered when the future of
+     * the non-blocking call completes
+     */
+    private <T> ResponseEntity<T> upstream(Supplier<CompletableFuture<T>> async, Supplier<T> blocking, HttpStatus status) {
+        if (!asyncMode) {
+            return new ResponseEntity<>(blocking.get(), status);
+        }
+        return respondLater(async.get().thenApply(body -> new ResponseEntity<>(body, status)));
+    }
+
+    /**
+     * @return response of read run on the request thread in sync mode; null in async mode, answered once read has run
+     * on the employee request executor with the calling thread's request bound to it
+     */
+    private <T> ResponseEntity<T> read(Supplier<ResponseEntity<T>> read) {
+        if (!asyncMode) {
+            return read.get();
+        }
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        return respondLater(CompletableFuture.supplyAsync(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                return read.get();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }, employeeRequestExecutor));
+    }
+
+    /**
+     * Starts async processing of the current request, answered with the response or failure the future completes with
+     *
+     * @param response
+     * @return null, ignored by Spring MVC once async processing has started
+     */
+    private static <T> ResponseEntity<T> respondLater(CompletableFuture<ResponseEntity<T>> response) {
+        DeferredResult<ResponseEntity<T>> deferredResult = new DeferredResult<>();
+        response.whenComplete((result, ex) -> {
+            if (Objects.nonNull(ex)) {
+                deferredResult.setErrorResult(Futures.unwrap(ex));
+            } else {
+                deferredResult.setResult(result);
+            }
+        });
+        ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        try {
+            // the handler adapter takes the model of the async dispatch from the processing context; a response entity
+            // needs none of the model the handler method was called with
+            WebAsyncUtils.getAsyncManager(requestAttributes.getRequest())
+                    .startDeferredResultProcessing(deferredResult, new ModelAndViewContainer());
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to start async processing of the request", ex);
+        }
+        return null;
     }
 }
@@ -0,0 +1,35 @@
+package com.example.rqchallenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    public static final String SUCCESS = "success";
+    public static final String FAILED = "failed";
+
+    /**
+     * position of the item in the request
+     */
+    private int index;
+    private String status;
+    private String message;
+
+    /**
+     * id of the employee to delete, for bulk deletes
+     */
+    private String id;
+
+    /**
+     * created employee, for bulk creates
+     */
+    private Employee employee;
+}
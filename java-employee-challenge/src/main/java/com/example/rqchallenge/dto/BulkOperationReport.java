@@ -0,0 +1,24 @@
+package com.example.rqchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Per-item outcome of a bulk request, in request order
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkOperationReport {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> results;
+
+    public static BulkOperationReport of(List<BulkItemResult> results) {
+        int succeeded = (int) results.stream().filter(result -> BulkItemResult.SUCCESS.equals(result.getStatus())).count();
+        return new BulkOperationReport(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.rqchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of looking up many employees by id, in the order the ids were requested
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeBatch {
+    private List<Employee> found;
+    private List<String> notFound;
+
+    /**
+     * ids whose lookup failed, e.g. because the upstream was unavailable; they may exist
+     */
+    private List<String> failed;
+}
@@ -0,0 +1,23 @@
+package com.example.rqchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of employees ordered by id, with only the requested fields of each employee
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeePage {
+    private List<Map<String, Object>> data;
+
+    /**
+     * cursor of the next page, null on the last page
+     */
+    private String nextCursor;
+}
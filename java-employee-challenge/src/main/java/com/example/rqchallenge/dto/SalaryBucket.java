@@ -0,0 +1,17 @@
+package com.example.rqchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of employees whose salary is at least lowerBound and below upperBound
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalaryBucket {
+    private long lowerBound;
+    private long upperBound;
+    private int count;
+}
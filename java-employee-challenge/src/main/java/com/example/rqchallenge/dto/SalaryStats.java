@@ -0,0 +1,28 @@
+package com.example.rqchallenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Salary distribution of the employees that have a salary; every field but count and histogram is null when none has
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalaryStats {
+    private int count;
+    private Integer min;
+    private Integer max;
+    private Double mean;
+    private Integer p50;
+    private Integer p90;
+    private Integer p99;
+
+    /**
+     * equal-width buckets from min to max, lowest first
+     */
+    private List<SalaryBucket> histogram;
+}
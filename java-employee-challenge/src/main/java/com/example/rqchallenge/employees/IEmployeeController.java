@@ -1,12 +1,19 @@
 package com.example.rqchallenge.employees;
 
+import com.example.rqchallenge.dto.BulkOperationReport;
 import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeBatch;
+import com.example.rqchallenge.dto.EmployeePage;
+import com.example.rqchallenge.dto.SalaryStats;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 public interface IEmployeeController {
@@ -14,22 +21,61 @@ public interface IEmployeeController {
     @GetMapping()
     ResponseEntity<List<Employee>> getAllEmployees() throws IOException;
 
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> streamAllEmployees();
+
+    @GetMapping(params = "format=ndjson")
+    ResponseEntity<StreamingResponseBody> streamAllEmployeesAsNdjson();
+
+    @GetMapping(params = "limit")
+    ResponseEntity<EmployeePage> getEmployeesPage(@RequestParam int limit,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) String fields);
+
     @GetMapping("/search/{searchString}")
     ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString);
 
+    @GetMapping("/search/fuzzy/{searchString}")
+    ResponseEntity<List<Employee>> getEmployeesByFuzzyNameSearch(@PathVariable String searchString,
+                                                                 @RequestParam(defaultValue = "10") int limit);
+
+    @GetMapping(value = "/search/{searchString}", params = "limit")
+    ResponseEntity<EmployeePage> getEmployeesByNameSearchPage(@PathVariable String searchString,
+                                                              @RequestParam int limit,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) String fields);
+
     @GetMapping("/{id}")
     ResponseEntity<Employee> getEmployeeById(@PathVariable String id);
 
+    @GetMapping("/batch")
+    CompletableFuture<ResponseEntity<EmployeeBatch>> getEmployeesByIds(@RequestParam List<String> ids);
+
+    @PostMapping("/batch")
+    CompletableFuture<ResponseEntity<EmployeeBatch>> getEmployeesByIdsFromBody(@RequestBody List<String> ids);
+
     @GetMapping("/highestSalary")
     ResponseEntity<Integer> getHighestSalaryOfEmployees();
 
     @GetMapping("/topTenHighestEarningEmployeeNames")
     ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames();
 
+    @GetMapping("/stats/salary")
+    ResponseEntity<SalaryStats> getSalaryStats(@RequestParam(defaultValue = "10") int buckets);
+
+    @GetMapping("/stats/salary/topN")
+    ResponseEntity<List<Employee>> getTopEarningEmployees(@RequestParam int n);
+
     @PostMapping()
     ResponseEntity<Employee> createEmployee(@RequestBody Map<String, Object> employeeInput);
 
     @DeleteMapping("/{id}")
     ResponseEntity<String> deleteEmployeeById(@PathVariable String id);
 
+    @PostMapping("/bulk")
+    CompletableFuture<ResponseEntity<BulkOperationReport>> createEmployees(@RequestBody List<Map<String, Object>> employeeInputs);
+
+    @DeleteMapping("/bulk")
+    CompletableFuture<ResponseEntity<BulkOperationReport>> deleteEmployeesByIds(@RequestBody List<String> ids);
+
 }
@@ -5,11 +5,13 @@ import com.example.rqchallenge.dto.ErrorResponse;
 import com.example.rqchallenge.exceptions.InvalidRequestException;
 import com.example.rqchallenge.exceptions.OperationFailedException;
 import com.example.rqchallenge.exceptions.ResourceNotFoundException;
+import com.example.rqchallenge.exceptions.ServiceUnavailableException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -42,6 +44,13 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<?> handleArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        ErrorResponse errorDetails = new ErrorResponse(MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE, HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase());
+        return new ResponseEntity<>(errorDetails, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(OperationFailedException.class)
     public ResponseEntity<?> handleOpFailedException(OperationFailedException ex) {
         ErrorResponse errorDetails = new ErrorResponse(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR.value(),
@@ -49,4 +58,11 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorDetails, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        ErrorResponse errorDetails = new ErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE.value(),
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase());
+        return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
 }
@@ -0,0 +1,16 @@
+package com.example.rqchallenge.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Upstream call refused before it was sent, e.g. because its circuit is open or too many calls are waiting
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class UpstreamRejectedException extends ServiceUnavailableException {
+
+    public UpstreamRejectedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.store.HeapSizes;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Employees ordered by id, backed by a primitive id array.
+ * Gives a stable order for keyset pagination and O(log n) lookups by id.
+ * Employees without an id are not indexed.
+ */
+public class EmployeeIdIndex {
+    private final long[] ids;
+    private final Employee[] employees;
+
+    public EmployeeIdIndex(List<Employee> employeeList) {
+        this.employees = employeeList.stream()
+                .filter(e -> Objects.nonNull(e.getId()))
+                .sorted(Comparator.comparing(Employee::getId))
+                .toArray(Employee[]::new);
+        this.ids = new long[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            ids[i] = employees[i].getId();
+        }
+    }
+
+    private EmployeeIdIndex(long[] ids, Employee[] employees) {
+        this.ids = ids;
+        this.employees = employees;
+    }
+
+    /**
+     * @param id
+     * @return employee with id, if indexed
+     */
+    public Optional<Employee> find(long id) {
+        int position = firstPositionAbove(id - 1);
+        return position < ids.length && ids[position] == id ? Optional.of(employees[position]) : Optional.empty();
+    }
+
+    /**
+     * @param afterId exclusive lower bound, null to start from the lowest id
+     * @param count
+     * @return up to count employees with an id greater than afterId, lowest id first
+     */
+    public List<Employee> page(Long afterId, int count) {
+        int from = Objects.isNull(afterId) ? 0 : firstPositionAbove(afterId);
+        int to = (int) Math.min(ids.length, (long) from + count);
+        return Collections.unmodifiableList(Arrays.asList(employees).subList(from, to));
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param employee employee appended to the list
+     * @return copy of this index including employee, after existing employees with the same id
+     */
+    public EmployeeIdIndex withAdded(Employee employee) {
+        if (Objects.isNull(employee.getId())) {
+            return this;
+        }
+        long id = employee.getId();
+        int position = firstPositionAbove(id);
+
+        long[] newIds = new long[ids.length + 1];
+        Employee[] newEmployees = new Employee[employees.length + 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(employees, 0, newEmployees, 0, position);
+        newIds[position] = id;
+        newEmployees[position] = employee;
+        System.arraycopy(ids, position, newIds, position + 1, ids.length - position);
+        System.arraycopy(employees, position, newEmployees, position + 1, employees.length - position);
+        return new EmployeeIdIndex(newIds, newEmployees);
+    }
+
+    /**
+     * @param employee employee removed from the list
+     * @return copy of this index without employee, or this index if it is not indexed
+     */
+    public EmployeeIdIndex withRemoved(Employee employee) {
+        int position = positionOf(employee);
+        if (position < 0) {
+            return this;
+        }
+
+        long[] newIds = new long[ids.length - 1];
+        Employee[] newEmployees = new Employee[employees.length - 1];
+        System.arraycopy(ids, 0, newIds, 0, position);
+        System.arraycopy(employees, 0, newEmployees, 0, position);
+        System.arraycopy(ids, position + 1, newIds, position, ids.length - position - 1);
+        System.arraycopy(employees, position + 1, newEmployees, position, employees.length - position - 1);
+        return new EmployeeIdIndex(newIds, newEmployees);
+    }
+
+    /**
+     * Applies a batch of changes with one copy of the arrays instead of one per employee
+     * @param removed employees removed from the list
+     * @param added   employees appended to the list
+     * @return copy of this index without removed and including added, after existing employees with the same id, in list order;
+     * this index if nothing changes
+     */
+    public EmployeeIdIndex withChanges(Collection<Employee> removed, List<Employee> added) {
+        int[] removedPositions = removed.stream()
+                .mapToInt(this::positionOf)
+                .filter(position -> position >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+        Employee[] inserted = added.stream()
+                .filter(e -> Objects.nonNull(e.getId()))
+                .sorted(Comparator.comparing(Employee::getId))
+                .toArray(Employee[]::new);
+        if (removedPositions.length == 0 && inserted.length == 0) {
+            return this;
+        }
+
+        int size = ids.length - removedPositions.length + inserted.length;
+        long[] newIds = new long[size];
+        Employee[] newEmployees = new Employee[size];
+        int from = 0;
+        int to = 0;
+        int nextRemoved = 0;
+        for (int i = 0; i <= inserted.length; i++) {
+            int until = i < inserted.length ? firstPositionAbove(inserted[i].getId()) : ids.length;
+            while (from < until) {
+                int end = nextRemoved < removedPositions.length ? Math.min(until, removedPositions[nextRemoved]) : until;
+                System.arraycopy(ids, from, newIds, to, end - from);
+                System.arraycopy(employees, from, newEmployees, to, end - from);
+                to += end - from;
+                from = end;
+                if (nextRemoved < removedPositions.length && from == removedPositions[nextRemoved]) {
+                    from++;
+                    nextRemoved++;
+                }
+            }
+            if (i < inserted.length) {
+                newIds[to] = inserted[i].getId();
+                newEmployees[to++] = inserted[i];
+            }
+        }
+        return new EmployeeIdIndex(newIds, newEmployees);
+    }
+
+    /**
+     * @return estimated heap bytes held by this index, not counting the employees it orders
+     */
+    public long getFootprintBytes() {
+        return HeapSizes.object(2 * HeapSizes.REFERENCE) + HeapSizes.longArray(ids.length)
+                + HeapSizes.referenceArray(employees.length);
+    }
+
+    /**
+     * @return position of employee itself, -1 if it is not indexed
+     */
+    private int positionOf(Employee employee) {
+        if (Objects.isNull(employee.getId())) {
+            return -1;
+        }
+        long id = employee.getId();
+        for (int i = firstPositionAbove(id) - 1; i >= 0 && ids[i] == id; i--) {
+            if (employees[i] == employee) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return first position whose id is strictly greater than id
+     */
+    private int firstPositionAbove(long id) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] <= id) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.store.HeapSizes;
+
+import java.util.*;
+
+/**
+ * Case-folded trigram inverted index over employee names.
+ * Each trigram maps to the ascending row positions of the names containing it; a substring query
+ * intersects the posting lists of its trigrams and verifies the surviving candidates.
+ * Queries shorter than a trigram fall back to a scan over the pre-folded names.
+ * Appending, replacing or removing employees patches a copy of the index instead of rebuilding it, a whole
+ * batch of changes in one pass; posting lists that are not affected are shared with the original.
+ */
+public class EmployeeNameIndex {
+    static final int GRAM_LENGTH = 3;
+    private static final int[] NO_ROWS = new int[0];
+
+    private final List<Employee> employees;
+    private final String[] foldedNames;
+    private final Map<Long, int[]> postings;
+
+    public EmployeeNameIndex(List<Employee> employees) {
+        this.employees = employees;
+        this.foldedNames = new String[employees.size()];
+        Map<Long, PostingBuilder> builders = new HashMap<>();
+        for (int row = 0; row < employees.size(); row++) {
+            String folded = fold(employees.get(row).getName());
+            foldedNames[row] = folded;
+            for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                builders.computeIfAbsent(gramKey(folded, i), key -> new PostingBuilder()).add(row);
+            }
+        }
+        this.postings = new HashMap<>(builders.size() * 4 / 3 + 1);
+        builders.forEach((key, builder) -> postings.put(key, builder.toArray()));
+    }
+
+    private EmployeeNameIndex(List<Employee> employees, String[] foldedNames, Map<Long, int[]> postings) {
+        this.employees = employees;
+        this.foldedNames = foldedNames;
+        this.postings = postings;
+    }
+
+    /**
+     * @param patchedEmployees the indexed employees with one employee appended
+     * @return copy of this index including the appended employee
+     */
+    public EmployeeNameIndex withAdded(List<Employee> patchedEmployees) {
+        return withChanges(patchedEmployees, NO_ROWS, NO_ROWS);
+    }
+
+    /**
+     * @param patchedEmployees the indexed employees with the employee at row replaced
+     * @param row              position of the replaced employee
+     * @return copy of this index with the posting lists of the old and new name of row updated
+     */
+    public EmployeeNameIndex withReplaced(List<Employee> patchedEmployees, int row) {
+        if (fold(patchedEmployees.get(row).getName()).equals(foldedNames[row])) {
+            return new EmployeeNameIndex(patchedEmployees, foldedNames, postings);
+        }
+        return withChanges(patchedEmployees, NO_ROWS, new int[]{row});
+    }
+
+    /**
+     * @param patchedEmployees the indexed employees with the employee at row removed
+     * @param row              position of the removed employee
+     * @return copy of this index without the removed employee, later rows moved up by one
+     */
+    public EmployeeNameIndex withRemoved(List<Employee> patchedEmployees, int row) {
+        return withChanges(patchedEmployees, new int[]{row}, NO_ROWS);
+    }
+
+    /**
+     * Patches removals, replacements and appends in one pass: posting lists are only copied when they hold a
+     * removed row, a row after one, or a row whose name changed
+     * @param patchedEmployees the indexed employees without the rows in removedRows, with the rows in replacedRows
+     *                         replaced, and with any further employees appended
+     * @param removedRows      ascending positions of the removed employees
+     * @param replacedRows     ascending positions of the replaced employees, before the removals
+     * @return copy of this index over patchedEmployees, later rows moved up past the removed ones
+     */
+    public EmployeeNameIndex withChanges(List<Employee> patchedEmployees, int[] removedRows, int[] replacedRows) {
+        int keptRows = foldedNames.length - removedRows.length;
+        String[] newFoldedNames = new String[patchedEmployees.size()];
+        int from = 0;
+        for (int i = 0; i < removedRows.length; i++) {
+            System.arraycopy(foldedNames, from, newFoldedNames, from - i, removedRows[i] - from);
+            from = removedRows[i] + 1;
+        }
+        System.arraycopy(foldedNames, from, newFoldedNames, from - removedRows.length, foldedNames.length - from);
+
+        Map<Long, int[]> newPostings;
+        if (removedRows.length == 0) {
+            newPostings = new HashMap<>(postings);
+        } else {
+            newPostings = new HashMap<>(postings.size() * 4 / 3 + 1);
+            postings.forEach((key, rows) -> {
+                int[] moved = withoutRows(rows, removedRows);
+                if (moved.length > 0) {
+                    newPostings.put(key, moved);
+                }
+            });
+        }
+        for (int row : replacedRows) {
+            int newRow = row - countBelow(removedRows, row);
+            String previous = foldedNames[row];
+            String folded = fold(patchedEmployees.get(newRow).getName());
+            newFoldedNames[newRow] = folded;
+            if (!folded.equals(previous)) {
+                for (int i = 0; i + GRAM_LENGTH <= previous.length(); i++) {
+                    removeRow(newPostings, gramKey(previous, i), newRow);
+                }
+                for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                    insertRow(newPostings, gramKey(folded, i), newRow);
+                }
+            }
+        }
+        for (int row = keptRows; row < newFoldedNames.length; row++) {
+            String folded = fold(patchedEmployees.get(row).getName());
+            newFoldedNames[row] = folded;
+            for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                insertRow(newPostings, gramKey(folded, i), row);
+            }
+        }
+        return new EmployeeNameIndex(patchedEmployees, newFoldedNames, newPostings);
+    }
+
+    /**
+     * @param searchString
+     * @return employees whose name contains searchString ignoring case, in list order
+     */
+    public List<Employee> search(String searchString) {
+        String query = fold(searchString);
+        if (query.length() < GRAM_LENGTH) {
+            return scan(query);
+        }
+        int[][] queryPostings = new int[query.length() - GRAM_LENGTH + 1][];
+        for (int i = 0; i < queryPostings.length; i++) {
+            int[] rows = postings.get(gramKey(query, i));
+            if (Objects.isNull(rows)) {
+                return Collections.emptyList();
+            }
+            queryPostings[i] = rows;
+        }
+        Arrays.sort(queryPostings, Comparator.comparingInt(rows -> rows.length));
+
+        int[] candidates = queryPostings[0];
+        for (int i = 1; i < queryPostings.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, queryPostings[i]);
+        }
+
+        List<Employee> matches = new ArrayList<>();
+        for (int row : candidates) {
+            if (queryPostings.length == 1 || foldedNames[row].contains(query)) {
+                matches.add(employees.get(row));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return number of distinct trigrams in the index
+     */
+    public int gramCount() {
+        return postings.size();
+    }
+
+    /**
+     * @return estimated heap bytes held by this index, not counting the employees it indexes; folded names are
+     * counted as copies even where folding returned the name itself, and posting lists shared with other indexes are
+     * counted in each of them
+     */
+    public long getFootprintBytes() {
+        long bytes = HeapSizes.object(3 * HeapSizes.REFERENCE) + HeapSizes.referenceArray(foldedNames.length)
+                + HeapSizes.hashMap(postings.size()) + postings.size() * HeapSizes.object(HeapSizes.LONG);
+        for (String foldedName : foldedNames) {
+            bytes += HeapSizes.string(foldedName);
+        }
+        for (int[] rows : postings.values()) {
+            bytes += HeapSizes.intArray(rows.length);
+        }
+        return bytes;
+    }
+
+    private List<Employee> scan(String query) {
+        List<Employee> matches = new ArrayList<>();
+        for (int row = 0; row < foldedNames.length; row++) {
+            if (foldedNames[row].contains(query)) {
+                matches.add(employees.get(row));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return rows without removedRows, every row moved up by the removed rows before it; rows itself if no row
+     * is at or after the first removed one
+     */
+    private static int[] withoutRows(int[] rows, int[] removedRows) {
+        if (rows[rows.length - 1] < removedRows[0]) {
+            return rows;
+        }
+        int[] moved = new int[rows.length];
+        int size = 0;
+        int removedBefore = 0;
+        for (int row : rows) {
+            while (removedBefore < removedRows.length && removedRows[removedBefore] < row) {
+                removedBefore++;
+            }
+            if (removedBefore == removedRows.length || removedRows[removedBefore] != row) {
+                moved[size++] = row - removedBefore;
+            }
+        }
+        return size == rows.length ? moved : Arrays.copyOf(moved, size);
+    }
+
+    /**
+     * @return number of sortedRows lower than row
+     */
+    private static int countBelow(int[] sortedRows, int row) {
+        int position = Arrays.binarySearch(sortedRows, row);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static void removeRow(Map<Long, int[]> postings, long key, int row) {
+        int[] rows = postings.get(key);
+        int position = Objects.isNull(rows) ? -1 : Arrays.binarySearch(rows, row);
+        if (position < 0) {
+            return;
+        }
+        if (rows.length == 1) {
+            postings.remove(key);
+            return;
+        }
+        int[] removed = new int[rows.length - 1];
+        System.arraycopy(rows, 0, removed, 0, position);
+        System.arraycopy(rows, position + 1, removed, position, rows.length - position - 1);
+        postings.put(key, removed);
+    }
+
+    private static void insertRow(Map<Long, int[]> postings, long key, int row) {
+        int[] rows = postings.getOrDefault(key, NO_ROWS);
+        int position = Arrays.binarySearch(rows, row);
+        if (position >= 0) {
+            return;
+        }
+        int insertAt = -position - 1;
+        int[] inserted = new int[rows.length + 1];
+        System.arraycopy(rows, 0, inserted, 0, insertAt);
+        inserted[insertAt] = row;
+        System.arraycopy(rows, insertAt, inserted, insertAt + 1, rows.length - insertAt);
+        postings.put(key, inserted);
+    }
+
+    private static int[] intersect(int[] left, int[] right) {
+        int[] result = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[size++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return size == 0 ? NO_ROWS : Arrays.copyOf(result, size);
+    }
+
+    static String fold(String value) {
+        return Objects.isNull(value) ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    static long gramKey(String folded, int offset) {
+        return ((long) folded.charAt(offset) << 32)
+                | ((long) folded.charAt(offset + 1) << 16)
+                | folded.charAt(offset + 2);
+    }
+
+    static class PostingBuilder {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.util.*;
+
+/**
+ * Typo-tolerant employee name search over a trie of the case-folded words of all names.
+ * Each query word is matched against name words within an edit distance that grows with its length, counting
+ * insertions, deletions, substitutions and swaps of adjacent characters, or as a prefix of a longer name word.
+ * The trie is walked once per query word with one row of the edit distance matrix per node, so subtrees that
+ * cannot come within the distance are never visited.
+ * Employees matching every query word are ranked by total cost, lowest first: two per edit, plus one when a word
+ * only matches as a prefix; ties keep list order. Matched rows are kept in one bitmap over all rows per cost, so the
+ * top matches are read off in rank order without merging or sorting the posting lists of every matched word.
+ * Searches widen the allowed distance one edit at a time and stop once the top matches cannot change or the
+ * latency budget is spent, returning the matches of the widest distance completed.
+ */
+public class FuzzyNameIndex {
+    public static final int NO_MATCH = Integer.MAX_VALUE;
+    static final int MAX_DISTANCE = 2;
+    /**
+     * shorter query words only match whole name words
+     */
+    static final int MIN_PREFIX_LENGTH = 3;
+    /**
+     * name words completed from one query word prefix, in alphabetical order, bounds queries like "and" against
+     * large name sets; later completions are dropped. {@link com.example.rqchallenge.stream.FuzzyNameMatchVisitor}
+     * scores names one at a time without knowing the other name words and applies no such cap, so for a short
+     * prefix of more than this many distinct name words it can return prefix matches this index drops
+     */
+    static final int MAX_PREFIX_EXPANSIONS = 512;
+    private static final int DEADLINE_CHECK_INTERVAL = 256;
+    /**
+     * two per edit plus one for a prefix match
+     */
+    private static final int MAX_COST = 2 * MAX_DISTANCE + 1;
+    private static final int NO_WORD = -1;
+
+    private final List<Employee> employees;
+    private final int[][] postings;
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] wordOfNode;
+    private final int maxWordLength;
+    /**
+     * longs in a bitmap over all rows
+     */
+    private final int blockCount;
+
+    public FuzzyNameIndex(List<Employee> employees) {
+        this.employees = employees;
+        this.blockCount = (employees.size() + 63) >>> 6;
+        Map<String, EmployeeNameIndex.PostingBuilder> builders = new HashMap<>();
+        for (int row = 0; row < employees.size(); row++) {
+            for (String word : words(employees.get(row).getName())) {
+                builders.computeIfAbsent(word, key -> new EmployeeNameIndex.PostingBuilder()).add(row);
+            }
+        }
+        String[] sortedWords = builders.keySet().toArray(new String[0]);
+        Arrays.sort(sortedWords);
+        this.postings = new int[sortedWords.length][];
+        int nodeBound = 1;
+        int longest = 0;
+        for (int word = 0; word < sortedWords.length; word++) {
+            postings[word] = builders.get(sortedWords[word]).toArray();
+            nodeBound += sortedWords[word].length();
+            longest = Math.max(longest, sortedWords[word].length());
+        }
+        this.maxWordLength = longest;
+
+        char[] nodeLabels = new char[nodeBound];
+        int[] nodeFirstChild = new int[nodeBound];
+        int[] nodeChildCount = new int[nodeBound];
+        int[] nodeWord = new int[nodeBound];
+        Arrays.fill(nodeWord, NO_WORD);
+        // breadth first, so the children of a node get consecutive node numbers; each entry is node, depth, from, to
+        Deque<int[]> pending = new ArrayDeque<>();
+        pending.add(new int[]{0, 0, 0, sortedWords.length});
+        int nodeCount = 1;
+        while (!pending.isEmpty()) {
+            int[] entry = pending.poll();
+            int node = entry[0];
+            int depth = entry[1];
+            int from = entry[2];
+            int to = entry[3];
+            if (from < to && sortedWords[from].length() == depth) {
+                nodeWord[node] = from++;
+            }
+            nodeFirstChild[node] = nodeCount;
+            while (from < to) {
+                char label = sortedWords[from].charAt(depth);
+                int end = from + 1;
+                while (end < to && sortedWords[end].charAt(depth) == label) {
+                    end++;
+                }
+                nodeLabels[nodeCount] = label;
+                pending.add(new int[]{nodeCount, depth + 1, from, end});
+                nodeCount++;
+                from = end;
+            }
+            nodeChildCount[node] = nodeCount - nodeFirstChild[node];
+        }
+        this.labels = Arrays.copyOf(nodeLabels, nodeCount);
+        this.firstChild = Arrays.copyOf(nodeFirstChild, nodeCount);
+        this.childCount = Arrays.copyOf(nodeChildCount, nodeCount);
+        this.wordOfNode = Arrays.copyOf(nodeWord, nodeCount);
+    }
+
+    /**
+     * @param searchString words to look for, in any order, each possibly misspelt or incomplete
+     * @param limit        max employees to return
+     * @param budgetNanos  time after which no wider distance is tried; exact and prefix matches are always searched
+     * @return up to limit employees matching every word of searchString, best match first
+     */
+    public List<Employee> search(String searchString, int limit, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        List<String> queryWords = words(searchString);
+        if (queryWords.isEmpty() || limit < 1) {
+            return Collections.emptyList();
+        }
+        int widestDistance = 0;
+        for (String queryWord : queryWords) {
+            widestDistance = Math.max(widestDistance, maxDistance(queryWord));
+        }
+        List<Employee> matches = Collections.emptyList();
+        RowBitmaps[] wordRows = new RowBitmaps[queryWords.size()];
+        for (int distance = 0; distance <= widestDistance; distance++) {
+            for (int i = 0; i < wordRows.length; i++) {
+                String queryWord = queryWords.get(i);
+                if (Objects.nonNull(wordRows[i]) && distance > maxDistance(queryWord)) {
+                    continue;
+                }
+                // the exact pass always completes, wider passes give up at the deadline
+                WordMatches found = walk(queryWord, distance, distance == 0 ? Long.MAX_VALUE : deadline);
+                if (Objects.isNull(found)) {
+                    return matches;
+                }
+                wordRows[i] = rowsOf(found);
+            }
+            RankedRows ranked = rank(wordRows, Math.min(limit, employees.size()));
+            matches = ranked.toEmployees(employees);
+            // every match found at a wider distance costs at least two per edit more than one found at this one
+            if (ranked.size == limit && ranked.costs[ranked.size - 1] < 2 * (distance + 1)) {
+                break;
+            }
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * @return number of distinct words in the index
+     */
+    public int wordCount() {
+        return postings.length;
+    }
+
+    /**
+     * @return allowed edits for a query word: none up to two characters, one up to five, two beyond
+     */
+    static int maxDistance(String queryWord) {
+        if (queryWord.length() <= 2) {
+            return 0;
+        }
+        return queryWord.length() <= 5 ? 1 : MAX_DISTANCE;
+    }
+
+    /**
+     * Scores one name the way the index ranks it, for callers that see employees one at a time
+     * @param queryWords words of a search string, see {@link #words(String)}
+     * @param name
+     * @return total cost of name, or {@link #NO_MATCH} if a query word matches none of its words
+     */
+    public static int matchCost(List<String> queryWords, String name) {
+        List<String> nameWords = words(name);
+        int total = 0;
+        for (String queryWord : queryWords) {
+            int best = NO_MATCH;
+            for (String nameWord : nameWords) {
+                best = Math.min(best, wordCost(queryWord, nameWord));
+            }
+            if (best == NO_MATCH) {
+                return NO_MATCH;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    /**
+     * @param name
+     * @return case-folded runs of letters and digits of name
+     */
+    public static List<String> words(String name) {
+        String folded = EmployeeNameIndex.fold(name);
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Edit distance matrix of nameWord against queryWord, one row per character of nameWord, so the last column
+     * holds the distance of every prefix of nameWord
+     */
+    private static int wordCost(String queryWord, String nameWord) {
+        int distance = maxDistance(queryWord);
+        boolean prefixes = queryWord.length() >= MIN_PREFIX_LENGTH;
+        int n = queryWord.length();
+        int[] beforePrevious = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] row = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        int best = NO_MATCH;
+        for (int i = 1; i <= nameWord.length(); i++) {
+            char label = nameWord.charAt(i - 1);
+            row[0] = i;
+            for (int j = 1; j <= n; j++) {
+                int value = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1),
+                        previous[j - 1] + (queryWord.charAt(j - 1) == label ? 0 : 1));
+                if (j > 1 && i > 1 && queryWord.charAt(j - 1) == nameWord.charAt(i - 2) && queryWord.charAt(j - 2) == label) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                row[j] = value;
+            }
+            if (prefixes && row[n] <= distance) {
+                best = Math.min(best, 2 * row[n] + 1);
+            }
+            int[] rotated = beforePrevious;
+            beforePrevious = previous;
+            previous = row;
+            row = rotated;
+        }
+        return previous[n] <= distance ? Math.min(best, 2 * previous[n]) : best;
+    }
+
+    /**
+     * @return name words within distance of queryWord with their cost, or null if the deadline passed first
+     */
+    private WordMatches walk(String queryWord, int distance, long deadline) {
+        Walk walk = new Walk(queryWord.toCharArray(), distance, queryWord.length() >= MIN_PREFIX_LENGTH, deadline, maxWordLength);
+        walk.walk(0, 0, walk.query.length + 1);
+        return walk.expired ? null : walk.matches;
+    }
+
+    /**
+     * @return the limit lowest cost rows matching every query word, ties in row order
+     */
+    private RankedRows rank(RowBitmaps[] wordRows, int limit) {
+        if (wordRows.length == 1) {
+            return RankedRows.of(wordRows[0].byCost, limit);
+        }
+        int maxCost = wordRows.length * MAX_COST;
+        long[][] byTotalCost = new long[maxCost + 1][];
+        long[] totals = new long[maxCost + 1];
+        long[] nextTotals = new long[maxCost + 1];
+        for (int block = 0; block < blockCount; block++) {
+            long candidates = -1L;
+            for (RowBitmaps rows : wordRows) {
+                candidates &= rows.any[block];
+            }
+            if (candidates == 0) {
+                continue;
+            }
+            // spread the candidates of this block over total costs, adding one query word at a time
+            Arrays.fill(totals, 0);
+            totals[0] = candidates;
+            int reached = 0;
+            for (RowBitmaps rows : wordRows) {
+                Arrays.fill(nextTotals, 0);
+                for (int total = 0; total <= reached; total++) {
+                    if (totals[total] == 0) {
+                        continue;
+                    }
+                    for (int cost = 0; cost <= MAX_COST; cost++) {
+                        if (Objects.nonNull(rows.byCost[cost])) {
+                            nextTotals[total + cost] |= totals[total] & rows.byCost[cost][block];
+                        }
+                    }
+                }
+                long[] swap = totals;
+                totals = nextTotals;
+                nextTotals = swap;
+                reached += MAX_COST;
+            }
+            for (int total = 0; total <= maxCost; total++) {
+                if (totals[total] != 0) {
+                    if (Objects.isNull(byTotalCost[total])) {
+                        byTotalCost[total] = new long[blockCount];
+                    }
+                    byTotalCost[total][block] = totals[total];
+                }
+            }
+        }
+        return RankedRows.of(byTotalCost, limit);
+    }
+
+    /**
+     * @return rows holding any of the matched words, each at the lowest cost among its matched words
+     */
+    private RowBitmaps rowsOf(WordMatches matches) {
+        long[][] byCost = new long[MAX_COST + 1][];
+        for (int i = 0; i < matches.size; i++) {
+            int cost = matches.costs[i];
+            if (Objects.isNull(byCost[cost])) {
+                byCost[cost] = new long[blockCount];
+            }
+            long[] bitmap = byCost[cost];
+            for (int row : postings[matches.words[i]]) {
+                bitmap[row >>> 6] |= 1L << row;
+            }
+        }
+        long[] any = new long[blockCount];
+        for (int cost = 0; cost <= MAX_COST; cost++) {
+            long[] bitmap = byCost[cost];
+            if (Objects.nonNull(bitmap)) {
+                // keep each row at its lowest cost only
+                for (int block = 0; block < blockCount; block++) {
+                    bitmap[block] &= ~any[block];
+                    any[block] |= bitmap[block];
+                }
+            }
+        }
+        return new RowBitmaps(byCost, any);
+    }
+
+    /**
+     * Depth first walk of the trie for one query word, carrying the edit distance row of each node on the path
+     */
+    private class Walk {
+        private final char[] query;
+        private final int distance;
+        private final boolean prefixes;
+        private final long deadline;
+        private final int[][] rows;
+        private final WordMatches matches = new WordMatches();
+        private int prefixExpansions;
+        private int visited;
+        private boolean expired;
+
+        Walk(char[] query, int distance, boolean prefixes, long deadline, int maxDepth) {
+            this.query = query;
+            this.distance = distance;
+            this.prefixes = prefixes;
+            this.deadline = deadline;
+            this.rows = new int[maxDepth + 2][query.length + 1];
+            for (int j = 0; j <= query.length; j++) {
+                rows[0][j] = j;
+            }
+        }
+
+        /**
+         * @param node           node whose children are visited
+         * @param depth          length of the word prefix spelled by node
+         * @param prefixDistance lowest distance between the query and a prefix of the path to node, ending at a node
+         */
+        void walk(int node, int depth, int prefixDistance) {
+            int[] previous = rows[depth];
+            int[] row = rows[depth + 1];
+            int[] beforePrevious = depth > 0 ? rows[depth - 1] : null;
+            int n = query.length;
+            for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+                if (++visited % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                    expired = true;
+                }
+                if (expired) {
+                    return;
+                }
+                char label = labels[child];
+                row[0] = depth + 1;
+                int rowMin = row[0];
+                for (int j = 1; j <= n; j++) {
+                    int value = Math.min(Math.min(previous[j] + 1, row[j - 1] + 1),
+                            previous[j - 1] + (query[j - 1] == label ? 0 : 1));
+                    if (j > 1 && depth > 0 && query[j - 1] == labels[node] && query[j - 2] == label) {
+                        value = Math.min(value, beforePrevious[j - 2] + 1);
+                    }
+                    row[j] = value;
+                    rowMin = Math.min(rowMin, value);
+                }
+                int childPrefixDistance = prefixes ? Math.min(prefixDistance, row[n]) : prefixDistance;
+                boolean prefixMatch = childPrefixDistance <= distance;
+                int word = wordOfNode[child];
+                if (word != NO_WORD) {
+                    if (row[n] <= distance) {
+                        matches.add(word, prefixMatch ? Math.min(2 * row[n], 2 * childPrefixDistance + 1) : 2 * row[n]);
+                    } else if (prefixMatch && prefixExpansions < MAX_PREFIX_EXPANSIONS) {
+                        prefixExpansions++;
+                        matches.add(word, 2 * childPrefixDistance + 1);
+                    }
+                }
+                if (rowMin <= distance || (prefixMatch && prefixExpansions < MAX_PREFIX_EXPANSIONS)) {
+                    walk(child, depth + 1, childPrefixDistance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Name words matched by one query word and their costs
+     */
+    private class WordMatches {
+        private int[] words = new int[8];
+        private int[] costs = new int[8];
+        private int size;
+
+        void add(int word, int cost) {
+            if (size == words.length) {
+                words = Arrays.copyOf(words, size * 2);
+                costs = Arrays.copyOf(costs, size * 2);
+            }
+            words[size] = word;
+            costs[size++] = cost;
+        }
+    }
+
+    /**
+     * Bitmaps over all rows of the rows matched at each cost, and of the rows matched at any cost
+     */
+    private static class RowBitmaps {
+        private final long[][] byCost;
+        private final long[] any;
+
+        RowBitmaps(long[][] byCost, long[] any) {
+            this.byCost = byCost;
+            this.any = any;
+        }
+    }
+
+    /**
+     * Lowest cost rows, ordered by cost then row
+     */
+    private static class RankedRows {
+        private final int[] rows;
+        private final int[] costs;
+        private final int size;
+
+        private RankedRows(int[] rows, int[] costs, int size) {
+            this.rows = rows;
+            this.costs = costs;
+            this.size = size;
+        }
+
+        /**
+         * @param byCost bitmap of the rows at each cost, a row set at one cost at most
+         * @return rows read cost by cost, each in row order, until limit are found
+         */
+        static RankedRows of(long[][] byCost, int limit) {
+            int[] rows = new int[limit];
+            int[] costs = new int[limit];
+            int size = 0;
+            for (int cost = 0; cost < byCost.length && size < limit; cost++) {
+                long[] bitmap = byCost[cost];
+                if (Objects.isNull(bitmap)) {
+                    continue;
+                }
+                for (int block = 0; block < bitmap.length && size < limit; block++) {
+                    for (long bits = bitmap[block]; bits != 0 && size < limit; bits &= bits - 1) {
+                        rows[size] = (block << 6) + Long.numberOfTrailingZeros(bits);
+                        costs[size++] = cost;
+                    }
+                }
+            }
+            return new RankedRows(rows, costs, size);
+        }
+
+        List<Employee> toEmployees(List<Employee> employees) {
+            List<Employee> matches = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                matches.add(employees.get(rows[i]));
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.store.HeapSizes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Employees ordered by salary, highest first, backed by a primitive salary array.
+ * Equal salaries keep list order, so the highest salary is read in O(1) and the top K earners in O(K).
+ * Employees without a salary are not ranked.
+ */
+public class SalaryIndex {
+    private final int[] salaries;
+    private final Employee[] employees;
+
+    public SalaryIndex(List<Employee> employeeList) {
+        this.employees = employeeList.stream()
+                .filter(e -> Objects.nonNull(e.getSalary()))
+                .sorted(Comparator.comparing(Employee::getSalary).reversed())
+                .toArray(Employee[]::new);
+        this.salaries = new int[employees.length];
+        for (int i = 0; i < employees.length; i++) {
+            salaries[i] = employees[i].getSalary();
+        }
+    }
+
+    private SalaryIndex(int[] salaries, Employee[] employees) {
+        this.salaries = salaries;
+        this.employees = employees;
+    }
+
+    /**
+     * @return highest salary, 0 when no employee has a salary
+     */
+    public int getHighestSalary() {
+        return salaries.length == 0 ? 0 : salaries[0];
+    }
+
+    /**
+     * @param count
+     * @return up to count employees with the highest salaries, highest first
+     */
+    public List<Employee> getTopEarningEmployees(int count) {
+        return Collections.unmodifiableList(Arrays.asList(employees).subList(0, Math.min(count, employees.length)));
+    }
+
+    /**
+     * @param count
+     * @return names of up to count employees with the highest salaries, highest first
+     */
+    public List<String> getTopEarningEmployeeNames(int count) {
+        int size = Math.min(count, employees.length);
+        List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(employees[i].getName());
+        }
+        return names;
+    }
+
+    public int size() {
+        return salaries.length;
+    }
+
+    /**
+     * @param employee employee appended to the end of the list
+     * @return copy of this index including employee, ranked after existing employees with the same salary
+     */
+    public SalaryIndex withAdded(Employee employee) {
+        if (Objects.isNull(employee.getSalary())) {
+            return this;
+        }
+        int salary = employee.getSalary();
+        int position = firstPositionBelow(salary);
+
+        int[] newSalaries = new int[salaries.length + 1];
+        Employee[] newEmployees = new Employee[employees.length + 1];
+        System.arraycopy(salaries, 0, newSalaries, 0, position);
+        System.arraycopy(employees, 0, newEmployees, 0, position);
+        newSalaries[position] = salary;
+        newEmployees[position] = employee;
+        System.arraycopy(salaries, position, newSalaries, position + 1, salaries.length - position);
+        System.arraycopy(employees, position, newEmployees, position + 1, employees.length - position);
+        return new SalaryIndex(newSalaries, newEmployees);
+    }
+
+    /**
+     * @param employee employee removed from the list
+     * @return copy of this index without employee, or this index if it is not ranked
+     */
+    public SalaryIndex withRemoved(Employee employee) {
+        int position = positionOf(employee);
+        if (position < 0) {
+            return this;
+        }
+
+        int[] newSalaries = new int[salaries.length - 1];
+        Employee[] newEmployees = new Employee[employees.length - 1];
+        System.arraycopy(salaries, 0, newSalaries, 0, position);
+        System.arraycopy(employees, 0, newEmployees, 0, position);
+        System.arraycopy(salaries, position + 1, newSalaries, position, salaries.length - position - 1);
+        System.arraycopy(employees, position + 1, newEmployees, position, employees.length - position - 1);
+        return new SalaryIndex(newSalaries, newEmployees);
+    }
+
+    /**
+     * Applies a batch of changes with one copy of the arrays instead of one per employee
+     * @param removed employees removed from the list
+     * @param added   employees appended to the list
+     * @return copy of this index without removed and including added, ranked after existing employees with the same salary, in list order;
+     * this index if nothing changes
+     */
+    public SalaryIndex withChanges(Collection<Employee> removed, List<Employee> added) {
+        int[] removedPositions = removed.stream()
+                .mapToInt(this::positionOf)
+                .filter(position -> position >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+        Employee[] inserted = added.stream()
+                .filter(e -> Objects.nonNull(e.getSalary()))
+                .sorted(Comparator.comparing(Employee::getSalary).reversed())
+                .toArray(Employee[]::new);
+        if (removedPositions.length == 0 && inserted.length == 0) {
+            return this;
+        }
+
+        int size = salaries.length - removedPositions.length + inserted.length;
+        int[] newSalaries = new int[size];
+        Employee[] newEmployees = new Employee[size];
+        int from = 0;
+        int to = 0;
+        int nextRemoved = 0;
+        for (int i = 0; i <= inserted.length; i++) {
+            int until = i < inserted.length ? firstPositionBelow(inserted[i].getSalary()) : salaries.length;
+            while (from < until) {
+                int end = nextRemoved < removedPositions.length ? Math.min(until, removedPositions[nextRemoved]) : until;
+                System.arraycopy(salaries, from, newSalaries, to, end - from);
+                System.arraycopy(employees, from, newEmployees, to, end - from);
+                to += end - from;
+                from = end;
+                if (nextRemoved < removedPositions.length && from == removedPositions[nextRemoved]) {
+                    from++;
+                    nextRemoved++;
+                }
+            }
+            if (i < inserted.length) {
+                newSalaries[to] = inserted[i].getSalary();
+                newEmployees[to++] = inserted[i];
+            }
+        }
+        return new SalaryIndex(newSalaries, newEmployees);
+    }
+
+    /**
+     * @return estimated heap bytes held by this index, not counting the employees it ranks
+     */
+    public long getFootprintBytes() {
+        return HeapSizes.object(2 * HeapSizes.REFERENCE) + HeapSizes.intArray(salaries.length)
+                + HeapSizes.referenceArray(employees.length);
+    }
+
+    /**
+     * @return position of employee itself, -1 if it is not ranked
+     */
+    private int positionOf(Employee employee) {
+        if (Objects.isNull(employee.getSalary())) {
+            return -1;
+        }
+        int salary = employee.getSalary();
+        for (int i = firstPositionBelow(salary) - 1; i >= 0 && salaries[i] == salary; i--) {
+            if (employees[i] == employee) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return first position whose salary is strictly lower than salary
+     */
+    private int firstPositionBelow(int salary) {
+        int low = 0;
+        int high = salaries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (salaries[mid] >= salary) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.commonutils.Futures;
+import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.EmployeeResponseData;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link IExternalEmployeeAPIClient} served by the non-blocking client, selected with upstream.client.mode=async.
+ * Callers still wait for the result, but upstream I/O runs on the async engine's small thread pool; a caller gives up
+ * after call-timeout-ms, which covers the time queued in the governor and throttled retries.
+ */
+@Service
+@ConditionalOnProperty(name = "upstream.client.mode", havingValue = "async")
+public class AsyncBackedExternalEmployeeApiClientImpl implements IExternalEmployeeAPIClient {
+    private final IAsyncExternalEmployeeAPIClient iAsyncExternalEmployeeAPIClient;
+    private final Duration callTimeout;
+
+    @Autowired
+    public AsyncBackedExternalEmployeeApiClientImpl(IAsyncExternalEmployeeAPIClient iAsyncExternalEmployeeAPIClient,
+                                                    @Value("${upstream.async.call-timeout-ms:60000}") long callTimeoutMillis) {
+        this.iAsyncExternalEmployeeAPIClient = iAsyncExternalEmployeeAPIClient;
+        this.callTimeout = Duration.ofMillis(callTimeoutMillis);
+    }
+
+    @Override
+    public ResponseEntity<EmployeesResponseData> getAllEmployees() {
+        return await(iAsyncExternalEmployeeAPIClient.getAllEmployees());
+    }
+
+    @Override
+    public ResponseEntity<EmployeesResponseData> getAllEmployees(HttpHeaders conditionalHeaders) {
+        return await(iAsyncExternalEmployeeAPIClient.getAllEmployees(conditionalHeaders));
+    }
+
+    @Override
+    public <R> R streamAllEmployees(IEmployeeVisitor<R> visitor) {
+        return await(iAsyncExternalEmployeeAPIClient.streamAllEmployees(visitor));
+    }
+
+    @Override
+    public ResponseEntity<EmployeeResponseData> getEmployeeById(String id) {
+        return await(iAsyncExternalEmployeeAPIClient.getEmployeeById(id));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> getEmployeeByIdAsync(String id) {
+        return iAsyncExternalEmployeeAPIClient.getEmployeeById(id);
+    }
+
+    @Override
+    public ResponseEntity<EmployeeResponseData> createEmployee(Map<String, Object> employeeInput) {
+        return await(iAsyncExternalEmployeeAPIClient.createEmployee(employeeInput));
+    }
+
+    @Override
+    public ResponseEntity<BaseResponse> deleteEmployeeById(String id) {
+        return await(iAsyncExternalEmployeeAPIClient.deleteEmployeeById(id));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> createEmployeeAsync(Map<String, Object> employeeInput) {
+        return iAsyncExternalEmployeeAPIClient.createEmployee(employeeInput);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<BaseResponse>> deleteEmployeeByIdAsync(String id) {
+        return iAsyncExternalEmployeeAPIClient.deleteEmployeeById(id);
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        return Futures.await(future, callTimeout, () -> future.cancel(true));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.commonutils.AsyncRestExecutorService;
+import com.example.rqchallenge.commonutils.JsonHttpEntities;
+import com.example.rqchallenge.commonutils.SingleFlight;
+import com.example.rqchallenge.constants.APIConstants;
+import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.EmployeeResponseData;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.stream.EmployeeListStreamReader;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Class contains logic to interact with the non-blocking HttpClient for CRUD employee operations to external world.
+ * Concurrent reads of the same upstream resource share a single in-flight call, and single employee lookups are hedged.
+ */
+@Service
+public class AsyncExternalEmployeeApiClientImpl implements IAsyncExternalEmployeeAPIClient {
+    private final AsyncRestExecutorService asyncRestExecutorService;
+    private final String baseApiUrl;
+    private final SingleFlight<String, ResponseEntity<EmployeesResponseData>> employeeListCalls = new SingleFlight<>();
+    private final SingleFlight<String, ResponseEntity<EmployeeResponseData>> employeeByIdCalls = new SingleFlight<>();
+
+    @Autowired
+    public AsyncExternalEmployeeApiClientImpl(AsyncRestExecutorService asyncRestExecutorService,
+                                              @Value("${upstream.base-url:" + APIConstants.BASE_URL + "}") String baseUrl) {
+        this.asyncRestExecutorService = asyncRestExecutorService;
+        this.baseApiUrl = String.format(APIConstants.API_URL_FORMAT, baseUrl, APIConstants.VERSION_1);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeesResponseData>> getAllEmployees() {
+        String url = baseApiUrl + APIConstants.GET_ALL_EMPLOYEES_URL;
+        return employeeListCalls.executeAsync(url,
+                () -> asyncRestExecutorService.executeAsync(url, JsonHttpEntities.getHttpEntity(), HttpMethod.GET, EmployeesResponseData.class));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeesResponseData>> getAllEmployees(HttpHeaders conditionalHeaders) {
+        String url = baseApiUrl + APIConstants.GET_ALL_EMPLOYEES_URL;
+        return employeeListCalls.executeAsync(JsonHttpEntities.conditionalCallKey(url, conditionalHeaders),
+                () -> asyncRestExecutorService.executeAsync(url, JsonHttpEntities.getConditionalHttpEntity(conditionalHeaders),
+                        HttpMethod.GET, EmployeesResponseData.class));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> streamAllEmployees(IEmployeeVisitor<R> visitor) {
+        return asyncRestExecutorService.streamAsync(baseApiUrl + APIConstants.GET_ALL_EMPLOYEES_URL,
+                JsonHttpEntities.getHttpEntity(), HttpMethod.GET, body -> EmployeeListStreamReader.read(body, visitor));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> getEmployeeById(String id) {
+        String url = baseApiUrl + APIConstants.GET_EMPLOYEE_BY_ID_URL;
+        return employeeByIdCalls.executeAsync(id,
+                () -> asyncRestExecutorService.executeHedgedAsync(url, JsonHttpEntities.getHttpEntity(), HttpMethod.GET, EmployeeResponseData.class, id));
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> createEmployee(Map<String, Object> employeeInput) {
+        return asyncRestExecutorService.executeAsync(baseApiUrl + APIConstants.CREATE_EMPLOYEE_URL,
+                JsonHttpEntities.getHttpEntity(employeeInput), HttpMethod.POST, EmployeeResponseData.class);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<BaseResponse>> deleteEmployeeById(String id) {
+        return asyncRestExecutorService.executeAsync(baseApiUrl + APIConstants.DELETE_EMPLOYEE_URL,
+                JsonHttpEntities.getHttpEntity(), HttpMethod.DELETE, BaseResponse.class, id);
+    }
+}
@@ -1,31 +1,92 @@
 package com.example.rqchallenge.service;
 
 
+import com.example.rqchallenge.aspects.SnapshotFallbackMarker;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.commonutils.ConcurrencyWindow;
+import com.example.rqchallenge.commonutils.EmployeeFieldProjection;
+import com.example.rqchallenge.commonutils.Futures;
 import com.example.rqchallenge.constants.MessageConstants;
 import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.BulkItemResult;
+import com.example.rqchallenge.dto.BulkOperationReport;
 import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeBatch;
+import com.example.rqchallenge.dto.EmployeePage;
 import com.example.rqchallenge.dto.EmployeeResponseData;
-import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.dto.SalaryStats;
+import com.example.rqchallenge.exceptions.InvalidRequestException;
 import com.example.rqchallenge.exceptions.OperationFailedException;
 import com.example.rqchallenge.exceptions.ResourceNotFoundException;
-import lombok.AllArgsConstructor;
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import com.example.rqchallenge.index.FuzzyNameIndex;
+import com.example.rqchallenge.stats.SalaryAggregation;
+import com.example.rqchallenge.stream.FuzzyNameMatchVisitor;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import com.example.rqchallenge.stream.IdPageVisitor;
+import com.example.rqchallenge.stream.MaxSalaryVisitor;
+import com.example.rqchallenge.stream.NameMatchVisitor;
+import com.example.rqchallenge.stream.TopEarnersVisitor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @Slf4j
-@AllArgsConstructor(onConstructor = @__(@Autowired))
 public class EmployeeServiceImpl implements IEmployeeService {
+    private static final int TOP_EARNING_EMPLOYEE_COUNT = 10;
+    private static final String STREAMING_READ_MODE = "streaming";
 
     private final IExternalEmployeeAPIClient iExternalEmployeeAPIClient;
+    private final EmployeeSnapshotCache employeeSnapshotCache;
     private final ValidatorService validatorService;
+    private final boolean streamingReads;
+    private final int bulkConcurrency;
+    private final int bulkMaxItems;
+    private final ForkJoinPool salaryAggregationPool;
+    private final long fuzzySearchBudgetNanos;
+
+    /**
+     * @param readMode        snapshot answers search, highest salary and top ten from the cached snapshot,
+     *                        streaming answers them by parsing the upstream list on every request without materializing it
+     * @param bulkConcurrency max upstream calls in flight for one bulk request
+     * @param bulkMaxItems    max items accepted in one bulk request
+     * @param salaryAggregationPool pool computing salary statistics and top earners
+     * @param fuzzySearchBudgetMicros time after which a fuzzy search stops allowing more typos
+     */
+    @Autowired
+    public EmployeeServiceImpl(IExternalEmployeeAPIClient iExternalEmployeeAPIClient,
+                               EmployeeSnapshotCache employeeSnapshotCache,
+                               ValidatorService validatorService,
+                               @Value("${employee.read-mode:snapshot}") String readMode,
+                               @Value("${employee.bulk.concurrency:8}") int bulkConcurrency,
+                               @Value("${employee.bulk.max-items:5000}") int bulkMaxItems,
+                               @Qualifier("salaryAggregationPool") ForkJoinPool salaryAggregationPool,
+                               @Value("${employee.search.fuzzy.budget-micros:1000}") long fuzzySearchBudgetMicros) {
+        this.iExternalEmployeeAPIClient = iExternalEmployeeAPIClient;
+        this.employeeSnapshotCache = employeeSnapshotCache;
+        this.validatorService = validatorService;
+        this.streamingReads = STREAMING_READ_MODE.equalsIgnoreCase(readMode);
+        this.bulkConcurrency = bulkConcurrency;
+        this.bulkMaxItems = bulkMaxItems;
+        this.salaryAggregationPool = salaryAggregationPool;
+        this.fuzzySearchBudgetNanos = TimeUnit.MICROSECONDS.toNanos(fuzzySearchBudgetMicros);
+    }
 
     /**
      * @return returns list of all employee objects
@@ -33,17 +94,42 @@ public class EmployeeServiceImpl implements IEmployeeService {
     @Override
     public List<Employee> getAllEmployees() {
         try {
-            ResponseEntity<EmployeesResponseData> responseEntity = iExternalEmployeeAPIClient.getAllEmployees();
-            if (!HttpStatus.OK.equals(responseEntity.getStatusCode()) || Objects.isNull(responseEntity.getBody())) {
-                throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
-            }
-            return responseEntity.getBody().getData();
+            return employeeSnapshotCache.getEmployees();
         } catch (Exception ex) {
             log.error("Error occurred while fetching all employees : ", ex);
             throw ex;
         }
     }
 
+    /**
+     * @param visitor
+     * @return result of the visitor after visiting all employees, in list order
+     */
+    @Override
+    public <R> R visitAllEmployees(IEmployeeVisitor<R> visitor) {
+        if (streamingReads) {
+            return streamAllEmployees(visitor);
+        }
+        getAllEmployees().forEach(visitor::visit);
+        return visitor.getResult();
+    }
+
+    /**
+     * @param visitor
+     * @return result of the visitor over the upstream list parsed as it streams in, or over the loaded snapshot
+     * while upstream list calls are rejected
+     */
+    private <R> R streamAllEmployees(IEmployeeVisitor<R> visitor) {
+        try {
+            return iExternalEmployeeAPIClient.streamAllEmployees(visitor);
+        } catch (UpstreamRejectedException ex) {
+            EmployeeSnapshot snapshot = employeeSnapshotCache.getLoadedSnapshot().orElseThrow(() -> ex);
+            log.warn("Upstream list call rejected, answering from snapshot version {} aged {}", snapshot.getVersion(), snapshot.getAge());
+            SnapshotFallbackMarker.forCurrentRequest().mark();
+            snapshot.getEmployees().forEach(visitor::visit);
+            return visitor.getResult();
+        }
+    }
 
     /**
      * @param searchString
@@ -52,17 +138,89 @@ public class EmployeeServiceImpl implements IEmployeeService {
     @Override
     public List<Employee> getEmployeesByNameSearch(String searchString) {
         validatorService.validateEmployeeNameSearchString(searchString);
+        if (streamingReads) {
+            return streamAllEmployees(new NameMatchVisitor(searchString));
+        }
+        return employeeSnapshotCache.getSnapshot().getNameIndex().search(searchString);
+    }
 
-        ResponseEntity<EmployeesResponseData> responseEntity = iExternalEmployeeAPIClient.getAllEmployees();
-        if (!HttpStatus.OK.equals(responseEntity.getStatusCode()) || Objects.isNull(responseEntity.getBody())) {
-            log.error("Failed to get employee list to get employees by name search.");
-            throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+    /**
+     * @param searchString words of a name in any order, possibly misspelt or incomplete
+     * @param limit        max employees to return
+     * @return up to limit employees ranked by how closely their name matches searchString, best match first;
+     * scored by a scan of the snapshot until the first fuzzy name index is built
+     */
+    @Override
+    public List<Employee> getEmployeesByFuzzyNameSearch(String searchString, int limit) {
+        validatorService.validateEmployeeNameSearchString(searchString);
+        validatorService.validatePageRequest(limit, null);
+        if (streamingReads) {
+            return streamAllEmployees(new FuzzyNameMatchVisitor(searchString, limit));
+        }
+        EmployeeSnapshot snapshot = employeeSnapshotCache.getSnapshot();
+        Optional<FuzzyNameIndex> index = employeeSnapshotCache.getFuzzyNameIndex(snapshot);
+        if (index.isPresent()) {
+            return index.get().search(searchString, limit, fuzzySearchBudgetNanos);
         }
-        return Optional.ofNullable(responseEntity.getBody().getData())
-                .orElseThrow(() -> new OperationFailedException(String.format(MessageConstants.SEARCH_BY_NAME_OP_FAILED_ERROR_MESSAGE, searchString)))
-                .stream()
-                .filter(e -> StringUtils.containsIgnoreCase(e.getName(), searchString))
-                .collect(Collectors.toList());
+        FuzzyNameMatchVisitor visitor = new FuzzyNameMatchVisitor(searchString, limit);
+        snapshot.getEmployees().forEach(visitor::visit);
+        return visitor.getResult();
+    }
+
+    /**
+     * @param limit  page size
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param fields comma separated fields to return, null for all fields
+     * @return page of employees ordered by id
+     */
+    @Override
+    public EmployeePage getEmployeesPage(int limit, String cursor, String fields) {
+        Long afterId = validatorService.validatePageRequest(limit, cursor);
+        EmployeeFieldProjection projection = EmployeeFieldProjection.of(fields);
+        List<Employee> rows = streamingReads
+                ? streamAllEmployees(new IdPageVisitor(afterId, limit + 1, employee -> true))
+                : employeeSnapshotCache.getSnapshot().pageById(afterId, limit + 1);
+        return toPage(rows, limit, projection);
+    }
+
+    /**
+     * @param searchString
+     * @param limit        page size
+     * @param cursor       nextCursor of the previous page, null for the first page
+     * @param fields       comma separated fields to return, null for all fields
+     * @return page of employees whose name contains searchString, ordered by id
+     */
+    @Override
+    public EmployeePage getEmployeesByNameSearchPage(String searchString, int limit, String cursor, String fields) {
+        validatorService.validateEmployeeNameSearchString(searchString);
+        Long afterId = validatorService.validatePageRequest(limit, cursor);
+        EmployeeFieldProjection projection = EmployeeFieldProjection.of(fields);
+        List<Employee> rows;
+        if (streamingReads) {
+            NameMatchVisitor nameMatch = new NameMatchVisitor(searchString);
+            rows = streamAllEmployees(new IdPageVisitor(afterId, limit + 1, nameMatch::test));
+        } else {
+            IdPageVisitor page = new IdPageVisitor(afterId, limit + 1, employee -> true);
+            employeeSnapshotCache.getSnapshot().getNameIndex().search(searchString).forEach(page::visit);
+            rows = page.getResult();
+        }
+        return toPage(rows, limit, projection);
+    }
+
+    /**
+     * @param rows       up to limit + 1 employees ordered by id; the extra row only tells whether there is a next page
+     * @param limit
+     * @param projection
+     * @return page of the first limit rows
+     */
+    private EmployeePage toPage(List<Employee> rows, int limit, EmployeeFieldProjection projection) {
+        int size = Math.min(limit, rows.size());
+        List<Map<String, Object>> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            data.add(projection.apply(rows.get(i)));
+        }
+        String nextCursor = rows.size() > limit ? String.valueOf(rows.get(limit - 1).getId()) : null;
+        return new EmployeePage(data, nextCursor);
     }
 
     /**
@@ -73,34 +231,150 @@ public class EmployeeServiceImpl implements IEmployeeService {
     public Employee getEmployeeById(String id) {
         //we can validate id here, like id should be always positive integer etc.
         try {
-            ResponseEntity<EmployeeResponseData> responseEntity = iExternalEmployeeAPIClient.getEmployeeById(id);
-            if (!HttpStatus.OK.equals(responseEntity.getStatusCode())
-                    || Objects.isNull(responseEntity.getBody())
-                    || Objects.isNull(responseEntity.getBody().getData())) {
-                throw new ResourceNotFoundException(String.format(MessageConstants.EMP_NOT_FOUND_ERROR_MESSAGE, id));
-            }
-            return responseEntity.getBody().getData();
+            return toEmployee(id, iExternalEmployeeAPIClient.getEmployeeById(id));
+        } catch (UpstreamRejectedException ex) {
+            return snapshotFallback(id, ex, SnapshotFallbackMarker.forCurrentRequest());
         } catch (Exception ex) {
             log.error("Exception occurred while fetching employee with id {} :", id, ex);
             throw ex;
         }
     }
 
+    /**
+     * @param id
+     * @return future of the Employee object with specified Id, completed without holding the calling thread
+     */
+    @Override
+    public CompletableFuture<Employee> getEmployeeByIdAsync(String id) {
+        SnapshotFallbackMarker fallbackMarker = SnapshotFallbackMarker.forCurrentRequest();
+        return iExternalEmployeeAPIClient.getEmployeeByIdAsync(id)
+                .handle((responseEntity, ex) -> {
+                    Throwable cause = Futures.unwrap(ex);
+                    if (cause instanceof UpstreamRejectedException) {
+                        return snapshotFallback(id, (UpstreamRejectedException) cause, fallbackMarker);
+                    }
+                    if (Objects.nonNull(cause)) {
+                        throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+                    }
+                    return toEmployee(id, responseEntity);
+                })
+                .whenComplete((employee, ex) -> {
+                    if (Objects.nonNull(ex)) {
+                        log.error("Exception occurred while fetching employee with id {} :", id, ex);
+                    }
+                });
+    }
+
+    /**
+     * @param id
+     * @param ex             rejection of the upstream call
+     * @param fallbackMarker marker of the request being answered
+     * @return employee with id from the loaded snapshot
+     * @throws UpstreamRejectedException ex if the snapshot does not hold id
+     */
+    private Employee snapshotFallback(String id, UpstreamRejectedException ex, SnapshotFallbackMarker fallbackMarker) {
+        Optional<Employee> cached = parseId(id).flatMap(parsedId ->
+                employeeSnapshotCache.getLoadedSnapshot().flatMap(snapshot -> snapshot.findById(parsedId)));
+        if (cached.isEmpty()) {
+            throw ex;
+        }
+        log.warn("Upstream call for employee {} rejected, answering from snapshot", id);
+        fallbackMarker.mark();
+        return cached.get();
+    }
+
+    private static Employee toEmployee(String id, ResponseEntity<EmployeeResponseData> responseEntity) {
+        if (!HttpStatus.OK.equals(responseEntity.getStatusCode())
+                || Objects.isNull(responseEntity.getBody())
+                || Objects.isNull(responseEntity.getBody().getData())) {
+            throw new ResourceNotFoundException(String.format(MessageConstants.EMP_NOT_FOUND_ERROR_MESSAGE, id));
+        }
+        return responseEntity.getBody().getData();
+    }
+
+    /**
+     * @param ids ids to look up; duplicates are resolved once
+     * @return future of the found employees and the ids that were not found or could not be looked up, in request order.
+     * Ids held in the current snapshot are answered locally, the rest are fetched from upstream with bounded concurrency.
+     */
+    @Override
+    public CompletableFuture<EmployeeBatch> getEmployeesByIds(List<String> ids) {
+        validatorService.validateBulkRequest(ids, bulkMaxItems);
+        List<String> requestedIds = ids.stream().filter(Objects::nonNull).map(String::trim).distinct().collect(Collectors.toList());
+        Optional<EmployeeSnapshot> snapshot = employeeSnapshotCache.getLoadedSnapshot();
+        Map<String, Employee> localHits = new HashMap<>();
+        List<String> remoteIds = new ArrayList<>();
+        for (String id : requestedIds) {
+            Optional<Long> parsedId = parseId(id);
+            if (parsedId.isEmpty()) {
+                continue;
+            }
+            Optional<Employee> local = snapshot.flatMap(s -> s.findById(parsedId.get()));
+            if (local.isPresent()) {
+                localHits.put(id, local.get());
+            } else {
+                remoteIds.add(id);
+            }
+        }
+        return ConcurrencyWindow.map(remoteIds, bulkConcurrency, this::lookUpEmployee).thenApply(lookups -> {
+            Map<String, IdLookup> remoteResults = new HashMap<>();
+            lookups.forEach(lookup -> remoteResults.put(lookup.id, lookup));
+            List<Employee> found = new ArrayList<>();
+            List<String> notFound = new ArrayList<>();
+            List<String> failed = new ArrayList<>();
+            for (String id : requestedIds) {
+                IdLookup lookup = remoteResults.get(id);
+                if (localHits.containsKey(id)) {
+                    found.add(localHits.get(id));
+                } else if (Objects.isNull(lookup) || (!lookup.failed && Objects.isNull(lookup.employee))) {
+                    notFound.add(id);
+                } else if (lookup.failed) {
+                    failed.add(id);
+                } else {
+                    found.add(lookup.employee);
+                }
+            }
+            return new EmployeeBatch(found, notFound, failed);
+        });
+    }
+
+    private CompletableFuture<IdLookup> lookUpEmployee(String id) {
+        return iExternalEmployeeAPIClient.getEmployeeByIdAsync(id).handle((responseEntity, ex) -> {
+            Throwable cause = Futures.unwrap(ex);
+            if (cause instanceof HttpClientErrorException.NotFound) {
+                return new IdLookup(id, null, false);
+            }
+            if (Objects.nonNull(cause)) {
+                log.warn("Failed to fetch employee with id {} for batch lookup", id, ex);
+                return new IdLookup(id, null, true);
+            }
+            Employee employee = HttpStatus.OK.equals(responseEntity.getStatusCode()) && Objects.nonNull(responseEntity.getBody())
+                    ? responseEntity.getBody().getData()
+                    : null;
+            return new IdLookup(id, employee, false);
+        });
+    }
+
+    private static Optional<Long> parseId(String id) {
+        if (!NumberUtils.isDigits(id)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.valueOf(id));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * @return highest salary among all employees
      */
     @Override
     public Integer getHighestSalaryOfEmployees() {
-        ResponseEntity<EmployeesResponseData> responseEntity = iExternalEmployeeAPIClient.getAllEmployees();
-        if (!HttpStatus.OK.equals(responseEntity.getStatusCode()) || Objects.isNull(responseEntity.getBody())) {
-            log.error("Failed to get employee list to calculate max salary");
-            throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+        if (streamingReads) {
+            return streamAllEmployees(new MaxSalaryVisitor());
         }
-        return Optional.ofNullable(responseEntity.getBody().getData())
-                .orElseThrow(() -> new OperationFailedException(MessageConstants.CALC_HIGHEST_SALARY_OP_FAILED_ERROR_MESSAGE))
-                .stream()
-                .map(Employee::getSalary)
-                .reduce(0, Integer::max);
+        return employeeSnapshotCache.getSnapshot().getHighestSalary();
     }
 
     /**
@@ -108,19 +382,30 @@ public class EmployeeServiceImpl implements IEmployeeService {
      */
     @Override
     public List<String> getTopTenHighestEarningEmployeeNames() {
-        ResponseEntity<EmployeesResponseData> responseEntity = iExternalEmployeeAPIClient.getAllEmployees();
-        if (!HttpStatus.OK.equals(responseEntity.getStatusCode()) || Objects.isNull(responseEntity.getBody())) {
-            log.error("Failed to get employee names with top 10 highest salaries");
-            throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+        if (streamingReads) {
+            return streamAllEmployees(new TopEarnersVisitor(TOP_EARNING_EMPLOYEE_COUNT));
         }
-        return Optional.ofNullable(responseEntity.getBody().getData())
-                .orElseThrow(() -> new OperationFailedException(MessageConstants.TOP_TEN_HIGHEST_EARNING_OP_FAILED_ERROR_MESSAGE))
-                .stream()
-                .sorted(Comparator.comparing(Employee::getSalary).reversed())
-                .limit(10)
-                .map(Employee::getName)
-                .collect(Collectors.toList());
+        return employeeSnapshotCache.getSnapshot().getTopEarningEmployeeNames(TOP_EARNING_EMPLOYEE_COUNT);
+    }
 
+    /**
+     * @param buckets max number of histogram buckets
+     * @return salary distribution of all employees, aggregated in parallel over the snapshot in either read mode
+     */
+    @Override
+    public SalaryStats getSalaryStats(int buckets) {
+        validatorService.validateHistogramBuckets(buckets);
+        return SalaryAggregation.statistics(getAllEmployees(), buckets, salaryAggregationPool);
+    }
+
+    /**
+     * @param n
+     * @return up to n employees with the highest salaries, highest first, aggregated in parallel over the snapshot
+     */
+    @Override
+    public List<Employee> getTopEarningEmployees(int n) {
+        validatorService.validateTopN(n);
+        return SalaryAggregation.topEarners(getAllEmployees(), n, salaryAggregationPool);
     }
 
     /**
@@ -130,12 +415,26 @@ public class EmployeeServiceImpl implements IEmployeeService {
     @Override
     public Employee createEmployee(Map<String, Object> employeeInputData) {
         validatorService.validateCreateEmployeeInputPayload(employeeInputData);
-        ResponseEntity<EmployeeResponseData> responseEntity = iExternalEmployeeAPIClient.createEmployee(employeeInputData);
+        return toCreatedEmployee(employeeInputData, iExternalEmployeeAPIClient.createEmployee(employeeInputData));
+    }
+
+    /**
+     * @param employeeInputData
+     * @return future of the Employee object which is created using input
+     */
+    @Override
+    public CompletableFuture<Employee> createEmployeeAsync(Map<String, Object> employeeInputData) {
+        validatorService.validateCreateEmployeeInputPayload(employeeInputData);
+        return iExternalEmployeeAPIClient.createEmployeeAsync(employeeInputData)
+                .thenApply(responseEntity -> toCreatedEmployee(employeeInputData, responseEntity));
+    }
 
+    private Employee toCreatedEmployee(Map<String, Object> employeeInputData, ResponseEntity<EmployeeResponseData> responseEntity) {
         if (Objects.isNull(responseEntity.getBody()) || Objects.isNull(responseEntity.getBody().getData())) {
             log.error("Failed to create employee record with input {}", employeeInputData);
             throw new OperationFailedException(String.format(MessageConstants.CREATE_EMPLOYEE_FAILED_ERROR_MESSAGE, employeeInputData.get("name")));
         }
+        employeeSnapshotCache.applyCreated(responseEntity.getBody().getData());
         return responseEntity.getBody().getData();
     }
 
@@ -162,10 +461,105 @@ public class EmployeeServiceImpl implements IEmployeeService {
                 2. if invalid id is passed to deleteAPI, it will also return success.
                     it is not under our control
            */
-        ResponseEntity<BaseResponse> responseEntity = iExternalEmployeeAPIClient.deleteEmployeeById(id);
+        return toDeleteMessage(id, iExternalEmployeeAPIClient.deleteEmployeeById(id));
+    }
+
+    /**
+     * @param id
+     * @return future of the message from the delete operation
+     */
+    @Override
+    public CompletableFuture<String> deleteEmployeeByIdAsync(String id) {
+        return iExternalEmployeeAPIClient.deleteEmployeeByIdAsync(id)
+                .thenApply(responseEntity -> toDeleteMessage(id, responseEntity));
+    }
+
+    private String toDeleteMessage(String id, ResponseEntity<BaseResponse> responseEntity) {
         if (responseEntity.getStatusCode().isError()) {
             return String.format(MessageConstants.DELETE_EMPLOYEE_FAILED_ERROR_MESSAGE, id);
         }
+        parseId(id).ifPresent(employeeSnapshotCache::applyDeleted);
         return responseEntity.getBody().getMessage();
     }
+
+    /**
+     * @param employeeInputs employees to create; each is validated and created independently
+     * @return future of the per-item report, completed once every item is done
+     */
+    @Override
+    public CompletableFuture<BulkOperationReport> createEmployees(List<Map<String, Object>> employeeInputs) {
+        validatorService.validateBulkRequest(employeeInputs, bulkMaxItems);
+        return ConcurrencyWindow.map(indicesOf(employeeInputs), bulkConcurrency,
+                        index -> createBulkItem(index, employeeInputs.get(index)))
+                .thenApply(BulkOperationReport::of);
+    }
+
+    /**
+     * @param ids ids of employees to delete; each is deleted independently
+     * @return future of the per-item report, completed once every item is done
+     */
+    @Override
+    public CompletableFuture<BulkOperationReport> deleteEmployeesByIds(List<String> ids) {
+        validatorService.validateBulkRequest(ids, bulkMaxItems);
+        return ConcurrencyWindow.map(indicesOf(ids), bulkConcurrency, index -> deleteBulkItem(index, ids.get(index)))
+                .thenApply(BulkOperationReport::of);
+    }
+
+    private static List<Integer> indicesOf(List<?> items) {
+        return IntStream.range(0, items.size()).boxed().collect(Collectors.toList());
+    }
+
+    private CompletableFuture<BulkItemResult> createBulkItem(int index, Map<String, Object> employeeInput) {
+        try {
+            if (Objects.isNull(employeeInput)) {
+                throw new InvalidRequestException(MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
+            }
+            validatorService.validateCreateEmployeeInputPayload(employeeInput);
+        } catch (InvalidRequestException ex) {
+            return CompletableFuture.completedFuture(new BulkItemResult(index, BulkItemResult.FAILED, ex.getMessage(), null, null));
+        } catch (ClassCastException ex) {
+            return CompletableFuture.completedFuture(new BulkItemResult(index, BulkItemResult.FAILED,
+                    MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE, null, null));
+        }
+        String failedMessage = String.format(MessageConstants.CREATE_EMPLOYEE_FAILED_ERROR_MESSAGE, employeeInput.get("name"));
+        return iExternalEmployeeAPIClient.createEmployeeAsync(employeeInput).handle((responseEntity, ex) -> {
+            if (Objects.nonNull(ex) || Objects.isNull(responseEntity.getBody()) || Objects.isNull(responseEntity.getBody().getData())) {
+                log.warn("Failed to create employee record {} of bulk request with input {}", index, employeeInput, ex);
+                return new BulkItemResult(index, BulkItemResult.FAILED, failedMessage, null, null);
+            }
+            Employee created = responseEntity.getBody().getData();
+            employeeSnapshotCache.applyCreated(created);
+            return new BulkItemResult(index, BulkItemResult.SUCCESS, responseEntity.getBody().getMessage(), null, created);
+        });
+    }
+
+    private CompletableFuture<BulkItemResult> deleteBulkItem(int index, String id) {
+        try {
+            validatorService.validateEmployeeId(id);
+        } catch (InvalidRequestException ex) {
+            return CompletableFuture.completedFuture(new BulkItemResult(index, BulkItemResult.FAILED, ex.getMessage(), id, null));
+        }
+        String failedMessage = String.format(MessageConstants.DELETE_EMPLOYEE_FAILED_ERROR_MESSAGE, id);
+        return iExternalEmployeeAPIClient.deleteEmployeeByIdAsync(id).handle((responseEntity, ex) -> {
+            if (Objects.nonNull(ex) || responseEntity.getStatusCode().isError()) {
+                log.warn("Failed to delete employee {} of bulk request", id, ex);
+                return new BulkItemResult(index, BulkItemResult.FAILED, failedMessage, id, null);
+            }
+            employeeSnapshotCache.applyDeleted(Long.valueOf(id));
+            return new BulkItemResult(index, BulkItemResult.SUCCESS,
+                    Objects.isNull(responseEntity.getBody()) ? null : responseEntity.getBody().getMessage(), id, null);
+        });
+    }
+
+    private static class IdLookup {
+        private final String id;
+        private final Employee employee;
+        private final boolean failed;
+
+        IdLookup(String id, Employee employee, boolean failed) {
+            this.id = id;
+            this.employee = employee;
+            this.failed = failed;
+        }
+    }
 }
@@ -1,68 +1,105 @@
 package com.example.rqchallenge.service;
 
+import com.example.rqchallenge.commonutils.JsonHttpEntities;
 import com.example.rqchallenge.commonutils.RestExecutorService;
+import com.example.rqchallenge.commonutils.SingleFlight;
 import com.example.rqchallenge.constants.APIConstants;
 import com.example.rqchallenge.dto.BaseResponse;
 import com.example.rqchallenge.dto.EmployeeResponseData;
 import com.example.rqchallenge.dto.EmployeesResponseData;
-import lombok.AllArgsConstructor;
+import com.example.rqchallenge.stream.EmployeeListStreamReader;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Class contains logic to interact with HttpClient for CRUD employee operations to external world
+ * Class contains logic to interact with HttpClient for CRUD employee operations to external world.
+ * Concurrent reads of the same upstream resource share a single in-flight call, and single employee lookups are hedged.
  */
 @Service
-@AllArgsConstructor(onConstructor = @__(@Autowired))
+@ConditionalOnProperty(name = "upstream.client.mode", havingValue = "blocking", matchIfMissing = true)
 public class ExternalEmployeeApiClientImpl implements IExternalEmployeeAPIClient{
     private final RestExecutorService restExecutorService;
+    private final String baseApiUrl;
+    private final Duration followerTimeout;
+    private final SingleFlight<String, ResponseEntity<EmployeesResponseData>> employeeListCalls = new SingleFlight<>();
+    private final SingleFlight<String, ResponseEntity<EmployeeResponseData>> employeeByIdCalls = new SingleFlight<>();
+
+    @Autowired
+    public ExternalEmployeeApiClientImpl(RestExecutorService restExecutorService,
+                                         @Value("${upstream.base-url:" + APIConstants.BASE_URL + "}") String baseUrl,
+                                         @Value("${upstream.single-flight.follower-timeout-ms:10000}") long followerTimeoutMillis) {
+        this.restExecutorService = restExecutorService;
+        this.baseApiUrl = String.format(APIConstants.API_URL_FORMAT, baseUrl, APIConstants.VERSION_1);
+        this.followerTimeout = Duration.ofMillis(followerTimeoutMillis);
+    }
 
     @Override
     public ResponseEntity<EmployeesResponseData> getAllEmployees() {
-        return restExecutorService.execute(APIConstants.BASE_API_URL + APIConstants.GET_ALL_EMPLOYEES_URL,
-                getHttpEntity(), HttpMethod.GET, EmployeesResponseData.class);
+        String url = baseApiUrl + APIConstants.GET_ALL_EMPLOYEES_URL;
+        return employeeListCalls.execute(url,
+                () -> restExecutorService.execute(url, JsonHttpEntities.getHttpEntity(), HttpMethod.GET, EmployeesResponseData.class),
+                followerTimeout);
+    }
+
+    @Override
+    public ResponseEntity<EmployeesResponseData> getAllEmployees(HttpHeaders conditionalHeaders) {
+        String url = baseApiUrl + APIConstants.GET_ALL_EMPLOYEES_URL;
+        return employeeListCalls.execute(JsonHttpEntities.conditionalCallKey(url, conditionalHeaders),
+                () -> restExecutorService.execute(url, JsonHttpEntities.getConditionalHttpEntity(conditionalHeaders),
+                        HttpMethod.GET, EmployeesResponseData.class),
+                followerTimeout);
+    }
+
+    @Override
+    public <R> R streamAllEmployees(IEmployeeVisitor<R> visitor) {
+        return restExecutorService.stream(baseApiUrl + APIConstants.GET_ALL_EMPLOYEES_URL,
+                JsonHttpEntities.getHttpEntity(), HttpMethod.GET, body -> EmployeeListStreamReader.read(body, visitor));
     }
 
     @Override
     public ResponseEntity<EmployeeResponseData> getEmployeeById(String id) {
-        return restExecutorService.execute(APIConstants.BASE_API_URL + String.format(APIConstants.GET_EMPLOYEE_BY_ID_URL, id),
-                getHttpEntity(), HttpMethod.GET, EmployeeResponseData.class);
+        String url = baseApiUrl + APIConstants.GET_EMPLOYEE_BY_ID_URL;
+        return employeeByIdCalls.execute(id,
+                () -> restExecutorService.executeHedged(url, JsonHttpEntities.getHttpEntity(), HttpMethod.GET, EmployeeResponseData.class, id),
+                followerTimeout);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> getEmployeeByIdAsync(String id) {
+        String url = baseApiUrl + APIConstants.GET_EMPLOYEE_BY_ID_URL;
+        return employeeByIdCalls.executeAsync(id,
+                () -> restExecutorService.executeHedgedAsync(url, JsonHttpEntities.getHttpEntity(), HttpMethod.GET, EmployeeResponseData.class, id));
     }
 
     @Override
     public ResponseEntity<EmployeeResponseData> createEmployee(Map<String, Object> employeeInput) {
-        return restExecutorService.execute(APIConstants.BASE_API_URL + APIConstants.CREATE_EMPLOYEE_URL,
-                getHttpEntity(employeeInput), HttpMethod.POST, EmployeeResponseData.class);
+        return restExecutorService.execute(baseApiUrl + APIConstants.CREATE_EMPLOYEE_URL,
+                JsonHttpEntities.getHttpEntity(employeeInput), HttpMethod.POST, EmployeeResponseData.class);
     }
 
     @Override
     public ResponseEntity<BaseResponse> deleteEmployeeById(String id) {
-        return restExecutorService.execute(APIConstants.BASE_API_URL + String.format(APIConstants.DELETE_EMPLOYEE_URL, id),
-                getHttpEntity(), HttpMethod.DELETE, BaseResponse.class);
+        return restExecutorService.execute(baseApiUrl + APIConstants.DELETE_EMPLOYEE_URL,
+                JsonHttpEntities.getHttpEntity(), HttpMethod.DELETE, BaseResponse.class, id);
     }
 
-    /**
-     * @return HttpEntity with only headers
-     */
-    private HttpEntity getHttpEntity() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        return new HttpEntity(headers);
+    @Override
+    public CompletableFuture<ResponseEntity<EmployeeResponseData>> createEmployeeAsync(Map<String, Object> employeeInput) {
+        return restExecutorService.executeAsync(baseApiUrl + APIConstants.CREATE_EMPLOYEE_URL,
+                JsonHttpEntities.getHttpEntity(employeeInput), HttpMethod.POST, EmployeeResponseData.class);
     }
 
-    /**
-     * @param input
-     * @return HttpEntity with header and input payload body
-     */
-    private HttpEntity getHttpEntity(Map<String, Object> input) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
-        return new HttpEntity(input, headers);
+    @Override
+    public CompletableFuture<ResponseEntity<BaseResponse>> deleteEmployeeByIdAsync(String id) {
+        return restExecutorService.executeAsync(baseApiUrl + APIConstants.DELETE_EMPLOYEE_URL,
+                JsonHttpEntities.getHttpEntity(), HttpMethod.DELETE, BaseResponse.class, id);
     }
 }
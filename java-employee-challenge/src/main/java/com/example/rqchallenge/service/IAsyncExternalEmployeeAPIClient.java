@@ -0,0 +1,20 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.EmployeeResponseData;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public interface IAsyncExternalEmployeeAPIClient {
+    CompletableFuture<ResponseEntity<EmployeesResponseData>> getAllEmployees();
+    CompletableFuture<ResponseEntity<EmployeesResponseData>> getAllEmployees(HttpHeaders conditionalHeaders);
+    <R> CompletableFuture<R> streamAllEmployees(IEmployeeVisitor<R> visitor);
+    CompletableFuture<ResponseEntity<EmployeeResponseData>> getEmployeeById(String id);
+    CompletableFuture<ResponseEntity<EmployeeResponseData>> createEmployee(Map<String, Object> employeeInput);
+    CompletableFuture<ResponseEntity<BaseResponse>> deleteEmployeeById(String id);
+}
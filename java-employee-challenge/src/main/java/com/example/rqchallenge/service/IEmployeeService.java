@@ -1,16 +1,34 @@
 package com.example.rqchallenge.service;
+import com.example.rqchallenge.dto.BulkOperationReport;
 import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeBatch;
+import com.example.rqchallenge.dto.EmployeePage;
+import com.example.rqchallenge.dto.SalaryStats;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
 import org.springframework.http.ResponseEntity;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface IEmployeeService {
     List<Employee> getAllEmployees();
+    <R> R visitAllEmployees(IEmployeeVisitor<R> visitor);
     List<Employee> getEmployeesByNameSearch(String searchString);
+    List<Employee> getEmployeesByFuzzyNameSearch(String searchString, int limit);
+    EmployeePage getEmployeesPage(int limit, String cursor, String fields);
+    EmployeePage getEmployeesByNameSearchPage(String searchString, int limit, String cursor, String fields);
     Employee getEmployeeById(String id);
+    CompletableFuture<Employee> getEmployeeByIdAsync(String id);
+    CompletableFuture<EmployeeBatch> getEmployeesByIds(List<String> ids);
     Integer getHighestSalaryOfEmployees();
     List<String> getTopTenHighestEarningEmployeeNames();
+    SalaryStats getSalaryStats(int buckets);
+    List<Employee> getTopEarningEmployees(int n);
     Employee createEmployee(Map<String, Object> employeeInput);
+    CompletableFuture<Employee> createEmployeeAsync(Map<String, Object> employeeInput);
     String deleteEmployeeById(String id);
+    CompletableFuture<String> deleteEmployeeByIdAsync(String id);
+    CompletableFuture<BulkOperationReport> createEmployees(List<Map<String, Object>> employeeInputs);
+    CompletableFuture<BulkOperationReport> deleteEmployeesByIds(List<String> ids);
 }
\ No newline at end of file
@@ -3,13 +3,26 @@ package com.example.rqchallenge.service;
 import com.example.rqchallenge.dto.BaseResponse;
 import com.example.rqchallenge.dto.EmployeeResponseData;
 import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface IExternalEmployeeAPIClient {
     ResponseEntity<EmployeesResponseData> getAllEmployees();
+
+    /**
+     * @param conditionalHeaders validators such as If-None-Match or If-Modified-Since sent with the request
+     * @return employee list, or a 304 response without body if it did not change
+     */
+    ResponseEntity<EmployeesResponseData> getAllEmployees(HttpHeaders conditionalHeaders);
+    <R> R streamAllEmployees(IEmployeeVisitor<R> visitor);
     ResponseEntity<EmployeeResponseData> getEmployeeById(String id);
+    CompletableFuture<ResponseEntity<EmployeeResponseData>> getEmployeeByIdAsync(String id);
     ResponseEntity<EmployeeResponseData> createEmployee(Map<String, Object> employeeInput);
     ResponseEntity<BaseResponse> deleteEmployeeById(String id);
+    CompletableFuture<ResponseEntity<EmployeeResponseData>> createEmployeeAsync(Map<String, Object> employeeInput);
+    CompletableFuture<ResponseEntity<BaseResponse>> deleteEmployeeByIdAsync(String id);
 }
@@ -4,14 +4,19 @@ import com.example.rqchallenge.constants.MessageConstants;
 import com.example.rqchallenge.exceptions.InvalidRequestException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 @Service
 @Slf4j
 public class ValidatorService {
+    public static final int MAX_PAGE_LIMIT = 1000;
+    public static final int MAX_HISTOGRAM_BUCKETS = 100;
+
     public void validateEmployeeNameSearchString(String searchString) {
         if (StringUtils.isBlank(searchString))
             throw new InvalidRequestException(MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
@@ -22,6 +27,53 @@ public class ValidatorService {
             throw new InvalidRequestException(MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
     }
 
+    public void validateEmployeeId(String employeeId) {
+        if (!NumberUtils.isDigits(employeeId))
+            throw new InvalidRequestException(MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
+    }
+
+    public void validateBulkRequest(List<?> items, int maxItems) {
+        if (Objects.isNull(items) || items.isEmpty() || items.size() > maxItems) {
+            throw new InvalidRequestException(String.format(MessageConstants.INVALID_BULK_REQUEST_SIZE_VALIDATION_MESSAGE, maxItems));
+        }
+    }
+
+    /**
+     * @param limit  page size
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @return id the page starts after, null for the first page
+     * @throws InvalidRequestException for a limit out of range or a cursor that is not an id
+     */
+    public Long validatePageRequest(int limit, String cursor) {
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new InvalidRequestException(String.format(MessageConstants.INVALID_PAGE_LIMIT_VALIDATION_MESSAGE, MAX_PAGE_LIMIT));
+        }
+        if (Objects.isNull(cursor)) {
+            return null;
+        }
+        if (!NumberUtils.isDigits(cursor)) {
+            throw new InvalidRequestException(MessageConstants.INVALID_CURSOR_VALIDATION_MESSAGE);
+        }
+        try {
+            return Long.valueOf(cursor);
+        } catch (NumberFormatException ex) {
+            // all digits but beyond Long.MAX_VALUE
+            throw new InvalidRequestException(MessageConstants.INVALID_CURSOR_VALIDATION_MESSAGE);
+        }
+    }
+
+    public void validateHistogramBuckets(int buckets) {
+        if (buckets < 1 || buckets > MAX_HISTOGRAM_BUCKETS) {
+            throw new InvalidRequestException(String.format(MessageConstants.INVALID_HISTOGRAM_BUCKETS_VALIDATION_MESSAGE, MAX_HISTOGRAM_BUCKETS));
+        }
+    }
+
+    public void validateTopN(int n) {
+        if (n < 1 || n > MAX_PAGE_LIMIT) {
+            throw new InvalidRequestException(String.format(MessageConstants.INVALID_TOP_N_VALIDATION_MESSAGE, MAX_PAGE_LIMIT));
+        }
+    }
+
     public void validateCreateEmployeeInputPayload(Map<String, Object> employeeInputData) {
         if (Objects.isNull(employeeInputData.get("name"))) {
             throw new InvalidRequestException(MessageConstants.NAME_FIELD_MANDATORY_VALIDATION_MESSAGE);
@@ -0,0 +1,228 @@
+package com.example.rqchallenge.stats;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.SalaryBucket;
+import com.example.rqchallenge.dto.SalaryStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Salary statistics and top earners of an employee list, computed by fork-join tasks over index ranges of the list.
+ * Leaf ranges sort their salaries and keep their best paid employees in a heap bounded by the requested count;
+ * partial results are merged pairwise as the tasks join, so the merged salaries are sorted and give the percentiles
+ * and histogram by position. Employees without a salary are not counted.
+ * Ties on salary are ordered by position in the list, as in {@link com.example.rqchallenge.index.SalaryIndex}.
+ */
+public final class SalaryAggregation {
+    static final int LEAF_SIZE = 8192;
+
+    private static final Comparator<Earner> LOWEST_FIRST = Comparator.<Earner>comparingInt(earner -> earner.salary)
+            .thenComparing(Comparator.<Earner>comparingInt(earner -> earner.position).reversed());
+
+    private SalaryAggregation() {
+    }
+
+    /**
+     * @param employees
+     * @param bucketCount max number of histogram buckets
+     * @param pool        pool running the aggregation
+     * @return count, min, max, mean, nearest-rank percentiles and histogram of the salaries
+     */
+    public static SalaryStats statistics(List<Employee> employees, int bucketCount, ForkJoinPool pool) {
+        List<Employee> rows = randomAccess(employees);
+        SortedSalaries salaries = pool.invoke(new SortedSalariesTask(rows, 0, rows.size()));
+        int[] sorted = salaries.values;
+        if (sorted.length == 0) {
+            return new SalaryStats(0, null, null, null, null, null, null, Collections.emptyList());
+        }
+        return new SalaryStats(sorted.length, sorted[0], sorted[sorted.length - 1], (double) salaries.sum / sorted.length,
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), histogram(sorted, bucketCount));
+    }
+
+    /**
+     * @param employees
+     * @param count number of employees to return
+     * @param pool  pool running the aggregation
+     * @return up to count employees with the highest salaries, highest first
+     */
+    public static List<Employee> topEarners(List<Employee> employees, int count, ForkJoinPool pool) {
+        if (count <= 0) {
+            return Collections.emptyList();
+        }
+        List<Employee> rows = randomAccess(employees);
+        List<Earner> earners = new ArrayList<>(pool.invoke(new TopEarnersTask(rows, 0, rows.size(), count)));
+        earners.sort(LOWEST_FIRST.reversed());
+        List<Employee> top = new ArrayList<>(earners.size());
+        earners.forEach(earner -> top.add(earner.employee));
+        return Collections.unmodifiableList(top);
+    }
+
+    /**
+     * @return salary at the nearest rank of percent in sorted
+     */
+    static int percentile(int[] sorted, int percent) {
+        int rank = (int) (((long) percent * sorted.length + 99) / 100);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * @return buckets of equal width covering min to max, at most bucketCount of them
+     */
+    static List<SalaryBucket> histogram(int[] sorted, int bucketCount) {
+        long min = sorted[0];
+        long max = sorted[sorted.length - 1];
+        long width = Math.max(1, (max - min + bucketCount) / bucketCount);
+        List<SalaryBucket> buckets = new ArrayList<>(bucketCount);
+        int from = 0;
+        for (long lowerBound = min; lowerBound <= max; lowerBound += width) {
+            long upperBound = lowerBound + width;
+            int to = firstIndexAtLeast(sorted, upperBound, from);
+            buckets.add(new SalaryBucket(lowerBound, upperBound, to - from));
+            from = to;
+        }
+        return buckets;
+    }
+
+    private static int firstIndexAtLeast(int[] sorted, long bound, int from) {
+        int low = from;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static List<Employee> randomAccess(List<Employee> employees) {
+        return employees instanceof RandomAccess ? employees : new ArrayList<>(employees);
+    }
+
+    private static class SortedSalaries {
+        private final int[] values;
+        private final long sum;
+
+        SortedSalaries(int[] values, long sum) {
+            this.values = values;
+            this.sum = sum;
+        }
+
+        SortedSalaries merge(SortedSalaries other) {
+            int[] merged = new int[values.length + other.values.length];
+            int left = 0;
+            int right = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (right >= other.values.length || (left < values.length && values[left] <= other.values[right])) {
+                    merged[i] = values[left++];
+                } else {
+                    merged[i] = other.values[right++];
+                }
+            }
+            return new SortedSalaries(merged, sum + other.sum);
+        }
+    }
+
+    private static class SortedSalariesTask extends RecursiveTask<SortedSalaries> {
+        private final List<Employee> employees;
+        private final int from;
+        private final int to;
+
+        SortedSalariesTask(List<Employee> employees, int from, int to) {
+            this.employees = employees;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SortedSalaries compute() {
+            if (to - from <= LEAF_SIZE) {
+                int[] values = new int[to - from];
+                int size = 0;
+                long sum = 0;
+                for (int i = from; i < to; i++) {
+                    Integer salary = employees.get(i).getSalary();
+                    if (Objects.nonNull(salary)) {
+                        values[size++] = salary;
+                        sum += salary;
+                    }
+                }
+                int[] sorted = Arrays.copyOf(values, size);
+                Arrays.sort(sorted);
+                return new SortedSalaries(sorted, sum);
+            }
+            int mid = (from + to) >>> 1;
+            SortedSalariesTask left = new SortedSalariesTask(employees, from, mid);
+            left.fork();
+            SortedSalaries right = new SortedSalariesTask(employees, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static class TopEarnersTask extends RecursiveTask<PriorityQueue<Earner>> {
+        private final List<Employee> employees;
+        private final int from;
+        private final int to;
+        private final int count;
+
+        TopEarnersTask(List<Employee> employees, int from, int to, int count) {
+            this.employees = employees;
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        @Override
+        protected PriorityQueue<Earner> compute() {
+            if (to - from <= LEAF_SIZE) {
+                PriorityQueue<Earner> heap = new PriorityQueue<>(Math.min(count, to - from) + 1, LOWEST_FIRST);
+                for (int i = from; i < to; i++) {
+                    Employee employee = employees.get(i);
+                    if (Objects.nonNull(employee.getSalary())) {
+                        offer(heap, new Earner(employee, employee.getSalary(), i));
+                    }
+                }
+                return heap;
+            }
+            int mid = (from + to) >>> 1;
+            TopEarnersTask left = new TopEarnersTask(employees, from, mid, count);
+            left.fork();
+            PriorityQueue<Earner> right = new TopEarnersTask(employees, mid, to, count).compute();
+            PriorityQueue<Earner> merged = left.join();
+            right.forEach(earner -> offer(merged, earner));
+            return merged;
+        }
+
+        private void offer(PriorityQueue<Earner> heap, Earner earner) {
+            if (heap.size() < count) {
+                heap.add(earner);
+            } else if (LOWEST_FIRST.compare(earner, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(earner);
+            }
+        }
+    }
+
+    private static class Earner {
+        private final Employee employee;
+        private final int salary;
+        private final int position;
+
+        Earner(Employee employee, int salary, int position) {
+            this.employee = employee;
+            this.salary = salary;
+            this.position = position;
+        }
+    }
+}
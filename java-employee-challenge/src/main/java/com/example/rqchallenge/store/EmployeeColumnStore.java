@@ -0,0 +1,454 @@
+package com.example.rqchallenge.store;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * Immutable employee list held column by column in primitive arrays instead of one object per employee.
+ * Ids, salaries and ages are long[]/int[] columns with a null bitmap each, names are a single UTF-8 byte blob
+ * addressed by row offsets, and profile images are dictionary encoded since the upstream repeats a few values.
+ * An open-addressing hash table of rows maps ids to rows, the first row winning for a duplicated id, and unless the
+ * rows already are in id order, as the upstream returns them, a row permutation keeps the id order for pagination. Employee objects are only materialized for the rows that are read.
+ * Being immutable, every change copies the whole store: withAdded, withRemoved and withReplaced each rebuild all
+ * columns and the id table, O(n) per changed employee, so batches of changes should go through withChanges,
+ * which rebuilds once for the whole batch.
+ */
+public class EmployeeColumnStore {
+    private static final int NO_ROW = -1;
+    private static final int NO_CODE = -1;
+
+    private final int size;
+    private final long[] ids;
+    private final int[] salaries;
+    private final int[] ages;
+    private final BitSet nullIds;
+    private final BitSet nullSalaries;
+    private final BitSet nullAges;
+    private final BitSet nullNames;
+    private final byte[] names;
+    private final int[] nameOffsets;
+    private final String[] profileImageDictionary;
+    private final int[] profileImageCodes;
+    private final int[] rowSlots;
+    /**
+     * rows with an id in id order; null when every row has an id and rows are already in id order
+     */
+    private final int[] rowsById;
+    private final int highestSalary;
+
+    public EmployeeColumnStore(List<Employee> employees) {
+        this(builderOf(employees));
+    }
+
+    private EmployeeColumnStore(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.salaries = Arrays.copyOf(builder.salaries, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.nullIds = builder.nullIds;
+        this.nullSalaries = builder.nullSalaries;
+        this.nullAges = builder.nullAges;
+        this.nullNames = builder.nullNames;
+        this.names = Arrays.copyOf(builder.names, builder.namesLength);
+        this.nameOffsets = Arrays.copyOf(builder.nameOffsets, size + 1);
+        this.profileImageDictionary = builder.dictionary.toArray(new String[0]);
+        this.profileImageCodes = Arrays.copyOf(builder.profileImageCodes, size);
+
+        this.rowSlots = new int[Integer.highestOneBit(Math.max(1, size * 4 / 3)) << 1];
+        Arrays.fill(rowSlots, NO_ROW);
+        int highest = 0;
+        boolean anySalary = false;
+        int[] indexedRows = new int[size - nullIds.cardinality()];
+        int indexed = 0;
+        for (int row = 0; row < size; row++) {
+            if (!nullSalaries.get(row) && (!anySalary || salaries[row] > highest)) {
+                highest = salaries[row];
+                anySalary = true;
+            }
+            if (!nullIds.get(row)) {
+                indexedRows[indexed++] = row;
+                int slot = slotOf(ids[row]);
+                while (rowSlots[slot] != NO_ROW && ids[rowSlots[slot]] != ids[row]) {
+                    slot = (slot + 1) & (rowSlots.length - 1);
+                }
+                if (rowSlots[slot] == NO_ROW) {
+                    rowSlots[slot] = row;
+                }
+            }
+        }
+        this.highestSalary = highest;
+        this.rowsById = sortById(indexedRows);
+    }
+
+    /**
+     * @return number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row
+     * @return newly materialized employee of row
+     */
+    public Employee get(int row) {
+        return new Employee(nullIds.get(row) ? null : ids[row],
+                getName(row),
+                nullSalaries.get(row) ? null : salaries[row],
+                nullAges.get(row) ? null : ages[row],
+                profileImageCodes[row] == NO_CODE ? null : profileImageDictionary[profileImageCodes[row]]);
+    }
+
+    /**
+     * @return read-only list view materializing each employee when it is read
+     */
+    public List<Employee> asList() {
+        return new RowList();
+    }
+
+    /**
+     * @param id
+     * @return first row holding id, or -1
+     */
+    public int findRow(long id) {
+        for (int slot = slotOf(id); rowSlots[slot] != NO_ROW; slot = (slot + 1) & (rowSlots.length - 1)) {
+            if (ids[rowSlots[slot]] == id) {
+                return rowSlots[slot];
+            }
+        }
+        return NO_ROW;
+    }
+
+    /**
+     * @param id
+     * @return employee with id, if any
+     */
+    public Optional<Employee> find(long id) {
+        int row = findRow(id);
+        return row == NO_ROW ? Optional.empty() : Optional.of(get(row));
+    }
+
+    /**
+     * @param afterId exclusive lower bound, null to start from the lowest id
+     * @param count
+     * @return up to count employees with an id greater than afterId, lowest id first
+     */
+    public List<Employee> page(Long afterId, int count) {
+        int indexedRows = Objects.isNull(rowsById) ? size : rowsById.length;
+        int from = 0;
+        if (Objects.nonNull(afterId)) {
+            int high = indexedRows;
+            while (from < high) {
+                int mid = (from + high) >>> 1;
+                if (ids[rowAtIdPosition(mid)] <= afterId) {
+                    from = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+        }
+        int to = (int) Math.min(indexedRows, (long) from + count);
+        List<Employee> page = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            page.add(get(rowAtIdPosition(i)));
+        }
+        return page;
+    }
+
+    /**
+     * @return highest salary, 0 when no employee has a salary
+     */
+    public int getHighestSalary() {
+        return highestSalary;
+    }
+
+    /**
+     * @param count
+     * @return names of up to count employees with the highest salaries, highest first, equal salaries in row order
+     */
+    public List<String> getTopEarningEmployeeNames(int count) {
+        int[] topRows = new int[Math.max(0, count)];
+        int filled = 0;
+        for (int row = 0; row < size; row++) {
+            if (nullSalaries.get(row)) {
+                continue;
+            }
+            int salary = salaries[row];
+            if (filled == topRows.length && (filled == 0 || salary <= salaries[topRows[filled - 1]])) {
+                continue;
+            }
+            int position = filled == topRows.length ? filled - 1 : filled++;
+            while (position > 0 && salaries[topRows[position - 1]] < salary) {
+                topRows[position] = topRows[position - 1];
+                position--;
+            }
+            topRows[position] = row;
+        }
+        List<String> topNames = new ArrayList<>(filled);
+        for (int i = 0; i < filled; i++) {
+            topNames.add(getName(topRows[i]));
+        }
+        return topNames;
+    }
+
+    /**
+     * @param employee
+     * @return copy of this store with employee appended
+     */
+    public EmployeeColumnStore withAdded(Employee employee) {
+        Builder builder = new Builder(size + 1, names.length + 32);
+        for (int row = 0; row < size; row++) {
+            builder.copyRow(this, row);
+        }
+        builder.add(employee);
+        return new EmployeeColumnStore(builder);
+    }
+
+    /**
+     * @param row
+     * @param employee
+     * @return copy of this store with row replaced by employee
+     */
+    public EmployeeColumnStore withReplaced(int row, Employee employee) {
+        Builder builder = new Builder(size, names.length + 32);
+        for (int copied = 0; copied < size; copied++) {
+            if (copied == row) {
+                builder.add(employee);
+            } else {
+                builder.copyRow(this, copied);
+            }
+        }
+        return new EmployeeColumnStore(builder);
+    }
+
+    /**
+     * @param id
+     * @return copy of this store without the first row holding id, or this store if there is no such row
+     */
+    public EmployeeColumnStore withRemoved(long id) {
+        int removed = findRow(id);
+        if (removed == NO_ROW) {
+            return this;
+        }
+        Builder builder = new Builder(size - 1, names.length);
+        for (int row = 0; row < size; row++) {
+            if (row != removed) {
+                builder.copyRow(this, row);
+            }
+        }
+        return new EmployeeColumnStore(builder);
+    }
+
+    /**
+     * Rebuilds the store once for a whole batch of changes instead of once per changed row
+     * @param removedRows  ascending rows to drop
+     * @param replacedRows rows to replace, with their new employee
+     * @param added        employees appended after the remaining rows
+     * @return copy of this store with the changes applied
+     */
+    public EmployeeColumnStore withChanges(int[] removedRows, Map<Integer, Employee> replacedRows, List<Employee> added) {
+        Builder builder = new Builder(size - removedRows.length + added.size(), names.length + 32 * (replacedRows.size() + added.size()));
+        int nextRemoved = 0;
+        for (int row = 0; row < size; row++) {
+            if (nextRemoved < removedRows.length && removedRows[nextRemoved] == row) {
+                nextRemoved++;
+            } else if (replacedRows.containsKey(row)) {
+                builder.add(replacedRows.get(row));
+            } else {
+                builder.copyRow(this, row);
+            }
+        }
+        added.forEach(builder::add);
+        return new EmployeeColumnStore(builder);
+    }
+
+    /**
+     * @return estimated heap bytes held by this store, including its lookup structures
+     */
+    public long getFootprintBytes() {
+        long bytes = HeapSizes.object(2 * HeapSizes.INT + 14 * HeapSizes.REFERENCE)
+                + HeapSizes.longArray(ids.length)
+                + HeapSizes.intArray(salaries.length)
+                + HeapSizes.intArray(ages.length)
+                + HeapSizes.bitSet(nullIds) + HeapSizes.bitSet(nullSalaries) + HeapSizes.bitSet(nullAges) + HeapSizes.bitSet(nullNames)
+                + HeapSizes.byteArray(names.length)
+                + HeapSizes.intArray(nameOffsets.length)
+                + HeapSizes.referenceArray(profileImageDictionary.length)
+                + HeapSizes.intArray(profileImageCodes.length)
+                + HeapSizes.intArray(rowSlots.length)
+                + (Objects.isNull(rowsById) ? 0 : HeapSizes.intArray(rowsById.length));
+        for (String profileImage : profileImageDictionary) {
+            bytes += HeapSizes.string(profileImage);
+        }
+        return bytes;
+    }
+
+    private String getName(int row) {
+        if (nullNames.get(row)) {
+            return null;
+        }
+        return new String(names, nameOffsets[row], nameOffsets[row + 1] - nameOffsets[row], StandardCharsets.UTF_8);
+    }
+
+    private int rowAtIdPosition(int position) {
+        return Objects.isNull(rowsById) ? position : rowsById[position];
+    }
+
+    private int slotOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (rowSlots.length - 1);
+    }
+
+    /**
+     * @return rows ordered by id, equal ids in row order; null if that is the row order itself
+     */
+    private int[] sortById(int[] rows) {
+        boolean sorted = true;
+        for (int i = 1; i < rows.length && sorted; i++) {
+            sorted = ids[rows[i - 1]] <= ids[rows[i]];
+        }
+        if (sorted && rows.length == size) {
+            return null;
+        }
+        if (!sorted) {
+            mergeSortById(rows, rows.clone(), 0, rows.length);
+        }
+        return rows;
+    }
+
+    private void mergeSortById(int[] rows, int[] buffer, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSortById(buffer, rows, from, mid);
+        mergeSortById(buffer, rows, mid, to);
+        for (int i = from, left = from, right = mid; i < to; i++) {
+            if (right >= to || (left < mid && ids[buffer[left]] <= ids[buffer[right]])) {
+                rows[i] = buffer[left++];
+            } else {
+                rows[i] = buffer[right++];
+            }
+        }
+    }
+
+    private static Builder builderOf(List<Employee> employees) {
+        Builder builder = new Builder(employees.size(), employees.size() * 16);
+        employees.forEach(builder::add);
+        return builder;
+    }
+
+    private class RowList extends AbstractList<Employee> implements RandomAccess {
+        @Override
+        public Employee get(int row) {
+            Objects.checkIndex(row, size);
+            return EmployeeColumnStore.this.get(row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private static class Builder {
+        private final long[] ids;
+        private final int[] salaries;
+        private final int[] ages;
+        private final BitSet nullIds = new BitSet();
+        private final BitSet nullSalaries = new BitSet();
+        private final BitSet nullAges = new BitSet();
+        private final BitSet nullNames = new BitSet();
+        private final int[] nameOffsets;
+        private final int[] profileImageCodes;
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+        private byte[] names;
+        private int namesLength;
+        private int size;
+
+        Builder(int capacity, int nameBytesCapacity) {
+            this.ids = new long[capacity];
+            this.salaries = new int[capacity];
+            this.ages = new int[capacity];
+            this.nameOffsets = new int[capacity + 1];
+            this.profileImageCodes = new int[capacity];
+            this.names = new byte[Math.max(16, nameBytesCapacity)];
+        }
+
+        void add(Employee employee) {
+            setLong(ids, nullIds, employee.getId());
+            setInt(salaries, nullSalaries, employee.getSalary());
+            setInt(ages, nullAges, employee.getAge());
+            if (Objects.isNull(employee.getName())) {
+                nullNames.set(size);
+                appendName(new byte[0], 0, 0);
+            } else {
+                byte[] name = employee.getName().getBytes(StandardCharsets.UTF_8);
+                appendName(name, 0, name.length);
+            }
+            profileImageCodes[size] = codeOf(employee.getProfileImage());
+            size++;
+        }
+
+        void copyRow(EmployeeColumnStore store, int row) {
+            ids[size] = store.ids[row];
+            salaries[size] = store.salaries[row];
+            ages[size] = store.ages[row];
+            nullIds.set(size, store.nullIds.get(row));
+            nullSalaries.set(size, store.nullSalaries.get(row));
+            nullAges.set(size, store.nullAges.get(row));
+            nullNames.set(size, store.nullNames.get(row));
+            appendName(store.names, store.nameOffsets[row], store.nameOffsets[row + 1] - store.nameOffsets[row]);
+            int code = store.profileImageCodes[row];
+            profileImageCodes[size] = code == NO_CODE ? NO_CODE : codeOf(store.profileImageDictionary[code]);
+            size++;
+        }
+
+        private void setLong(long[] column, BitSet nulls, Long value) {
+            if (Objects.isNull(value)) {
+                nulls.set(size);
+            } else {
+                column[size] = value;
+            }
+        }
+
+        private void setInt(int[] column, BitSet nulls, Integer value) {
+            if (Objects.isNull(value)) {
+                nulls.set(size);
+            } else {
+                column[size] = value;
+            }
+        }
+
+        private void appendName(byte[] source, int offset, int length) {
+            if (namesLength + length > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, namesLength + length));
+            }
+            System.arraycopy(source, offset, names, namesLength, length);
+            namesLength += length;
+            nameOffsets[size + 1] = namesLength;
+        }
+
+        private int codeOf(String profileImage) {
+            if (Objects.isNull(profileImage)) {
+                return NO_CODE;
+            }
+            return dictionaryCodes.computeIfAbsent(profileImage, value -> {
+                dictionary.add(value);
+                return dictionary.size() - 1;
+            });
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.rqchallenge.store;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.index.EmployeeIdIndex;
+import com.example.rqchallenge.index.EmployeeNameIndex;
+import com.example.rqchallenge.index.SalaryIndex;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Estimated heap footprint of an employee list held as {@code List<Employee>} compared to an {@link EmployeeColumnStore},
+ * each with the indexes a snapshot retains next to it: name, salary and id indexes for the list, the name index for
+ * the column store, which answers salary and id lookups itself.
+ * Shared instances, e.g. cached small Integers or a repeated profile image String, are counted once.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeStoreFootprint {
+    private final int employeeCount;
+    private final long objectBytes;
+    private final long objectIndexBytes;
+    private final long columnarBytes;
+    private final long columnarIndexBytes;
+
+    /**
+     * @param employees
+     * @return footprint of employees in both representations
+     */
+    public static EmployeeStoreFootprint of(List<Employee> employees) {
+        EmployeeColumnStore columnStore = new EmployeeColumnStore(employees);
+        return new EmployeeStoreFootprint(employees.size(),
+                estimateObjectBytes(employees),
+                estimateObjectIndexBytes(new EmployeeNameIndex(employees), new SalaryIndex(employees), new EmployeeIdIndex(employees)),
+                columnStore.getFootprintBytes(),
+                new EmployeeNameIndex(columnStore.asList()).getFootprintBytes());
+    }
+
+    /**
+     * @param nameIndex
+     * @param salaryIndex
+     * @param idIndex
+     * @return estimated heap bytes the indexes of an employee list hold beyond the employees themselves
+     */
+    public static long estimateObjectIndexBytes(EmployeeNameIndex nameIndex, SalaryIndex salaryIndex, EmployeeIdIndex idIndex) {
+        return nameIndex.getFootprintBytes() + salaryIndex.getFootprintBytes() + idIndex.getFootprintBytes();
+    }
+
+    /**
+     * @param employees
+     * @return estimated heap bytes of the list, its Employee objects and their boxed and String fields
+     */
+    public static long estimateObjectBytes(List<Employee> employees) {
+        Set<Object> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+        long bytes = HeapSizes.object(2 * HeapSizes.INT + HeapSizes.REFERENCE) + HeapSizes.referenceArray(employees.size());
+        for (Employee employee : employees) {
+            bytes += HeapSizes.object(5 * HeapSizes.REFERENCE);
+            if (Objects.nonNull(employee.getId()) && counted.add(employee.getId())) {
+                bytes += HeapSizes.object(HeapSizes.LONG);
+            }
+            if (Objects.nonNull(employee.getSalary()) && counted.add(employee.getSalary())) {
+                bytes += HeapSizes.object(HeapSizes.INT);
+            }
+            if (Objects.nonNull(employee.getAge()) && counted.add(employee.getAge())) {
+                bytes += HeapSizes.object(HeapSizes.INT);
+            }
+            if (Objects.nonNull(employee.getName()) && counted.add(employee.getName())) {
+                bytes += HeapSizes.string(employee.getName());
+            }
+            if (Objects.nonNull(employee.getProfileImage()) && counted.add(employee.getProfileImage())) {
+                bytes += HeapSizes.string(employee.getProfileImage());
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return object bytes per columnar byte, indexes left out
+     */
+    public double getCompressionRatio() {
+        return columnarBytes == 0 ? 0 : (double) objectBytes / columnarBytes;
+    }
+
+    /**
+     * @return object and index bytes per columnar and index byte, as retained by a snapshot
+     */
+    public double getSnapshotCompressionRatio() {
+        long columnarSnapshotBytes = columnarBytes + columnarIndexBytes;
+        return columnarSnapshotBytes == 0 ? 0 : (double) (objectBytes + objectIndexBytes) / columnarSnapshotBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d employees: List<Employee> %,d bytes + indexes %,d bytes, columnar %,d bytes + name index %,d bytes"
+                        + " (%.1fx smaller, %.1fx with indexes)",
+                employeeCount, objectBytes, objectIndexBytes, columnarBytes, columnarIndexBytes,
+                getCompressionRatio(), getSnapshotCompressionRatio());
+    }
+}
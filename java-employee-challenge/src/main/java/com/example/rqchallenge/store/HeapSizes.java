@@ -0,0 +1,66 @@
+package com.example.rqchallenge.store;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Shallow heap size estimates for a 64-bit JVM with compressed oops and compact strings.
+ */
+public final class HeapSizes {
+    public static final int REFERENCE = 4;
+    public static final int INT = 4;
+    public static final int LONG = 8;
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+
+    private HeapSizes() {
+    }
+
+    public static long object(long fieldBytes) {
+        return align(OBJECT_HEADER + fieldBytes);
+    }
+
+    public static long longArray(long length) {
+        return align(ARRAY_HEADER + length * LONG);
+    }
+
+    public static long intArray(long length) {
+        return align(ARRAY_HEADER + length * INT);
+    }
+
+    public static long byteArray(long length) {
+        return align(ARRAY_HEADER + length);
+    }
+
+    public static long referenceArray(long length) {
+        return align(ARRAY_HEADER + length * REFERENCE);
+    }
+
+    public static long bitSet(BitSet bitSet) {
+        return object(REFERENCE + INT + 1) + longArray((bitSet.length() + 63) / 64);
+    }
+
+    /**
+     * @return bytes of the String and its value array, LATIN1-coded if every char fits in a byte
+     */
+    public static long string(String value) {
+        if (Objects.isNull(value)) {
+            return 0;
+        }
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+        return object(REFERENCE + INT + 2) + byteArray(latin1 ? value.length() : 2L * value.length());
+    }
+
+    /**
+     * @return bytes of a HashMap with size entries, its table and nodes, not counting keys and values
+     */
+    public static long hashMap(int size) {
+        int tableLength = size == 0 ? 0 : Integer.highestOneBit(Math.max(1, size * 4 / 3 + 1) - 1) << 1;
+        return object(4 * REFERENCE + 3 * INT + 4) + (tableLength == 0 ? 0 : referenceArray(tableLength))
+                + (long) size * object(INT + 3 * REFERENCE);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Token-by-token reader of the upstream employee list payload.
+ * Elements of the data array are parsed into a single reused {@link Employee} and handed to a visitor,
+ * so the memory needed to answer a query does not grow with the size of the list.
+ * Unknown fields are skipped whatever their value; an object or array in place of an employee field is rejected.
+ */
+public final class EmployeeListStreamReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Set<String> EMPLOYEE_FIELDS = Set.of("id", "name", "employee_name", "salary", "employee_salary",
+            "age", "employee_age", "profileImage", "profile_image");
+
+    private EmployeeListStreamReader() {
+    }
+
+    /**
+     * @param body    upstream response body; not closed
+     * @param visitor visitor called for every element of the data array
+     * @return result of the visitor
+     * @throws IOException              if the body cannot be read or is not valid JSON
+     * @throws OperationFailedException if the body has no data array or an employee field holds an object or array
+     */
+    public static <R> R read(InputStream body, IEmployeeVisitor<R> visitor) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+            }
+            boolean dataRead = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("data".equals(field) && token == JsonToken.START_ARRAY) {
+                    readEmployees(parser, visitor);
+                    dataRead = true;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (!dataRead) {
+                throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+            }
+            return visitor.getResult();
+        }
+    }
+
+    private static void readEmployees(JsonParser parser, IEmployeeVisitor<?> visitor) throws IOException {
+        Employee employee = new Employee();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            employee.setId(null);
+            employee.setName(null);
+            employee.setSalary(null);
+            employee.setAge(null);
+            employee.setProfileImage(null);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if (value.isStructStart()) {
+                    if (EMPLOYEE_FIELDS.contains(field)) {
+                        throw new OperationFailedException(MessageConstants.FETCH_EMP_LIST_ERROR_MESSAGE);
+                    }
+                    parser.skipChildren();
+                    continue;
+                }
+                boolean isNull = value == JsonToken.VALUE_NULL;
+                switch (field) {
+                    case "id":
+                        employee.setId(isNull ? null : parser.getValueAsLong());
+                        break;
+                    case "name":
+                    case "employee_name":
+                        employee.setName(isNull ? null : parser.getValueAsString());
+                        break;
+                    case "salary":
+                    case "employee_salary":
+                        employee.setSalary(isNull ? null : parser.getValueAsInt());
+                        break;
+                    case "age":
+                    case "employee_age":
+                        employee.setAge(isNull ? null : parser.getValueAsInt());
+                        break;
+                    case "profileImage":
+                    case "profile_image":
+                        employee.setProfileImage(isNull ? null : parser.getValueAsString());
+                        break;
+                    default:
+                        break;
+                }
+            }
+            visitor.visit(employee);
+        }
+    }
+}
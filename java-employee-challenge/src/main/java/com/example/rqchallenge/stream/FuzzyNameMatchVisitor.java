@@ -0,0 +1,78 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.index.FuzzyNameIndex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Copies of the visited employees best matching a possibly misspelt search string, kept in a heap bounded by the
+ * requested count. Names are scored and ranked as in {@link FuzzyNameIndex}, ties ordered by position in the list.
+ * Unlike the index, which completes a query word prefix to a bounded number of distinct name words, every name
+ * word starting with the prefix is matched, so very common prefixes can rank prefix matches the index leaves out.
+ */
+public class FuzzyNameMatchVisitor implements IEmployeeVisitor<List<Employee>> {
+    private static final Comparator<Match> WORST_FIRST = Comparator.<Match>comparingInt(match -> match.cost)
+            .thenComparingLong(match -> match.position)
+            .reversed();
+
+    private final List<String> queryWords;
+    private final int count;
+    private final PriorityQueue<Match> heap;
+    private long position;
+
+    /**
+     * @param searchString
+     * @param count        number of employees to keep
+     */
+    public FuzzyNameMatchVisitor(String searchString, int count) {
+        this.queryWords = FuzzyNameIndex.words(searchString);
+        this.count = count;
+        this.heap = new PriorityQueue<>(Math.max(1, count), WORST_FIRST);
+    }
+
+    @Override
+    public void visit(Employee employee) {
+        long current = position++;
+        if (count <= 0 || queryWords.isEmpty()) {
+            return;
+        }
+        int cost = FuzzyNameIndex.matchCost(queryWords, employee.getName());
+        if (cost == FuzzyNameIndex.NO_MATCH || (heap.size() == count && cost >= heap.peek().cost)) {
+            return;
+        }
+        if (heap.size() == count) {
+            heap.poll();
+        }
+        heap.add(new Match(new Employee(employee.getId(), employee.getName(), employee.getSalary(),
+                employee.getAge(), employee.getProfileImage()), cost, current));
+    }
+
+    /**
+     * @return employees, best match first
+     */
+    @Override
+    public List<Employee> getResult() {
+        List<Match> matches = new ArrayList<>(heap);
+        matches.sort(WORST_FIRST.reversed());
+        List<Employee> employees = new ArrayList<>(matches.size());
+        matches.forEach(match -> employees.add(match.employee));
+        return Collections.unmodifiableList(employees);
+    }
+
+    private static class Match {
+        private final Employee employee;
+        private final int cost;
+        private final long position;
+
+        Match(Employee employee, int cost, long position) {
+            this.employee = employee;
+            this.cost = cost;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+
+/**
+ * Receives the employees of an upstream list one at a time while it is being parsed.
+ * @param <R> result computed from the visited employees
+ */
+public interface IEmployeeVisitor<R> {
+
+    /**
+     * @param employee employee just parsed; the instance is reused for the next element, copy it to keep it
+     */
+    void visit(Employee employee);
+
+    /**
+     * @return result over all visited employees
+     */
+    R getResult();
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Copies of the visited employees with the lowest ids above a cursor, kept in a heap bounded by the page size.
+ * Employees without an id or rejected by the filter are skipped.
+ */
+public class IdPageVisitor implements IEmployeeVisitor<List<Employee>> {
+    private static final Comparator<Employee> HIGHEST_ID_FIRST = Comparator.comparing(Employee::getId).reversed();
+
+    private final Long afterId;
+    private final int count;
+    private final Predicate<Employee> filter;
+    private final PriorityQueue<Employee> heap;
+
+    /**
+     * @param afterId exclusive lower bound, null to start from the lowest id
+     * @param count   number of employees to keep
+     * @param filter  employees to consider
+     */
+    public IdPageVisitor(Long afterId, int count, Predicate<Employee> filter) {
+        this.afterId = afterId;
+        this.count = count;
+        this.filter = filter;
+        this.heap = new PriorityQueue<>(Math.max(1, count), HIGHEST_ID_FIRST);
+    }
+
+    @Override
+    public void visit(Employee employee) {
+        Long id = employee.getId();
+        if (count <= 0 || Objects.isNull(id) || (Objects.nonNull(afterId) && id <= afterId) || !filter.test(employee)) {
+            return;
+        }
+        if (heap.size() < count) {
+            heap.add(copyOf(employee));
+        } else if (id < heap.peek().getId()) {
+            heap.poll();
+            heap.add(copyOf(employee));
+        }
+    }
+
+    /**
+     * @return kept employees, lowest id first
+     */
+    @Override
+    public List<Employee> getResult() {
+        List<Employee> page = new ArrayList<>(heap);
+        page.sort(HIGHEST_ID_FIRST.reversed());
+        return Collections.unmodifiableList(page);
+    }
+
+    private static Employee copyOf(Employee employee) {
+        return new Employee(employee.getId(), employee.getName(), employee.getSalary(), employee.getAge(), employee.getProfileImage());
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.util.Objects;
+
+/**
+ * Highest salary of the visited employees, 0 if none has a salary.
+ */
+public class MaxSalaryVisitor implements IEmployeeVisitor<Integer> {
+    private int highestSalary;
+
+    @Override
+    public void visit(Employee employee) {
+        if (Objects.nonNull(employee.getSalary())) {
+            highestSalary = Math.max(highestSalary, employee.getSalary());
+        }
+    }
+
+    @Override
+    public Integer getResult() {
+        return highestSalary;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Copies of the visited employees whose name contains the search string ignoring case, in list order.
+ */
+public class NameMatchVisitor implements IEmployeeVisitor<List<Employee>> {
+    private final String foldedSearchString;
+    private final List<Employee> matches = new ArrayList<>();
+
+    public NameMatchVisitor(String searchString) {
+        this.foldedSearchString = searchString.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void visit(Employee employee) {
+        if (test(employee)) {
+            matches.add(new Employee(employee.getId(), employee.getName(), employee.getSalary(),
+                    employee.getAge(), employee.getProfileImage()));
+        }
+    }
+
+    /**
+     * @param employee
+     * @return true if the name of employee contains the search string ignoring case
+     */
+    public boolean test(Employee employee) {
+        return Objects.nonNull(employee.getName()) && employee.getName().toLowerCase(Locale.ROOT).contains(foldedSearchString);
+    }
+
+    @Override
+    public List<Employee> getResult() {
+        return Collections.unmodifiableList(matches);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes visited employees to an output stream as newline-delimited JSON, one employee per line.
+ * Only the generator's buffer is held in memory; it is flushed every few employees so the client
+ * receives the first lines early, and a slow client blocks the writer instead of piling up output.
+ */
+public class NdjsonEmployeeWriter implements IEmployeeVisitor<Long>, AutoCloseable {
+    private static final int FLUSH_EVERY = 256;
+
+    private final ObjectWriter employeeWriter;
+    private final JsonGenerator generator;
+    private long written;
+
+    /**
+     * @param objectMapper mapper used for the regular JSON representation
+     * @param outputStream response body; flushed but not closed
+     */
+    public NdjsonEmployeeWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        this.employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator((String) null);
+        this.generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // root values are separated by the newline written after each employee, not by Jackson's default space
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void visit(Employee employee) {
+        try {
+            employeeWriter.writeValue(generator, employee);
+            generator.writeRaw('\n');
+            if (++written % FLUSH_EVERY == 1) {
+                generator.flush();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return number of employees written
+     */
+    @Override
+    public Long getResult() {
+        return written;
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+/**
+ * Names of the best paid visited employees, kept in a heap bounded by the requested count.
+ * Ties on salary are ordered by position in the list, as in {@link com.example.rqchallenge.index.SalaryIndex}.
+ */
+public class TopEarnersVisitor implements IEmployeeVisitor<List<String>> {
+    private static final Comparator<Earner> LOWEST_FIRST = Comparator.<Earner>comparingInt(earner -> earner.salary)
+            .thenComparing(Comparator.<Earner>comparingLong(earner -> earner.position).reversed());
+
+    private final int count;
+    private final PriorityQueue<Earner> heap;
+    private long position;
+
+    /**
+     * @param count number of names to keep
+     */
+    public TopEarnersVisitor(int count) {
+        this.count = count;
+        this.heap = new PriorityQueue<>(Math.max(1, count), LOWEST_FIRST);
+    }
+
+    @Override
+    public void visit(Employee employee) {
+        long current = position++;
+        if (count <= 0 || Objects.isNull(employee.getSalary())) {
+            return;
+        }
+        if (heap.size() < count) {
+            heap.add(new Earner(employee.getName(), employee.getSalary(), current));
+        } else if (employee.getSalary() > heap.peek().salary) {
+            heap.poll();
+            heap.add(new Earner(employee.getName(), employee.getSalary(), current));
+        }
+    }
+
+    /**
+     * @return names, highest salary first
+     */
+    @Override
+    public List<String> getResult() {
+        List<Earner> earners = new ArrayList<>(heap);
+        earners.sort(LOWEST_FIRST.reversed());
+        List<String> names = new ArrayList<>(earners.size());
+        earners.forEach(earner -> names.add(earner.name));
+        return Collections.unmodifiableList(names);
+    }
+
+    private static class Earner {
+        private final String name;
+        private final int salary;
+        private final long position;
+
+        Earner(String name, int salary, long position) {
+            this.name = name;
+            this.salary = salary;
+            this.position = position;
+        }
+    }
+}
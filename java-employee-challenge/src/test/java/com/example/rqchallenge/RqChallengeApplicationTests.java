@@ -1,27 +1,36 @@
 package com.example.rqchallenge;
 
 import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.simulator.EmployeeDatasets;
+import com.example.rqchallenge.simulator.UpstreamSimulator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import org.junit.Assert;
 import org.junit.BeforeClass;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.runner.RunWith;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
@@ -33,19 +42,37 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment= SpringBootTest.WebEnvironment.DEFINED_PORT)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 class RqChallengeApplicationTests {
 
+    /**
+     * order of the tests changing the upstream data, run after the tests expecting the sample dataset
+     */
+    private static final int WRITES = Integer.MAX_VALUE;
+
     @LocalServerPort
     int randomServerPort;
 
     private static final String LOCAL_HOST_BASE_URL= "http://localhost:";
     private static RestTemplate restTemplate;
     private static ObjectMapper objectMapper;
+    private static UpstreamSimulator upstreamSimulator;
 
     @BeforeAll
-    public static void setup() {
+    public static void setup() throws IOException {
         restTemplate = new RestTemplate();
         objectMapper = new ObjectMapper();
+        upstreamSimulator = new UpstreamSimulator(UpstreamSimulator.Settings.immediate(), EmployeeDatasets.sample());
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        upstreamSimulator.close();
+    }
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("upstream.base-url", () -> upstreamSimulator.getBaseUrl());
     }
 
     void contextLoads() {
@@ -153,6 +180,7 @@ class RqChallengeApplicationTests {
 
 
     @Test
+    @Order(WRITES)
     @DisplayName("Create employee API test with all valid inputs")
     public void testCreateEmployee() throws URISyntaxException {
         URI uri = new URI(getBaseApiUrl().toString());
@@ -247,6 +275,7 @@ class RqChallengeApplicationTests {
     }
 
     @Test
+    @Order(WRITES)
     @DisplayName("Delete employee by Id API test")
     public void testDeleteEmployeeById() throws URISyntaxException {
         URI uri = new URI(getBaseApiUrl().append("/23").toString());
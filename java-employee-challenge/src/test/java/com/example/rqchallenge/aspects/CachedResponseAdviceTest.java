@@ -0,0 +1,111 @@
+package com.example.rqchallenge.aspects;
+
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.cache.SerializedResponseCache;
+import com.example.rqchallenge.controller.EmployeeControllerImpl;
+import com.example.rqchallenge.exceptionhandler.GlobalExceptionHandler;
+import com.example.rqchallenge.service.IEmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CachedResponseAdviceTest {
+
+    private static final String ASYNC_MODE = "async";
+
+    private final IEmployeeService employeeService = mock(IEmployeeService.class);
+    private final EmployeeSnapshotCache employeeSnapshotCache = mock(EmployeeSnapshotCache.class);
+    private final SerializedResponseCache serializedResponseCache =
+            new SerializedResponseCache(employeeSnapshotCache, new ObjectMapper(), "snapshot", true, 1024);
+    private final ExecutorService employeeRequestExecutor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        employeeRequestExecutor.shutdownNow();
+    }
+
+    private MockMvc mockMvc(String controllerMode) {
+        CachedResponseAdvice cachedResponseAdvice = new CachedResponseAdvice(serializedResponseCache);
+        return MockMvcBuilders
+                .standaloneSetup(new EmployeeControllerImpl(employeeService, new ObjectMapper(), controllerMode,
+                        employeeRequestExecutor))
+                .setControllerAdvice(new GlobalExceptionHandler(), cachedResponseAdvice)
+                .addInterceptors(cachedResponseAdvice)
+                .build();
+    }
+
+    private void givenDataVersion(long dataVersion) {
+        when(employeeSnapshotCache.getLoadedSnapshot()).thenReturn(Optional.of(new EmployeeSnapshot(dataVersion, Instant.now(), List.of())));
+    }
+
+    private static MockHttpServletResponse getHighestSalary(MockMvc mockMvc, String controllerMode, HttpHeaders requestHeaders) throws Exception {
+        MvcResult result = mockMvc.perform(get("/highestSalary").headers(requestHeaders)).andReturn();
+        if (ASYNC_MODE.equals(controllerMode)) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+
+    @Test
+    @DisplayName("Cached endpoints are written from cached bytes with an ETag, and requests holding it get a 304, in both controller modes")
+    public void testServesCachedBytes() throws Exception {
+        givenDataVersion(1);
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(320800, 433060);
+
+        for (String controllerMode : List.of("sync", ASYNC_MODE)) {
+            MockMvc mockMvc = mockMvc(controllerMode);
+            MockHttpServletResponse response = getHighestSalary(mockMvc, controllerMode, new HttpHeaders());
+            Assertions.assertEquals(200, response.getStatus());
+            Assertions.assertEquals("320800", response.getContentAsString());
+            Assertions.assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+            String eTag = response.getHeader(HttpHeaders.ETAG);
+            Assertions.assertNotNull(eTag);
+
+            HttpHeaders conditional = new HttpHeaders();
+            conditional.setIfNoneMatch(eTag);
+            MockHttpServletResponse notModified = getHighestSalary(mockMvc, controllerMode, conditional);
+            Assertions.assertEquals(304, notModified.getStatus());
+            Assertions.assertEquals(0, notModified.getContentAsByteArray().length);
+        }
+
+        Assertions.assertEquals(1, serializedResponseCache.getRebuildCount());
+        Assertions.assertEquals(3, serializedResponseCache.getHitCount());
+        Assertions.assertEquals(2, serializedResponseCache.getNotModifiedCount());
+    }
+
+    @Test
+    @DisplayName("Until the first snapshot is loaded cached endpoints are serialized as usual")
+    public void testSerializesBeforeFirstSnapshot() throws Exception {
+        when(employeeSnapshotCache.getLoadedSnapshot()).thenReturn(Optional.empty());
+        when(employeeService.getTopTenHighestEarningEmployeeNames()).thenReturn(List.of("Tiger Nixon"));
+
+        mockMvc("sync").perform(get("/topTenHighestEarningEmployeeNames"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[\"Tiger Nixon\"]"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        Assertions.assertEquals(0, serializedResponseCache.getRebuildCount());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.rqchallenge.aspects;
+
+import com.example.rqchallenge.controller.EmployeeControllerImpl;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.exceptionhandler.GlobalExceptionHandler;
+import com.example.rqchallenge.exceptions.ResourceNotFoundException;
+import com.example.rqchallenge.service.IEmployeeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+class TimeMeasureAopTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService employeeRequestExecutor = Executors.newSingleThreadExecutor();
+    private TimedCalls timedCalls;
+
+    static class TimedCalls {
+        @Timed
+        public String now(boolean fail) {
+            if (fail) {
+                throw new IllegalArgumentException("failed");
+            }
+            return "now";
+        }
+
+        @Timed
+        public CompletableFuture<String> later(CompletableFuture<String> result) {
+            return result;
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        timedCalls = timed(new TimedCalls());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeRequestExecutor.shutdownNow();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> providerOf(MeterRegistry meterRegistry) {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        return meterRegistryProvider;
+    }
+
+    private <T> T timed(T target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new TimeMeasureAop(providerOf(meterRegistry)));
+        return proxyFactory.getProxy();
+    }
+
+    private Timer timer(String method, String exception) {
+        return timer("TimedCalls", method, exception);
+    }
+
+    private Timer timer(String className, String method, String exception) {
+        return meterRegistry.find("method.timed")
+                .tags("class", className, "method", method, "exception", exception)
+                .timer();
+    }
+
+    @Test
+    @DisplayName("Methods are timed with their class, method and exception")
+    public void testTimesMethods() {
+        Assertions.assertEquals("now", timedCalls.now(false));
+        assertThrows(IllegalArgumentException.class, () -> timedCalls.now(true));
+
+        Assertions.assertEquals(1, timer("now", "none").count());
+        Assertions.assertEquals(1, timer("now", "IllegalArgumentException").count());
+    }
+
+    @Test
+    @DisplayName("Methods returning a future are timed until the future completes")
+    public void testTimesFuturesUntilCompletion() throws Exception {
+        CompletableFuture<String> result = new CompletableFuture<>();
+
+        CompletableFuture<String> returned = timedCalls.later(result);
+        Assertions.assertSame(result, returned);
+        Assertions.assertNull(timer("later", "none"));
+        Thread.sleep(50);
+        result.complete("later");
+
+        Assertions.assertEquals(1, timer("later", "none").count());
+        Assertions.assertTrue(timer("later", "none").totalTime(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    @DisplayName("Futures completing exceptionally are tagged with the cause of the failure")
+    public void testTagsFailedFuturesWithCause() {
+        timedCalls.later(CompletableFuture.failedFuture(new CompletionException(new IllegalStateException("failed"))));
+        timedCalls.later(CompletableFuture.failedFuture(new IllegalArgumentException("failed")));
+
+        Assertions.assertEquals(1, timer("later", "IllegalStateException").count());
+        Assertions.assertEquals(1, timer("later", "IllegalArgumentException").count());
+        Assertions.assertNull(timer("later", "none"));
+    }
+
+    @Test
+    @DisplayName("Endpoints are timed with the controller class, endpoint method and the exception they answered with")
+    public void testTimesEndpoints() {
+        IEmployeeService employeeService = mock(IEmployeeService.class);
+        Employee tiger = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+        when(employeeService.getEmployeeById("1")).thenReturn(tiger);
+        when(employeeService.getEmployeeById("7")).thenThrow(new ResourceNotFoundException("not found"));
+        EmployeeControllerImpl controller = timed(new EmployeeControllerImpl(employeeService, new ObjectMapper(), "sync",
+                employeeRequestExecutor));
+
+        Assertions.assertEquals(new ResponseEntity<>(tiger, HttpStatus.OK), controller.getEmployeeById("1"));
+        assertThrows(ResourceNotFoundException.class, () -> controller.getEmployeeById("7"));
+
+        Assertions.assertEquals(1, timer("EmployeeControllerImpl", "getEmployeeById", "none").count());
+        Assertions.assertEquals(1, timer("EmployeeControllerImpl", "getEmployeeById", "ResourceNotFoundException").count());
+    }
+
+    @Test
+    @DisplayName("Endpoints answering asynchronously are timed until the async dispatch has written the response")
+    public void testTimesAsyncEndpoints() throws Exception {
+        IEmployeeService employeeService = mock(IEmployeeService.class);
+        Employee tiger = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+        when(employeeService.getEmployeeByIdAsync("1")).thenReturn(CompletableFuture.completedFuture(tiger));
+        when(employeeService.getEmployeeByIdAsync("7")).thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("not found")));
+        MockMvc mockMvc = MockMvcBuilders
+                .standaloneSetup(timed(new EmployeeControllerImpl(employeeService, new ObjectMapper(), "async",
+                        employeeRequestExecutor)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        MvcResult found = mockMvc.perform(get("/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Assertions.assertNull(timer("EmployeeControllerImpl", "getEmployeeById", "none"));
+        mockMvc.perform(asyncDispatch(found));
+        MvcResult notFound = mockMvc.perform(get("/7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(notFound));
+
+        Assertions.assertEquals(1, timer("EmployeeControllerImpl", "getEmployeeById", "none").count());
+        Assertions.assertEquals(1, timer("EmployeeControllerImpl", "getEmployeeById", "ResourceNotFoundException").count());
+    }
+}
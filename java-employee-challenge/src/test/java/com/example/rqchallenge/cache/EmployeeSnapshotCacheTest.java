@@ -0,0 +1,259 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import com.example.rqchallenge.index.FuzzyNameIndex;
+import com.example.rqchallenge.service.IExternalEmployeeAPIClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class EmployeeSnapshotCacheTest {
+
+    private final IExternalEmployeeAPIClient apiClient = mock(IExternalEmployeeAPIClient.class);
+    private EmployeeSnapshotCache cache;
+
+    @AfterEach
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    private static ResponseEntity<EmployeesResponseData> responseOf(Employee... employees) {
+        EmployeesResponseData body = new EmployeesResponseData();
+        body.setStatus("success");
+        body.setData(List.of(employees));
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @Test
+    @DisplayName("Fresh snapshot is served without calling upstream again")
+    public void testServesFreshSnapshotFromCache() {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 60000, 5000, "objects", 300000, 64);
+        when(apiClient.getAllEmployees()).thenReturn(responseOf(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+
+        cache.getEmployees();
+        List<Employee> employees = cache.getEmployees();
+
+        Assertions.assertEquals(1, employees.size());
+        Assertions.assertTrue(cache.getSnapshotAge().isPresent());
+        verify(apiClient, times(1)).getAllEmployees();
+    }
+
+    @Test
+    @DisplayName("Stale snapshot is served while refresh happens in background")
+    public void testServesStaleSnapshotAndRefreshesInBackground() throws InterruptedException {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 0, 0, "objects", 300000, 64);
+        when(apiClient.getAllEmployees())
+                .thenReturn(responseOf(new Employee(1L, "Tiger Nixon", 320800, 61, "")))
+                .thenReturn(responseOf(new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                        new Employee(2L, "Garrett Winters", 170750, 63, "")));
+
+        EmployeeSnapshot first = cache.getSnapshot();
+        Thread.sleep(5);
+        Assertions.assertSame(first, cache.getSnapshot());
+
+        verify(apiClient, timeout(2000).times(2)).getAllEmployees();
+        while (cache.isRefreshInFlight()) {
+            Thread.sleep(5);
+        }
+        Assertions.assertEquals(2, cache.getEmployees().size());
+    }
+
+    @Test
+    @DisplayName("Stale snapshot keeps being served when refresh fails")
+    public void testKeepsStaleSnapshotWhenRefreshFails() throws InterruptedException {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 0, 60000, "objects", 300000, 64);
+        when(apiClient.getAllEmployees())
+                .thenReturn(responseOf(new Employee(1L, "Tiger Nixon", 320800, 61, "")))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+
+        EmployeeSnapshot first = cache.getSnapshot();
+        Thread.sleep(5);
+        cache.getSnapshot();
+        verify(apiClient, timeout(2000).times(2)).getAllEmployees();
+        while (cache.isRefreshInFlight()) {
+            Thread.sleep(5);
+        }
+
+        Assertions.assertSame(first, cache.getSnapshot());
+        verify(apiClient, times(2)).getAllEmployees();
+    }
+
+    @Test
+    @DisplayName("Initial load failure is propagated to the caller")
+    public void testInitialLoadFailureIsPropagated() {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 60000, 5000, "objects", 300000, 64);
+        when(apiClient.getAllEmployees()).thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        assertThrows(OperationFailedException.class, () -> cache.getEmployees());
+        Assertions.assertFalse(cache.getSnapshotAge().isPresent());
+    }
+
+    @Test
+    @DisplayName("Persisted snapshot is served at startup while the upstream is unavailable")
+    public void testServesPersistedSnapshotAtStartup(@TempDir Path directory) throws Exception {
+        EmployeeSnapshotFile snapshotFile = new EmployeeSnapshotFile(true, directory.resolve("snapshot.bin").toString());
+        snapshotFile.save(new EmployeeSnapshot(1, Instant.now(), List.of(new Employee(1L, "Tiger Nixon", 320800, 61, ""))));
+        when(apiClient.getAllEmployees())
+                .thenThrow(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", null, null, null));
+
+        cache = new EmployeeSnapshotCache(apiClient, snapshotFile, 60000, 5000, "objects", 300000, 64);
+
+        Assertions.assertEquals("Tiger Nixon", cache.getEmployees().get(0).getName());
+        verify(apiClient, never()).getAllEmployees();
+    }
+
+    @Test
+    @DisplayName("Local writes are re-applied to refreshed lists until the upstream reflects them")
+    public void testReconcilesLocalWritesWithRefresh() throws InterruptedException {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 0, 0, "objects", 300000, 64);
+        Employee tiger = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+        Employee garrett = new Employee(2L, "Garrett Winters", 170750, 63, "");
+        Employee ashton = new Employee(3L, "Ashton Cox", 86000, 66, "");
+        when(apiClient.getAllEmployees())
+                .thenReturn(responseOf(tiger, garrett))
+                .thenReturn(responseOf(tiger, garrett))
+                .thenReturn(responseOf(tiger, ashton));
+
+        cache.getSnapshot();
+        cache.applyCreated(ashton);
+        cache.applyDeleted(2L);
+        Assertions.assertEquals(List.of(tiger, ashton), cache.getLoadedSnapshot().orElseThrow().getEmployees());
+        Assertions.assertEquals(List.of(ashton), cache.getLoadedSnapshot().orElseThrow().getNameIndex().search("cox"));
+
+        refreshAndWait(2);
+        Assertions.assertEquals(List.of(tiger, ashton), cache.getLoadedSnapshot().orElseThrow().getEmployees());
+        Assertions.assertEquals(2, cache.getPendingWriteCount());
+
+        refreshAndWait(3);
+        Assertions.assertEquals(List.of(tiger, ashton), cache.getLoadedSnapshot().orElseThrow().getEmployees());
+        Assertions.assertEquals(0, cache.getPendingWriteCount());
+    }
+
+    @Test
+    @DisplayName("Refresh sends the last ETag, keeps the snapshot and its data version on 304 and patches only changed employees")
+    public void testRefreshesConditionallyAndAppliesDelta() throws InterruptedException {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 0, 0, "objects", 300000, 64);
+        Employee tiger = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+        Employee garrett = new Employee(2L, "Garrett Winters", 170750, 63, "");
+        Employee raisedGarrett = new Employee(2L, "Garrett Winters", 180000, 63, "");
+        Employee ashton = new Employee(3L, "Ashton Cox", 86000, 66, "");
+        HttpHeaders validators = new HttpHeaders();
+        validators.setETag("\"v1\"");
+        when(apiClient.getAllEmployees()).thenReturn(new ResponseEntity<>(responseOf(tiger, garrett).getBody(), validators, HttpStatus.OK));
+        when(apiClient.getAllEmployees(any(HttpHeaders.class)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED))
+                .thenReturn(responseOf(raisedGarrett, ashton));
+
+        EmployeeSnapshot loaded = cache.getSnapshot();
+        Thread.sleep(5);
+        cache.getSnapshot();
+        verify(apiClient, timeout(2000).times(1)).getAllEmployees(argThat(headers -> List.of("\"v1\"").equals(headers.getIfNoneMatch())));
+        while (cache.isRefreshInFlight()) {
+            Thread.sleep(5);
+        }
+        Assertions.assertSame(loaded.getEmployees(), cache.getLoadedSnapshot().orElseThrow().getEmployees());
+        Assertions.assertEquals(loaded.getDataVersion(), cache.getLoadedSnapshot().orElseThrow().getDataVersion());
+        Assertions.assertEquals(1, cache.getUnchangedRefreshCount());
+
+        Thread.sleep(5);
+        cache.getSnapshot();
+        verify(apiClient, timeout(2000).times(2)).getAllEmployees(any(HttpHeaders.class));
+        while (cache.isRefreshInFlight()) {
+            Thread.sleep(5);
+        }
+        EmployeeSnapshot patched = cache.getLoadedSnapshot().orElseThrow();
+        Assertions.assertEquals(List.of(raisedGarrett, ashton), patched.getEmployees());
+        Assertions.assertNotEquals(loaded.getDataVersion(), patched.getDataVersion());
+        Assertions.assertEquals(180000, patched.getHighestSalary());
+        Assertions.assertEquals(List.of(ashton), patched.getNameIndex().search("cox"));
+        Assertions.assertEquals(1, cache.getDeltaRefreshCount());
+        Assertions.assertEquals(1, cache.getFullRefreshCount());
+        verify(apiClient, times(1)).getAllEmployees();
+    }
+
+    @Test
+    @DisplayName("A 200 without a valid list does not replace the validators sent on the next conditional refresh")
+    public void testKeepsValidatorsWhenRefreshedListIsInvalid() throws InterruptedException {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 0, 0, "objects", 300000, 64);
+        Employee tiger = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+        HttpHeaders installedValidators = new HttpHeaders();
+        installedValidators.setETag("\"v1\"");
+        HttpHeaders invalidValidators = new HttpHeaders();
+        invalidValidators.setETag("\"v2\"");
+        when(apiClient.getAllEmployees()).thenReturn(new ResponseEntity<>(responseOf(tiger).getBody(), installedValidators, HttpStatus.OK));
+        when(apiClient.getAllEmployees(any(HttpHeaders.class)))
+                .thenReturn(new ResponseEntity<>(invalidValidators, HttpStatus.OK))
+                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+
+        EmployeeSnapshot loaded = cache.getSnapshot();
+        conditionalRefreshAndWait(1);
+        Assertions.assertSame(loaded, cache.getLoadedSnapshot().orElseThrow());
+        Assertions.assertEquals(0, cache.getUnchangedRefreshCount());
+
+        conditionalRefreshAndWait(2);
+        verify(apiClient, times(2)).getAllEmployees(argThat(headers -> List.of("\"v1\"").equals(headers.getIfNoneMatch())));
+        Assertions.assertEquals(1, cache.getUnchangedRefreshCount());
+        Assertions.assertEquals(List.of(tiger), cache.getLoadedSnapshot().orElseThrow().getEmployees());
+    }
+
+    @Test
+    @DisplayName("Fuzzy name indexes are built in the background and the last built one is used meanwhile")
+    public void testBuildsFuzzyNameIndexInBackground() throws InterruptedException {
+        cache = new EmployeeSnapshotCache(apiClient, new EmployeeSnapshotFile(false, ""), 60000, 5000, "objects", 300000, 64);
+        Employee tiger = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+        Employee garrett = new Employee(2L, "Garrett Winters", 170750, 63, "");
+        when(apiClient.getAllEmployees()).thenReturn(responseOf(tiger));
+
+        EmployeeSnapshot loaded = cache.getSnapshot();
+        Assertions.assertTrue(cache.getFuzzyNameIndex(loaded).isEmpty());
+        awaitFuzzyIndexBuild();
+        FuzzyNameIndex loadedIndex = cache.getFuzzyNameIndex(loaded).orElseThrow();
+        Assertions.assertEquals(List.of(tiger), loadedIndex.search("tigr", 10, Long.MAX_VALUE / 2));
+
+        cache.applyCreated(garrett);
+        EmployeeSnapshot written = cache.getSnapshot();
+        Assertions.assertSame(loadedIndex, cache.getFuzzyNameIndex(written).orElseThrow());
+        awaitFuzzyIndexBuild();
+        Assertions.assertEquals(List.of(garrett), cache.getFuzzyNameIndex(written).orElseThrow()
+                .search("garet", 10, Long.MAX_VALUE / 2));
+    }
+
+    private void refreshAndWait(int expectedCalls) throws InterruptedException {
+        Thread.sleep(5);
+        cache.getSnapshot();
+        verify(apiClient, timeout(2000).times(expectedCalls)).getAllEmployees();
+        while (cache.isRefreshInFlight()) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void conditionalRefreshAndWait(int expectedCalls) throws InterruptedException {
+        Thread.sleep(5);
+        cache.getSnapshot();
+        verify(apiClient, timeout(2000).times(expectedCalls)).getAllEmployees(any(HttpHeaders.class));
+        while (cache.isRefreshInFlight()) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitFuzzyIndexBuild() throws InterruptedException {
+        while (cache.isFuzzyIndexBuildInFlight()) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+class EmployeeSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Saved snapshot is loaded back with its fetch time and null fields")
+    public void testRoundTrip() throws Exception {
+        Path path = directory.resolve("snapshot.bin");
+        EmployeeSnapshotFile file = new EmployeeSnapshotFile(true, path.toString());
+        List<Employee> employees = List.of(new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+                new Employee(2L, "Zoë Ünal", null, 30, null));
+        Instant fetchedAt = Instant.ofEpochMilli(1_600_000_000_000L);
+
+        file.save(new EmployeeSnapshot(7, fetchedAt, employees));
+        EmployeeSnapshotFile.PersistedSnapshot loaded = file.load().orElseThrow();
+
+        Assertions.assertEquals(fetchedAt, loaded.getFetchedAt());
+        Assertions.assertEquals(employees, loaded.getEmployees());
+        Assertions.assertEquals(List.of(path), List.of(Files.list(directory).toArray()));
+    }
+
+    @Test
+    @DisplayName("File with a corrupted payload or unknown version is ignored")
+    public void testRejectsCorruptedFile() {
+        ByteBuffer encoded = EmployeeSnapshotFile.encode(Instant.now(), List.of(new Employee(1L, "Tiger Nixon", 320800, 61, "")));
+        Assertions.assertTrue(EmployeeSnapshotFile.decode(encoded.duplicate()).isPresent());
+
+        ByteBuffer corrupted = ByteBuffer.wrap(encoded.array().clone());
+        corrupted.put(EmployeeSnapshotFile.HEADER_BYTES + 3, (byte) 42);
+        Assertions.assertFalse(EmployeeSnapshotFile.decode(corrupted).isPresent());
+
+        ByteBuffer futureVersion = ByteBuffer.wrap(encoded.array().clone());
+        futureVersion.putInt(4, EmployeeSnapshotFile.FORMAT_VERSION + 1);
+        Assertions.assertFalse(EmployeeSnapshotFile.decode(futureVersion).isPresent());
+    }
+}
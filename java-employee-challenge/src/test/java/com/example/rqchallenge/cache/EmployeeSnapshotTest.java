@@ -0,0 +1,92 @@
+package com.example.rqchallenge.cache;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.store.EmployeeStoreFootprint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+class EmployeeSnapshotTest {
+
+    @Test
+    @DisplayName("A delta applied in one pass serves the same answers as a snapshot of the fetched list")
+    public void testWithDeltaMatchesRebuild() {
+        assertDeltaMatchesRebuild((version, employees) -> new EmployeeSnapshot(version, Instant.now(), employees));
+    }
+
+    @Test
+    @DisplayName("A delta applied to a column store serves the same answers as a snapshot of the fetched list")
+    public void testColumnarWithDeltaMatchesRebuild() {
+        assertDeltaMatchesRebuild((version, employees) -> EmployeeSnapshot.columnar(version, Instant.now(), employees));
+    }
+
+    @Test
+    @DisplayName("Snapshot footprint covers the employees and the indexes retained with them")
+    public void testFootprintIncludesIndexes() {
+        Random random = new Random(5);
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            employees.add(employee(random, id));
+        }
+        EmployeeStoreFootprint footprint = EmployeeStoreFootprint.of(employees);
+
+        Assertions.assertEquals(footprint.getObjectBytes() + footprint.getObjectIndexBytes(),
+                new EmployeeSnapshot(1, Instant.now(), employees).getFootprintBytes());
+        Assertions.assertEquals(footprint.getColumnarBytes() + footprint.getColumnarIndexBytes(),
+                EmployeeSnapshot.columnar(1, Instant.now(), employees).getFootprintBytes());
+        Assertions.assertTrue(footprint.getObjectIndexBytes() > 0);
+        Assertions.assertTrue(footprint.getColumnarIndexBytes() > 0);
+    }
+
+    private static void assertDeltaMatchesRebuild(BiFunction<Long, List<Employee>, EmployeeSnapshot> snapshotOf) {
+        Random random = new Random(3);
+        List<Employee> previous = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            previous.add(employee(random, id));
+        }
+        List<Employee> fetched = new ArrayList<>();
+        for (Employee employee : previous) {
+            int roll = random.nextInt(10);
+            if (roll == 0) {
+                continue;
+            }
+            fetched.add(roll == 1 ? employee(random, employee.getId()) : employee);
+        }
+        for (long id = 1000; id < 1030; id++) {
+            fetched.add(employee(random, id));
+        }
+
+        EmployeeSnapshot snapshot = snapshotOf.apply(1L, previous);
+        EmployeeDelta delta = EmployeeDelta.between(snapshot, fetched).orElseThrow(AssertionError::new);
+        Instant fetchedAt = Instant.now();
+        EmployeeSnapshot patched = snapshot.withDelta(2, delta, fetchedAt);
+        EmployeeSnapshot rebuilt = snapshotOf.apply(2L, fetched);
+
+        Assertions.assertEquals(fetched, new ArrayList<>(patched.getEmployees()));
+        Assertions.assertEquals(2, patched.getDataVersion());
+        Assertions.assertEquals(fetchedAt, patched.getFetchedAt());
+        Assertions.assertEquals(rebuilt.getHighestSalary(), patched.getHighestSalary());
+        Assertions.assertEquals(rebuilt.getTopEarningEmployeeNames(20), patched.getTopEarningEmployeeNames(20));
+        Assertions.assertEquals(rebuilt.pageById(null, 1000), patched.pageById(null, 1000));
+        for (long id = 0; id < 1040; id += 7) {
+            Assertions.assertEquals(rebuilt.findById(id), patched.findById(id), "id " + id);
+        }
+        for (String query : new String[]{"a", "bc", "cab", "abca", "ccc"}) {
+            Assertions.assertEquals(rebuilt.getNameIndex().search(query), patched.getNameIndex().search(query), query);
+        }
+    }
+
+    private static Employee employee(Random random, long id) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0, length = 3 + random.nextInt(8); i < length; i++) {
+            name.append((char) ('a' + random.nextInt(3)));
+        }
+        return new Employee(id, name.toString(), 1000 + random.nextInt(1_000_000), 20 + random.nextInt(40), "");
+    }
+}
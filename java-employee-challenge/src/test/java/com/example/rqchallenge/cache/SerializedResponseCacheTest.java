@@ -0,0 +1,89 @@
+package com.example.rqchallenge.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.mockito.Mockito.*;
+
+class SerializedResponseCacheTest {
+
+    private static final String KEY = "highestSalary";
+
+    private final EmployeeSnapshotCache employeeSnapshotCache = mock(EmployeeSnapshotCache.class);
+
+    private SerializedResponseCache cache(String readMode) {
+        return new SerializedResponseCache(employeeSnapshotCache, new ObjectMapper(), readMode, true, 1024);
+    }
+
+    private void givenDataVersion(long dataVersion) {
+        when(employeeSnapshotCache.getLoadedSnapshot()).thenReturn(Optional.of(new EmployeeSnapshot(dataVersion, Instant.now(), List.of())));
+    }
+
+    private static String text(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("The body is serialized once per data version and served from cached bytes in between")
+    public void testRebuildsOnDataVersionChange() {
+        SerializedResponseCache serializedResponseCache = cache("snapshot");
+
+        Assertions.assertEquals("433060", text(serializedResponseCache.respond(KEY, 1, new HttpHeaders(), 433060)));
+        Assertions.assertEquals("433060", text(serializedResponseCache.respond(KEY, 1, new HttpHeaders(), 433061)));
+        Assertions.assertEquals(1, serializedResponseCache.getRebuildCount());
+        Assertions.assertEquals(1, serializedResponseCache.getHitCount());
+
+        Assertions.assertEquals("433062", text(serializedResponseCache.respond(KEY, 2, new HttpHeaders(), 433062)));
+        Assertions.assertEquals(2, serializedResponseCache.getRebuildCount());
+        Assertions.assertEquals("433062", text(serializedResponseCache.respond(KEY, 1, new HttpHeaders(), 433060)));
+        Assertions.assertEquals(2, serializedResponseCache.getHitCount());
+
+        Assertions.assertEquals("[]", text(serializedResponseCache.respond("topTenHighestEarningEmployeeNames", 2, new HttpHeaders(), List.of())));
+        Assertions.assertEquals(3, serializedResponseCache.getRebuildCount());
+        Assertions.assertTrue(serializedResponseCache.getSizeBytes() > 0);
+    }
+
+    @Test
+    @DisplayName("Responses are cached for the data version of the loaded snapshot, never loading it, and not at all in streaming read mode")
+    public void testDataVersion() {
+        Assertions.assertTrue(cache("snapshot").getDataVersion().isEmpty());
+        givenDataVersion(3);
+        Assertions.assertEquals(OptionalLong.of(3), cache("snapshot").getDataVersion());
+        verify(employeeSnapshotCache, never()).getSnapshot();
+
+        Assertions.assertTrue(cache("streaming").getDataVersion().isEmpty());
+        Assertions.assertTrue(new SerializedResponseCache(employeeSnapshotCache, new ObjectMapper(), "snapshot", false, 1024)
+                .getDataVersion().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Requests holding the current ETag get a 304 and are counted, outdated ETags get the new body")
+    public void testCountsNotModified() {
+        SerializedResponseCache serializedResponseCache = cache("snapshot");
+        String eTag = serializedResponseCache.respond(KEY, 1, new HttpHeaders(), 433060).getHeaders().getETag();
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(eTag);
+        ResponseEntity<byte[]> notModified = serializedResponseCache.respond(KEY, 1, conditional, 433060);
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        Assertions.assertNull(notModified.getBody());
+        Assertions.assertEquals(1, serializedResponseCache.getNotModifiedCount());
+
+        ResponseEntity<byte[]> changed = serializedResponseCache.respond(KEY, 2, conditional, 433061);
+        Assertions.assertEquals(HttpStatus.OK, changed.getStatusCode());
+        Assertions.assertEquals("433061", text(changed));
+        Assertions.assertNotEquals(eTag, changed.getHeaders().getETag());
+        Assertions.assertEquals(1, serializedResponseCache.getNotModifiedCount());
+    }
+}
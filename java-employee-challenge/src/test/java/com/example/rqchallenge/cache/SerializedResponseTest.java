@@ -0,0 +1,75 @@
+package com.example.rqchallenge.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+class SerializedResponseTest {
+
+    private static final byte[] BODY = "[\"Tiger Nixon\",\"Cedric Kelly\",\"Garrett Winters\"]".repeat(40).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Identity and gzip bodies carry distinct strong ETags derived from the content")
+    public void testRepresentations() throws IOException {
+        SerializedResponse serialized = SerializedResponse.of(3, BODY, 1024);
+
+        ResponseEntity<byte[]> identity = serialized.toResponseEntity(new HttpHeaders());
+        Assertions.assertEquals(HttpStatus.OK, identity.getStatusCode());
+        Assertions.assertArrayEquals(BODY, identity.getBody());
+        Assertions.assertNull(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+
+        HttpHeaders acceptsGzip = new HttpHeaders();
+        acceptsGzip.set(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8");
+        ResponseEntity<byte[]> gzipped = serialized.toResponseEntity(acceptsGzip);
+        Assertions.assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        Assertions.assertNotEquals(identity.getHeaders().getETag(), gzipped.getHeaders().getETag());
+        try (InputStream inflated = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            Assertions.assertArrayEquals(BODY, inflated.readAllBytes());
+        }
+
+        Assertions.assertEquals(identity.getHeaders().getETag(), SerializedResponse.of(9, BODY, 1024).toResponseEntity(new HttpHeaders()).getHeaders().getETag());
+        Assertions.assertFalse(identity.getHeaders().getETag().startsWith("W/"));
+    }
+
+    @Test
+    @DisplayName("If-None-Match with the ETag of either representation gets a 304 without a body")
+    public void testNotModified() {
+        SerializedResponse serialized = SerializedResponse.of(3, BODY, 1024);
+        String eTag = serialized.toResponseEntity(new HttpHeaders()).getHeaders().getETag();
+
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch(List.of("\"other\"", eTag));
+        conditional.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> notModified = serialized.toResponseEntity(conditional);
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        Assertions.assertNull(notModified.getBody());
+
+        HttpHeaders changed = new HttpHeaders();
+        changed.setIfNoneMatch("\"other\"");
+        Assertions.assertEquals(HttpStatus.OK, serialized.toResponseEntity(changed).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Small bodies and clients refusing gzip get the identity body")
+    public void testIdentityOnly() {
+        Assertions.assertFalse(SerializedResponse.acceptsGzip(List.of("gzip;q=0", "identity")));
+        Assertions.assertTrue(SerializedResponse.acceptsGzip(List.of("*")));
+
+        HttpHeaders acceptsGzip = new HttpHeaders();
+        acceptsGzip.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        byte[] small = "433060".getBytes(StandardCharsets.UTF_8);
+        ResponseEntity<byte[]> response = SerializedResponse.of(1, small, 1024).toResponseEntity(acceptsGzip);
+        Assertions.assertArrayEquals(small, response.getBody());
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+}
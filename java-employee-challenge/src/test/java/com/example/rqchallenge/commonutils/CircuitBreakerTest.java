@@ -0,0 +1,100 @@
+package com.example.rqchallenge.commonutils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private CircuitBreaker newCircuitBreaker() {
+        return new CircuitBreaker(10, 4, 50, Duration.ofSeconds(1), 75, Duration.ofSeconds(30), 2, clock::get);
+    }
+
+    @Test
+    @DisplayName("Circuit opens once the failure rate reaches the threshold and refuses calls until the open duration ends")
+    public void testOpensOnFailureRate() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure(FAST);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess(FAST);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(1, circuitBreaker.getRejectionCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Slow successful calls open the circuit")
+    public void testOpensOnSlowCallRate() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onSuccess(SLOW);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertEquals(1, circuitBreaker.getOpenCount());
+    }
+
+    @Test
+    @DisplayName("Old outcomes leave the rolling window")
+    public void testRollingWindow() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        for (int i = 0; i < 10; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onSuccess(FAST);
+        }
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onFailure(FAST);
+        }
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.tryAcquirePermission();
+        circuitBreaker.onFailure(FAST);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Half-open trial calls close the circuit when they succeed and reopen it on a failure")
+    public void testHalfOpenTrialCalls() {
+        CircuitBreaker circuitBreaker = newCircuitBreaker();
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquirePermission();
+            circuitBreaker.onFailure(FAST);
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertFalse(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onFailure(FAST);
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onIgnored();
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        Assertions.assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onSuccess(FAST);
+        circuitBreaker.onSuccess(FAST);
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+}
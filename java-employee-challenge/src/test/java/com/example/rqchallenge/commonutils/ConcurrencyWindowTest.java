@@ -0,0 +1,49 @@
+package com.example.rqchallenge.commonutils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ConcurrencyWindowTest {
+
+    @Test
+    @DisplayName("No more calls than the window are in flight and results keep item order")
+    public void testRespectsWindowAndKeepsOrder() throws Exception {
+        List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        CompletableFuture<List<Integer>> result = ConcurrencyWindow.map(items, 4, item -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return item * 2;
+            }, CompletableFuture.delayedExecutor(item % 3, TimeUnit.MILLISECONDS));
+        });
+
+        List<Integer> expected = items.stream().map(item -> item * 2).collect(Collectors.toList());
+        Assertions.assertEquals(expected, result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(maxInFlight.get() <= 4);
+    }
+
+    @Test
+    @DisplayName("Long runs of calls completing immediately do not recurse")
+    public void testImmediateCompletions() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            items.add(i);
+        }
+
+        List<Integer> result = ConcurrencyWindow.map(items, 2, CompletableFuture::completedFuture).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(items, result);
+    }
+}
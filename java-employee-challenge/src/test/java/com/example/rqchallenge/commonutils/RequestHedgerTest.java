@@ -0,0 +1,200 @@
+package com.example.rqchallenge.commonutils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RequestHedgerTest {
+
+    private UpstreamRateGovernor governor = new UpstreamRateGovernor(1000, 1, 1000, 0, 100, 1, 1, 1, 1);
+    private RequestHedger requestHedger;
+
+    @AfterEach
+    public void tearDown() {
+        requestHedger.shutdown();
+        governor.shutdown();
+    }
+
+    /**
+     * Stands in for the {@link UpstreamGuard}: reports the attempt as dispatched at once, and as taking durationMillis
+     * when it completes
+     */
+    private static <T> CompletableFuture<T> dispatched(UpstreamAttemptListener listener, CompletableFuture<T> attempt, long durationMillis) {
+        listener.onDispatched();
+        attempt.whenComplete((value, ex) -> listener.onAttemptCompleted(TimeUnit.MILLISECONDS.toNanos(durationMillis)));
+        return attempt;
+    }
+
+    private void warmUp(int calls) {
+        for (int i = 0; i < calls; i++) {
+            requestHedger.execute(listener -> dispatched(listener, CompletableFuture.completedFuture("fast"), 0));
+        }
+    }
+
+    @Test
+    @DisplayName("A call unanswered after the hedge delay is hedged, the hedge wins and the slow call is cancelled")
+    public void testHedgeWins() throws Exception {
+        requestHedger = new RequestHedger(governor, true, 95, 10, 16, 4, 100);
+        warmUp(4);
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(10), requestHedger.getHedgeDelayNanos().orElseThrow());
+
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        CompletableFuture<String> result = requestHedger.execute(listener -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            synchronized (attempts) {
+                attempts.add(attempt);
+            }
+            return dispatched(listener, attempt, 0);
+        });
+        waitForAttempts(attempts, 2);
+        attempts.get(1).complete("hedge");
+
+        Assertions.assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(attempts.get(0).isCancelled());
+        Assertions.assertEquals(1, requestHedger.getHedgeCount());
+        Assertions.assertEquals(1, requestHedger.getHedgeWinCount());
+    }
+
+    @Test
+    @DisplayName("A failed call waits for its hedge, and no hedges are sent beyond the budget")
+    public void testFailureAndBudget() throws Exception {
+        requestHedger = new RequestHedger(governor, true, 95, 10, 16, 4, 25);
+        warmUp(4);
+
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        CompletableFuture<String> hedged = requestHedger.execute(listener -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            synchronized (attempts) {
+                attempts.add(attempt);
+            }
+            return dispatched(listener, attempt, 0);
+        });
+        waitForAttempts(attempts, 2);
+        attempts.get(0).completeExceptionally(new IllegalStateException("upstream failed"));
+        Assertions.assertFalse(hedged.isDone());
+        attempts.get(1).complete("hedge");
+        Assertions.assertEquals("hedge", hedged.get(1, TimeUnit.SECONDS));
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> result = requestHedger.execute(listener -> dispatched(listener, slow, 0));
+        Thread.sleep(100);
+        slow.complete("slow");
+        Assertions.assertEquals("slow", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, requestHedger.getHedgeCount());
+        Assertions.assertEquals(1, requestHedger.getBudgetExhaustedCount());
+    }
+
+    @Test
+    @DisplayName("Calls are not hedged while hedging is disabled or before enough latencies are known")
+    public void testNoHedgeWithoutSamples() throws Exception {
+        requestHedger = new RequestHedger(governor, true, 95, 10, 16, 4, 100);
+        warmUp(3);
+        Assertions.assertTrue(requestHedger.getHedgeDelayNanos().isEmpty());
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> result = requestHedger.execute(listener -> dispatched(listener, slow, 0));
+        Thread.sleep(50);
+        slow.complete("slow");
+        Assertions.assertEquals("slow", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, requestHedger.getHedgeCount());
+
+        requestHedger.shutdown();
+        requestHedger = new RequestHedger(governor, false, 95, 10, 16, 4, 100);
+        CompletableFuture<String> call = new CompletableFuture<>();
+        Assertions.assertSame(call, requestHedger.execute(listener -> call));
+        Assertions.assertEquals(0, requestHedger.getCallCount());
+    }
+
+    @Test
+    @DisplayName("The latencies of all attempts are recorded, including the cancelled slow call a hedge won against")
+    public void testRecordsAllAttempts() throws Exception {
+        requestHedger = new RequestHedger(governor, true, 95, 10, 4, 4, 100);
+        warmUp(4);
+
+        List<CompletableFuture<String>> attempts = new ArrayList<>();
+        CompletableFuture<String> result = requestHedger.execute(listener -> {
+            CompletableFuture<String> attempt = new CompletableFuture<>();
+            synchronized (attempts) {
+                attempts.add(attempt);
+            }
+            return dispatched(listener, attempt, attempts.size() == 1 ? 300 : 20);
+        });
+        waitForAttempts(attempts, 2);
+        attempts.get(1).complete("hedge");
+
+        Assertions.assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(attempts.get(0).isCancelled());
+        Assertions.assertEquals(TimeUnit.MILLISECONDS.toNanos(300), requestHedger.getHedgeDelayNanos().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Slow calls are not hedged while the governor waits out a Retry-After")
+    public void testNoHedgeWhileGovernorPaused() throws Exception {
+        requestHedger = new RequestHedger(governor, true, 95, 10, 16, 4, 100);
+        warmUp(4);
+        CompletableFuture<String> throttled = governor.submit(() -> CompletableFuture.failedFuture(tooManyRequests("5")));
+        assertThrows(ExecutionException.class, () -> throttled.get(1, TimeUnit.SECONDS));
+        Assertions.assertTrue(governor.isPaused());
+
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> result = requestHedger.execute(listener -> dispatched(listener, slow, 0));
+        Thread.sleep(100);
+        slow.complete("slow");
+
+        Assertions.assertEquals("slow", result.get(1, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, requestHedger.getHedgeCount());
+        Assertions.assertEquals(1, requestHedger.getPausedSkipCount());
+    }
+
+    @Test
+    @DisplayName("Latencies reported by the guard run from the dispatch, without the time queued in the governor")
+    public void testLatencyExcludesGovernorQueue() throws Exception {
+        governor.shutdown();
+        governor = new UpstreamRateGovernor(2, 2, 2, 0, 100, 1, 1, 1, 1);
+        UpstreamGuard upstreamGuard = new UpstreamGuard(governor, 20, 10, 50, 5000, 80, 30000, 3, 50);
+        requestHedger = new RequestHedger(governor, true, 100, 0, 1, 1, 0);
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(requestHedger.execute(listener -> upstreamGuard.submit(UpstreamOperation.BY_ID,
+                    () -> CompletableFuture.completedFuture("ok"), listener)));
+        }
+        Assertions.assertEquals("ok", results.get(2).get(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(System.nanoTime() - startedAt >= TimeUnit.MILLISECONDS.toNanos(300));
+        Assertions.assertTrue(requestHedger.getHedgeDelayNanos().orElseThrow() < TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertEquals(0, requestHedger.getHedgeCount());
+    }
+
+    private static HttpClientErrorException tooManyRequests(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+    }
+
+    private static void waitForAttempts(List<CompletableFuture<String>> attempts, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            synchronized (attempts) {
+                if (attempts.size() >= count) {
+                    return;
+                }
+            }
+            Thread.sleep(5);
+        }
+        Assertions.fail("Expected " + count + " attempts");
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    @DisplayName("Concurrent callers of the same key share one call")
+    public void testConcurrentCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("employees", () -> {
+                    calls.incrementAndGet();
+                    awaitQuietly(release);
+                    return "result";
+                }, Duration.ofSeconds(5))));
+            }
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                Assertions.assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertEquals(1, calls.get());
+            Assertions.assertEquals(0, singleFlight.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Followers receive the failure of the leader call")
+    public void testFollowersShareFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> leader = executor.submit(() -> singleFlight.execute("employees", () -> {
+                awaitQuietly(release);
+                throw new IllegalStateException("upstream failed");
+            }, Duration.ofSeconds(5)));
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+            CompletableFuture<String> follower = CompletableFuture.supplyAsync(
+                    () -> singleFlight.execute("employees", () -> "not called", Duration.ofSeconds(5)));
+            Thread.sleep(50);
+            release.countDown();
+
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(ex.getCause() instanceof IllegalStateException);
+            assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Follower gives up on a slow leader after its own timeout")
+    public void testFollowerTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> singleFlight.execute("employee/1", () -> {
+                awaitQuietly(release);
+                return "slow";
+            }, Duration.ofSeconds(5)));
+            while (singleFlight.inFlightCount() == 0) {
+                Thread.sleep(1);
+            }
+
+            assertThrows(OperationFailedException.class,
+                    () -> singleFlight.execute("employee/1", () -> "not called", Duration.ofMillis(20)));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Async callers of the same key share one call until it completes")
+    public void testAsyncCallersShareOneCall() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.executeAsync("employees", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> follower = singleFlight.executeAsync("employees", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("not called");
+        });
+        Assertions.assertEquals(1, singleFlight.inFlightCount());
+        upstream.complete("result");
+
+        Assertions.assertEquals("result", leader.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, calls.get());
+        Assertions.assertEquals(0, singleFlight.inFlightCount());
+        Assertions.assertEquals("next", singleFlight.executeAsync("employees", () -> CompletableFuture.completedFuture("next"))
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Async followers share the failure of the leader, and cancelling one caller leaves the others waiting")
+    public void testAsyncFailureAndCancel() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> leader = singleFlight.executeAsync("employees", () -> upstream);
+        CompletableFuture<String> follower = singleFlight.executeAsync("employees", () -> upstream);
+
+        leader.cancel(true);
+        Assertions.assertFalse(upstream.isCancelled());
+        Assertions.assertFalse(follower.isDone());
+        upstream.completeExceptionally(new IllegalStateException("upstream failed"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(ex.getCause() instanceof IllegalStateException);
+        Assertions.assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("An async call that throws instead of returning a future fails its callers and frees the key")
+    public void testAsyncCallThrows() {
+        CompletableFuture<String> result = singleFlight.executeAsync("employees", () -> {
+            throw new IllegalStateException("not started");
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(ex.getCause() instanceof IllegalStateException);
+        Assertions.assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
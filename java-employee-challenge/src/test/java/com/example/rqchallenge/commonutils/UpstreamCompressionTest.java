@@ -0,0 +1,169 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.config.AsyncHttpClientConfig;
+import com.example.rqchallenge.config.RestTemplateConfig;
+import com.example.rqchallenge.constants.APIConstants;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeesResponseData;
+import com.example.rqchallenge.simulator.EmployeeDatasets;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs both employee API clients against a local server answering gzip or deflate encoded, as the path asks
+ */
+class UpstreamCompressionTest {
+    private static final String URL = "/{encoding}/" + APIConstants.GET_ALL_EMPLOYEES_URL;
+    private static final List<Employee> EMPLOYEES = EmployeeDatasets.generate(100);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService ioExecutor = Executors.newFixedThreadPool(4);
+    private final UpstreamRateGovernor governor = new UpstreamRateGovernor(1000, 1, 1000, 0, 100, 1, 1, 1, 1);
+    private final UpstreamGuard upstreamGuard = new UpstreamGuard(governor, 20, 10, 50, 5000, 80, 30000, 3, 50);
+    private final RequestHedger requestHedger = new RequestHedger(governor, false, 95, 20, 256, 20, 10);
+    private final UpstreamMetrics upstreamMetrics = new UpstreamMetrics(providerOf(new SimpleMeterRegistry()));
+    private final UpstreamTransportCounters blockingCounters = new UpstreamTransportCounters();
+    private final UpstreamTransportCounters asyncCounters = new UpstreamTransportCounters();
+    private byte[] payload;
+    private HttpServer server;
+    private String baseUrl;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private RestExecutorService restExecutorService;
+    private AsyncRestExecutorService asyncRestExecutorService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        payload = objectMapper.writeValueAsBytes(Map.of("status", "success", "data", EMPLOYEES));
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String encoding = exchange.getRequestURI().getPath().split("/")[1];
+            String acceptEncoding = exchange.getRequestHeaders().getFirst(HttpHeaders.ACCEPT_ENCODING);
+            byte[] body = payload;
+            if (Objects.nonNull(acceptEncoding) && acceptEncoding.contains(encoding)) {
+                body = encode(payload, encoding);
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_ENCODING, encoding);
+            }
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+        connectionManager = restTemplateConfig.upstreamConnectionManager(10, 10);
+        restExecutorService = new RestExecutorService(restTemplateConfig.restTemplate(restTemplateConfig.clientHttpRequestFactory(
+                connectionManager, blockingCounters, 5000, 5000, 5000, 60, 30, true)),
+                upstreamGuard, requestHedger, upstreamMetrics, ioExecutor, 5000);
+        HttpClient httpClient = new AsyncHttpClientConfig().upstreamAsyncHttpClient(ioExecutor, 5000, 10, 60, HttpClient.Version.HTTP_1_1);
+        asyncRestExecutorService = new AsyncRestExecutorService(httpClient, upstreamGuard, requestHedger, upstreamMetrics,
+                objectMapper, ioExecutor, 5000, asyncCounters, true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        connectionManager.shutdown();
+        ioExecutor.shutdownNow();
+        requestHedger.shutdown();
+        governor.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> providerOf(MeterRegistry meterRegistry) {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        return meterRegistryProvider;
+    }
+
+    private static byte[] encode(byte[] body, String encoding) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        try (OutputStream encoder = "gzip".equals(encoding) ? new GZIPOutputStream(encoded) : new DeflaterOutputStream(encoded)) {
+            encoder.write(body);
+        }
+        return encoded.toByteArray();
+    }
+
+    private ResponseEntity<EmployeesResponseData> blocking(String encoding) {
+        return restExecutorService.execute(baseUrl + URL, HttpEntity.EMPTY, HttpMethod.GET, EmployeesResponseData.class, encoding);
+    }
+
+    private ResponseEntity<EmployeesResponseData> async(String encoding) throws Exception {
+        return asyncRestExecutorService.executeAsync(baseUrl + URL, HttpEntity.EMPTY, HttpMethod.GET, EmployeesResponseData.class, encoding)
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private void assertDecoded(ResponseEntity<EmployeesResponseData> response) {
+        Assertions.assertEquals(EMPLOYEES, response.getBody().getData());
+        Assertions.assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    @DisplayName("Both clients ask for compression and decode gzip and deflate bodies, counting wire and decoded bytes")
+    public void testDecodesGzipAndDeflate() throws Exception {
+        long encodedBytes = encode(payload, "gzip").length + encode(payload, "deflate").length;
+        Assertions.assertTrue(encodedBytes < payload.length);
+
+        assertDecoded(blocking("gzip"));
+        assertDecoded(blocking("deflate"));
+        assertDecoded(async("gzip"));
+        assertDecoded(async("deflate"));
+
+        for (UpstreamTransportCounters transportCounters : List.of(blockingCounters, asyncCounters)) {
+            Assertions.assertEquals(encodedBytes, transportCounters.getWireBytes());
+            Assertions.assertEquals(2L * payload.length, transportCounters.getDecodedBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("Both clients send consecutive calls over one kept-alive connection")
+    public void testReusesConnections() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertDecoded(blocking("gzip"));
+        }
+        Assertions.assertEquals(1, clientPorts.size());
+        Assertions.assertEquals(3, blockingCounters.getExchangeCount());
+        Assertions.assertEquals(2, blockingCounters.getReusedConnectionCount());
+
+        clientPorts.clear();
+        for (int i = 0; i < 3; i++) {
+            assertDecoded(async("gzip"));
+        }
+        Assertions.assertEquals(1, clientPorts.size());
+    }
+}
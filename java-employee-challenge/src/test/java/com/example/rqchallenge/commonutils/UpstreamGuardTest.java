@@ -0,0 +1,130 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamGuardTest {
+
+    private UpstreamRateGovernor governor;
+
+    @AfterEach
+    public void tearDown() {
+        governor.shutdown();
+    }
+
+    /**
+     * @return guard whose circuit opens once 60% of the last 4 calls, at least 2, failed
+     */
+    private UpstreamGuard guard(int maxConcurrentCalls) {
+        governor = new UpstreamRateGovernor(1000, 1, 1000, 0, 100, 1, 1, 1, 1);
+        return new UpstreamGuard(governor, 4, 2, 60, 60000, 100, 60000, 1, maxConcurrentCalls);
+    }
+
+    private static Throwable failureOf(CompletableFuture<?> future) {
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return ex.getCause();
+    }
+
+    private static void failCall(UpstreamGuard guard, RuntimeException failure) {
+        Assertions.assertSame(failure, failureOf(guard.submit(UpstreamOperation.LIST, () -> CompletableFuture.failedFuture(failure))));
+    }
+
+    private static HttpClientErrorException clientError(HttpStatus status) {
+        return HttpClientErrorException.create(status, status.getReasonPhrase(), HttpHeaders.EMPTY, null, null);
+    }
+
+    private static HttpServerErrorException serverError() {
+        return HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", HttpHeaders.EMPTY, null, null);
+    }
+
+    @Test
+    @DisplayName("5xx responses count as failures and 4xx responses as answers of a healthy upstream")
+    public void testClassifiesClientAndServerErrors() throws Exception {
+        UpstreamGuard guard = guard(10);
+
+        failCall(guard, clientError(HttpStatus.NOT_FOUND));
+        failCall(guard, clientError(HttpStatus.BAD_REQUEST));
+        failCall(guard, serverError());
+        failCall(guard, serverError());
+        Assertions.assertFalse(guard.isCircuitOpen(UpstreamOperation.LIST));
+
+        failCall(guard, serverError());
+        Assertions.assertTrue(guard.isCircuitOpen(UpstreamOperation.LIST));
+        AtomicBoolean started = new AtomicBoolean();
+        Throwable rejection = failureOf(guard.submit(UpstreamOperation.LIST, () -> {
+            started.set(true);
+            return CompletableFuture.completedFuture("ok");
+        }));
+        Assertions.assertTrue(rejection instanceof UpstreamRejectedException);
+        Assertions.assertFalse(started.get());
+        Assertions.assertEquals("ok", guard.submit(UpstreamOperation.BY_ID, () -> CompletableFuture.completedFuture("ok"))
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Throttled calls are left out of the failure rate")
+    public void testIgnoresThrottledCalls() {
+        UpstreamGuard guard = guard(10);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(failureOf(guard.submit(UpstreamOperation.LIST,
+                    () -> CompletableFuture.failedFuture(clientError(HttpStatus.TOO_MANY_REQUESTS))))
+                    instanceof HttpClientErrorException.TooManyRequests);
+        }
+        failCall(guard, serverError());
+        Assertions.assertFalse(guard.isCircuitOpen(UpstreamOperation.LIST));
+
+        failCall(guard, serverError());
+        Assertions.assertTrue(guard.isCircuitOpen(UpstreamOperation.LIST));
+    }
+
+    @Test
+    @DisplayName("Calls beyond the bulkhead of their operation are rejected without reaching the upstream")
+    public void testRejectsWhenBulkheadIsFull() {
+        UpstreamGuard guard = guard(2);
+        guard.submit(UpstreamOperation.LIST, CompletableFuture<String>::new);
+        guard.submit(UpstreamOperation.LIST, CompletableFuture<String>::new);
+
+        AtomicBoolean started = new AtomicBoolean();
+        Throwable rejection = failureOf(guard.submit(UpstreamOperation.LIST, () -> {
+            started.set(true);
+            return CompletableFuture.completedFuture("ok");
+        }));
+
+        Assertions.assertTrue(rejection instanceof UpstreamRejectedException);
+        Assertions.assertFalse(started.get());
+        Assertions.assertEquals(2, guard.getBulkheadInFlight(UpstreamOperation.LIST));
+        Assertions.assertEquals(1, guard.getBulkheadRejectionCount(UpstreamOperation.LIST));
+        Assertions.assertEquals(0, guard.getBulkheadInFlight(UpstreamOperation.BY_ID));
+        Assertions.assertFalse(guard.isCircuitOpen(UpstreamOperation.LIST));
+    }
+
+    @Test
+    @DisplayName("Cancelling a call releases its bulkhead permit and is not recorded as a failure")
+    public void testReleasesPermitOnCancel() throws Exception {
+        UpstreamGuard guard = guard(1);
+        CompletableFuture<String> call = guard.submit(UpstreamOperation.LIST, CompletableFuture<String>::new);
+        Assertions.assertEquals(1, guard.getBulkheadInFlight(UpstreamOperation.LIST));
+
+        call.cancel(true);
+
+        Assertions.assertEquals(0, guard.getBulkheadInFlight(UpstreamOperation.LIST));
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, guard.getCircuitBreaker(UpstreamOperation.LIST).getState());
+        Assertions.assertEquals("ok", guard.submit(UpstreamOperation.LIST, () -> CompletableFuture.completedFuture("ok"))
+                .get(5, TimeUnit.SECONDS));
+    }
+}
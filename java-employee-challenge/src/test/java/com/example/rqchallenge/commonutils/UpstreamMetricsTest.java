@@ -0,0 +1,68 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.constants.APIConstants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+class UpstreamMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UpstreamMetrics upstreamMetrics = new UpstreamMetrics(providerOf(meterRegistry));
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<MeterRegistry> providerOf(MeterRegistry meterRegistry) {
+        ObjectProvider<MeterRegistry> meterRegistryProvider = mock(ObjectProvider.class);
+        when(meterRegistryProvider.getObject()).thenReturn(meterRegistry);
+        return meterRegistryProvider;
+    }
+
+    private Timer timer(String client, String status) {
+        return meterRegistry.find("upstream.requests")
+                .tags("client", client, "method", "GET", "uri", APIConstants.GET_EMPLOYEE_BY_ID_URL, "status", status)
+                .timer();
+    }
+
+    @Test
+    @DisplayName("Exchanges are timed per client, method, uri template and status")
+    public void testRecordsRequestsByStatus() {
+        upstreamMetrics.recordRequest(UpstreamMetrics.BLOCKING_CLIENT, HttpMethod.GET, APIConstants.GET_EMPLOYEE_BY_ID_URL, "200",
+                TimeUnit.MILLISECONDS.toNanos(30));
+        upstreamMetrics.recordRequest(UpstreamMetrics.BLOCKING_CLIENT, HttpMethod.GET, APIConstants.GET_EMPLOYEE_BY_ID_URL, "200",
+                TimeUnit.MILLISECONDS.toNanos(10));
+        upstreamMetrics.recordRequest(UpstreamMetrics.ASYNC_CLIENT, HttpMethod.GET, APIConstants.GET_EMPLOYEE_BY_ID_URL, "429",
+                TimeUnit.MILLISECONDS.toNanos(5));
+
+        Assertions.assertEquals(2, timer(UpstreamMetrics.BLOCKING_CLIENT, "200").count());
+        Assertions.assertEquals(40, timer(UpstreamMetrics.BLOCKING_CLIENT, "200").totalTime(TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, timer(UpstreamMetrics.ASYNC_CLIENT, "429").count());
+        Assertions.assertNull(timer(UpstreamMetrics.ASYNC_CLIENT, "200"));
+    }
+
+    @Test
+    @DisplayName("Failures are tagged with the response status if the upstream answered, else with the exception name")
+    public void testStatusOfFailures() {
+        Assertions.assertEquals("429", UpstreamMetrics.statusOf(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS,
+                "Too Many Requests", new HttpHeaders(), null, null)));
+        Assertions.assertEquals("503", UpstreamMetrics.statusOf(new CompletionException(HttpServerErrorException.create(
+                HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", new HttpHeaders(), null, null))));
+        Assertions.assertEquals("ResourceAccessException", UpstreamMetrics.statusOf(new CompletionException(
+                new ResourceAccessException("I/O error", new IOException("connection reset")))));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.rqchallenge.commonutils;
+
+import com.example.rqchallenge.exceptions.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UpstreamRateGovernorTest {
+
+    private UpstreamRateGovernor governor;
+
+    @AfterEach
+    public void tearDown() {
+        if (governor != null) {
+            governor.shutdown();
+        }
+    }
+
+    private static HttpClientErrorException tooManyRequests(String retryAfter) {
+        HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+    }
+
+    @Test
+    @DisplayName("Throttled call is retried after Retry-After and the permitted rate is lowered")
+    public void testRetriesThrottledCallAndLowersRate() throws Exception {
+        governor = new UpstreamRateGovernor(20, 1, 20, 0, 10, 5, 10, 1, 10);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = governor.submit(() -> attempts.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(tooManyRequests("0"))
+                : CompletableFuture.completedFuture("ok"));
+
+        Assertions.assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(2, attempts.get());
+        Assertions.assertEquals(10, governor.getPermittedRate());
+        Assertions.assertEquals(1, governor.getThrottledResponseCount());
+        Assertions.assertEquals(1, governor.getRetryCount());
+    }
+
+    @Test
+    @DisplayName("Call still throttled after max attempts fails with TooManyRequests")
+    public void testGivesUpAfterMaxAttempts() {
+        governor = new UpstreamRateGovernor(50, 1, 50, 0, 10, 3, 1, 1, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = governor.submit(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(tooManyRequests(null));
+        });
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(ex.getCause() instanceof HttpClientErrorException.TooManyRequests);
+        Assertions.assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Calls beyond the queue depth are rejected")
+    public void testRejectsWhenQueueIsFull() throws Exception {
+        governor = new UpstreamRateGovernor(1, 1, 1, 0, 2, 1, 1, 1, 1);
+        AtomicInteger started = new AtomicInteger();
+        governor.submit(() -> {
+            started.incrementAndGet();
+            return new CompletableFuture<String>();
+        });
+        awaitCondition(() -> started.get() == 1);
+        governor.submit(CompletableFuture<String>::new);
+        governor.submit(CompletableFuture<String>::new);
+
+        CompletableFuture<String> rejected = governor.submit(() -> CompletableFuture.completedFuture("not called"));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(ex.getCause() instanceof ServiceUnavailableException);
+        Assertions.assertEquals(1, governor.getRejectionCount());
+        Assertions.assertEquals(2, governor.getQueueDepth());
+        Assertions.assertEquals(1, started.get());
+    }
+
+    @Test
+    @DisplayName("Calls cancelled while queued are dropped without being started or taking a permit")
+    public void testSkipsCancelledQueuedCalls() throws Exception {
+        governor = new UpstreamRateGovernor(2, 1, 2, 0, 10, 1, 1, 1, 1);
+        AtomicInteger started = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            governor.submit(() -> {
+                started.incrementAndGet();
+                return new CompletableFuture<String>();
+            });
+        }
+        awaitCondition(() -> started.get() == 2);
+        AtomicBoolean cancelledStarted = new AtomicBoolean();
+
+        CompletableFuture<String> cancelled = governor.submit(() -> {
+            cancelledStarted.set(true);
+            return CompletableFuture.completedFuture("cancelled");
+        });
+        cancelled.cancel(true);
+        CompletableFuture<String> next = governor.submit(() -> CompletableFuture.completedFuture("next"));
+
+        Assertions.assertEquals("next", next.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(cancelledStarted.get());
+        Assertions.assertEquals(0, governor.getQueueDepth());
+    }
+
+    @Test
+    @DisplayName("Throttled calls cancelled while waiting to be retried are not retried")
+    public void testSkipsCancelledRetries() throws Exception {
+        governor = new UpstreamRateGovernor(20, 1, 20, 0, 10, 5, 10, 1, 10);
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> firstAttempt = new CompletableFuture<>();
+
+        CompletableFuture<String> result = governor.submit(() -> attempts.incrementAndGet() == 1
+                ? firstAttempt
+                : CompletableFuture.completedFuture("retried"));
+        awaitCondition(() -> attempts.get() == 1);
+        result.cancel(true);
+        firstAttempt.completeExceptionally(tooManyRequests(null));
+        awaitCondition(() -> governor.getRetryCount() == 1 && governor.getQueueDepth() == 0);
+
+        Assertions.assertEquals("ok", governor.submit(() -> CompletableFuture.completedFuture("ok")).get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, attempts.get());
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            Assertions.assertTrue(System.nanoTime() - deadline < 0, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Retry-After is parsed as seconds or HTTP date")
+    public void testParseRetryAfter() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+        Assertions.assertEquals(Duration.ofSeconds(7), UpstreamRateGovernor.parseRetryAfter(headers).orElseThrow());
+
+        headers.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2015 07:28:00 GMT");
+        Assertions.assertEquals(Duration.ZERO, UpstreamRateGovernor.parseRetryAfter(headers).orElseThrow());
+
+        headers.set(HttpHeaders.RETRY_AFTER, "soon");
+        Assertions.assertFalse(UpstreamRateGovernor.parseRetryAfter(headers).isPresent());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.rqchallenge.commonutils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+class UpstreamTransportCountersTest {
+
+    @Test
+    @DisplayName("Bytes are counted as received and after decoding")
+    public void testCountsWireAndDecodedBytes() throws IOException {
+        byte[] body = "{\"id\":1,\"employee_name\":\"Tiger Nixon\"},".repeat(100).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(body);
+        }
+        UpstreamTransportCounters transportCounters = new UpstreamTransportCounters();
+
+        try (InputStream decoded = transportCounters.countDecodedBytes(new GZIPInputStream(
+                transportCounters.countWireBytes(new ByteArrayInputStream(compressed.toByteArray()))))) {
+            Assertions.assertArrayEquals(body, decoded.readAllBytes());
+        }
+
+        Assertions.assertEquals(compressed.size(), transportCounters.getWireBytes());
+        Assertions.assertEquals(body.length, transportCounters.getDecodedBytes());
+        Assertions.assertTrue(transportCounters.getWireBytes() < transportCounters.getDecodedBytes() / 10);
+    }
+
+    @Test
+    @DisplayName("Exchanges on reused connections are counted apart")
+    public void testCountsReusedConnections() {
+        UpstreamTransportCounters transportCounters = new UpstreamTransportCounters();
+        transportCounters.recordExchange(false);
+        transportCounters.recordExchange(true);
+        transportCounters.recordExchange(true);
+
+        Assertions.assertEquals(3, transportCounters.getExchangeCount());
+        Assertions.assertEquals(2, transportCounters.getReusedConnectionCount());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rqchallenge.commonutils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class VirtualThreadsTest {
+
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = Runtime.version().feature() >= 21;
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        return VIRTUAL_THREADS_SUPPORTED && (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    @DisplayName("A virtual thread executor is returned exactly on runtimes supporting virtual threads")
+    public void testExecutorMatchesRuntime() throws Exception {
+        Optional<ExecutorService> executor = VirtualThreads.newVirtualThreadPerTaskExecutor("virtual-test-");
+
+        Assertions.assertEquals(VIRTUAL_THREADS_SUPPORTED, executor.isPresent());
+        if (executor.isPresent()) {
+            try {
+                Thread thread = executor.get().submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+                Assertions.assertTrue(isVirtual(thread));
+                Assertions.assertTrue(thread.getName().startsWith("virtual-test-"));
+            } finally {
+                executor.get().shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.rqchallenge.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+class ExecutionConfigTest {
+
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = Runtime.version().feature() >= 21;
+
+    private static Thread threadOf(ExecutorService executor) throws Exception {
+        try {
+            return executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        return VIRTUAL_THREADS_SUPPORTED && (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    @DisplayName("Without virtual threads work runs on named daemon platform threads")
+    public void testPlatformThreads() throws Exception {
+        Thread thread = threadOf(ExecutionConfig.newExecutor("employee-request-", false, 2));
+
+        Assertions.assertFalse(isVirtual(thread));
+        Assertions.assertTrue(thread.isDaemon());
+        Assertions.assertEquals("employee-request-1", thread.getName());
+    }
+
+    @Test
+    @DisplayName("Virtual threads are used where the runtime supports them, otherwise the platform pool is kept")
+    public void testVirtualThreadsOrFallback() throws Exception {
+        Thread thread = threadOf(ExecutionConfig.newExecutor("employee-request-", true, 2));
+
+        Assertions.assertEquals(VIRTUAL_THREADS_SUPPORTED, isVirtual(thread));
+        Assertions.assertTrue(thread.getName().startsWith("employee-request-"));
+        if (!VIRTUAL_THREADS_SUPPORTED) {
+            Assertions.assertEquals("employee-request-1", thread.getName());
+        }
+    }
+}
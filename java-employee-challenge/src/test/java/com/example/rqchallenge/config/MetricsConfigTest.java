@@ -0,0 +1,45 @@
+package com.example.rqchallenge.config;
+
+import com.example.rqchallenge.commonutils.UpstreamRateGovernor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final UpstreamRateGovernor governor = new UpstreamRateGovernor(20, 1, 20, 0, 10, 5, 10, 1, 10);
+
+    @AfterEach
+    public void tearDown() {
+        governor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Throttled responses and their retries are counted, and the lowered rate is reported")
+    public void testGovernorOutcomeCounters() throws Exception {
+        new MetricsConfig().upstreamGovernorMetrics(governor).bindTo(meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "0");
+
+        Assertions.assertEquals("ok", governor.submit(() -> attempts.incrementAndGet() == 1
+                ? CompletableFuture.failedFuture(HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null))
+                : CompletableFuture.completedFuture("ok")).get(5, TimeUnit.SECONDS));
+
+        Assertions.assertEquals(1, meterRegistry.get("upstream.governor.throttled").functionCounter().count());
+        Assertions.assertEquals(1, meterRegistry.get("upstream.governor.retries").functionCounter().count());
+        Assertions.assertEquals(0, meterRegistry.get("upstream.governor.rejected").functionCounter().count());
+        Assertions.assertEquals(10, meterRegistry.get("upstream.governor.permitted.rate").gauge().value());
+        Assertions.assertEquals(0, meterRegistry.get("upstream.governor.queue.depth").gauge().value());
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.rqchallenge.controller;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeBatch;
+import com.example.rqchallenge.exceptionhandler.GlobalExceptionHandler;
+import com.example.rqchallenge.exceptions.InvalidRequestException;
+import com.example.rqchallenge.exceptions.ResourceNotFoundException;
+import com.example.rqchallenge.service.IEmployeeService;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EmployeeControllerImplTest {
+
+    private static final Employee TIGER = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+    private static final Employee GARRETT = new Employee(2L, "Garrett Winters", 170750, 63, "");
+
+    private final IEmployeeService employeeService = mock(IEmployeeService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService employeeRequestExecutor = Executors.newFixedThreadPool(2);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = mockMvc("sync");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeRequestExecutor.shutdownNow();
+    }
+
+    private MockMvc mockMvc(String controllerMode) {
+        return MockMvcBuilders
+                .standaloneSetup(new EmployeeControllerImpl(employeeService, objectMapper, controllerMode,
+                        employeeRequestExecutor))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    private ResultActions performAsync(MockMvc mockMvc, RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    private void givenBatch(List<String> ids) {
+        when(employeeService.getEmployeesByIds(ids)).thenReturn(CompletableFuture.completedFuture(
+                new EmployeeBatch(List.of(TIGER), List.of("abc"), List.of("7"))));
+    }
+
+    private void givenEmployees(Employee... employees) {
+        when(employeeService.visitAllEmployees(any())).thenAnswer(invocation -> {
+            IEmployeeVisitor<?> visitor = invocation.getArgument(0);
+            for (Employee employee : employees) {
+                visitor.visit(employee);
+            }
+            return visitor.getResult();
+        });
+    }
+
+    @Test
+    @DisplayName("GET / streams NDJSON for Accept: application/x-ndjson and for format=ndjson, one employee per line")
+    public void testNdjsonRouting() throws Exception {
+        givenEmployees(TIGER, GARRETT);
+
+        for (RequestBuilder request : List.of(get("/").accept(MediaType.APPLICATION_NDJSON), get("/").param("format", "ndjson"))) {
+            String body = performAsync(mockMvc, request)
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> lines = body.lines().collect(Collectors.toList());
+            Assertions.assertTrue(body.endsWith("\n"));
+            Assertions.assertEquals(2, lines.size());
+            Assertions.assertEquals(TIGER, objectMapper.readValue(lines.get(0), Employee.class));
+            Assertions.assertEquals(GARRETT, objectMapper.readValue(lines.get(1), Employee.class));
+        }
+    }
+
+    @Test
+    @DisplayName("GET / without an NDJSON Accept header or format is answered with the JSON array")
+    public void testJsonArrayByDefault() throws Exception {
+        when(employeeService.getAllEmployees()).thenReturn(List.of());
+
+        mockMvc.perform(get("/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string("[]"));
+
+        verify(employeeService, never()).visitAllEmployees(any());
+    }
+
+    @Test
+    @DisplayName("GET /batch looks up the comma separated ids of the query string")
+    public void testBatchLookupFromQueryString() throws Exception {
+        givenBatch(List.of("1", "abc", "7"));
+
+        MvcResult result = mockMvc.perform(get("/batch").param("ids", "1,abc,7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id").value(1))
+                .andExpect(jsonPath("$.found[0].name").value("Tiger Nixon"))
+                .andExpect(jsonPath("$.notFound[0]").value("abc"))
+                .andExpect(jsonPath("$.failed[0]").value("7"));
+    }
+
+    @Test
+    @DisplayName("POST /batch looks up the ids of the JSON array body")
+    public void testBatchLookupFromBody() throws Exception {
+        givenBatch(List.of("1", "abc", "7"));
+
+        MvcResult result = mockMvc.perform(post("/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("1", "abc", "7"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.length()").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value("abc"))
+                .andExpect(jsonPath("$.failed[0]").value("7"));
+    }
+
+    @Test
+    @DisplayName("Batches the service rejects, e.g. above the item limit, are answered with 400")
+    public void testRejectedBatch() throws Exception {
+        when(employeeService.getEmployeesByIds(anyList())).thenThrow(new InvalidRequestException(
+                String.format(MessageConstants.INVALID_BULK_REQUEST_SIZE_VALIDATION_MESSAGE, 2)));
+
+        mockMvc.perform(post("/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of("1", "2", "3"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.error").value(String.format(MessageConstants.INVALID_BULK_REQUEST_SIZE_VALIDATION_MESSAGE, 2)));
+    }
+
+    @Test
+    @DisplayName("In sync mode reads are done on the request thread")
+    public void testSyncModeReadsOnRequestThread() throws Exception {
+        Thread requestThread = Thread.currentThread();
+        AtomicReference<Thread> readThread = new AtomicReference<>();
+        when(employeeService.getEmployeesByNameSearch("Tiger")).thenAnswer(invocation -> {
+            readThread.set(Thread.currentThread());
+            return List.of(TIGER);
+        });
+
+        mockMvc.perform(get("/search/Tiger"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Tiger Nixon"));
+
+        Assertions.assertSame(requestThread, readThread.get());
+    }
+
+    @Test
+    @DisplayName("In async mode reads run on the employee request executor with the request bound to it")
+    public void testAsyncModeReadsOnExecutor() throws Exception {
+        Thread requestThread = Thread.currentThread();
+        AtomicReference<Thread> readThread = new AtomicReference<>();
+        AtomicReference<RequestAttributes> readAttributes = new AtomicReference<>();
+        when(employeeService.getEmployeesByNameSearch("Tiger")).thenAnswer(invocation -> {
+            readThread.set(Thread.currentThread());
+            readAttributes.set(RequestContextHolder.getRequestAttributes());
+            return List.of(TIGER);
+        });
+
+        performAsync(mockMvc("async"), get("/search/Tiger"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Tiger Nixon"));
+
+        Assertions.assertNotSame(requestThread, readThread.get());
+        Assertions.assertNotNull(readAttributes.get());
+    }
+
+    @Test
+    @DisplayName("In sync mode upstream calls use the blocking service methods")
+    public void testSyncModeCallsUpstreamBlocking() throws Exception {
+        when(employeeService.getEmployeeById("1")).thenReturn(TIGER);
+        when(employeeService.createEmployee(anyMap())).thenReturn(TIGER);
+        when(employeeService.deleteEmployeeById("1")).thenReturn("Tiger Nixon");
+
+        mockMvc.perform(get("/1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Tiger Nixon"));
+        mockMvc.perform(post("/")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        mockMvc.perform(delete("/1"))
+                .andExpect(status().isOk());
+
+        verify(employeeService, never()).getEmployeeByIdAsync(anyString());
+        verify(employeeService, never()).createEmployeeAsync(anyMap());
+        verify(employeeService, never()).deleteEmployeeByIdAsync(anyString());
+    }
+
+    @Test
+    @DisplayName("In async mode upstream calls are chained on the non-blocking service methods")
+    public void testAsyncModeCallsUpstreamAsync() throws Exception {
+        MockMvc asyncMockMvc = mockMvc("async");
+        when(employeeService.getEmployeeByIdAsync("1")).thenReturn(CompletableFuture.completedFuture(TIGER));
+        when(employeeService.createEmployeeAsync(anyMap())).thenReturn(CompletableFuture.completedFuture(TIGER));
+        when(employeeService.deleteEmployeeByIdAsync("1")).thenReturn(CompletableFuture.completedFuture("Tiger Nixon"));
+
+        performAsync(asyncMockMvc, get("/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Tiger Nixon"));
+        performAsync(asyncMockMvc, post("/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Tiger Nixon\",\"salary\":320800,\"age\":61}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(1));
+        performAsync(asyncMockMvc, delete("/1"))
+                .andExpect(status().isOk());
+
+        verify(employeeService, never()).getEmployeeById(anyString());
+        verify(employeeService, never()).createEmployee(anyMap());
+        verify(employeeService, never()).deleteEmployeeById(anyString());
+    }
+
+    @Test
+    @DisplayName("In async mode a failed upstream future is answered by the exception handler")
+    public void testAsyncModeFailure() throws Exception {
+        String message = String.format(MessageConstants.EMP_NOT_FOUND_ERROR_MESSAGE, "7");
+        when(employeeService.getEmployeeByIdAsync("7")).thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException(message)));
+
+        performAsync(mockMvc("async"), get("/7"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status").value(404))
+                .andExpect(jsonPath("$.error").value(message));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class EmployeeIdIndexTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(null, "Brielle Williamson", 372000, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""));
+
+    @Test
+    @DisplayName("Pages walk the employees in id order and lookups find by id")
+    public void testPagesInIdOrder() {
+        EmployeeIdIndex index = new EmployeeIdIndex(EMPLOYEES);
+
+        Assertions.assertEquals(Arrays.asList(1L, 2L), ids(index.page(null, 2)));
+        Assertions.assertEquals(Arrays.asList(3L, 4L), ids(index.page(2L, 2)));
+        Assertions.assertTrue(index.page(4L, 2).isEmpty());
+        Assertions.assertEquals("Ashton Cox", index.find(3L).map(Employee::getName).orElse(null));
+        Assertions.assertFalse(index.find(5L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Incremental add and remove match rebuilding the index")
+    public void testIncrementalUpdatesMatchRebuild() {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        EmployeeIdIndex index = new EmployeeIdIndex(employees);
+
+        Employee created = new Employee(0L, "Harry Potter", 170750, 26, "");
+        employees.add(created);
+        index = index.withAdded(created);
+        Assertions.assertEquals(ids(new EmployeeIdIndex(employees).page(null, 10)), ids(index.page(null, 10)));
+
+        Employee removed = employees.remove(2);
+        index = index.withRemoved(removed);
+        Assertions.assertEquals(Arrays.asList(0L, 1L, 2L, 4L), ids(index.page(null, 10)));
+        Assertions.assertEquals(4, index.size());
+    }
+
+    @Test
+    @DisplayName("A batch of removals and additions applied at once matches rebuilding the index")
+    public void testBatchChangesMatchRebuild() {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        EmployeeIdIndex index = new EmployeeIdIndex(employees);
+
+        List<Employee> removed = Arrays.asList(employees.remove(4), employees.remove(0));
+        List<Employee> added = Arrays.asList(
+                new Employee(6L, "Harry Potter", 170750, 26, ""),
+                new Employee(0L, "Rhona Davidson", 500000, 55, ""),
+                new Employee(5L, "Sonya Frost", 86000, 23, ""));
+        employees.addAll(added);
+        index = index.withChanges(removed, added);
+
+        Assertions.assertEquals(ids(new EmployeeIdIndex(employees).page(null, 10)), ids(index.page(null, 10)));
+        Assertions.assertEquals(Arrays.asList(0L, 1L, 3L, 5L, 6L), ids(index.page(null, 10)));
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+class EmployeeNameIndexTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, null, 162700, 33, ""),
+            new Employee(6L, "Antigone Tigers", 372000, 61, ""));
+
+    @Test
+    @DisplayName("Substring queries match case-insensitively in list order")
+    public void testSubstringSearch() {
+        EmployeeNameIndex index = new EmployeeNameIndex(EMPLOYEES);
+
+        Assertions.assertEquals(Arrays.asList(1L, 6L), ids(index.search("TIG")));
+        Assertions.assertEquals(Arrays.asList(1L, 6L), ids(index.search("tiger")));
+        Assertions.assertEquals(Arrays.asList(2L), ids(index.search("tt winT")));
+        Assertions.assertEquals(Arrays.asList(), ids(index.search("tigerx")));
+        Assertions.assertEquals(Arrays.asList(3L), ids(index.search("co")));
+    }
+
+    @Test
+    @DisplayName("Index answers match a linear containsIgnoreCase scan")
+    public void testMatchesLinearScan() {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            employees.add(new Employee(id, randomName(random, 4 + random.nextInt(12)), 1000, 30, ""));
+        }
+        EmployeeNameIndex index = new EmployeeNameIndex(employees);
+
+        for (int i = 0; i < 500; i++) {
+            String query = randomName(random, 1 + random.nextInt(4));
+            List<Employee> expected = employees.stream()
+                    .filter(e -> StringUtils.containsIgnoreCase(e.getName(), query))
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(expected, index.search(query), query);
+        }
+    }
+
+    @Test
+    @DisplayName("Patched index answers like an index rebuilt from the patched list")
+    public void testWithAddedAndRemoved() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 0; id < 300; id++) {
+            employees.add(new Employee(id, randomName(random, 3 + random.nextInt(8)), 1000, 30, ""));
+        }
+        EmployeeNameIndex index = new EmployeeNameIndex(new ArrayList<>(employees));
+        for (int i = 0; i < 50; i++) {
+            if (random.nextBoolean()) {
+                employees.add(new Employee(1000L + i, randomName(random, 3 + random.nextInt(8)), 1000, 30, ""));
+                index = index.withAdded(new ArrayList<>(employees));
+            } else {
+                int row = random.nextInt(employees.size());
+                employees.remove(row);
+                index = index.withRemoved(new ArrayList<>(employees), row);
+            }
+        }
+
+        EmployeeNameIndex rebuilt = new EmployeeNameIndex(employees);
+        for (int i = 0; i < 200; i++) {
+            String query = randomName(random, 1 + random.nextInt(4));
+            Assertions.assertEquals(rebuilt.search(query), index.search(query), query);
+        }
+        Assertions.assertEquals(rebuilt.gramCount(), index.gramCount());
+    }
+
+    @Test
+    @DisplayName("A batch of removals, replacements and appends patched in one pass answers like a rebuilt index")
+    public void testWithChanges() {
+        Random random = new Random(11);
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 0; id < 300; id++) {
+            employees.add(new Employee(id, randomName(random, 3 + random.nextInt(8)), 1000, 30, ""));
+        }
+        EmployeeNameIndex index = new EmployeeNameIndex(new ArrayList<>(employees));
+
+        int[] removedRows = random.ints(0, employees.size()).distinct().limit(20).sorted().toArray();
+        int[] replacedRows = random.ints(0, employees.size())
+                .filter(row -> Arrays.binarySearch(removedRows, row) < 0)
+                .distinct().limit(20).sorted().toArray();
+        for (int row : replacedRows) {
+            employees.set(row, new Employee((long) row, randomName(random, 3 + random.nextInt(8)), 1000, 30, ""));
+        }
+        for (int i = removedRows.length - 1; i >= 0; i--) {
+            employees.remove(removedRows[i]);
+        }
+        for (int i = 0; i < 20; i++) {
+            employees.add(new Employee(1000L + i, randomName(random, 3 + random.nextInt(8)), 1000, 30, ""));
+        }
+        index = index.withChanges(new ArrayList<>(employees), removedRows, replacedRows);
+
+        EmployeeNameIndex rebuilt = new EmployeeNameIndex(employees);
+        for (int i = 0; i < 200; i++) {
+            String query = randomName(random, 1 + random.nextInt(4));
+            Assertions.assertEquals(rebuilt.search(query), index.search(query), query);
+        }
+        Assertions.assertEquals(rebuilt.gramCount(), index.gramCount());
+    }
+
+    private static String randomName(Random random, int length) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char c = (char) ('a' + random.nextInt(6));
+            name.append(random.nextBoolean() ? Character.toUpperCase(c) : c);
+        }
+        return name.toString();
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.stream.FuzzyNameMatchVisitor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class FuzzyNameIndexTest {
+    private static final long NO_BUDGET = Long.MAX_VALUE / 2;
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, null, 162700, 33, ""),
+            new Employee(6L, "Antigone Tigers", 372000, 61, ""));
+
+    @Test
+    @DisplayName("Misspelt and incomplete words find the intended names")
+    public void testTypos() {
+        FuzzyNameIndex index = new FuzzyNameIndex(EMPLOYEES);
+
+        Assertions.assertEquals(Arrays.asList(1L), ids(index.search("nixn", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(2L), ids(index.search("WINTRES", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(4L), ids(index.search("cedirc", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(3L), ids(index.search("ashto", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(1L, 6L), ids(index.search("tigr", 10, NO_BUDGET)));
+    }
+
+    @Test
+    @DisplayName("Exact matches rank before prefix matches, prefix matches before misspellings")
+    public void testRanking() {
+        FuzzyNameIndex index = new FuzzyNameIndex(Arrays.asList(
+                new Employee(1L, "Bell Cooper", 1000, 30, ""),
+                new Employee(2L, "Kelly Brown", 1000, 30, ""),
+                new Employee(3L, "Kell Adams", 1000, 30, ""),
+                new Employee(4L, "Ken Walsh", 1000, 30, "")));
+
+        Assertions.assertEquals(Arrays.asList(3L, 2L, 1L), ids(index.search("kell", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(3L, 2L), ids(index.search("kell", 2, NO_BUDGET)));
+    }
+
+    @Test
+    @DisplayName("Every query word must match a word of the name, in any order")
+    public void testAllWordsMatch() {
+        FuzzyNameIndex index = new FuzzyNameIndex(EMPLOYEES);
+
+        Assertions.assertEquals(Arrays.asList(1L), ids(index.search("nixon tigr", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(), ids(index.search("cox tiger", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(), ids(index.search("  ", 10, NO_BUDGET)));
+    }
+
+    @Test
+    @DisplayName("Words of one or two characters only match whole name words")
+    public void testShortWords() {
+        FuzzyNameIndex index = new FuzzyNameIndex(EMPLOYEES);
+
+        Assertions.assertEquals(Arrays.asList(), ids(index.search("co", 10, NO_BUDGET)));
+        Assertions.assertEquals(Arrays.asList(3L), ids(index.search("cox", 10, NO_BUDGET)));
+    }
+
+    @Test
+    @DisplayName("A spent budget still returns exact and prefix matches, but no misspellings")
+    public void testBudget() {
+        FuzzyNameIndex index = new FuzzyNameIndex(EMPLOYEES);
+
+        Assertions.assertEquals(Arrays.asList(1L), ids(index.search("nixo", 10, 0)));
+        Assertions.assertEquals(Arrays.asList(), ids(index.search("nixn", 10, 0)));
+    }
+
+    @Test
+    @DisplayName("Index and streaming visitor rank like a scan scoring every name")
+    public void testMatchesLinearScan() {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>();
+        for (long id = 0; id < 2000; id++) {
+            employees.add(new Employee(id, randomWord(random, 1 + random.nextInt(6)) + " " + randomWord(random, 1 + random.nextInt(7)),
+                    1000, 30, ""));
+        }
+        FuzzyNameIndex index = new FuzzyNameIndex(employees);
+
+        for (int i = 0; i < 500; i++) {
+            String query = random.nextBoolean()
+                    ? randomWord(random, 1 + random.nextInt(7))
+                    : randomWord(random, 1 + random.nextInt(5)) + " " + randomWord(random, 2 + random.nextInt(5));
+            int limit = 1 + random.nextInt(15);
+            List<String> queryWords = FuzzyNameIndex.words(query);
+            List<Employee> expected = IntStream.range(0, employees.size()).boxed()
+                    .filter(row -> FuzzyNameIndex.matchCost(queryWords, employees.get(row).getName()) != FuzzyNameIndex.NO_MATCH)
+                    .sorted(Comparator.comparingInt(row -> FuzzyNameIndex.matchCost(queryWords, employees.get(row).getName())))
+                    .limit(limit)
+                    .map(employees::get)
+                    .collect(Collectors.toList());
+            Assertions.assertEquals(expected, index.search(query, limit, NO_BUDGET), query);
+
+            FuzzyNameMatchVisitor visitor = new FuzzyNameMatchVisitor(query, limit);
+            employees.forEach(visitor::visit);
+            Assertions.assertEquals(expected, visitor.getResult(), query);
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(5)));
+        }
+        return word.toString();
+    }
+
+    private static List<Long> ids(List<Employee> employees) {
+        return employees.stream().map(Employee::getId).collect(Collectors.toList());
+    }
+}
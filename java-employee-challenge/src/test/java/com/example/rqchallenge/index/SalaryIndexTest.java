@@ -0,0 +1,81 @@
+package com.example.rqchallenge.index;
+
+import com.example.rqchallenge.dto.Employee;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class SalaryIndexTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, "Airi Satou", 170750, 33, ""),
+            new Employee(6L, "Brielle Williamson", null, 61, ""));
+
+    @Test
+    @DisplayName("Highest salary and top earners match a full sort")
+    public void testMatchesFullSort() {
+        SalaryIndex index = new SalaryIndex(EMPLOYEES);
+
+        Assertions.assertEquals(433060, index.getHighestSalary());
+        Assertions.assertEquals(Arrays.asList("Cedric Kelly", "Tiger Nixon", "Garrett Winters", "Airi Satou"),
+                index.getTopEarningEmployeeNames(4));
+        Assertions.assertEquals(5, index.getTopEarningEmployeeNames(10).size());
+        Assertions.assertEquals(0, new SalaryIndex(Collections.emptyList()).getHighestSalary());
+    }
+
+    @Test
+    @DisplayName("Incremental add and remove match rebuilding the index")
+    public void testIncrementalUpdatesMatchRebuild() {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        SalaryIndex index = new SalaryIndex(employees);
+
+        Employee created = new Employee(7L, "Harry Potter", 170750, 26, "");
+        employees.add(created);
+        index = index.withAdded(created);
+        Assertions.assertEquals(names(employees), index.getTopEarningEmployeeNames(10));
+
+        Employee removed = employees.remove(3);
+        index = index.withRemoved(removed);
+        Assertions.assertEquals(names(employees), index.getTopEarningEmployeeNames(10));
+        Assertions.assertEquals(320800, index.getHighestSalary());
+    }
+
+    @Test
+    @DisplayName("A batch of removals and additions applied at once matches rebuilding the index")
+    public void testBatchChangesMatchRebuild() {
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        SalaryIndex index = new SalaryIndex(employees);
+
+        List<Employee> removed = Arrays.asList(employees.remove(4), employees.remove(0), employees.remove(0));
+        List<Employee> added = Arrays.asList(
+                new Employee(7L, "Harry Potter", 170750, 26, ""),
+                new Employee(8L, "Rhona Davidson", 500000, 55, ""),
+                new Employee(9L, "Colleen Hurst", null, 39, ""),
+                new Employee(10L, "Sonya Frost", 86000, 23, ""));
+        employees.addAll(added);
+        index = index.withChanges(removed, added);
+
+        Assertions.assertEquals(names(employees), index.getTopEarningEmployeeNames(10));
+        Assertions.assertEquals(500000, index.getHighestSalary());
+        Assertions.assertSame(index, index.withChanges(removed, Collections.emptyList()));
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream()
+                .filter(e -> e.getSalary() != null)
+                .sorted(Comparator.comparing(Employee::getSalary).reversed())
+                .map(Employee::getName)
+                .collect(Collectors.toList());
+    }
+}
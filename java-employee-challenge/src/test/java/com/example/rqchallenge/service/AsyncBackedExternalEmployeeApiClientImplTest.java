@@ -0,0 +1,74 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.EmployeeResponseData;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class AsyncBackedExternalEmployeeApiClientImplTest {
+
+    private final IAsyncExternalEmployeeAPIClient asyncClient = mock(IAsyncExternalEmployeeAPIClient.class);
+    private final AsyncBackedExternalEmployeeApiClientImpl client = new AsyncBackedExternalEmployeeApiClientImpl(asyncClient, 100);
+
+    @Test
+    @DisplayName("Blocking calls wait for the answer of the async client")
+    public void testBlockingCallsAwaitAsyncClient() {
+        ResponseEntity<EmployeeResponseData> employee = ResponseEntity.ok(new EmployeeResponseData());
+        ResponseEntity<BaseResponse> deleted = ResponseEntity.ok(new BaseResponse());
+        when(asyncClient.getEmployeeById("1")).thenReturn(CompletableFuture.completedFuture(employee));
+        when(asyncClient.createEmployee(anyMap())).thenReturn(CompletableFuture.completedFuture(employee));
+        when(asyncClient.deleteEmployeeById("1")).thenReturn(CompletableFuture.completedFuture(deleted));
+
+        Assertions.assertSame(employee, client.getEmployeeById("1"));
+        Assertions.assertSame(employee, client.createEmployee(Map.of("name", "Tiger Nixon")));
+        Assertions.assertSame(deleted, client.deleteEmployeeById("1"));
+    }
+
+    @Test
+    @DisplayName("Async calls hand out the future of the async client without waiting")
+    public void testAsyncCallsPassFutureThrough() {
+        CompletableFuture<ResponseEntity<EmployeeResponseData>> pending = new CompletableFuture<>();
+        when(asyncClient.getEmployeeById("1")).thenReturn(pending);
+
+        Assertions.assertSame(pending, client.getEmployeeByIdAsync("1"));
+        Assertions.assertFalse(pending.isDone());
+    }
+
+    @Test
+    @DisplayName("The failure of the async call is rethrown as is")
+    public void testRethrowsFailure() {
+        HttpClientErrorException notFound = HttpClientErrorException.create(HttpStatus.NOT_FOUND,
+                "Not Found", null, null, null);
+        when(asyncClient.getEmployeeById("7")).thenReturn(CompletableFuture.failedFuture(notFound));
+        when(asyncClient.deleteEmployeeById("7")).thenReturn(CompletableFuture.failedFuture(
+                new UpstreamRejectedException(MessageConstants.UPSTREAM_QUEUE_FULL_ERROR_MESSAGE)));
+
+        Assertions.assertSame(notFound, assertThrows(HttpClientErrorException.class, () -> client.getEmployeeById("7")));
+        assertThrows(UpstreamRejectedException.class, () -> client.deleteEmployeeById("7"));
+    }
+
+    @Test
+    @DisplayName("A call unanswered within the call timeout fails and is cancelled")
+    public void testCallTimeout() {
+        CompletableFuture<ResponseEntity<EmployeeResponseData>> pending = new CompletableFuture<>();
+        when(asyncClient.getEmployeeById("1")).thenReturn(pending);
+
+        OperationFailedException ex = assertThrows(OperationFailedException.class, () -> client.getEmployeeById("1"));
+
+        Assertions.assertEquals(MessageConstants.UPSTREAM_CALL_TIMED_OUT_ERROR_MESSAGE, ex.getMessage());
+        Assertions.assertTrue(pending.isCancelled());
+    }
+}
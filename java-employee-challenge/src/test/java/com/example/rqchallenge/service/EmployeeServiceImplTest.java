@@ -0,0 +1,520 @@
+package com.example.rqchallenge.service;
+
+import com.example.rqchallenge.aspects.SnapshotFallbackHeaderAdvice;
+import com.example.rqchallenge.cache.EmployeeSnapshot;
+import com.example.rqchallenge.cache.EmployeeSnapshotCache;
+import com.example.rqchallenge.constants.MessageConstants;
+import com.example.rqchallenge.dto.BaseResponse;
+import com.example.rqchallenge.dto.BulkItemResult;
+import com.example.rqchallenge.dto.BulkOperationReport;
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.EmployeeBatch;
+import com.example.rqchallenge.dto.EmployeePage;
+import com.example.rqchallenge.dto.EmployeeResponseData;
+import com.example.rqchallenge.exceptions.InvalidRequestException;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import com.example.rqchallenge.exceptions.ResourceNotFoundException;
+import com.example.rqchallenge.exceptions.UpstreamRejectedException;
+import com.example.rqchallenge.stream.IEmployeeVisitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class EmployeeServiceImplTest {
+
+    private static final Employee TIGER = new Employee(1L, "Tiger Nixon", 320800, 61, "");
+    private static final Employee GARRETT = new Employee(2L, "Garrett Winters", 170750, 63, "");
+    private static final Employee ASHTON = new Employee(3L, "Ashton Cox", 86000, 66, "");
+    private static final Employee CEDRIC = new Employee(4L, "Cedric Kelly", 133060, 22, "");
+    private static final Employee AIRI = new Employee(5L, "Airi Satou", 162700, 33, "");
+    private static final List<Employee> EMPLOYEES = List.of(TIGER, GARRETT, ASHTON, CEDRIC, AIRI);
+
+    private final IExternalEmployeeAPIClient apiClient = mock(IExternalEmployeeAPIClient.class);
+    private final EmployeeSnapshotCache employeeSnapshotCache = mock(EmployeeSnapshotCache.class);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    @BeforeEach
+    public void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        EmployeeSnapshot snapshot = new EmployeeSnapshot(1, Instant.now(), EMPLOYEES);
+        when(employeeSnapshotCache.getLoadedSnapshot()).thenReturn(Optional.of(snapshot));
+        when(employeeSnapshotCache.getSnapshot()).thenReturn(snapshot);
+        when(employeeSnapshotCache.getEmployees()).thenReturn(snapshot.getEmployees());
+        when(employeeSnapshotCache.getSnapshotAge()).thenReturn(Optional.of(Duration.ofSeconds(42)));
+        when(apiClient.streamAllEmployees(any())).thenAnswer(invocation -> {
+            IEmployeeVisitor<?> visitor = invocation.getArgument(0);
+            EMPLOYEES.forEach(employee -> visitor.visit(new Employee(employee.getId(), employee.getName(),
+                    employee.getSalary(), employee.getAge(), employee.getProfileImage())));
+            return visitor.getResult();
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private EmployeeServiceImpl service(String readMode) {
+        return new EmployeeServiceImpl(apiClient, employeeSnapshotCache, new ValidatorService(), readMode, 4, 100,
+                ForkJoinPool.commonPool(), 1000);
+    }
+
+    /**
+     * @return headers {@link SnapshotFallbackHeaderAdvice} adds to the response of the current request
+     */
+    private HttpHeaders staleResponseHeaders() {
+        ServletServerHttpResponse response = new ServletServerHttpResponse(new MockHttpServletResponse());
+        new SnapshotFallbackHeaderAdvice(employeeSnapshotCache).beforeBodyWrite(null, null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), response);
+        return response.getHeaders();
+    }
+
+    private static ResponseEntity<EmployeeResponseData> responseOf(Employee employee) {
+        EmployeeResponseData body = new EmployeeResponseData();
+        body.setStatus("success");
+        body.setData(employee);
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    private static ResponseEntity<BaseResponse> deleteResponse(HttpStatus status) {
+        BaseResponse body = new BaseResponse();
+        body.setStatus(status.isError() ? "error" : "success");
+        body.setMessage("Successfully! Record has been deleted");
+        return new ResponseEntity<>(body, status);
+    }
+
+    @Test
+    @DisplayName("A rejected lookup is answered from the snapshot and its response flagged as stale")
+    public void testRejectedLookupFallsBackToSnapshot() {
+        when(apiClient.getEmployeeById("1")).thenThrow(new UpstreamRejectedException("circuit open"));
+
+        Assertions.assertEquals(TIGER, service("snapshot").getEmployeeById("1"));
+        Assertions.assertEquals("42", staleResponseHeaders().getFirst(HttpHeaders.AGE));
+        Assertions.assertTrue(staleResponseHeaders().getFirst(HttpHeaders.WARNING).startsWith("110"));
+    }
+
+    @Test
+    @DisplayName("A rejected lookup of an id the snapshot does not hold fails and nothing is flagged")
+    public void testRejectedLookupOfUnknownIdFails() {
+        when(apiClient.getEmployeeById("7")).thenThrow(new UpstreamRejectedException("circuit open"));
+
+        assertThrows(UpstreamRejectedException.class, () -> service("snapshot").getEmployeeById("7"));
+        Assertions.assertFalse(staleResponseHeaders().containsKey(HttpHeaders.AGE));
+    }
+
+    @Test
+    @DisplayName("Answers of the upstream are not flagged as stale")
+    public void testUpstreamAnswerIsNotFlagged() {
+        when(apiClient.getEmployeeById("2")).thenReturn(responseOf(GARRETT));
+
+        Assertions.assertEquals(GARRETT, service("snapshot").getEmployeeById("2"));
+        Assertions.assertFalse(staleResponseHeaders().containsKey(HttpHeaders.AGE));
+        Assertions.assertFalse(staleResponseHeaders().containsKey(HttpHeaders.WARNING));
+    }
+
+    @Test
+    @DisplayName("An async lookup rejected after the request thread moved on still flags its request")
+    public void testRejectedAsyncLookupFallsBackToSnapshot() throws Exception {
+        CompletableFuture<ResponseEntity<EmployeeResponseData>> upstream = new CompletableFuture<>();
+        when(apiClient.getEmployeeByIdAsync("1")).thenReturn(upstream);
+
+        CompletableFuture<Employee> employee = service("snapshot").getEmployeeByIdAsync("1");
+        RequestContextHolder.resetRequestAttributes();
+        CompletableFuture.runAsync(() -> upstream.completeExceptionally(new UpstreamRejectedException("bulkhead full"))).join();
+
+        Assertions.assertEquals(TIGER, employee.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("42", staleResponseHeaders().getFirst(HttpHeaders.AGE));
+    }
+
+    @Test
+    @DisplayName("An async lookup answers the upstream employee")
+    public void testAsyncLookup() throws Exception {
+        when(apiClient.getEmployeeByIdAsync("2")).thenReturn(CompletableFuture.completedFuture(responseOf(GARRETT)));
+
+        Assertions.assertEquals(GARRETT, service("snapshot").getEmployeeByIdAsync("2").get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(staleResponseHeaders().containsKey(HttpHeaders.AGE));
+        verify(apiClient, never()).getEmployeeById(anyString());
+    }
+
+    @Test
+    @DisplayName("An async lookup fails with not found for an empty answer and with the upstream error otherwise")
+    public void testAsyncLookupFailures() {
+        HttpServerErrorException serverError = HttpServerErrorException.create(HttpStatus.INTERNAL_SERVER_ERROR,
+                "Internal Server Error", HttpHeaders.EMPTY, null, null);
+        when(apiClient.getEmployeeByIdAsync("7")).thenReturn(CompletableFuture.completedFuture(responseOf(null)));
+        when(apiClient.getEmployeeByIdAsync("8")).thenReturn(CompletableFuture.failedFuture(serverError));
+
+        ExecutionException notFound = assertThrows(ExecutionException.class,
+                () -> service("snapshot").getEmployeeByIdAsync("7").get(5, TimeUnit.SECONDS));
+        ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> service("snapshot").getEmployeeByIdAsync("8").get(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(notFound.getCause() instanceof ResourceNotFoundException);
+        Assertions.assertSame(serverError, failed.getCause());
+        Assertions.assertFalse(staleResponseHeaders().containsKey(HttpHeaders.AGE));
+    }
+
+    @Test
+    @DisplayName("An async create answers the created employee and applies it to the snapshot")
+    public void testAsyncCreate() throws Exception {
+        Employee sonya = new Employee(6L, "Sonya Frost", 103600, 23, "");
+        Map<String, Object> input = Map.of("name", "Sonya Frost", "salary", 103600, "age", 23);
+        when(apiClient.createEmployeeAsync(input)).thenReturn(CompletableFuture.completedFuture(responseOf(sonya)));
+
+        Assertions.assertEquals(sonya, service("snapshot").createEmployeeAsync(input).get(5, TimeUnit.SECONDS));
+        verify(employeeSnapshotCache).applyCreated(sonya);
+        verify(apiClient, never()).createEmployee(anyMap());
+    }
+
+    @Test
+    @DisplayName("An async create of an invalid employee is rejected before reaching the upstream")
+    public void testAsyncCreateValidation() {
+        assertThrows(InvalidRequestException.class,
+                () -> service("snapshot").createEmployeeAsync(Map.of("name", "Sonya Frost", "age", 23)));
+
+        verify(apiClient, never()).createEmployeeAsync(anyMap());
+    }
+
+    @Test
+    @DisplayName("An async create without a created employee in the answer fails and leaves the snapshot alone")
+    public void testAsyncCreateFailure() {
+        Map<String, Object> input = Map.of("name", "Sonya Frost", "salary", 103600, "age", 23);
+        when(apiClient.createEmployeeAsync(input)).thenReturn(CompletableFuture.completedFuture(responseOf(null)));
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> service("snapshot").createEmployeeAsync(input).get(5, TimeUnit.SECONDS));
+
+        Assertions.assertTrue(ex.getCause() instanceof OperationFailedException);
+        verify(employeeSnapshotCache, never()).applyCreated(any());
+    }
+
+    @Test
+    @DisplayName("An async delete answers the upstream message and applies successful deletes to the snapshot")
+    public void testAsyncDelete() throws Exception {
+        when(apiClient.deleteEmployeeByIdAsync("3")).thenReturn(CompletableFuture.completedFuture(deleteResponse(HttpStatus.OK)));
+        when(apiClient.deleteEmployeeByIdAsync("4")).thenReturn(CompletableFuture.completedFuture(deleteResponse(HttpStatus.INTERNAL_SERVER_ERROR)));
+
+        Assertions.assertEquals("Successfully! Record has been deleted",
+                service("snapshot").deleteEmployeeByIdAsync("3").get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(String.format(MessageConstants.DELETE_EMPLOYEE_FAILED_ERROR_MESSAGE, "4"),
+                service("snapshot").deleteEmployeeByIdAsync("4").get(5, TimeUnit.SECONDS));
+
+        verify(employeeSnapshotCache).applyDeleted(3L);
+        verify(employeeSnapshotCache, never()).applyDeleted(4L);
+        verify(apiClient, never()).deleteEmployeeById(anyString());
+    }
+
+    @Test
+    @DisplayName("A rejected streaming read is answered from the loaded snapshot and flagged as stale")
+    public void testRejectedStreamingReadFallsBackToSnapshot() {
+        doThrow(new UpstreamRejectedException("circuit half open")).when(apiClient).streamAllEmployees(any());
+
+        Assertions.assertEquals(320800, service("streaming").getHighestSalaryOfEmployees());
+        Assertions.assertEquals("42", staleResponseHeaders().getFirst(HttpHeaders.AGE));
+    }
+
+    @Test
+    @DisplayName("Snapshot reads are not flagged as stale")
+    public void testSnapshotReadIsNotFlagged() {
+        Assertions.assertEquals(320800, service("snapshot").getHighestSalaryOfEmployees());
+        Assertions.assertFalse(staleResponseHeaders().containsKey(HttpHeaders.AGE));
+    }
+
+    @Test
+    @DisplayName("Pages follow their cursors through all employees in id order, in both read modes")
+    public void testPagesThroughAllEmployees() {
+        for (String readMode : new String[]{"snapshot", "streaming"}) {
+            EmployeeServiceImpl service = service(readMode);
+            List<Object> ids = new ArrayList<>();
+            List<String> cursors = new ArrayList<>();
+            String cursor = null;
+            do {
+                EmployeePage page = service.getEmployeesPage(2, cursor, null);
+                page.getData().forEach(employee -> ids.add(employee.get("id")));
+                cursor = page.getNextCursor();
+                cursors.add(cursor);
+            } while (cursor != null);
+
+            Assertions.assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids, readMode);
+            Assertions.assertEquals(Arrays.asList("2", "4", null), cursors, readMode);
+        }
+    }
+
+    @Test
+    @DisplayName("Name search pages only hold matching employees")
+    public void testPagesThroughNameSearch() {
+        for (String readMode : new String[]{"snapshot", "streaming"}) {
+            EmployeePage first = service(readMode).getEmployeesByNameSearchPage("er", 1, null, "id");
+            EmployeePage second = service(readMode).getEmployeesByNameSearchPage("er", 1, first.getNextCursor(), "id");
+
+            Assertions.assertEquals(List.of(Map.of("id", 1L)), first.getData(), readMode);
+            Assertions.assertEquals("1", first.getNextCursor(), readMode);
+            Assertions.assertEquals(List.of(Map.of("id", 2L)), second.getData(), readMode);
+            Assertions.assertNull(second.getNextCursor(), readMode);
+        }
+    }
+
+    @Test
+    @DisplayName("Pages only hold the requested fields, in the requested order")
+    public void testProjectsRequestedFields() {
+        EmployeePage page = service("snapshot").getEmployeesPage(1, "2", " salary,name ");
+
+        Assertions.assertEquals(1, page.getData().size());
+        Map<String, Object> employee = page.getData().get(0);
+        Assertions.assertEquals(List.of("salary", "name"), new ArrayList<>(employee.keySet()));
+        Assertions.assertEquals(86000, employee.get("salary"));
+        Assertions.assertEquals("Ashton Cox", employee.get("name"));
+        Assertions.assertEquals(List.of("id", "name", "salary", "age", "profileImage"),
+                service("snapshot").getEmployeesPage(1, null, null).getData().stream()
+                        .flatMap(all -> all.keySet().stream()).collect(Collectors.toList()));
+        assertThrows(InvalidRequestException.class, () -> service("snapshot").getEmployeesPage(1, null, "id,password"));
+    }
+
+    @Test
+    @DisplayName("Cursors that are not ids and limits out of range are rejected as bad requests")
+    public void testRejectsInvalidPageRequests() {
+        EmployeeServiceImpl service = service("snapshot");
+
+        for (String cursor : new String[]{"abc", "-1", "", "99999999999999999999"}) {
+            InvalidRequestException ex = assertThrows(InvalidRequestException.class, () -> service.getEmployeesPage(10, cursor, null), cursor);
+            Assertions.assertEquals(MessageConstants.INVALID_CURSOR_VALIDATION_MESSAGE, ex.getMessage(), cursor);
+        }
+        assertThrows(InvalidRequestException.class, () -> service.getEmployeesByNameSearchPage("er", 10, "9223372036854775808", null));
+        assertThrows(InvalidRequestException.class, () -> service.getEmployeesPage(0, null, null));
+        assertThrows(InvalidRequestException.class, () -> service.getEmployeesPage(ValidatorService.MAX_PAGE_LIMIT + 1, null, null));
+    }
+
+    @Test
+    @DisplayName("Batch lookups answer snapshot hits locally and sort upstream answers into found, not found and failed")
+    public void testBatchLookup() throws Exception {
+        Employee sonya = new Employee(7L, "Sonya Frost", 103600, 23, "");
+        when(apiClient.getEmployeeByIdAsync("7")).thenReturn(CompletableFuture.completedFuture(responseOf(sonya)));
+        when(apiClient.getEmployeeByIdAsync("8")).thenReturn(CompletableFuture.failedFuture(
+                HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", HttpHeaders.EMPTY, null, null)));
+        when(apiClient.getEmployeeByIdAsync("9")).thenReturn(CompletableFuture.failedFuture(
+                HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", HttpHeaders.EMPTY, null, null)));
+        when(apiClient.getEmployeeByIdAsync("10")).thenReturn(CompletableFuture.completedFuture(responseOf(null)));
+        when(apiClient.getEmployeeByIdAsync("11")).thenReturn(CompletableFuture.failedFuture(new UpstreamRejectedException("circuit open")));
+
+        EmployeeBatch batch = service("snapshot").getEmployeesByIds(List.of("9", "1", "7", "8", "10", "3", "11"))
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(List.of(TIGER, sonya, ASHTON), batch.getFound());
+        Assertions.assertEquals(List.of("8", "10"), batch.getNotFound());
+        Assertions.assertEquals(List.of("9", "11"), batch.getFailed());
+        verify(apiClient, never()).getEmployeeByIdAsync("1");
+        verify(apiClient, never()).getEmployeeByIdAsync("3");
+    }
+
+    @Test
+    @DisplayName("Batch lookups resolve every id once, in the order it was first requested")
+    public void testBatchLookupOfDuplicateIds() throws Exception {
+        Employee sonya = new Employee(7L, "Sonya Frost", 103600, 23, "");
+        when(apiClient.getEmployeeByIdAsync("7")).thenReturn(CompletableFuture.completedFuture(responseOf(sonya)));
+
+        EmployeeBatch batch = service("snapshot").getEmployeesByIds(Arrays.asList(" 7", "2", "7 ", null, "2", "7"))
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(List.of(sonya, GARRETT), batch.getFound());
+        Assertions.assertEquals(List.of(), batch.getNotFound());
+        Assertions.assertEquals(List.of(), batch.getFailed());
+        verify(apiClient, times(1)).getEmployeeByIdAsync("7");
+    }
+
+    @Test
+    @DisplayName("Malformed ids are reported as not found without an upstream call")
+    public void testBatchLookupOfMalformedIds() throws Exception {
+        EmployeeBatch batch = service("snapshot").getEmployeesByIds(List.of("abc", "-1", "99999999999999999999", "2", "1.5"))
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(List.of(GARRETT), batch.getFound());
+        Assertions.assertEquals(List.of("abc", "-1", "99999999999999999999", "1.5"), batch.getNotFound());
+        verify(apiClient, never()).getEmployeeByIdAsync(anyString());
+    }
+
+    @Test
+    @DisplayName("Without a loaded snapshot every id is looked up upstream")
+    public void testBatchLookupWithoutSnapshot() throws Exception {
+        when(employeeSnapshotCache.getLoadedSnapshot()).thenReturn(Optional.empty());
+        when(apiClient.getEmployeeByIdAsync("1")).thenReturn(CompletableFuture.completedFuture(responseOf(TIGER)));
+
+        EmployeeBatch batch = service("snapshot").getEmployeesByIds(List.of("1")).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(List.of(TIGER), batch.getFound());
+        verify(apiClient).getEmployeeByIdAsync("1");
+    }
+
+    @Test
+    @DisplayName("Empty batches and batches above the item limit are rejected before any lookup")
+    public void testBatchLookupLimits() {
+        EmployeeServiceImpl service = service("snapshot");
+        List<String> tooMany = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.toList());
+
+        assertThrows(InvalidRequestException.class, () -> service.getEmployeesByIds(tooMany));
+        assertThrows(InvalidRequestException.class, () -> service.getEmployeesByIds(List.of()));
+        assertThrows(InvalidRequestException.class, () -> service.getEmployeesByIds(null));
+        verify(apiClient, never()).getEmployeeByIdAsync(anyString());
+
+        when(apiClient.getEmployeeByIdAsync(anyString())).thenReturn(CompletableFuture.completedFuture(responseOf(null)));
+        EmployeeBatch batch = service.getEmployeesByIds(tooMany.subList(0, 100)).join();
+        Assertions.assertEquals(EMPLOYEES, batch.getFound());
+        Assertions.assertEquals(95, batch.getNotFound().size());
+    }
+
+    private static void assertItem(BulkItemResult result, int index, String status, String message) {
+        Assertions.assertEquals(index, result.getIndex());
+        Assertions.assertEquals(status, result.getStatus());
+        Assertions.assertEquals(message, result.getMessage());
+    }
+
+    @Test
+    @DisplayName("A bulk create reports every item in request order and failed items do not abort the rest")
+    public void testBulkCreatePartialFailure() throws Exception {
+        Employee sonya = new Employee(6L, "Sonya Frost", 103600, 23, "");
+        Map<String, Object> created = Map.of("name", "Sonya Frost", "salary", 103600, "age", 23);
+        Map<String, Object> rejected = Map.of("name", "Jena Gaines", "salary", 90560, "age", 30);
+        Map<String, Object> empty = Map.of("name", "Quinn Flynn", "salary", 342000, "age", 22);
+        when(apiClient.createEmployeeAsync(created)).thenReturn(CompletableFuture.completedFuture(responseOf(sonya)));
+        when(apiClient.createEmployeeAsync(rejected)).thenReturn(CompletableFuture.failedFuture(new UpstreamRejectedException("circuit open")));
+        when(apiClient.createEmployeeAsync(empty)).thenReturn(CompletableFuture.completedFuture(responseOf(null)));
+
+        BulkOperationReport report = service("snapshot").createEmployees(Arrays.asList(
+                created,
+                Map.of("name", "Brielle Williamson", "age", 61),
+                null,
+                Map.of("name", "Herrod Chandler", "salary", "137500", "age", 59),
+                rejected,
+                empty)).get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(1, report.getSucceeded());
+        Assertions.assertEquals(5, report.getFailed());
+        List<BulkItemResult> results = report.getResults();
+        Assertions.assertEquals(6, results.size());
+        assertItem(results.get(0), 0, BulkItemResult.SUCCESS, null);
+        Assertions.assertEquals(sonya, results.get(0).getEmployee());
+        assertItem(results.get(1), 1, BulkItemResult.FAILED, MessageConstants.SALARY_FIELD_MANDATORY_VALIDATION_MESSAGE);
+        assertItem(results.get(2), 2, BulkItemResult.FAILED, MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
+        assertItem(results.get(3), 3, BulkItemResult.FAILED, MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
+        assertItem(results.get(4), 4, BulkItemResult.FAILED,
+                String.format(MessageConstants.CREATE_EMPLOYEE_FAILED_ERROR_MESSAGE, "Jena Gaines"));
+        assertItem(results.get(5), 5, BulkItemResult.FAILED,
+                String.format(MessageConstants.CREATE_EMPLOYEE_FAILED_ERROR_MESSAGE, "Quinn Flynn"));
+        Assertions.assertTrue(results.stream().skip(1).allMatch(result -> result.getEmployee() == null));
+        verify(apiClient, times(3)).createEmployeeAsync(anyMap());
+        verify(employeeSnapshotCache).applyCreated(sonya);
+        verify(employeeSnapshotCache, times(1)).applyCreated(any());
+    }
+
+    @Test
+    @DisplayName("A bulk delete reports every id in request order and failed ids do not abort the rest")
+    public void testBulkDeletePartialFailure() throws Exception {
+        when(apiClient.deleteEmployeeByIdAsync("3")).thenReturn(CompletableFuture.completedFuture(deleteResponse(HttpStatus.OK)));
+        when(apiClient.deleteEmployeeByIdAsync("4")).thenReturn(CompletableFuture.completedFuture(deleteResponse(HttpStatus.INTERNAL_SERVER_ERROR)));
+        when(apiClient.deleteEmployeeByIdAsync("5")).thenReturn(CompletableFuture.failedFuture(new UpstreamRejectedException("bulkhead full")));
+
+        BulkOperationReport report = service("snapshot").deleteEmployeesByIds(List.of("3", "abc", "4", "5"))
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertEquals(1, report.getSucceeded());
+        Assertions.assertEquals(3, report.getFailed());
+        List<BulkItemResult> results = report.getResults();
+        assertItem(results.get(0), 0, BulkItemResult.SUCCESS, "Successfully! Record has been deleted");
+        assertItem(results.get(1), 1, BulkItemResult.FAILED, MessageConstants.INVALID_INPUT_PARAMETER_VALIDATION_MESSAGE);
+        assertItem(results.get(2), 2, BulkItemResult.FAILED, String.format(MessageConstants.DELETE_EMPLOYEE_FAILED_ERROR_MESSAGE, "4"));
+        assertItem(results.get(3), 3, BulkItemResult.FAILED, String.format(MessageConstants.DELETE_EMPLOYEE_FAILED_ERROR_MESSAGE, "5"));
+        Assertions.assertEquals(List.of("3", "abc", "4", "5"),
+                results.stream().map(BulkItemResult::getId).collect(Collectors.toList()));
+        verify(apiClient, never()).deleteEmployeeByIdAsync("abc");
+        verify(employeeSnapshotCache).applyDeleted(3L);
+        verify(employeeSnapshotCache, times(1)).applyDeleted(any());
+    }
+
+    @Test
+    @DisplayName("Empty bulk requests and bulk requests above the item limit are rejected before any upstream call")
+    public void testBulkLimits() {
+        EmployeeServiceImpl service = service("snapshot");
+        String limitMessage = String.format(MessageConstants.INVALID_BULK_REQUEST_SIZE_VALIDATION_MESSAGE, 100);
+        List<String> tooManyIds = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.toList());
+        List<Map<String, Object>> tooManyInputs = IntStream.rangeClosed(1, 101)
+                .mapToObj(i -> Map.<String, Object>of("name", "Employee " + i, "salary", i, "age", 30))
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(limitMessage,
+                assertThrows(InvalidRequestException.class, () -> service.createEmployees(tooManyInputs)).getMessage());
+        Assertions.assertEquals(limitMessage,
+                assertThrows(InvalidRequestException.class, () -> service.deleteEmployeesByIds(tooManyIds)).getMessage());
+        assertThrows(InvalidRequestException.class, () -> service.createEmployees(List.of()));
+        assertThrows(InvalidRequestException.class, () -> service.deleteEmployeesByIds(null));
+        verify(apiClient, never()).createEmployeeAsync(anyMap());
+        verify(apiClient, never()).deleteEmployeeByIdAsync(anyString());
+
+        when(apiClient.deleteEmployeeByIdAsync(anyString())).thenReturn(CompletableFuture.completedFuture(deleteResponse(HttpStatus.OK)));
+        BulkOperationReport report = service.deleteEmployeesByIds(tooManyIds.subList(0, 100)).join();
+        Assertions.assertEquals(100, report.getSucceeded());
+        Assertions.assertEquals(0, report.getFailed());
+    }
+
+    @Test
+    @DisplayName("A bulk request keeps at most the configured number of upstream calls in flight")
+    public void testBulkConcurrencyIsBounded() throws Exception {
+        Queue<CompletableFuture<ResponseEntity<EmployeeResponseData>>> pending = new ArrayDeque<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(apiClient.createEmployeeAsync(anyMap())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            CompletableFuture<ResponseEntity<EmployeeResponseData>> call = new CompletableFuture<>();
+            pending.add(call);
+            return call;
+        });
+        List<Map<String, Object>> inputs = IntStream.rangeClosed(1, 10)
+                .mapToObj(i -> Map.<String, Object>of("name", "Employee " + i, "salary", i, "age", 30))
+                .collect(Collectors.toList());
+
+        CompletableFuture<BulkOperationReport> report = service("snapshot").createEmployees(inputs);
+
+        Assertions.assertEquals(4, pending.size());
+        Assertions.assertFalse(report.isDone());
+        long id = 100;
+        while (!pending.isEmpty()) {
+            inFlight.decrementAndGet();
+            pending.poll().complete(responseOf(new Employee(id++, "Employee", 1, 30, "")));
+        }
+        Assertions.assertEquals(10, report.get(5, TimeUnit.SECONDS).getSucceeded());
+        Assertions.assertEquals(4, maxInFlight.get());
+        verify(apiClient, times(10)).createEmployeeAsync(anyMap());
+    }
+}
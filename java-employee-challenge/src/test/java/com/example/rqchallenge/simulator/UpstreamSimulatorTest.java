@@ -0,0 +1,131 @@
+package com.example.rqchallenge.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+class UpstreamSimulatorTest {
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UpstreamSimulator simulator;
+
+    @AfterEach
+    public void tearDown() {
+        simulator.close();
+    }
+
+    private UpstreamSimulator start(UpstreamSimulator.Settings settings) throws IOException {
+        simulator = new UpstreamSimulator(settings, EmployeeDatasets.sample());
+        return simulator;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(simulator.getBaseUrl() + "/api/v1/" + path));
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private JsonNode json(HttpResponse<byte[]> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+
+    @Test
+    @DisplayName("The employee list is served in the upstream shape with an ETag answering 304 until it changes")
+    public void testServesEmployeeList() throws Exception {
+        start(UpstreamSimulator.Settings.immediate());
+
+        HttpResponse<byte[]> list = send(request("employees").build());
+        Assertions.assertEquals(200, list.statusCode());
+        JsonNode data = json(list).get("data");
+        Assertions.assertEquals(24, data.size());
+        Assertions.assertEquals("Tiger Nixon", data.get(0).get("employee_name").asText());
+        Assertions.assertEquals(320800, data.get(0).get("employee_salary").asInt());
+        String eTag = list.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<byte[]> unchanged = send(request("employees").header("If-None-Match", eTag).build());
+        Assertions.assertEquals(304, unchanged.statusCode());
+        Assertions.assertEquals(1, simulator.getNotModifiedCount());
+
+        send(request("delete/23").DELETE().build());
+        HttpResponse<byte[]> changed = send(request("employees").header("If-None-Match", eTag).build());
+        Assertions.assertEquals(200, changed.statusCode());
+        Assertions.assertEquals(23, json(changed).get("data").size());
+        Assertions.assertNotEquals(eTag, changed.headers().firstValue("ETag").orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Employees are looked up, created and deleted like on the upstream")
+    public void testLooksUpCreatesAndDeletes() throws Exception {
+        start(UpstreamSimulator.Settings.immediate());
+
+        JsonNode found = json(send(request("employee/2").build()));
+        Assertions.assertEquals("Garrett Winters", found.get("data").get("employee_name").asText());
+        Assertions.assertTrue(json(send(request("employee/212122").build())).get("data").isNull());
+
+        JsonNode created = json(send(request("create")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Harry Potter\",\"salary\":204500,\"age\":26}"))
+                .build()));
+        Assertions.assertEquals(25, created.get("data").get("id").asLong());
+        Assertions.assertEquals("Harry Potter", created.get("data").get("name").asText());
+        Assertions.assertEquals("Harry Potter", json(send(request("employee/25").build())).get("data").get("employee_name").asText());
+
+        JsonNode deleted = json(send(request("delete/25").DELETE().build()));
+        Assertions.assertEquals("Successfully! Record has been deleted", deleted.get("message").asText());
+        Assertions.assertTrue(json(send(request("employee/25").build())).get("data").isNull());
+        Assertions.assertEquals(404, send(request("unknown").build()).statusCode());
+        Assertions.assertEquals(7, simulator.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Bodies of at least 1 KiB are gzip encoded for clients accepting gzip")
+    public void testCompressesLargeBodies() throws Exception {
+        start(UpstreamSimulator.Settings.immediate());
+
+        HttpResponse<byte[]> plain = send(request("employees").build());
+        HttpResponse<byte[]> compressed = send(request("employees").header("Accept-Encoding", "gzip").build());
+        HttpResponse<byte[]> small = send(request("employee/1").header("Accept-Encoding", "gzip").build());
+
+        Assertions.assertTrue(plain.headers().firstValue("Content-Encoding").isEmpty());
+        Assertions.assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElseThrow());
+        Assertions.assertTrue(small.headers().firstValue("Content-Encoding").isEmpty());
+        Assertions.assertTrue(compressed.body().length < plain.body().length);
+        try (InputStream gunzipped = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            Assertions.assertArrayEquals(plain.body(), gunzipped.readAllBytes());
+        }
+        long bodyBytes = 2L * plain.body().length + small.body().length;
+        Assertions.assertEquals(bodyBytes, simulator.getBodyBytes());
+        Assertions.assertEquals(plain.body().length + compressed.body().length + small.body().length, simulator.getWireBytes());
+    }
+
+    @Test
+    @DisplayName("Requests are answered with 429 and Retry-After or with 500 at the configured rates")
+    public void testThrottlesAndFails() throws Exception {
+        start(new UpstreamSimulator.Settings(0, 0, 0, 1, 7, 0));
+        HttpResponse<byte[]> throttled = send(request("employees").build());
+        Assertions.assertEquals(429, throttled.statusCode());
+        Assertions.assertEquals("7", throttled.headers().firstValue("Retry-After").orElseThrow());
+        Assertions.assertEquals(1, simulator.getThrottledCount());
+        simulator.close();
+
+        start(new UpstreamSimulator.Settings(0, 0, 0, 0, 1, 1));
+        Assertions.assertEquals(500, send(request("employee/1").build()).statusCode());
+        Assertions.assertEquals(1, simulator.getFailedCount());
+        Assertions.assertEquals(0, simulator.getThrottledCount());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.rqchallenge.stats;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.dto.SalaryBucket;
+import com.example.rqchallenge.dto.SalaryStats;
+import com.example.rqchallenge.index.SalaryIndex;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+class SalaryAggregationTest {
+
+    private static final List<Employee> EMPLOYEES = Arrays.asList(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, "Airi Satou", 170750, 33, ""),
+            new Employee(6L, "Brielle Williamson", null, 61, ""));
+
+    private static ForkJoinPool pool;
+
+    @BeforeAll
+    public static void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Statistics skip employees without a salary and use nearest-rank percentiles")
+    public void testStatistics() {
+        SalaryStats stats = SalaryAggregation.statistics(EMPLOYEES, 4, pool);
+
+        Assertions.assertEquals(5, stats.getCount());
+        Assertions.assertEquals(86000, stats.getMin());
+        Assertions.assertEquals(433060, stats.getMax());
+        Assertions.assertEquals(236272.0, stats.getMean(), 0.001);
+        Assertions.assertEquals(170750, stats.getP50());
+        Assertions.assertEquals(433060, stats.getP90());
+        Assertions.assertEquals(433060, stats.getP99());
+        Assertions.assertEquals(Arrays.asList(
+                new SalaryBucket(86000, 172766, 3),
+                new SalaryBucket(172766, 259532, 0),
+                new SalaryBucket(259532, 346298, 1),
+                new SalaryBucket(346298, 433064, 1)), stats.getHistogram());
+
+        SalaryStats empty = SalaryAggregation.statistics(Collections.emptyList(), 4, pool);
+        Assertions.assertEquals(0, empty.getCount());
+        Assertions.assertNull(empty.getMax());
+        Assertions.assertTrue(empty.getHistogram().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Parallel aggregation over many leaf ranges matches a sequential sort")
+    public void testParallelMatchesSort() {
+        Random random = new Random(7);
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < SalaryAggregation.LEAF_SIZE * 5 + 17; i++) {
+            employees.add(new Employee((long) i, "Employee " + i, i % 97 == 0 ? null : random.nextInt(1000), 30, ""));
+        }
+        int[] sorted = employees.stream().filter(e -> e.getSalary() != null).mapToInt(Employee::getSalary).sorted().toArray();
+
+        SalaryStats stats = SalaryAggregation.statistics(employees, 10, pool);
+        Assertions.assertEquals(sorted.length, stats.getCount());
+        Assertions.assertEquals(sorted[sorted.length / 2 - 1 + sorted.length % 2], stats.getP50());
+        Assertions.assertEquals(sorted.length, stats.getHistogram().stream().mapToInt(SalaryBucket::getCount).sum());
+
+        Assertions.assertEquals(names(new SalaryIndex(employees).getTopEarningEmployees(25)),
+                names(SalaryAggregation.topEarners(employees, 25, pool)));
+        Assertions.assertEquals(sorted.length, SalaryAggregation.topEarners(employees, Integer.MAX_VALUE, pool).size());
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(Employee::getName).collect(Collectors.toList());
+    }
+}
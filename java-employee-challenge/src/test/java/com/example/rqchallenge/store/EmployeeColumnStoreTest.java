@@ -0,0 +1,72 @@
+package com.example.rqchallenge.store;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.index.EmployeeIdIndex;
+import com.example.rqchallenge.index.SalaryIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class EmployeeColumnStoreTest {
+
+    private static final List<Employee> EMPLOYEES = List.of(
+            new Employee(5L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(9L, "Zoë Ünal", 320800, null, null),
+            new Employee(null, null, null, 30, "https://example.com/a.png"),
+            new Employee(7L, "Cedric Kelly", 433060, 22, ""));
+
+    @Test
+    @DisplayName("Column store answers lookups like the object indexes and round-trips every field")
+    public void testMatchesObjectIndexes() {
+        EmployeeColumnStore store = new EmployeeColumnStore(EMPLOYEES);
+        SalaryIndex salaryIndex = new SalaryIndex(EMPLOYEES);
+        EmployeeIdIndex idIndex = new EmployeeIdIndex(EMPLOYEES);
+
+        Assertions.assertEquals(EMPLOYEES, store.asList());
+        Assertions.assertEquals(salaryIndex.getHighestSalary(), store.getHighestSalary());
+        Assertions.assertEquals(salaryIndex.getTopEarningEmployeeNames(3), store.getTopEarningEmployeeNames(3));
+        Assertions.assertEquals(salaryIndex.getTopEarningEmployeeNames(10), store.getTopEarningEmployeeNames(10));
+        Assertions.assertEquals(idIndex.page(null, 10), store.page(null, 10));
+        Assertions.assertEquals(idIndex.page(5L, 1), store.page(5L, 1));
+        Assertions.assertEquals(idIndex.find(9L), store.find(9L));
+        Assertions.assertEquals(Optional.empty(), store.find(3L));
+    }
+
+    @Test
+    @DisplayName("Patched copies add and remove rows without changing the original")
+    public void testWithAddedAndRemoved() {
+        EmployeeColumnStore store = new EmployeeColumnStore(EMPLOYEES);
+        Employee added = new Employee(1L, "Ashton Cox", 500000, 66, "");
+
+        EmployeeColumnStore patched = store.withAdded(added).withRemoved(7L);
+
+        List<Employee> expected = new ArrayList<>(EMPLOYEES);
+        expected.remove(4);
+        expected.add(added);
+        Assertions.assertEquals(expected, patched.asList());
+        Assertions.assertEquals(500000, patched.getHighestSalary());
+        Assertions.assertEquals(1L, patched.page(null, 1).get(0).getId());
+        Assertions.assertSame(patched, patched.withRemoved(7L));
+        Assertions.assertEquals(EMPLOYEES, store.asList());
+    }
+
+    @Test
+    @DisplayName("Column store is several times smaller than the object list")
+    public void testFootprint() {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            employees.add(new Employee((long) i, "Employee " + i, 100_000 + i, 20 + i % 40, ""));
+        }
+
+        EmployeeStoreFootprint footprint = EmployeeStoreFootprint.of(employees);
+
+        Assertions.assertTrue(footprint.getCompressionRatio() > 2, footprint.toString());
+        Assertions.assertTrue(footprint.getObjectIndexBytes() > footprint.getColumnarIndexBytes(), footprint.toString());
+        Assertions.assertTrue(footprint.getSnapshotCompressionRatio() > 1, footprint.toString());
+    }
+}
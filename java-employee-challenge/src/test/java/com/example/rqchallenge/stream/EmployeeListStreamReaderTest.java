@@ -0,0 +1,67 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+import com.example.rqchallenge.exceptions.OperationFailedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeListStreamReaderTest {
+
+    private static final String PAYLOAD = "{\"status\":\"success\",\"data\":["
+            + "{\"id\":1,\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800,\"employee_age\":61,\"profile_image\":\"\"},"
+            + "{\"id\":2,\"employee_name\":\"Garrett Winters\",\"employee_salary\":\"170750\",\"employee_age\":63,\"extra\":{\"a\":[1]}},"
+            + "{\"id\":3,\"employee_name\":\"Ashton Cox\",\"employee_salary\":86000,\"employee_age\":66,\"profile_image\":\"\"},"
+            + "{\"id\":4,\"employee_name\":\"Cedric Kelly\",\"employee_salary\":433060,\"employee_age\":22,\"profile_image\":\"\"},"
+            + "{\"id\":5,\"employee_name\":\"Airi Satou\",\"employee_salary\":170750,\"employee_age\":33,\"profile_image\":\"\"},"
+            + "{\"id\":6,\"employee_name\":\"Brielle Williamson\",\"employee_salary\":null,\"employee_age\":61,\"profile_image\":\"\"}"
+            + "],\"message\":\"Successfully! All records has been fetched.\"}";
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Visitors compute max salary, top earners and name matches while parsing")
+    public void testVisitorsAggregateWhileParsing() throws IOException {
+        Assertions.assertEquals(433060, EmployeeListStreamReader.read(body(PAYLOAD), new MaxSalaryVisitor()));
+        Assertions.assertEquals(Arrays.asList("Cedric Kelly", "Tiger Nixon", "Garrett Winters"),
+                EmployeeListStreamReader.read(body(PAYLOAD), new TopEarnersVisitor(3)));
+
+        List<Employee> matches = EmployeeListStreamReader.read(body(PAYLOAD), new NameMatchVisitor("ON"));
+        Assertions.assertEquals(Arrays.asList(1L, 3L, 6L), matches.stream().map(Employee::getId).collect(Collectors.toList()));
+        Assertions.assertEquals(new Employee(3L, "Ashton Cox", 86000, 66, ""), matches.get(1));
+    }
+
+    @Test
+    @DisplayName("Nested values of unknown fields are skipped, nested values of employee fields are rejected")
+    public void testNestedValues() throws IOException {
+        String unknownNested = "{\"data\":[{\"id\":1,\"tags\":{\"id\":99,\"name\":[\"x\",{\"age\":1}]},"
+                + "\"employee_name\":\"Tiger Nixon\",\"employee_salary\":320800}]}";
+        List<Employee> matches = EmployeeListStreamReader.read(body(unknownNested), new NameMatchVisitor("Tiger"));
+        Assertions.assertEquals(List.of(new Employee(1L, "Tiger Nixon", 320800, null, null)), matches);
+
+        for (String nested : List.of("{\"first\":\"Tiger\"}", "[\"Tiger\",\"Nixon\"]")) {
+            String payload = "{\"data\":[{\"id\":1,\"employee_name\":" + nested + ",\"employee_salary\":320800},"
+                    + "{\"id\":2,\"employee_name\":\"Garrett Winters\",\"employee_salary\":170750}]}";
+            assertThrows(OperationFailedException.class, () -> EmployeeListStreamReader.read(body(payload), new MaxSalaryVisitor()));
+        }
+    }
+
+    @Test
+    @DisplayName("Payload without a data array is rejected")
+    public void testRejectsPayloadWithoutData() {
+        assertThrows(OperationFailedException.class,
+                () -> EmployeeListStreamReader.read(body("{\"status\":\"success\",\"data\":null}"), new MaxSalaryVisitor()));
+    }
+}
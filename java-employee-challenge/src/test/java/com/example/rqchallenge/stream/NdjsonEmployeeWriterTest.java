@@ -0,0 +1,59 @@
+package com.example.rqchallenge.stream;
+
+import com.example.rqchallenge.dto.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class NdjsonEmployeeWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Each employee is written as one JSON object on its own line, without separators in between")
+    public void testOneEmployeePerLine() throws IOException {
+        List<Employee> employees = IntStream.rangeClosed(1, 300)
+                .mapToObj(id -> new Employee((long) id, "Employee " + id, 1000 * id, 20 + id % 40, ""))
+                .collect(Collectors.toList());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        try (NdjsonEmployeeWriter writer = new NdjsonEmployeeWriter(objectMapper, outputStream)) {
+            employees.forEach(writer::visit);
+            Assertions.assertEquals(300L, writer.getResult());
+        }
+
+        String body = outputStream.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        Assertions.assertEquals(employees.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Assertions.assertTrue(lines[i].startsWith("{") && lines[i].endsWith("}"), lines[i]);
+            Assertions.assertEquals(employees.get(i), objectMapper.readValue(lines[i], Employee.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Nothing is written without employees and the output stream is left open")
+    public void testEmptyOutput() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                Assertions.fail("output stream closed by the writer");
+            }
+        };
+
+        try (NdjsonEmployeeWriter writer = new NdjsonEmployeeWriter(objectMapper, outputStream)) {
+            Assertions.assertEquals(0L, writer.getResult());
+        }
+
+        Assertions.assertEquals(0, outputStream.size());
+    }
+}
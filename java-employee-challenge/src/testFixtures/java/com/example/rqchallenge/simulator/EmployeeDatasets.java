@@ -0,0 +1,70 @@
+package com.example.rqchallenge.simulator;
+
+import com.example.rqchallenge.dto.Employee;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic employee lists for tests and benchmarks, shaped like the upstream data.
+ */
+public final class EmployeeDatasets {
+    private static final List<Employee> SAMPLE = List.of(
+            new Employee(1L, "Tiger Nixon", 320800, 61, ""),
+            new Employee(2L, "Garrett Winters", 170750, 63, ""),
+            new Employee(3L, "Ashton Cox", 86000, 66, ""),
+            new Employee(4L, "Cedric Kelly", 433060, 22, ""),
+            new Employee(5L, "Airi Satou", 162700, 33, ""),
+            new Employee(6L, "Brielle Williamson", 372000, 61, ""),
+            new Employee(7L, "Herrod Chandler", 137500, 59, ""),
+            new Employee(8L, "Rhona Davidson", 327900, 55, ""),
+            new Employee(9L, "Colleen Hurst", 205500, 39, ""),
+            new Employee(10L, "Sonya Frost", 103600, 23, ""),
+            new Employee(11L, "Jena Gaines", 90560, 30, ""),
+            new Employee(12L, "Quinn Flynn", 342000, 22, ""),
+            new Employee(13L, "Charde Marshall", 470600, 36, ""),
+            new Employee(14L, "Haley Kennedy", 313500, 43, ""),
+            new Employee(15L, "Tatyana Fitzpatrick", 385750, 19, ""),
+            new Employee(16L, "Michael Silva", 198500, 66, ""),
+            new Employee(17L, "Paul Byrd", 725000, 64, ""),
+            new Employee(18L, "Gloria Little", 237500, 59, ""),
+            new Employee(19L, "Bradley Greer", 132000, 41, ""),
+            new Employee(20L, "Dai Rios", 217500, 35, ""),
+            new Employee(21L, "Jenette Caldwell", 345000, 30, ""),
+            new Employee(22L, "Yuri Berry", 675000, 40, ""),
+            new Employee(23L, "Caesar Vance", 106450, 21, ""),
+            new Employee(24L, "Doris Wilder", 85600, 23, ""));
+    private static final String[] FIRST_NAMES = {"Tiger", "Garrett", "Ashton", "Cedric", "Airi", "Brielle", "Herrod",
+            "Rhona", "Colleen", "Sonya", "Jena", "Quinn", "Charde", "Haley", "Tatyana", "Michael", "Paul", "Gloria",
+            "Bradley", "Dai", "Jenette", "Yuri", "Caesar", "Doris", "Angelica", "Gavin", "Jennifer", "Brenden"};
+    private static final String[] LAST_NAMES = {"Nixon", "Winters", "Cox", "Kelly", "Satou", "Williamson", "Chandler",
+            "Davidson", "Hurst", "Frost", "Gaines", "Flynn", "Marshall", "Kennedy", "Fitzpatrick", "Silva", "Byrd",
+            "Little", "Greer", "Rios", "Caldwell", "Berry", "Vance", "Wilder", "Ramos", "Joyce", "Chang", "Wagner"};
+    private static final long SEED = 42;
+
+    private EmployeeDatasets() {
+    }
+
+    /**
+     * @return the 24 employees dummy.restapiexample.com serves
+     */
+    public static List<Employee> sample() {
+        return SAMPLE;
+    }
+
+    /**
+     * @param size number of employees
+     * @return employees with ids 1..size, random names, salaries and ages; the same for every call with the same size
+     */
+    public static List<Employee> generate(int size) {
+        Random random = new Random(SEED);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + Integer.toString(i, 36);
+            employees.add(new Employee((long) i, name, 20_000 + random.nextInt(800_000), 18 + random.nextInt(50), ""));
+        }
+        return employees;
+    }
+}
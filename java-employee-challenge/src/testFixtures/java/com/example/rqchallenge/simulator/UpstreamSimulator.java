@@ -0,0 +1,383 @@
+package com.example.rqchallenge.simulator;
+
+import com.example.rqchallenge.dto.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.core.env.PropertyResolver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for the employee API on the JDK HttpServer, serving GET employees, GET employee/{id},
+ * POST create and DELETE delete/{id} under /api/v1/ with the response shapes of dummy.restapiexample.com.
+ * Every request first waits for a latency drawn from a log-normal distribution around the median, then is
+ * answered with a 429 carrying Retry-After or with a 500 at the configured rates. The employee list carries an ETag
+ * and answers 304 to a matching If-None-Match. Bodies of at least 1 KiB are gzip encoded for clients accepting it,
+ * and the simulator counts the connections it served and the body bytes it sent, so the load test can report
+ * connection reuse and bytes on the wire. Point the application at it with {@code upstream.base-url}.
+ * The load test runs the application against it, and the application tests use it in place of the real upstream.
+ */
+public class UpstreamSimulator implements AutoCloseable {
+    private static final String API_PATH = "/api/v1/";
+    private static final long MAX_LATENCY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int GZIP_MIN_BYTES = 1024;
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentSkipListMap<Long, Employee> employees = new ConcurrentSkipListMap<>();
+    private final AtomicLong nextId;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final Set<String> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong bodyBytes = new AtomicLong();
+    private final AtomicLong wireBytes = new AtomicLong();
+    private final ExecutorService handlerExecutor;
+    private final HttpServer server;
+    private volatile ListBody listBody;
+
+    /**
+     * Starts the simulator on a free local port, serving a synthetic dataset of the configured size
+     *
+     * @param settings
+     * @throws IOException if the server cannot bind
+     */
+    public UpstreamSimulator(Settings settings) throws IOException {
+        this(settings, EmployeeDatasets.generate(settings.datasetSize));
+    }
+
+    /**
+     * Starts the simulator on a free local port
+     *
+     * @param settings  behaviour of the simulator; its dataset size is ignored
+     * @param employees employees served at start
+     * @throws IOException if the server cannot bind
+     */
+    public UpstreamSimulator(Settings settings, List<Employee> employees) throws IOException {
+        this.settings = settings;
+        employees.forEach(employee -> this.employees.put(employee.getId(), employee));
+        this.nextId = new AtomicLong(this.employees.isEmpty() ? 1L : this.employees.lastKey() + 1L);
+        this.handlerExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "upstream-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(API_PATH, this::handle);
+        server.setExecutor(handlerExecutor);
+        server.start();
+    }
+
+    /**
+     * @return value for {@code upstream.base-url}
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    public long getThrottledCount() {
+        return throttled.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    /**
+     * @return distinct client connections that sent requests
+     */
+    public long getConnectionCount() {
+        return connections.size();
+    }
+
+    /**
+     * @return response body bytes before content encoding
+     */
+    public long getBodyBytes() {
+        return bodyBytes.get();
+    }
+
+    /**
+     * @return response body bytes as sent
+     */
+    public long getWireBytes() {
+        return wireBytes.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlerExecutor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            connections.add(String.valueOf(exchange.getRemoteAddress()));
+            sleep(nextLatencyMillis());
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (random.nextDouble() < settings.throttleRate) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", String.valueOf(settings.retryAfterSeconds));
+                send(exchange, 429, Map.of("status", "error", "message", "Too Many Attempts."));
+                return;
+            }
+            if (random.nextDouble() < settings.errorRate) {
+                failed.incrementAndGet();
+                send(exchange, 500, Map.of("status", "error", "message", "Simulated upstream error"));
+                return;
+            }
+            route(exchange);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(API_PATH.length());
+        if ("GET".equals(method) && "employees".equals(path)) {
+            getEmployees(exchange);
+        } else if ("GET".equals(method) && path.startsWith("employee/")) {
+            Employee employee = parseId(path.substring("employee/".length())).map(employees::get).orElse(null);
+            send(exchange, 200, response(Objects.isNull(employee) ? null : toUpstream(employee),
+                    "Successfully! Record has been fetched."));
+        } else if ("POST".equals(method) && "create".equals(path)) {
+            create(exchange);
+        } else if ("DELETE".equals(method) && path.startsWith("delete/")) {
+            String id = path.substring("delete/".length());
+            parseId(id).ifPresent(key -> {
+                if (Objects.nonNull(employees.remove(key))) {
+                    version.incrementAndGet();
+                }
+            });
+            send(exchange, 200, response(id, "Successfully! Record has been deleted"));
+        } else {
+            send(exchange, 404, Map.of("status", "error", "message", "Not found"));
+        }
+    }
+
+    private void getEmployees(HttpExchange exchange) throws IOException {
+        ListBody body = listBody();
+        if (body.eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            exchange.getResponseHeaders().set("ETag", body.eTag);
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", body.eTag);
+        send(exchange, 200, body.bytes);
+    }
+
+    private void create(HttpExchange exchange) throws IOException {
+        Map<String, Object> input;
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            input = objectMapper.readValue(requestBody, new TypeReference<Map<String, Object>>() {
+            });
+        }
+        long id = nextId.getAndIncrement();
+        employees.put(id, new Employee(id, String.valueOf(input.get("name")), toInteger(input.get("salary")),
+                toInteger(input.get("age")), ""));
+        version.incrementAndGet();
+        Map<String, Object> created = new LinkedHashMap<>(input);
+        created.put("id", id);
+        send(exchange, 200, response(created, "Successfully! Record has been added."));
+    }
+
+    /**
+     * @return serialized employee list of the current version, built once per version
+     */
+    private ListBody listBody() throws IOException {
+        long current = version.get();
+        ListBody body = listBody;
+        if (Objects.isNull(body) || body.version != current) {
+            List<Map<String, Object>> data = new ArrayList<>(employees.size());
+            employees.values().forEach(employee -> data.add(toUpstream(employee)));
+            body = new ListBody(current, objectMapper.writeValueAsBytes(response(data, "Successfully! All records has been fetched.")));
+            listBody = body;
+        }
+        return body;
+    }
+
+    private long nextLatencyMillis() {
+        double latency = settings.medianLatencyMillis * Math.exp(settings.latencySigma * ThreadLocalRandom.current().nextGaussian());
+        return Math.min(MAX_LATENCY_MILLIS, Math.round(latency));
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        send(exchange, status, objectMapper.writeValueAsBytes(body));
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        byte[] wireBody = body;
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (body.length >= GZIP_MIN_BYTES && Objects.nonNull(acceptEncoding) && acceptEncoding.toLowerCase().contains("gzip")) {
+            wireBody = gzip(body);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        bodyBytes.addAndGet(body.length);
+        wireBytes.addAndGet(wireBody.length);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, wireBody.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(wireBody);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static Map<String, Object> response(Object data, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("status", "success");
+        response.put("data", data);
+        response.put("message", message);
+        return response;
+    }
+
+    private static Map<String, Object> toUpstream(Employee employee) {
+        Map<String, Object> upstream = new LinkedHashMap<>();
+        upstream.put("id", employee.getId());
+        upstream.put("employee_name", employee.getName());
+        upstream.put("employee_salary", employee.getSalary());
+        upstream.put("employee_age", employee.getAge());
+        upstream.put("profile_image", employee.getProfileImage());
+        return upstream;
+    }
+
+    private static Optional<Long> parseId(String id) {
+        try {
+            return Optional.of(Long.parseLong(id));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+    }
+
+    private static Integer toInteger(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class ListBody {
+        private final long version;
+        private final String eTag;
+        private final byte[] bytes;
+
+        ListBody(long version, byte[] bytes) {
+            this.version = version;
+            this.eTag = "\"v" + version + "\"";
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Behaviour of the simulator, read from {@code simulator.*} properties
+     */
+    public static class Settings {
+        final int datasetSize;
+        final double medianLatencyMillis;
+        final double latencySigma;
+        final double throttleRate;
+        final long retryAfterSeconds;
+        final double errorRate;
+
+        /**
+         * @param datasetSize         employees served at start
+         * @param medianLatencyMillis median latency of every response
+         * @param latencySigma        sigma of the log-normal latency, 0 for a fixed latency
+         * @param throttleRate        share of requests answered with a 429
+         * @param retryAfterSeconds   Retry-After of 429 responses
+         * @param errorRate           share of requests answered with a 500
+         */
+        public Settings(int datasetSize, double medianLatencyMillis, double latencySigma, double throttleRate,
+                        long retryAfterSeconds, double errorRate) {
+            this.datasetSize = datasetSize;
+            this.medianLatencyMillis = medianLatencyMillis;
+            this.latencySigma = latencySigma;
+            this.throttleRate = throttleRate;
+            this.retryAfterSeconds = retryAfterSeconds;
+            this.errorRate = errorRate;
+        }
+
+        /**
+         * @return settings answering every request at once, without throttling or errors
+         */
+        public static Settings immediate() {
+            return new Settings(0, 0, 0, 0, 1, 0);
+        }
+
+        /**
+         * @param properties
+         * @return settings read from {@code simulator.*} properties
+         */
+        public static Settings from(PropertyResolver properties) {
+            return new Settings(properties.getProperty("simulator.dataset-size", Integer.class, 1_000),
+                    properties.getProperty("simulator.median-latency-ms", Double.class, 20.0),
+                    properties.getProperty("simulator.latency-sigma", Double.class, 0.5),
+                    properties.getProperty("simulator.throttle-rate", Double.class, 0.0),
+                    properties.getProperty("simulator.retry-after-seconds", Long.class, 1L),
+                    properties.getProperty("simulator.error-rate", Double.class, 0.0));
+        }
+
+        public int getDatasetSize() {
+            return datasetSize;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d employees, median latency %.1f ms (sigma %.2f), %.1f%% throttled (Retry-After %d s), %.1f%% errors",
+                    datasetSize, medianLatencyMillis, latencySigma, throttleRate * 100, retryAfterSeconds, errorRate * 100);
+        }
+    }
+}